@@ -0,0 +1,71 @@
+package com.duelscripts.benchmarks;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.BattleSeeds;
+import com.duelscripts.combat.Game;
+import com.duelscripts.combat.HeadlessBattleListener;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.ScriptFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures complete headless battles per script pair in battles per second.
+ * Run with {@code -prof gc} to also report bytes allocated per battle.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BattleBenchmark {
+    
+    @Param({"aggressive", "balanced", "tactical"})
+    public String script1;
+    
+    @Param({"defensive", "berserker", "adaptive"})
+    public String script2;
+    
+    @Param({"50", "1000"})
+    public int maxTurns;
+    
+    @Param({"45"})
+    public int hitPoints;
+    
+    @Param({"7"})
+    public int strength;
+    
+    private FighterSpec spec1;
+    private FighterSpec spec2;
+    private long battleIndex;
+    
+    @Setup
+    public void setUp() {
+        spec1 = new FighterSpec("Warrior A", hitPoints, strength, new Weapon("Iron Sword", 10, 0.15));
+        spec2 = new FighterSpec("Warrior B", hitPoints, strength, new Weapon("Battle Axe", 12, 0.10));
+    }
+    
+    @Benchmark
+    public BattleResult runFullCombat() {
+        Fighter fighter1 = new Fighter(spec1, ScriptFactory.createScript(script1));
+        Fighter fighter2 = new Fighter(spec2, ScriptFactory.createScript(script2));
+        Game game = new Game(fighter1, fighter2, maxTurns, false);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        game.setRandom(BattleSeeds.randomFor(42L, battleIndex++));
+        return game.runFullCombat();
+    }
+}
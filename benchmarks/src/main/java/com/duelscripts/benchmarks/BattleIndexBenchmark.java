@@ -0,0 +1,70 @@
+package com.duelscripts.benchmarks;
+
+import com.duelscripts.replay.BattleIndex;
+import com.duelscripts.replay.BattleSummary;
+import com.duelscripts.tournament.BattleOutcome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures typical queries against a battle index of synthetic summaries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BattleIndexBenchmark {
+    private static final String[] SCRIPTS = {
+        "Random", "Aggressive", "Defensive", "Balanced", "Adaptive",
+        "Counter", "Berserker", "Tactical", "Equilibrium"
+    };
+    private static final String[] WEAPONS = {"Iron Sword", "Battle Axe", "Dagger"};
+    
+    @Param({"1000000", "10000000"})
+    public int battles;
+    
+    private BattleIndex index;
+    
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        BattleOutcome[] outcomes = BattleOutcome.values();
+        index = new BattleIndex();
+        for (int i = 0; i < battles; i++) {
+            index.add(new BattleSummary(SCRIPTS[random.nextInt(SCRIPTS.length)], WEAPONS[random.nextInt(WEAPONS.length)],
+                                        SCRIPTS[random.nextInt(SCRIPTS.length)], WEAPONS[random.nextInt(WEAPONS.length)],
+                                        outcomes[random.nextInt(outcomes.length)], random.nextInt(1, 200),
+                                        random.nextInt(101), random.nextBoolean()));
+        }
+    }
+    
+    @Benchmark
+    public int narrowWins() {
+        return index.query().wonBy("Berserker").winnerHitPointsBelow(10).count();
+    }
+    
+    @Benchmark
+    public Map<String, Integer> criticalWinsPerWeapon() {
+        return index.query().decidedByCriticalHit().countByWinnerWeapon();
+    }
+    
+    @Benchmark
+    public double averageTurnsInRange() {
+        return index.query().turnsBetween(50, 120).averageTurns();
+    }
+}
@@ -0,0 +1,80 @@
+package com.duelscripts.benchmarks;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.BattleSeeds;
+import com.duelscripts.combat.Game;
+import com.duelscripts.combat.HeadlessBattleListener;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.ScriptFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures aggregate battle throughput with one benchmark thread per core,
+ * all sharing the same fighter specs and weapons as a tournament would.
+ * Override the thread count with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class BattleThroughputBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class Roster {
+        @Param({"50", "1000"})
+        public int maxTurns;
+        
+        @Param({"45"})
+        public int hitPoints;
+        
+        @Param({"7"})
+        public int strength;
+        
+        FighterSpec spec1;
+        FighterSpec spec2;
+        
+        @Setup
+        public void setUp() {
+            spec1 = new FighterSpec("Warrior A", hitPoints, strength, new Weapon("Iron Sword", 10, 0.15));
+            spec2 = new FighterSpec("Warrior B", hitPoints, strength, new Weapon("Battle Axe", 12, 0.10));
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class Worker {
+        long battleIndex;
+        long seed;
+        
+        @Setup
+        public void setUp() {
+            seed = Thread.currentThread().getId();
+        }
+    }
+    
+    @Benchmark
+    public BattleResult battles(Roster roster, Worker worker) {
+        Fighter fighter1 = new Fighter(roster.spec1, ScriptFactory.createScript(ScriptFactory.BALANCED));
+        Fighter fighter2 = new Fighter(roster.spec2, ScriptFactory.createScript(ScriptFactory.BERSERKER));
+        Game game = new Game(fighter1, fighter2, roster.maxTurns, false);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        game.setRandom(BattleSeeds.randomFor(worker.seed, worker.battleIndex++));
+        return game.runFullCombat();
+    }
+}
@@ -0,0 +1,65 @@
+package com.duelscripts.benchmarks;
+
+import com.duelscripts.combat.CombatResolver;
+import com.duelscripts.combat.TurnResult;
+import com.duelscripts.core.Action;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of a single turn, with and without rendering its description.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CombatResolverBenchmark {
+    
+    @Param({"7"})
+    public int strength;
+    
+    private Fighter fighter1;
+    private Fighter fighter2;
+    private Action[] actions;
+    private SplittableRandom random;
+    private int turn;
+    
+    @Setup
+    public void setUp() {
+        // Enough hit points that nobody falls during a measurement
+        fighter1 = new Fighter("Warrior A", Integer.MAX_VALUE, strength, new Weapon("Iron Sword", 10, 0.15));
+        fighter2 = new Fighter("Warrior B", Integer.MAX_VALUE, strength, new Weapon("Battle Axe", 12, 0.10));
+        actions = Action.values().toArray(new Action[0]);
+        random = new SplittableRandom(42L);
+    }
+    
+    @Benchmark
+    public TurnResult resolveTurn() {
+        Action action1 = actions[turn % actions.length];
+        Action action2 = actions[(turn / actions.length) % actions.length];
+        turn++;
+        return CombatResolver.resolveTurn(fighter1, action1, fighter2, action2, random);
+    }
+    
+    @Benchmark
+    public void resolveAndDescribeTurn(Blackhole blackhole) {
+        blackhole.consume(resolveTurn().getDescription());
+    }
+}
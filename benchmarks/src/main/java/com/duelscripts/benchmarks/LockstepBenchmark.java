@@ -0,0 +1,62 @@
+package com.duelscripts.benchmarks;
+
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.tournament.Entrant;
+import com.duelscripts.tournament.LockstepResult;
+import com.duelscripts.tournament.LockstepSimulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lockstep engine in battles per second on one thread.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LockstepBenchmark {
+    private static final int BATTLES = 4096;
+    
+    @Param({"aggressive", "balanced"})
+    public String script1;
+    
+    @Param({"berserker", "defensive"})
+    public String script2;
+    
+    @Param({"50", "1000"})
+    public int maxTurns;
+    
+    private LockstepSimulator simulator;
+    private long firstBattle;
+    
+    @Setup
+    public void setUp() {
+        Entrant entrant1 = new Entrant(new FighterSpec("Warrior A", 45, 7, new Weapon("Iron Sword", 10, 0.15)), script1);
+        Entrant entrant2 = new Entrant(new FighterSpec("Warrior B", 45, 7, new Weapon("Battle Axe", 12, 0.10)), script2);
+        simulator = new LockstepSimulator(entrant1, entrant2, maxTurns);
+        simulator.setMasterSeed(42L);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATTLES)
+    public LockstepResult battles() {
+        LockstepResult result = simulator.runRange(firstBattle, BATTLES);
+        firstBattle += BATTLES;
+        return result;
+    }
+}
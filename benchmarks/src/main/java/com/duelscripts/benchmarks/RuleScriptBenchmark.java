@@ -0,0 +1,69 @@
+package com.duelscripts.benchmarks;
+
+import com.duelscripts.combat.BattleHistory;
+import com.duelscripts.core.Action;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.CombatScript;
+import com.duelscripts.scripting.FighterContext;
+import com.duelscripts.scripting.dsl.ScriptCompiler;
+import com.duelscripts.scripting.scripts.BalancedScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a compiled rule script with the hand-written script it reproduces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleScriptBenchmark {
+    private static final String BALANCED_RULES = String.join("\n",
+        "when first and self.health > opponent.health + 20: strike head parry torso",
+        "when first and self.health < opponent.health - 20: strike torso parry head",
+        "when first: strike torso parry torso",
+        "when turn % 3 == 0 and turn % 2 == 0: strike head parry head",
+        "when turn % 3 == 0: strike head parry torso",
+        "when turn % 3 == 1 and turn % 2 == 0: strike torso parry head",
+        "when turn % 3 == 1: strike torso parry torso",
+        "when turn % 2 == 0: strike legs parry head",
+        "otherwise: strike legs parry torso");
+    
+    @Param({"builtin", "rules"})
+    public String implementation;
+    
+    @Param({"1", "5"})
+    public int currentTurn;
+    
+    private CombatScript script;
+    private FighterContext context;
+    
+    @Setup
+    public void setUp() {
+        script = implementation.equals("rules") ? ScriptCompiler.compile(BALANCED_RULES) : new BalancedScript();
+        Fighter self = new Fighter("Warrior A", 45, 7, new Weapon("Iron Sword", 10, 0.15));
+        Fighter opponent = new Fighter("Warrior B", 45, 7, new Weapon("Battle Axe", 12, 0.10));
+        self.takeDamage(20);
+        opponent.takeDamage(10);
+        context = new FighterContext(self, opponent, currentTurn, new BattleHistory());
+    }
+    
+    @Benchmark
+    public Action getNextAction() {
+        return script.getNextAction(context);
+    }
+}
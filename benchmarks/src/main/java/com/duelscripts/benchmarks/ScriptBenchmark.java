@@ -0,0 +1,58 @@
+package com.duelscripts.benchmarks;
+
+import com.duelscripts.combat.BattleHistory;
+import com.duelscripts.core.Action;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.CombatScript;
+import com.duelscripts.scripting.FighterContext;
+import com.duelscripts.scripting.ScriptFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one decision of each built-in combat script.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScriptBenchmark {
+    
+    @Param({"random", "aggressive", "defensive", "balanced", "adaptive", "counter", "berserker", "tactical"})
+    public String scriptType;
+    
+    @Param({"5"})
+    public int currentTurn;
+    
+    private CombatScript script;
+    private FighterContext context;
+    
+    @Setup
+    public void setUp() {
+        script = ScriptFactory.createScript(scriptType);
+        Fighter self = new Fighter("Warrior A", 45, 7, new Weapon("Iron Sword", 10, 0.15));
+        Fighter opponent = new Fighter("Warrior B", 45, 7, new Weapon("Battle Axe", 12, 0.10));
+        self.takeDamage(20);
+        opponent.takeDamage(10);
+        context = new FighterContext(self, opponent, currentTurn, new BattleHistory());
+    }
+    
+    @Benchmark
+    public Action getNextAction() {
+        return script.getNextAction(context);
+    }
+}
@@ -0,0 +1,56 @@
+package com.duelscripts.benchmarks;
+
+import com.duelscripts.core.BodyPart;
+import com.duelscripts.core.DamageRoll;
+import com.duelscripts.core.Weapon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single damage roll.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WeaponBenchmark {
+    
+    @Param({"HEAD", "TORSO", "LEGS"})
+    public BodyPart bodyPart;
+    
+    @Param({"7"})
+    public int strength;
+    
+    private Weapon weapon;
+    private SplittableRandom random;
+    
+    @Setup
+    public void setUp() {
+        weapon = new Weapon("Iron Sword", 10, 0.15);
+        random = new SplittableRandom(42L);
+    }
+    
+    @Benchmark
+    public int calculateDamage() {
+        return weapon.calculateDamage(bodyPart, strength, random);
+    }
+    
+    @Benchmark
+    public DamageRoll rollDamage() {
+        return weapon.rollDamage(bodyPart, strength, random);
+    }
+}
@@ -8,13 +8,24 @@ import com.duelscripts.combat.BattleStats;
 import com.duelscripts.scripting.ScriptFactory;
 import com.duelscripts.scripting.CombatScript;
 import com.duelscripts.scripting.scripts.*;
+import com.duelscripts.telemetry.MetricsServer;
+
+import java.io.IOException;
 
 /**
  * Main class for the Duel Scripts game.
  * Entry point for the text-based fighting game.
+ * <p>
+ * With {@code --metrics-port <port>}, the battle metrics are served in the
+ * Prometheus text format on that port until Enter is pressed.
  */
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        MetricsServer metricsServer = null;
+        if (args.length == 2 && args[0].equals("--metrics-port")) {
+            metricsServer = new MetricsServer(Integer.parseInt(args[1]));
+        }
+        
         System.out.println("Welcome to Duel Scripts!");
         System.out.println("A turn-based fighting game where fighters execute scripts.");
         System.out.println("=".repeat(60));
@@ -35,6 +46,13 @@ public class Main {
         demonstrateScriptBattle("Adaptive vs Berserker", 
                                new AdaptiveScript(), new BerserkerScript(), 
                                sword, axe);
+        
+        if (metricsServer != null) {
+            System.out.println("\nServing metrics at http://localhost:" + metricsServer.getAddress().getPort()
+                               + MetricsServer.PATH + "; press Enter to exit.");
+            System.in.read();
+            metricsServer.close();
+        }
     }
     
     private static void demonstrateScriptBattle(String battleName, 
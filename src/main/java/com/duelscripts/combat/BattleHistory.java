@@ -0,0 +1,243 @@
+package com.duelscripts.combat;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.FighterSpec;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Append-only record of the turns of a single battle, stored as a compact
+ * struct-of-arrays turn log.
+ * <p>
+ * Each turn takes six bytes: both actions {@linkplain Action#pack packed} into
+ * one byte, the critical hit flags in
+ * another, and the damage taken by each fighter as a {@code short}.
+ * Hit points are not stored per turn; they are replayed from checkpoints taken
+ * every {@value #CHECKPOINT_INTERVAL} turns. The columns grow in chunks of
+ * doubling size, so appending never copies recorded turns. The rare turn that
+ * does not fit this encoding (damage above {@code Short.MAX_VALUE}, or hit
+ * points changed outside of combat) is kept verbatim in a side table.
+ * <p>
+ * {@link #view()} returns a read-only list of the turns recorded so far without
+ * copying them. {@link TurnResult} objects are materialized only when an
+ * element is read. A view always exposes exactly the prefix that existed when
+ * it was created, so later appends (or a {@link #clear()}) never change what an
+ * earlier view sees.
+ */
+public class BattleHistory {
+    private static final int FIRST_CHUNK_SHIFT = 3;
+    private static final int CHECKPOINT_INTERVAL = 32;
+    
+    private static final byte CRIT1 = 1;
+    private static final byte CRIT2 = 2;
+    private static final byte EXACT = 4;
+    
+    private Columns columns;
+    
+    public BattleHistory() {
+        this.columns = new Columns();
+    }
+    
+    /**
+     * Appends the result of the next turn.
+     * @param turnResult A structured turn result, as produced by {@link CombatResolver}
+     * @throws IllegalArgumentException if the result only carries a description
+     */
+    public void add(TurnResult turnResult) {
+        if (!turnResult.isStructured()) {
+            throw new IllegalArgumentException("Only structured turn results can be recorded in a battle history");
+        }
+        columns.add(turnResult);
+    }
+    
+    /**
+     * Starts a new, empty history. Views created before the call are unaffected.
+     */
+    public void clear() {
+        columns = new Columns();
+    }
+    
+    public int size() {
+        return columns.size;
+    }
+    
+    public boolean isEmpty() {
+        return columns.size == 0;
+    }
+    
+    /**
+     * Gets a read-only view of the turns recorded so far.
+     * @return An immutable list sharing this history's backing store
+     */
+    public List<TurnResult> view() {
+        return new HistoryView(columns, columns.size);
+    }
+    
+    /**
+     * Checks whether a list is a view created by {@link #view()} and therefore
+     * already immutable.
+     */
+    static boolean isView(List<TurnResult> turns) {
+        return turns instanceof HistoryView;
+    }
+    
+    private static int chunkIndex(int turn) {
+        return 31 - Integer.numberOfLeadingZeros((turn >>> FIRST_CHUNK_SHIFT) + 1);
+    }
+    
+    private static int chunkStart(int chunk) {
+        return ((1 << chunk) - 1) << FIRST_CHUNK_SHIFT;
+    }
+    
+    /**
+     * The columns of one battle. Replaced as a whole by {@link #clear()}.
+     */
+    private static final class Columns {
+        private byte[][] actions = new byte[1][];
+        private byte[][] flags = new byte[1][];
+        private short[][] fighter1Damage = new short[1][];
+        private short[][] fighter2Damage = new short[1][];
+        private int[] hitPointCheckpoints = new int[2];
+        private Map<Integer, TurnResult> exactTurns;
+        private FighterSpec fighter1;
+        private FighterSpec fighter2;
+        private int fighter1HitPoints;
+        private int fighter2HitPoints;
+        private TurnResult lastTurn;
+        private int size;
+        
+        void add(TurnResult turn) {
+            if (size == 0) {
+                fighter1 = turn.getFighter1Spec();
+                fighter2 = turn.getFighter2Spec();
+                fighter1HitPoints = fighter1.getMaxHitPoints();
+                fighter2HitPoints = fighter2.getMaxHitPoints();
+            }
+            if (size % CHECKPOINT_INTERVAL == 0) {
+                int checkpoint = size / CHECKPOINT_INTERVAL;
+                if (2 * checkpoint + 1 >= hitPointCheckpoints.length) {
+                    hitPointCheckpoints = Arrays.copyOf(hitPointCheckpoints, hitPointCheckpoints.length * 2);
+                }
+                hitPointCheckpoints[2 * checkpoint] = fighter1HitPoints;
+                hitPointCheckpoints[2 * checkpoint + 1] = fighter2HitPoints;
+            }
+            
+            int chunk = chunkIndex(size);
+            if (chunk == actions.length) {
+                actions = Arrays.copyOf(actions, chunk + 1);
+                flags = Arrays.copyOf(flags, chunk + 1);
+                fighter1Damage = Arrays.copyOf(fighter1Damage, chunk + 1);
+                fighter2Damage = Arrays.copyOf(fighter2Damage, chunk + 1);
+            }
+            if (actions[chunk] == null) {
+                int chunkSize = 1 << (chunk + FIRST_CHUNK_SHIFT);
+                actions[chunk] = new byte[chunkSize];
+                flags[chunk] = new byte[chunkSize];
+                fighter1Damage[chunk] = new short[chunkSize];
+                fighter2Damage[chunk] = new short[chunkSize];
+            }
+            int offset = size - chunkStart(chunk);
+            
+            actions[chunk][offset] = Action.pack(turn.getFighter1Action(), turn.getFighter2Action());
+            
+            byte turnFlags = 0;
+            if (turn.isFighter1CriticalHit()) {
+                turnFlags |= CRIT1;
+            }
+            if (turn.isFighter2CriticalHit()) {
+                turnFlags |= CRIT2;
+            }
+            
+            int damage1 = turn.getFighter1Damage();
+            int damage2 = turn.getFighter2Damage();
+            int derivedHitPoints1 = Math.max(0, fighter1HitPoints - damage1);
+            int derivedHitPoints2 = Math.max(0, fighter2HitPoints - damage2);
+            if (damage1 < 0 || damage1 > Short.MAX_VALUE || damage2 < 0 || damage2 > Short.MAX_VALUE
+                    || derivedHitPoints1 != turn.getFighter1HitPoints()
+                    || derivedHitPoints2 != turn.getFighter2HitPoints()) {
+                // Does not fit the compact encoding; keep the turn as is
+                turnFlags |= EXACT;
+                if (exactTurns == null) {
+                    exactTurns = new HashMap<>();
+                }
+                exactTurns.put(size, turn);
+            } else {
+                fighter1Damage[chunk][offset] = (short) damage1;
+                fighter2Damage[chunk][offset] = (short) damage2;
+            }
+            flags[chunk][offset] = turnFlags;
+            
+            fighter1HitPoints = turn.getFighter1HitPoints();
+            fighter2HitPoints = turn.getFighter2HitPoints();
+            lastTurn = turn;
+            size++;
+        }
+        
+        TurnResult get(int index) {
+            if (index == size - 1) {
+                return lastTurn;
+            }
+            int chunk = chunkIndex(index);
+            int offset = index - chunkStart(chunk);
+            byte turnFlags = flags[chunk][offset];
+            if ((turnFlags & EXACT) != 0) {
+                return exactTurns.get(index);
+            }
+            
+            // Replay hit points from the last checkpoint
+            int checkpoint = index / CHECKPOINT_INTERVAL;
+            int hitPoints1 = hitPointCheckpoints[2 * checkpoint];
+            int hitPoints2 = hitPointCheckpoints[2 * checkpoint + 1];
+            for (int turn = checkpoint * CHECKPOINT_INTERVAL; turn <= index; turn++) {
+                int turnChunk = chunkIndex(turn);
+                int turnOffset = turn - chunkStart(turnChunk);
+                if ((flags[turnChunk][turnOffset] & EXACT) != 0) {
+                    TurnResult exact = exactTurns.get(turn);
+                    hitPoints1 = exact.getFighter1HitPoints();
+                    hitPoints2 = exact.getFighter2HitPoints();
+                } else {
+                    hitPoints1 = Math.max(0, hitPoints1 - fighter1Damage[turnChunk][turnOffset]);
+                    hitPoints2 = Math.max(0, hitPoints2 - fighter2Damage[turnChunk][turnOffset]);
+                }
+            }
+            
+            byte packedActions = actions[chunk][offset];
+            return new TurnResult(fighter1, Action.unpackFirst(packedActions),
+                                  fighter2, Action.unpackSecond(packedActions),
+                                  fighter1Damage[chunk][offset], fighter2Damage[chunk][offset],
+                                  (turnFlags & CRIT1) != 0, (turnFlags & CRIT2) != 0,
+                                  hitPoints1, hitPoints2);
+        }
+    }
+    
+    /**
+     * Immutable list over the first {@code size} turns of a set of columns.
+     */
+    private static final class HistoryView extends AbstractList<TurnResult> implements RandomAccess {
+        private final Columns columns;
+        private final int size;
+        
+        HistoryView(Columns columns, int size) {
+            this.columns = columns;
+            this.size = size;
+        }
+        
+        @Override
+        public TurnResult get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return columns.get(index);
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
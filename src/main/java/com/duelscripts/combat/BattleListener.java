@@ -0,0 +1,34 @@
+package com.duelscripts.combat;
+
+import com.duelscripts.core.Fighter;
+
+/**
+ * Receives notifications about the progress of a battle.
+ * All methods have empty default implementations so listeners only
+ * need to override the events they care about.
+ */
+public interface BattleListener {
+    
+    /**
+     * Called once before the first turn of a battle.
+     * @param fighter1 The first fighter
+     * @param fighter2 The second fighter
+     */
+    default void onBattleStart(Fighter fighter1, Fighter fighter2) {
+    }
+    
+    /**
+     * Called after each turn has been resolved.
+     * @param turnNumber The 1-based number of the resolved turn
+     * @param turnResult The result of the turn
+     */
+    default void onTurnResolved(int turnNumber, TurnResult turnResult) {
+    }
+    
+    /**
+     * Called once after the battle has finished.
+     * @param result The complete battle result
+     */
+    default void onBattleEnd(BattleResult result) {
+    }
+}
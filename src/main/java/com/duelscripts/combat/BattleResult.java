@@ -19,7 +19,8 @@ public class BattleResult {
                        BattleStats statistics, String battleSummary, boolean reachedTurnLimit) {
         this.winner = winner;
         this.totalTurns = totalTurns;
-        this.turnHistory = List.copyOf(turnHistory); // Defensive copy
+        // History views are immutable and compact already; copy anything else
+        this.turnHistory = BattleHistory.isView(turnHistory) ? turnHistory : List.copyOf(turnHistory);
         this.statistics = statistics;
         this.battleSummary = battleSummary;
         this.reachedTurnLimit = reachedTurnLimit;
@@ -40,7 +41,8 @@ public class BattleResult {
     }
     
     /**
-     * Gets a copy of the turn-by-turn battle history.
+     * Gets the immutable turn-by-turn battle history.
+     * Turns recorded by a {@link Game} are materialized as they are read.
      */
     public List<TurnResult> getTurnHistory() {
         return turnHistory;
@@ -71,4 +73,27 @@ public class BattleResult {
     public String toString() {
         return battleSummary;
     }
+    
+    /**
+     * Generates a human-readable battle summary.
+     * @param winner The winner, or null if the battle was a draw or timed out
+     * @param loser The other fighter; ignored without a winner
+     * @param totalTurns The number of turns fought
+     * @param reachedTurnLimit Whether the battle ended due to reaching the turn limit
+     */
+    public static String summarize(Fighter winner, Fighter loser, int totalTurns, boolean reachedTurnLimit) {
+        StringBuilder summary = new StringBuilder();
+        
+        if (reachedTurnLimit) {
+            summary.append("BATTLE TIMEOUT! No winner after ").append(totalTurns).append(" turns.");
+        } else if (winner != null) {
+            summary.append("WINNER: ").append(winner.getName())
+                   .append(" defeats ").append(loser.getName())
+                   .append(" in ").append(totalTurns).append(" turns!");
+        } else {
+            summary.append("DRAW! Both fighters have fallen!");
+        }
+        
+        return summary.toString();
+    }
 }
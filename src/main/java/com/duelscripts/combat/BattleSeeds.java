@@ -0,0 +1,59 @@
+package com.duelscripts.combat;
+
+import java.util.SplittableRandom;
+
+/**
+ * Derives independent per-battle random generators from a master seed.
+ * <p>
+ * The generator of a battle depends only on the master seed and the battle's
+ * index, so any battle of a simulation run can be replayed on its own and
+ * worker threads never share a generator.
+ */
+public final class BattleSeeds {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    
+    private BattleSeeds() {
+    }
+    
+    /**
+     * Computes the seed of a single battle.
+     * @param masterSeed The seed of the whole simulation run
+     * @param battleIndex The index of the battle within the run
+     * @return A well-mixed seed for the battle
+     */
+    public static long seedFor(long masterSeed, long battleIndex) {
+        return mix64(masterSeed + (battleIndex + 1) * GOLDEN_GAMMA);
+    }
+    
+    /**
+     * Creates the generator of a single battle.
+     * @param masterSeed The seed of the whole simulation run
+     * @param battleIndex The index of the battle within the run
+     * @return A new generator for the battle
+     */
+    public static SplittableRandom randomFor(long masterSeed, long battleIndex) {
+        return new SplittableRandom(seedFor(masterSeed, battleIndex));
+    }
+    
+    /**
+     * Draws the next double from a generator kept as a bare state word, for
+     * simulators that hold many battles' generators in one array. A state
+     * initialized with {@link #seedFor} yields exactly the sequence of
+     * {@code nextDouble()} values of the generator returned by {@link #randomFor}.
+     * @param states The generator states; the drawn one is advanced
+     * @param index The generator to draw from
+     * @return A value in [0, 1)
+     */
+    public static double nextDouble(long[] states, int index) {
+        long state = states[index] + GOLDEN_GAMMA;
+        states[index] = state;
+        return (mix64(state) >>> 11) * 0x1.0p-53;
+    }
+    
+    // Stafford's variant 13 of the MurmurHash3 finalizer, as used by SplittableRandom
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
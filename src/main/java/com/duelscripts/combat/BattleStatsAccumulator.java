@@ -0,0 +1,73 @@
+package com.duelscripts.combat;
+
+/**
+ * Builds {@link BattleStats} one turn at a time, so statistics are available
+ * without keeping the turns themselves.
+ */
+public class BattleStatsAccumulator {
+    private int totalDamageByFighter1;
+    private int totalDamageByFighter2;
+    private int successfulStrikesByFighter1;
+    private int successfulStrikesByFighter2;
+    private int criticalHitsByFighter1;
+    private int criticalHitsByFighter2;
+    private int turns;
+    
+    /**
+     * Adds a resolved turn to the totals.
+     * @param turn The turn result
+     */
+    public void add(TurnResult turn) {
+        // Fighter1 damage dealt to Fighter2
+        totalDamageByFighter1 += turn.getFighter2Damage();
+        if (turn.getFighter2Damage() > 0) {
+            successfulStrikesByFighter1++;
+            if (turn.isFighter1CriticalHit()) {
+                criticalHitsByFighter1++;
+            }
+        }
+        
+        // Fighter2 damage dealt to Fighter1
+        totalDamageByFighter2 += turn.getFighter1Damage();
+        if (turn.getFighter1Damage() > 0) {
+            successfulStrikesByFighter2++;
+            if (turn.isFighter2CriticalHit()) {
+                criticalHitsByFighter2++;
+            }
+        }
+        
+        turns++;
+    }
+    
+    /**
+     * Clears the totals for a new battle.
+     */
+    public void reset() {
+        totalDamageByFighter1 = 0;
+        totalDamageByFighter2 = 0;
+        successfulStrikesByFighter1 = 0;
+        successfulStrikesByFighter2 = 0;
+        criticalHitsByFighter1 = 0;
+        criticalHitsByFighter2 = 0;
+        turns = 0;
+    }
+    
+    public int getTurns() {
+        return turns;
+    }
+    
+    /**
+     * Gets the statistics of the turns added so far.
+     */
+    public BattleStats toStats() {
+        double averageDamagePerTurn = turns == 0 ? 0.0 :
+            (double) (totalDamageByFighter1 + totalDamageByFighter2) / turns;
+        
+        return new BattleStats(
+            totalDamageByFighter1, totalDamageByFighter2,
+            successfulStrikesByFighter1, successfulStrikesByFighter2,
+            criticalHitsByFighter1, criticalHitsByFighter2,
+            averageDamagePerTurn
+        );
+    }
+}
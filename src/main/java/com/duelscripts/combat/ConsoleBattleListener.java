@@ -0,0 +1,55 @@
+package com.duelscripts.combat;
+
+import com.duelscripts.core.Fighter;
+
+import java.io.PrintStream;
+
+/**
+ * A battle listener that prints the battle progress as text.
+ */
+public class ConsoleBattleListener implements BattleListener {
+    private final PrintStream out;
+    
+    public ConsoleBattleListener() {
+        this(System.out);
+    }
+    
+    public ConsoleBattleListener(PrintStream out) {
+        this.out = out;
+    }
+    
+    /**
+     * Displays the battle setup and fighter information.
+     */
+    @Override
+    public void onBattleStart(Fighter fighter1, Fighter fighter2) {
+        out.println("\nBATTLE SETUP:");
+        out.println("=".repeat(60));
+        out.println(fighter1);
+        out.println("    VS");
+        out.println(fighter2);
+        out.println();
+    }
+    
+    /**
+     * Displays the turn header followed by the turn description.
+     */
+    @Override
+    public void onTurnResolved(int turnNumber, TurnResult turnResult) {
+        out.println("TURN " + turnNumber + ":");
+        out.println("-".repeat(40));
+        out.println(turnResult.getDescription());
+    }
+    
+    /**
+     * Displays the battle end summary.
+     */
+    @Override
+    public void onBattleEnd(BattleResult result) {
+        out.println("\nBATTLE COMPLETE!");
+        out.println("=".repeat(60));
+        out.println(result.getBattleSummary());
+        out.println();
+        out.println(result.getStatistics());
+    }
+}
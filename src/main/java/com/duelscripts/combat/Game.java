@@ -2,20 +2,46 @@ package com.duelscripts.combat;
 
 import com.duelscripts.core.Action;
 import com.duelscripts.core.Fighter;
+import com.duelscripts.scripting.CombatScript;
 import com.duelscripts.scripting.FighterContext;
+import com.duelscripts.scripting.GuardedScript;
+import com.duelscripts.scripting.OpponentProfile;
+import com.duelscripts.scripting.ScriptGuard;
+import com.duelscripts.telemetry.BattleEvent;
+import com.duelscripts.telemetry.BattleTimer;
+import com.duelscripts.telemetry.CombatMetrics.Outcome;
+import com.duelscripts.telemetry.CombatMetrics.Phase;
+import com.duelscripts.telemetry.ScriptDecisionEvent;
+import com.duelscripts.telemetry.TurnEvent;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * Main game class that orchestrates combat between fighters.
+ * <p>
+ * Every battle is counted in {@link com.duelscripts.telemetry.CombatMetrics}
+ * and reported to Java Flight Recorder as a {@link BattleEvent}, with
+ * {@link TurnEvent}s and {@link ScriptDecisionEvent}s for its turns and
+ * decisions when those events are enabled.
  */
 public class Game {
     private final Fighter fighter1;
     private final Fighter fighter2;
     private final int maxTurns;
     private final boolean enableTurnDelay;
-    private final List<TurnResult> battleHistory;
+    private final BattleHistory battleHistory;
+    private final BattleStatsAccumulator statistics;
+    private final OpponentProfile opponentProfile1;
+    private final OpponentProfile opponentProfile2;
+    private final BattleTimer timer;
+    private boolean historyRetained;
+    private List<TurnResult> lastTurn;
+    private BattleListener battleListener;
+    private RandomGenerator random;
+    private ScriptGuard scriptGuard;
+    private GuardedScript guardedScript1;
+    private GuardedScript guardedScript2;
     private int currentTurn;
     
     public Game(Fighter fighter1, Fighter fighter2) {
@@ -27,7 +53,14 @@ public class Game {
         this.fighter2 = fighter2;
         this.maxTurns = maxTurns;
         this.enableTurnDelay = enableTurnDelay;
-        this.battleHistory = new ArrayList<>();
+        this.battleHistory = new BattleHistory();
+        this.statistics = new BattleStatsAccumulator();
+        this.opponentProfile1 = new OpponentProfile();
+        this.opponentProfile2 = new OpponentProfile();
+        this.timer = new BattleTimer();
+        this.historyRetained = true;
+        this.lastTurn = List.of();
+        this.battleListener = new ConsoleBattleListener();
         this.currentTurn = 1;
     }
     
@@ -36,19 +69,38 @@ public class Game {
      * @return The complete battle result
      */
     public BattleResult runFullCombat() {
+        BattleEvent event = new BattleEvent();
+        event.begin();
+        
         // Reset battle state
+        fighter1.reset();
+        fighter2.reset();
         battleHistory.clear();
+        statistics.reset();
+        opponentProfile1.clear();
+        opponentProfile2.clear();
+        // Fresh fallback scripts for a fresh battle
+        guardedScript1 = null;
+        guardedScript2 = null;
+        lastTurn = List.of();
         currentTurn = 1;
+        timer.begin(fighter1.getCombatScript().getName(), fighter2.getCombatScript().getName());
         
-        displayBattleStart();
+        battleListener.onBattleStart(fighter1, fighter2);
+        timer.lap(Phase.LISTENER);
         
         while (!isGameOver() && currentTurn <= maxTurns) {
-            displayTurnHeader(currentTurn);
-            
             TurnResult turnResult = executeTurn();
-            battleHistory.add(turnResult);
+            statistics.add(turnResult);
+            if (historyRetained) {
+                battleHistory.add(turnResult);
+            } else {
+                lastTurn = List.of(turnResult);
+            }
+            timer.lap(Phase.STATISTICS);
             
-            System.out.println(turnResult.getDescription());
+            battleListener.onTurnResolved(currentTurn, turnResult);
+            timer.lap(Phase.LISTENER);
             
             if (enableTurnDelay && !isGameOver() && currentTurn < maxTurns) {
                 try {
@@ -62,136 +114,195 @@ public class Game {
             currentTurn++;
         }
         
+        timer.restart();
         boolean reachedTurnLimit = currentTurn > maxTurns;
         Fighter winner = reachedTurnLimit ? null : getWinner();
-        BattleStats stats = generateBattleStatistics(battleHistory);
-        String summary = generateBattleSummary(winner, currentTurn - 1, reachedTurnLimit, stats);
+        BattleStats stats = statistics.toStats();
+        String summary = BattleResult.summarize(winner, winner == fighter1 ? fighter2 : fighter1,
+                                                currentTurn - 1, reachedTurnLimit);
         
-        BattleResult result = new BattleResult(winner, currentTurn - 1, battleHistory, stats, summary, reachedTurnLimit);
-        displayBattleEnd(result);
+        List<TurnResult> turnHistory = historyRetained ? battleHistory.view() : List.of();
+        BattleResult result = new BattleResult(winner, currentTurn - 1, turnHistory, stats, summary, reachedTurnLimit);
+        timer.lap(Phase.STATISTICS);
+        battleListener.onBattleEnd(result);
+        timer.lap(Phase.LISTENER);
+        timer.finish(currentTurn - 1, reachedTurnLimit ? Outcome.TIMEOUT
+                                      : winner == null ? Outcome.DRAW
+                                      : winner == fighter1 ? Outcome.WIN
+                                      : Outcome.LOSS);
         
+        event.end();
+        if (event.shouldCommit()) {
+            event.fighter1 = fighter1.getName();
+            event.script1 = fighter1.getCombatScript().getName();
+            event.fighter2 = fighter2.getName();
+            event.script2 = fighter2.getCombatScript().getName();
+            event.turns = currentTurn - 1;
+            event.winner = winner == null ? "" : winner.getName();
+            event.commit();
+        }
         return result;
     }
     
     /**
-     * Displays the battle setup and fighter information.
+     * Sets the listener that receives battle events.
+     * Defaults to a {@link ConsoleBattleListener}; use
+     * {@link HeadlessBattleListener#INSTANCE} to run the battle without output.
+     * @param battleListener The listener to notify
      */
-    public void displayBattleStart() {
-        System.out.println("\nBATTLE SETUP:");
-        System.out.println("=".repeat(60));
-        System.out.println(fighter1);
-        System.out.println("    VS");
-        System.out.println(fighter2);
-        System.out.println();
+    public void setBattleListener(BattleListener battleListener) {
+        this.battleListener = battleListener;
+    }
+    
+    public BattleListener getBattleListener() {
+        return battleListener;
     }
     
     /**
-     * Displays the turn header.
+     * Sets the generator used for all critical hit rolls of this battle.
+     * With a seeded generator (see {@link BattleSeeds}) the battle is reproducible.
+     * Scripts that make random choices draw from the same generator through
+     * {@link FighterContext#getRandom()}.
+     * Without one each weapon rolls its own critical hits, from its testing
+     * generator if it has one and otherwise from the calling thread's generator.
+     * @param random The battle's generator, or null to use the weapons' generators
      */
-    public void displayTurnHeader(int turnNumber) {
-        System.out.println("TURN " + turnNumber + ":");
-        System.out.println("-".repeat(40));
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+    
+    public RandomGenerator getRandom() {
+        return random;
     }
     
     /**
-     * Displays the battle end summary.
+     * Sets whether the battle keeps every turn. Statistics are accumulated as the
+     * battle runs either way; without retention the battle uses constant memory,
+     * scripts only see the previous turn in their history (their opponent
+     * profiles still cover the whole battle), and the result's turn history is
+     * empty. Retained by default.
+     * @param historyRetained false to keep only the most recent turn
      */
-    public void displayBattleEnd(BattleResult result) {
-        System.out.println("\nBATTLE COMPLETE!");
-        System.out.println("=".repeat(60));
-        System.out.println(result.getBattleSummary());
-        System.out.println();
-        System.out.println(result.getStatistics());
+    public void setHistoryRetained(boolean historyRetained) {
+        this.historyRetained = historyRetained;
+    }
+    
+    public boolean isHistoryRetained() {
+        return historyRetained;
     }
     
     /**
-     * Generates battle statistics from the turn history.
+     * Runs both fighters' decisions under a guard that enforces its time
+     * budget and substitutes a fallback script for faulty decisions.
+     * Without a guard, a script that throws is replaced by the fighter's
+     * default action for that turn.
+     * @param scriptGuard The guard, or null to call the scripts directly
      */
-    private BattleStats generateBattleStatistics(List<TurnResult> turnHistory) {
-        int totalDamageByFighter1 = 0;
-        int totalDamageByFighter2 = 0;
-        int successfulStrikesByFighter1 = 0;
-        int successfulStrikesByFighter2 = 0;
-        int criticalHitsByFighter1 = 0;
-        int criticalHitsByFighter2 = 0;
+    public void setScriptGuard(ScriptGuard scriptGuard) {
+        this.scriptGuard = scriptGuard;
+        this.guardedScript1 = null;
+        this.guardedScript2 = null;
+    }
+    
+    public ScriptGuard getScriptGuard() {
+        return scriptGuard;
+    }
+    
+    /**
+     * Executes one turn of combat between the two fighters.
+     * @return The result of the turn
+     */
+    public TurnResult executeTurn() {
+        TurnEvent event = new TurnEvent();
+        event.begin();
+        timer.restart();
         
-        for (TurnResult turn : turnHistory) {
-            // Fighter1 damage dealt to Fighter2
-            totalDamageByFighter1 += turn.getFighter2Damage();
-            if (turn.getFighter2Damage() > 0) {
-                successfulStrikesByFighter1++;
-                if (turn.isFighter1CriticalHit()) {
-                    criticalHitsByFighter1++;
-                }
-            }
-            
-            // Fighter2 damage dealt to Fighter1
-            totalDamageByFighter2 += turn.getFighter1Damage();
-            if (turn.getFighter1Damage() > 0) {
-                successfulStrikesByFighter2++;
-                if (turn.isFighter2CriticalHit()) {
-                    criticalHitsByFighter2++;
-                }
-            }
+        // Create context for each fighter; both share the same history view
+        FighterContext context1;
+        FighterContext context2;
+        if (historyRetained) {
+            context1 = new FighterContext(fighter1, fighter2, FighterContext.FIGHTER1, currentTurn,
+                                          battleHistory, opponentProfile1, random);
+            context2 = new FighterContext(fighter2, fighter1, FighterContext.FIGHTER2, currentTurn,
+                                          battleHistory, opponentProfile2, random);
+        } else {
+            context1 = new FighterContext(fighter1, fighter2, FighterContext.FIGHTER1, currentTurn,
+                                          lastTurn, opponentProfile1, random);
+            context2 = new FighterContext(fighter2, fighter1, FighterContext.FIGHTER2, currentTurn,
+                                          lastTurn, opponentProfile2, random);
+        }
+        
+        if (scriptGuard != null) {
+            guardedScript1 = guarded(guardedScript1, fighter1.getCombatScript());
+            guardedScript2 = guarded(guardedScript2, fighter2.getCombatScript());
         }
+        Action action1 = decide(0, fighter1, guardedScript1, context1);
+        Action action2 = decide(1, fighter2, guardedScript2, context2);
+        timer.lap(Phase.DECISION);
         
-        double averageDamagePerTurn = turnHistory.isEmpty() ? 0.0 : 
-            (double)(totalDamageByFighter1 + totalDamageByFighter2) / turnHistory.size();
+        TurnResult result = resolve(action1, action2);
+        timer.lap(Phase.RESOLUTION);
+        timer.endTurn();
         
-        return new BattleStats(
-            totalDamageByFighter1, totalDamageByFighter2,
-            successfulStrikesByFighter1, successfulStrikesByFighter2,
-            criticalHitsByFighter1, criticalHitsByFighter2,
-            averageDamagePerTurn
-        );
+        event.end();
+        if (event.shouldCommit()) {
+            event.turn = currentTurn;
+            event.fighter1Damage = result.getFighter1Damage();
+            event.fighter2Damage = result.getFighter2Damage();
+            event.commit();
+        }
+        return result;
     }
     
     /**
-     * Generates a human-readable battle summary.
+     * Gets a fighter's action for the turn, through the guard when there is one.
+     * @param slot 0 for the first fighter, 1 for the second
      */
-    private String generateBattleSummary(Fighter winner, int totalTurns, boolean reachedTurnLimit, BattleStats stats) {
-        StringBuilder summary = new StringBuilder();
+    private Action decide(int slot, Fighter fighter, GuardedScript guardedScript, FighterContext context) {
+        ScriptDecisionEvent event = new ScriptDecisionEvent();
+        event.begin();
+        timer.startDecision();
         
-        if (reachedTurnLimit) {
-            summary.append("BATTLE TIMEOUT! No winner after ").append(totalTurns).append(" turns.");
-        } else if (winner != null) {
-            String loser = winner == fighter1 ? fighter2.getName() : fighter1.getName();
-            summary.append("WINNER: ").append(winner.getName())
-                   .append(" defeats ").append(loser)
-                   .append(" in ").append(totalTurns).append(" turns!");
+        Action action;
+        if (scriptGuard != null) {
+            action = guardedScript.getNextAction(context);
         } else {
-            summary.append("DRAW! Both fighters have fallen!");
+            // Get action using context (for script-aware fighters) or fallback to no-context method
+            try {
+                action = fighter.getAction(context);
+            } catch (Exception e) {
+                // Fallback to backward-compatible method
+                action = fighter.getAction();
+            }
         }
+        timer.endDecision(slot);
         
-        return summary.toString();
+        event.end();
+        if (event.shouldCommit()) {
+            event.script = fighter.getCombatScript().getName();
+            event.fighter = fighter.getName();
+            event.turn = currentTurn;
+            event.commit();
+        }
+        return action;
     }
     
     /**
-     * Executes one turn of combat between the two fighters.
-     * @return The result of the turn
+     * Reuses the guarded wrapper of a fighter's script while the fighter keeps that script.
      */
-    public TurnResult executeTurn() {
-        // Create context for each fighter
-        FighterContext context1 = new FighterContext(fighter1, fighter2, currentTurn, battleHistory);
-        FighterContext context2 = new FighterContext(fighter2, fighter1, currentTurn, battleHistory);
-        
-        // Get actions using context (for script-aware fighters) or fallback to no-context method
-        Action action1, action2;
-        try {
-            action1 = fighter1.getAction(context1);
-        } catch (Exception e) {
-            // Fallback to backward-compatible method
-            action1 = fighter1.getAction();
-        }
-        
-        try {
-            action2 = fighter2.getAction(context2);
-        } catch (Exception e) {
-            // Fallback to backward-compatible method
-            action2 = fighter2.getAction();
+    private GuardedScript guarded(GuardedScript current, CombatScript script) {
+        if (current != null && (current == script || current.getDelegate() == script)) {
+            return current;
         }
-        
-        return CombatResolver.resolveTurn(fighter1, action1, fighter2, action2);
+        return scriptGuard.guard(script);
+    }
+    
+    private TurnResult resolve(Action action1, Action action2) {
+        TurnResult result = CombatResolver.resolveTurn(fighter1, action1, fighter2, action2, random);
+        // Each fighter's view of its opponent grows by one turn, whether or not history is retained
+        opponentProfile1.record(action2, action1);
+        opponentProfile2.record(action1, action2);
+        return result;
     }
     
     /**
@@ -0,0 +1,16 @@
+package com.duelscripts.combat;
+
+/**
+ * A battle listener that ignores all events.
+ * Use it to run battles without any console output, e.g. in batch simulations.
+ */
+public final class HeadlessBattleListener implements BattleListener {
+    
+    /**
+     * Shared instance; the listener has no state.
+     */
+    public static final HeadlessBattleListener INSTANCE = new HeadlessBattleListener();
+    
+    private HeadlessBattleListener() {
+    }
+}
@@ -1,27 +1,175 @@
 package com.duelscripts.combat;
 
+import com.duelscripts.core.Action;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
+
 /**
  * Represents the result of a single turn of combat.
+ * Turn results produced by the {@link CombatResolver} carry the structured turn
+ * data only; the narrative text is rendered on demand by {@link #getDescription()}.
  */
 public class TurnResult {
     private final String description;
+    private final FighterSpec fighter1;
+    private final FighterSpec fighter2;
+    private final Action fighter1Action;
+    private final Action fighter2Action;
     private final int fighter1Damage;
     private final int fighter2Damage;
     private final boolean fighter1CriticalHit;
     private final boolean fighter2CriticalHit;
+    private final int fighter1HitPoints;
+    private final int fighter2HitPoints;
     
     public TurnResult(String description, int fighter1Damage, int fighter2Damage, 
                      boolean fighter1CriticalHit, boolean fighter2CriticalHit) {
         this.description = description;
+        this.fighter1 = null;
+        this.fighter2 = null;
+        this.fighter1Action = null;
+        this.fighter2Action = null;
+        this.fighter1Damage = fighter1Damage;
+        this.fighter2Damage = fighter2Damage;
+        this.fighter1CriticalHit = fighter1CriticalHit;
+        this.fighter2CriticalHit = fighter2CriticalHit;
+        this.fighter1HitPoints = -1;
+        this.fighter2HitPoints = -1;
+    }
+    
+    /**
+     * Creates a structured turn result.
+     * @param fighter1 The first fighter
+     * @param fighter1Action The first fighter's action
+     * @param fighter2 The second fighter
+     * @param fighter2Action The second fighter's action
+     * @param fighter1Damage Damage taken by the first fighter
+     * @param fighter2Damage Damage taken by the second fighter
+     * @param fighter1CriticalHit Whether the first fighter's strike was a critical hit
+     * @param fighter2CriticalHit Whether the second fighter's strike was a critical hit
+     * @param fighter1HitPoints The first fighter's hit points after the turn
+     * @param fighter2HitPoints The second fighter's hit points after the turn
+     */
+    public TurnResult(Fighter fighter1, Action fighter1Action, Fighter fighter2, Action fighter2Action,
+                     int fighter1Damage, int fighter2Damage,
+                     boolean fighter1CriticalHit, boolean fighter2CriticalHit,
+                     int fighter1HitPoints, int fighter2HitPoints) {
+        this(fighter1.getSpec(), fighter1Action, fighter2.getSpec(), fighter2Action,
+             fighter1Damage, fighter2Damage, fighter1CriticalHit, fighter2CriticalHit,
+             fighter1HitPoints, fighter2HitPoints);
+    }
+    
+    /**
+     * Creates a structured turn result from the fighters' specs.
+     * Fighter objects may be reused for later battles; their specs never change.
+     */
+    TurnResult(FighterSpec fighter1, Action fighter1Action, FighterSpec fighter2, Action fighter2Action,
+               int fighter1Damage, int fighter2Damage,
+               boolean fighter1CriticalHit, boolean fighter2CriticalHit,
+               int fighter1HitPoints, int fighter2HitPoints) {
+        this.description = null;
+        this.fighter1 = fighter1;
+        this.fighter2 = fighter2;
+        this.fighter1Action = fighter1Action;
+        this.fighter2Action = fighter2Action;
         this.fighter1Damage = fighter1Damage;
         this.fighter2Damage = fighter2Damage;
         this.fighter1CriticalHit = fighter1CriticalHit;
         this.fighter2CriticalHit = fighter2CriticalHit;
+        this.fighter1HitPoints = fighter1HitPoints;
+        this.fighter2HitPoints = fighter2HitPoints;
     }
     
-    public String getDescription() { return description; }
+    /**
+     * Gets a human-readable description of the turn.
+     * For structured results the text is rendered on every call and not retained.
+     */
+    public String getDescription() {
+        if (description != null) {
+            return description;
+        }
+        return renderDescription();
+    }
+    
+    /** Damage taken by the first fighter. */
     public int getFighter1Damage() { return fighter1Damage; }
+    /** Damage taken by the second fighter. */
     public int getFighter2Damage() { return fighter2Damage; }
+    /** Whether the first fighter's strike was a critical hit. */
     public boolean isFighter1CriticalHit() { return fighter1CriticalHit; }
+    /** Whether the second fighter's strike was a critical hit. */
     public boolean isFighter2CriticalHit() { return fighter2CriticalHit; }
+    /** The first fighter's action, or null if the result only has a description. */
+    public Action getFighter1Action() { return fighter1Action; }
+    /** The second fighter's action, or null if the result only has a description. */
+    public Action getFighter2Action() { return fighter2Action; }
+    /** The first fighter's hit points after the turn, or -1 if unknown. */
+    public int getFighter1HitPoints() { return fighter1HitPoints; }
+    /** The second fighter's hit points after the turn, or -1 if unknown. */
+    public int getFighter2HitPoints() { return fighter2HitPoints; }
+    /** The first fighter's spec, or null if the result only has a description. */
+    public FighterSpec getFighter1Spec() { return fighter1; }
+    /** The second fighter's spec, or null if the result only has a description. */
+    public FighterSpec getFighter2Spec() { return fighter2; }
+    
+    /**
+     * Checks whether this result carries structured turn data.
+     * @return false if the result was created from a description only
+     */
+    public boolean isStructured() {
+        return description == null;
+    }
+    
+    /**
+     * Checks whether the first fighter's strike was parried.
+     * @return true if parried, false if it landed or the actions are unknown
+     */
+    public boolean isFighter1StrikeParried() {
+        return fighter1Action != null && fighter1Action.getStrikeTarget() == fighter2Action.getParryTarget();
+    }
+    
+    /**
+     * Checks whether the second fighter's strike was parried.
+     * @return true if parried, false if it landed or the actions are unknown
+     */
+    public boolean isFighter2StrikeParried() {
+        return fighter2Action != null && fighter2Action.getStrikeTarget() == fighter1Action.getParryTarget();
+    }
+    
+    private String renderDescription() {
+        StringBuilder text = new StringBuilder();
+        
+        text.append(fighter1.getName()).append(": ").append(fighter1Action).append('\n');
+        text.append(fighter2.getName()).append(": ").append(fighter2Action).append('\n');
+        text.append('\n');
+        
+        appendStrike(text, fighter1, fighter1Action, fighter2, isFighter1StrikeParried(),
+                     fighter2Damage, fighter1CriticalHit);
+        appendStrike(text, fighter2, fighter2Action, fighter1, isFighter2StrikeParried(),
+                     fighter1Damage, fighter2CriticalHit);
+        
+        text.append('\n');
+        appendHitPoints(text, fighter1, fighter1HitPoints);
+        appendHitPoints(text, fighter2, fighter2HitPoints);
+        
+        return text.toString();
+    }
+    
+    private static void appendStrike(StringBuilder text, FighterSpec attacker, Action action, FighterSpec defender,
+                                     boolean parried, int damage, boolean critical) {
+        String target = action.getStrikeTarget().name().toLowerCase();
+        if (parried) {
+            text.append(attacker.getName()).append("'s strike to ").append(target)
+                .append(" is parried by ").append(defender.getName()).append("!\n");
+        } else {
+            text.append(attacker.getName()).append(" strikes ").append(defender.getName())
+                .append("'s ").append(target).append(" for ").append(damage).append(" damage")
+                .append(critical ? " (CRITICAL HIT)" : "").append("!\n");
+        }
+    }
+    
+    private static void appendHitPoints(StringBuilder text, FighterSpec fighter, int hitPoints) {
+        text.append(fighter.getName()).append(": ").append(hitPoints)
+            .append('/').append(fighter.getMaxHitPoints()).append(" HP\n");
+    }
 }
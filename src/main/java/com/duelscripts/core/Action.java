@@ -1,16 +1,116 @@
 package com.duelscripts.core;
 
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Represents a fighter's action for a single turn.
  * Each turn, a fighter strikes one body part and parries another.
+ * <p>
+ * There are only {@value #COUNT} distinct actions. {@link #of(BodyPart, BodyPart)}
+ * returns a shared canonical instance of each, so scripts can pick an action
+ * every turn without allocating. Every action also has an {@linkplain #ordinal()
+ * ordinal}, {@code strike.ordinal() * 3 + parry.ordinal()}, which fits in
+ * {@value #BITS} bits and can index arrays or be stored in place of the action.
+ * Two actions pack into one byte with {@link #pack(Action, Action)}, which is
+ * the encoding used by battle histories and replay files alike.
  */
 public class Action {
+    /** The number of distinct actions. */
+    public static final int COUNT = BodyPart.values().length * BodyPart.values().length;
+    
+    /** The number of bits needed to store an action's ordinal. */
+    public static final int BITS = 4;
+    
+    private static final int ORDINAL_MASK = (1 << BITS) - 1;
+    private static final BodyPart[] BODY_PARTS = BodyPart.values();
+    private static final Action[] CANONICAL = new Action[COUNT];
+    
+    static {
+        for (BodyPart strike : BODY_PARTS) {
+            for (BodyPart parry : BODY_PARTS) {
+                Action action = new Action(strike, parry);
+                CANONICAL[action.ordinal] = action;
+            }
+        }
+    }
+    
+    private static final List<Action> VALUES = List.of(CANONICAL);
+    
     private final BodyPart strikeTarget;
     private final BodyPart parryTarget;
+    private final int strikeOrdinal;
+    private final int parryOrdinal;
+    private final int ordinal;
     
+    /**
+     * Creates an action. Prefer {@link #of(BodyPart, BodyPart)}, which returns
+     * the shared instance instead of allocating a new one.
+     */
     public Action(BodyPart strikeTarget, BodyPart parryTarget) {
-        this.strikeTarget = strikeTarget;
-        this.parryTarget = parryTarget;
+        this.strikeTarget = Objects.requireNonNull(strikeTarget, "strikeTarget");
+        this.parryTarget = Objects.requireNonNull(parryTarget, "parryTarget");
+        this.strikeOrdinal = strikeTarget.ordinal();
+        this.parryOrdinal = parryTarget.ordinal();
+        this.ordinal = strikeOrdinal * BODY_PARTS.length + parryOrdinal;
+    }
+    
+    /**
+     * Gets the canonical action striking one body part and parrying another.
+     * @return A shared instance; the same one for every call with the same targets
+     */
+    public static Action of(BodyPart strikeTarget, BodyPart parryTarget) {
+        return CANONICAL[strikeTarget.ordinal() * BODY_PARTS.length + parryTarget.ordinal()];
+    }
+    
+    /**
+     * Gets the canonical action with an ordinal.
+     * @param ordinal A value from 0 to {@code COUNT - 1}, as returned by {@link #ordinal()}
+     * @throws IllegalArgumentException if the ordinal is out of range
+     */
+    public static Action ofOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= COUNT) {
+            throw new IllegalArgumentException("Action ordinal must be between 0 and " + (COUNT - 1) + ": " + ordinal);
+        }
+        return CANONICAL[ordinal];
+    }
+    
+    /**
+     * Packs the actions of both fighters of a turn into one byte, the first
+     * action's ordinal in the high {@value #BITS} bits and the second's in the low ones.
+     */
+    public static byte pack(Action first, Action second) {
+        return (byte) (first.ordinal << BITS | second.ordinal);
+    }
+    
+    /**
+     * Gets the first action of a pair packed by {@link #pack(Action, Action)}.
+     * @throws IllegalArgumentException if the byte does not hold a valid pair
+     */
+    public static Action unpackFirst(byte packed) {
+        return ofOrdinal((packed & 0xFF) >>> BITS);
+    }
+    
+    /**
+     * Gets the second action of a pair packed by {@link #pack(Action, Action)}.
+     * @throws IllegalArgumentException if the byte does not hold a valid pair
+     */
+    public static Action unpackSecond(byte packed) {
+        return ofOrdinal(packed & ORDINAL_MASK);
+    }
+    
+    /**
+     * Gets every canonical action, in ordinal order.
+     */
+    public static List<Action> values() {
+        return VALUES;
+    }
+    
+    /**
+     * Gets the canonical instance equal to this action.
+     */
+    public Action canonical() {
+        return CANONICAL[ordinal];
     }
     
     public BodyPart getStrikeTarget() {
@@ -21,6 +121,35 @@ public class Action {
         return parryTarget;
     }
     
+    /**
+     * Gets the dense code of this action, {@code strike.ordinal() * 3 + parry.ordinal()}.
+     */
+    public int ordinal() {
+        return ordinal;
+    }
+    
+    /**
+     * Checks whether this action's strike is blocked by an opponent's action.
+     * @param opponentAction The action taken by the fighter being struck
+     * @return true if the opponent parries the body part this action strikes
+     */
+    public boolean isParriedBy(Action opponentAction) {
+        return strikeOrdinal == opponentAction.parryOrdinal;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Action && ordinal == ((Action) o).ordinal;
+    }
+    
+    @Override
+    public int hashCode() {
+        return ordinal;
+    }
+    
     @Override
     public String toString() {
         return String.format("Strike: %s, Parry: %s", strikeTarget, parryTarget);
@@ -0,0 +1,27 @@
+package com.duelscripts.core;
+
+/**
+ * The outcome of a weapon's damage roll: the damage dealt and whether it was a critical hit.
+ */
+public final class DamageRoll {
+    private final int amount;
+    private final boolean critical;
+    
+    public DamageRoll(int amount, boolean critical) {
+        this.amount = amount;
+        this.critical = critical;
+    }
+    
+    public int getAmount() {
+        return amount;
+    }
+    
+    public boolean isCritical() {
+        return critical;
+    }
+    
+    @Override
+    public String toString() {
+        return amount + (critical ? " (CRITICAL HIT)" : "");
+    }
+}
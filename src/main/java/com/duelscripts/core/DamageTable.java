@@ -0,0 +1,66 @@
+package com.duelscripts.core;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Normal and critical damage of every strike target for one weapon wielded at
+ * one strength, computed once with {@link Weapon#calculateDamage(BodyPart, int, boolean)}.
+ * <p>
+ * Rolling a strike costs one random draw and one array load, and returns a
+ * shared {@link DamageRoll} instead of allocating one. The draw is the same one
+ * {@link Weapon#rollDamage(BodyPart, int, RandomGenerator)} makes, so a table
+ * and its weapon produce identical results from identically seeded generators.
+ */
+public final class DamageTable {
+    private static final BodyPart[] BODY_PARTS = BodyPart.values();
+    
+    private final Weapon weapon;
+    private final double criticalHitChance;
+    // Indexed by bodyPart.ordinal() * 2 + (critical ? 1 : 0)
+    private final int[] damage;
+    private final DamageRoll[] rolls;
+    
+    public DamageTable(Weapon weapon, int strength) {
+        this.weapon = weapon;
+        this.criticalHitChance = weapon.getCriticalHitChance();
+        this.damage = new int[BODY_PARTS.length * 2];
+        this.rolls = new DamageRoll[BODY_PARTS.length * 2];
+        for (BodyPart part : BODY_PARTS) {
+            for (int critical = 0; critical < 2; critical++) {
+                int index = part.ordinal() * 2 + critical;
+                damage[index] = weapon.calculateDamage(part, strength, critical == 1);
+                rolls[index] = new DamageRoll(damage[index], critical == 1);
+            }
+        }
+    }
+    
+    /**
+     * Gets the damage of a strike whose critical hit outcome is already known.
+     * @param bodyPart The body part being struck
+     * @param critical Whether the strike is a critical hit
+     * @return The damage dealt
+     */
+    public int getDamage(BodyPart bodyPart, boolean critical) {
+        return damage[bodyPart.ordinal() * 2 + (critical ? 1 : 0)];
+    }
+    
+    /**
+     * Rolls a strike, using the weapon's own generator for the critical hit.
+     * @param bodyPart The body part being struck
+     * @return The damage dealt and whether it was a critical hit
+     */
+    public DamageRoll roll(BodyPart bodyPart) {
+        return roll(bodyPart, weapon.defaultRandom());
+    }
+    
+    /**
+     * Rolls a strike.
+     * @param bodyPart The body part being struck
+     * @param random The generator used to roll the critical hit
+     * @return The damage dealt and whether it was a critical hit
+     */
+    public DamageRoll roll(BodyPart bodyPart, RandomGenerator random) {
+        boolean isCritical = random.nextDouble() < criticalHitChance;
+        return rolls[bodyPart.ordinal() * 2 + (isCritical ? 1 : 0)];
+    }
+}
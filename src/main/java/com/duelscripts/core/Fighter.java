@@ -6,13 +6,14 @@ import com.duelscripts.scripting.FighterContext;
 
 /**
  * Represents a fighter in the duel.
+ * <p>
+ * A fighter is the per-battle state of a {@link FighterSpec}: its current hit
+ * points and combat script. It can be reset and reused for further battles,
+ * e.g. from a per-thread pool, instead of being recreated each time.
  */
 public class Fighter {
-    private final String name;
+    private FighterSpec spec;
     private int hitPoints;
-    private final int maxHitPoints;
-    private final int strength;
-    private final Weapon weapon;
     private CombatScript combatScript;
     
     public Fighter(String name, int hitPoints, int strength, Weapon weapon) {
@@ -20,14 +21,39 @@ public class Fighter {
     }
     
     public Fighter(String name, int hitPoints, int strength, Weapon weapon, CombatScript combatScript) {
-        this.name = name;
-        this.hitPoints = hitPoints;
-        this.maxHitPoints = hitPoints;
-        this.strength = strength;
-        this.weapon = weapon;
+        this(new FighterSpec(name, hitPoints, strength, weapon), combatScript);
+    }
+    
+    /**
+     * Creates a fighter at full health from a spec.
+     * @param spec The fighter's attributes
+     * @param combatScript The script to use; scripts may keep state, so use a fresh one per battle
+     */
+    public Fighter(FighterSpec spec, CombatScript combatScript) {
+        this.spec = spec;
+        this.hitPoints = spec.getMaxHitPoints();
         this.combatScript = combatScript;
     }
     
+    /**
+     * Restores the fighter to full health for a new battle.
+     */
+    public void reset() {
+        hitPoints = spec.getMaxHitPoints();
+    }
+    
+    /**
+     * Rebinds this fighter to a (possibly different) spec and script at full health,
+     * so fighter objects can be pooled across battles.
+     * @param spec The fighter's attributes
+     * @param combatScript The script to use
+     */
+    public void reset(FighterSpec spec, CombatScript combatScript) {
+        this.spec = spec;
+        this.combatScript = combatScript;
+        reset();
+    }
+    
     /**
      * Gets the next action for this fighter using their combat script.
      * @param context The current battle context
@@ -52,7 +78,7 @@ public class Fighter {
     public Action generateRandomAction() {
         // Simple hardcoded strategy: strike head, parry torso
         // This maintains the current behavior
-        return new Action(BodyPart.HEAD, BodyPart.TORSO);
+        return Action.of(BodyPart.HEAD, BodyPart.TORSO);
     }
     
     /**
@@ -87,8 +113,12 @@ public class Fighter {
         return hitPoints > 0;
     }
     
+    public FighterSpec getSpec() {
+        return spec;
+    }
+    
     public String getName() {
-        return name;
+        return spec.getName();
     }
     
     public int getHitPoints() {
@@ -96,20 +126,21 @@ public class Fighter {
     }
     
     public int getMaxHitPoints() {
-        return maxHitPoints;
+        return spec.getMaxHitPoints();
     }
     
     public int getStrength() {
-        return strength;
+        return spec.getStrength();
     }
     
     public Weapon getWeapon() {
-        return weapon;
+        return spec.getWeapon();
     }
     
     @Override
     public String toString() {
         return String.format("%s (HP: %d/%d, Str: %d, Weapon: %s, Script: %s)", 
-                           name, hitPoints, maxHitPoints, strength, weapon.getName(), combatScript.getName());
+                           getName(), hitPoints, getMaxHitPoints(), getStrength(), getWeapon().getName(),
+                           combatScript.getName());
     }
 }
@@ -0,0 +1,76 @@
+package com.duelscripts.core;
+
+import java.util.Objects;
+
+/**
+ * The immutable attributes of a fighter: name, maximum hit points, strength and weapon.
+ * <p>
+ * A spec holds no battle state, so a single roster of specs can be shared by
+ * any number of concurrent battles. The per-battle state (current hit points
+ * and combat script) lives in {@link Fighter}.
+ */
+public final class FighterSpec {
+    private final String name;
+    private final int maxHitPoints;
+    private final int strength;
+    private final Weapon weapon;
+    private final DamageTable damageTable;
+    private final int hashCode;
+    
+    public FighterSpec(String name, int maxHitPoints, int strength, Weapon weapon) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.maxHitPoints = maxHitPoints;
+        this.strength = strength;
+        this.weapon = Objects.requireNonNull(weapon, "weapon");
+        this.damageTable = new DamageTable(weapon, strength);
+        this.hashCode = Objects.hash(name, maxHitPoints, strength, weapon);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getMaxHitPoints() {
+        return maxHitPoints;
+    }
+    
+    public int getStrength() {
+        return strength;
+    }
+    
+    public Weapon getWeapon() {
+        return weapon;
+    }
+    
+    /**
+     * Gets the damage this fighter's strikes deal, precomputed for its weapon and strength.
+     */
+    public DamageTable getDamageTable() {
+        return damageTable;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FighterSpec)) {
+            return false;
+        }
+        FighterSpec other = (FighterSpec) o;
+        return maxHitPoints == other.maxHitPoints
+            && strength == other.strength
+            && name.equals(other.name)
+            && weapon.equals(other.weapon);
+    }
+    
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s (HP: %d, Str: %d, Weapon: %s)", name, maxHitPoints, strength, weapon.getName());
+    }
+}
@@ -1,25 +1,35 @@
 package com.duelscripts.core;
 
-import java.util.Random;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a weapon with base damage and critical hit chance.
+ * <p>
+ * During a battle critical hits are rolled from the per-battle generator that
+ * {@code Game.setRandom} injects, through the fighter's {@link DamageTable}, which
+ * makes the same draw as {@link #rollDamage(BodyPart, int, RandomGenerator)}.
+ * The weapon's own generator is used only when the battle has none, and by the
+ * overloads that take no generator: that is the generator given to the testing
+ * constructor or, for a weapon built without one, the calling thread's
+ * {@link ThreadLocalRandom}, so weapons can be shared between threads.
  */
 public class Weapon {
     private final String name;
     private final int baseDamage;
     private final double criticalHitChance;
-    private final Random random;
+    private final RandomGenerator random;
     
     public Weapon(String name, int baseDamage, double criticalHitChance) {
         this.name = name;
         this.baseDamage = baseDamage;
         this.criticalHitChance = Math.max(0.0, Math.min(1.0, criticalHitChance)); // Clamp between 0-1
-        this.random = new Random();
+        this.random = null; // Use the caller's thread-local generator
     }
     
-    // Constructor for testing with custom Random
-    public Weapon(String name, int baseDamage, double criticalHitChance, Random random) {
+    // Constructor for testing with a custom generator
+    public Weapon(String name, int baseDamage, double criticalHitChance, RandomGenerator random) {
         this.name = name;
         this.baseDamage = baseDamage;
         this.criticalHitChance = Math.max(0.0, Math.min(1.0, criticalHitChance));
@@ -27,29 +37,80 @@ public class Weapon {
     }
     
     /**
-     * Calculates damage for a strike to a specific body part.
+     * Calculates damage for a strike to a specific body part, rolling the
+     * critical hit from the generator given to the testing constructor or, if
+     * there is none, from the calling thread's generator.
      * @param bodyPart The body part being struck
      * @param fighterStrength The attacking fighter's strength
      * @return The calculated damage
      */
     public int calculateDamage(BodyPart bodyPart, int fighterStrength) {
+        return rollDamage(bodyPart, fighterStrength).getAmount();
+    }
+    
+    /**
+     * Calculates damage for a strike to a specific body part.
+     * @param bodyPart The body part being struck
+     * @param fighterStrength The attacking fighter's strength
+     * @param random The generator used to roll the critical hit
+     * @return The calculated damage
+     */
+    public int calculateDamage(BodyPart bodyPart, int fighterStrength, RandomGenerator random) {
+        return rollDamage(bodyPart, fighterStrength, random).getAmount();
+    }
+    
+    /**
+     * Calculates the damage of a strike whose critical hit outcome is already known.
+     * @param bodyPart The body part being struck
+     * @param fighterStrength The attacking fighter's strength
+     * @param critical Whether the strike is a critical hit
+     * @return The damage dealt
+     */
+    public int calculateDamage(BodyPart bodyPart, int fighterStrength, boolean critical) {
         double baseDamageWithStrength = baseDamage + fighterStrength;
         double damageWithBodyPart = baseDamageWithStrength * bodyPart.getDamageMultiplier();
         
-        // Check for critical hit
-        boolean isCritical = random.nextDouble() < criticalHitChance;
-        if (isCritical) {
+        if (critical) {
             damageWithBodyPart *= 2.0; // Double damage on crit
         }
         
         return (int) Math.round(damageWithBodyPart);
     }
     
+    /**
+     * Rolls damage for a strike without a battle generator. The critical hit is
+     * rolled from the generator given to the testing constructor or, if there is
+     * none, from the calling thread's generator.
+     * @param bodyPart The body part being struck
+     * @param fighterStrength The attacking fighter's strength
+     * @return The damage dealt and whether it was a critical hit
+     */
+    public DamageRoll rollDamage(BodyPart bodyPart, int fighterStrength) {
+        return rollDamage(bodyPart, fighterStrength, defaultRandom());
+    }
+    
+    /**
+     * Rolls damage for a strike, using the given generator rather than the
+     * weapon's own, e.g. the per-battle generator set by {@code Game.setRandom}.
+     * @param bodyPart The body part being struck
+     * @param fighterStrength The attacking fighter's strength
+     * @param random The generator used to roll the critical hit
+     * @return The damage dealt and whether it was a critical hit
+     */
+    public DamageRoll rollDamage(BodyPart bodyPart, int fighterStrength, RandomGenerator random) {
+        boolean isCritical = random.nextDouble() < criticalHitChance;
+        return new DamageRoll(calculateDamage(bodyPart, fighterStrength, isCritical), isCritical);
+    }
+    
     /**
      * Checks if the last attack would be a critical hit (for testing)
      */
     public boolean wouldBeCritical() {
-        return random.nextDouble() < criticalHitChance;
+        return defaultRandom().nextDouble() < criticalHitChance;
+    }
+    
+    RandomGenerator defaultRandom() {
+        return random != null ? random : ThreadLocalRandom.current();
     }
     
     public String getName() {
@@ -64,6 +125,29 @@ public class Weapon {
         return criticalHitChance;
     }
     
+    /**
+     * Weapons are equal when they deal the same damage; an injected testing
+     * generator is not part of a weapon's identity.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Weapon)) {
+            return false;
+        }
+        Weapon other = (Weapon) o;
+        return baseDamage == other.baseDamage
+            && Double.compare(criticalHitChance, other.criticalHitChance) == 0
+            && Objects.equals(name, other.name);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, baseDamage, criticalHitChance);
+    }
+    
     @Override
     public String toString() {
         return String.format("%s (Base: %d, Crit: %.1f%%)", name, baseDamage, criticalHitChance * 100);
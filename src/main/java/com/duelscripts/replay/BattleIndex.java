@@ -0,0 +1,223 @@
+package com.duelscripts.replay;
+
+import com.duelscripts.tournament.BattleOutcome;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index over battle summaries.
+ * <p>
+ * Battles are identified by the order in which they were added, starting at 0;
+ * adding the battles of a replay file in order makes a battle's ID its index in
+ * {@link ReplayReader#get(int)}. Every script, weapon and outcome has a bitmap
+ * of the battles it appears in, and turn counts and the winner's remaining hit
+ * points are kept in bit-sliced form. A query is a handful of bitmap operations
+ * whose cost depends on the number of battles but not on what they contain.
+ * <p>
+ * The index grows as battles are added. Queries see the battles that were
+ * indexed when {@link #query()} was called, and may run concurrently with
+ * {@link #add}.
+ */
+public class BattleIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<BattleOutcome, BitSet> outcomes = new EnumMap<>(BattleOutcome.class);
+    private final Map<String, BitSet> scripts = new HashMap<>();
+    private final Map<String, BitSet> winnerScripts = new HashMap<>();
+    private final Map<String, BitSet> weapons = new HashMap<>();
+    private final Map<String, BitSet> winnerWeapons = new HashMap<>();
+    private final BitSet criticalFinishes = new BitSet();
+    private final BitSlicedIndex turns = new BitSlicedIndex();
+    private final BitSlicedIndex winnerHitPointPercent = new BitSlicedIndex();
+    private int size;
+    
+    /**
+     * Which per-battle name a bitmap dictionary is keyed by.
+     */
+    enum Dimension {
+        SCRIPT, WINNER_SCRIPT, WEAPON, WINNER_WEAPON
+    }
+    
+    public BattleIndex() {
+        for (BattleOutcome outcome : BattleOutcome.values()) {
+            outcomes.put(outcome, new BitSet());
+        }
+    }
+    
+    /**
+     * Adds a battle to the index.
+     * @param summary The battle's summary
+     * @return The ID assigned to the battle
+     */
+    public int add(BattleSummary summary) {
+        lock.writeLock().lock();
+        try {
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Battle index is full");
+            }
+            int id = size;
+            outcomes.get(summary.getOutcome()).set(id);
+            mark(scripts, summary.getFighter1Script(), id);
+            mark(scripts, summary.getFighter2Script(), id);
+            mark(weapons, summary.getFighter1Weapon(), id);
+            mark(weapons, summary.getFighter2Weapon(), id);
+            if (BattleSummary.isWin(summary.getOutcome())) {
+                mark(winnerScripts, summary.getWinnerScript(), id);
+                mark(winnerWeapons, summary.getWinnerWeapon(), id);
+                winnerHitPointPercent.set(id, summary.getWinnerHitPointPercent());
+            }
+            if (summary.isDecidedByCriticalHit()) {
+                criticalFinishes.set(id);
+            }
+            turns.set(id, summary.getTotalTurns());
+            size++;
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the number of battles indexed.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Starts a query over all battles indexed so far.
+     * @return A query selecting every battle
+     */
+    public BattleQuery query() {
+        BitSet all = new BitSet();
+        all.set(0, size());
+        return new BattleQuery(this, all);
+    }
+    
+    void restrictToOutcomes(BitSet selection, BattleOutcome... wanted) {
+        lock.readLock().lock();
+        try {
+            BitSet matching = new BitSet();
+            for (BattleOutcome outcome : wanted) {
+                matching.or(outcomes.get(outcome));
+            }
+            selection.and(matching);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    void restrict(BitSet selection, Dimension dimension, String name) {
+        lock.readLock().lock();
+        try {
+            BitSet bitmap = dictionary(dimension).get(name);
+            if (bitmap == null) {
+                selection.clear();
+            } else {
+                selection.and(bitmap);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    void restrictToCriticalFinishes(BitSet selection, boolean critical) {
+        lock.readLock().lock();
+        try {
+            if (critical) {
+                selection.and(criticalFinishes);
+            } else {
+                selection.andNot(criticalFinishes);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    void restrictToTurns(BitSet selection, int min, int max) {
+        lock.readLock().lock();
+        try {
+            BitSet matching = max == Integer.MAX_VALUE ? (BitSet) selection.clone() : turns.lessThan(max + 1, selection);
+            matching.andNot(turns.lessThan(min, selection));
+            selection.and(matching);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    void restrictToWinnerHitPointsBelow(BitSet selection, int percent) {
+        restrictToOutcomes(selection, BattleOutcome.FIGHTER1_WIN, BattleOutcome.FIGHTER2_WIN);
+        lock.readLock().lock();
+        try {
+            selection.and(winnerHitPointPercent.lessThan(percent, selection));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    long sumTurns(BitSet selection) {
+        lock.readLock().lock();
+        try {
+            return turns.sum(selection);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    Map<String, Integer> countBy(BitSet selection, Dimension dimension) {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new TreeMap<>();
+            for (Map.Entry<String, BitSet> entry : dictionary(dimension).entrySet()) {
+                int count = countAnd(entry.getValue(), selection);
+                if (count > 0) {
+                    counts.put(entry.getKey(), count);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Counts the rows present in both bitmaps.
+     */
+    static int countAnd(BitSet a, BitSet b) {
+        if (!a.intersects(b)) {
+            return 0;
+        }
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+    
+    private Map<String, BitSet> dictionary(Dimension dimension) {
+        switch (dimension) {
+            case SCRIPT:
+                return scripts;
+            case WINNER_SCRIPT:
+                return winnerScripts;
+            case WEAPON:
+                return weapons;
+            case WINNER_WEAPON:
+                return winnerWeapons;
+            default:
+                throw new IllegalArgumentException("Unknown dimension: " + dimension);
+        }
+    }
+    
+    private static void mark(Map<String, BitSet> dictionary, String name, int id) {
+        dictionary.computeIfAbsent(name, key -> new BitSet()).set(id);
+    }
+}
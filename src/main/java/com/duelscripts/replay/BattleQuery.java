@@ -0,0 +1,168 @@
+package com.duelscripts.replay;
+
+import com.duelscripts.tournament.BattleOutcome;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A selection of battles from a {@link BattleIndex}.
+ * <p>
+ * A new query selects every battle that was indexed when it was created. Each
+ * filter narrows the selection in place and returns this query, so filters
+ * chain:
+ * <pre>
+ *   index.query().wonBy("Berserker").winnerHitPointsBelow(10).count();
+ * </pre>
+ * Queries are not thread-safe, but any number of them may run against the same
+ * index while battles are being added.
+ */
+public class BattleQuery {
+    private final BattleIndex index;
+    private final BitSet selection;
+    
+    BattleQuery(BattleIndex index, BitSet selection) {
+        this.index = index;
+        this.selection = selection;
+    }
+    
+    /**
+     * Keeps the battles that ended with any of the given outcomes.
+     */
+    public BattleQuery withOutcome(BattleOutcome... outcomes) {
+        index.restrictToOutcomes(selection, outcomes);
+        return this;
+    }
+    
+    /**
+     * Keeps the battles in which either fighter used the given script.
+     * @param script The script name, as returned by {@code CombatScript.getName()}
+     */
+    public BattleQuery involving(String script) {
+        index.restrict(selection, BattleIndex.Dimension.SCRIPT, script);
+        return this;
+    }
+    
+    /**
+     * Keeps the battles won by a fighter using the given script.
+     */
+    public BattleQuery wonBy(String script) {
+        index.restrict(selection, BattleIndex.Dimension.WINNER_SCRIPT, script);
+        return this;
+    }
+    
+    /**
+     * Keeps the battles in which either fighter wielded the given weapon.
+     */
+    public BattleQuery withWeapon(String weapon) {
+        index.restrict(selection, BattleIndex.Dimension.WEAPON, weapon);
+        return this;
+    }
+    
+    /**
+     * Keeps the battles won by a fighter wielding the given weapon.
+     */
+    public BattleQuery wonWith(String weapon) {
+        index.restrict(selection, BattleIndex.Dimension.WINNER_WEAPON, weapon);
+        return this;
+    }
+    
+    /**
+     * Keeps the battles that lasted between {@code min} and {@code max} turns, inclusive.
+     */
+    public BattleQuery turnsBetween(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Minimum turns " + min + " exceeds maximum " + max);
+        }
+        index.restrictToTurns(selection, min, max);
+        return this;
+    }
+    
+    /**
+     * Keeps the battles whose winner finished with less than the given
+     * percentage of their maximum hit points. Battles without a winner are dropped.
+     */
+    public BattleQuery winnerHitPointsBelow(int percent) {
+        index.restrictToWinnerHitPointsBelow(selection, percent);
+        return this;
+    }
+    
+    /**
+     * Keeps the battles whose winning blow was a critical hit.
+     */
+    public BattleQuery decidedByCriticalHit() {
+        index.restrictToCriticalFinishes(selection, true);
+        return this;
+    }
+    
+    /**
+     * Keeps the battles that were not decided by a critical hit, including
+     * battles without a winner.
+     */
+    public BattleQuery notDecidedByCriticalHit() {
+        index.restrictToCriticalFinishes(selection, false);
+        return this;
+    }
+    
+    /**
+     * Gets the number of selected battles.
+     */
+    public int count() {
+        return selection.cardinality();
+    }
+    
+    /**
+     * Gets the IDs of the selected battles in ascending order.
+     */
+    public IntStream ids() {
+        return selection.stream();
+    }
+    
+    /**
+     * Gets a copy of the selection, with bit {@code id} set for each selected battle.
+     */
+    public BitSet toBitSet() {
+        return (BitSet) selection.clone();
+    }
+    
+    /**
+     * Counts the selected battles by the winner's script. Battles without a winner are not counted.
+     * @return Counts keyed by script name, in name order
+     */
+    public Map<String, Integer> countByWinnerScript() {
+        return index.countBy(selection, BattleIndex.Dimension.WINNER_SCRIPT);
+    }
+    
+    /**
+     * Counts the selected battles by the winner's weapon. Battles without a winner are not counted.
+     * @return Counts keyed by weapon name, in name order
+     */
+    public Map<String, Integer> countByWinnerWeapon() {
+        return index.countBy(selection, BattleIndex.Dimension.WINNER_WEAPON);
+    }
+    
+    /**
+     * Counts the selected battles by script. A battle counts once for each
+     * distinct script taking part in it.
+     * @return Counts keyed by script name, in name order
+     */
+    public Map<String, Integer> countByScript() {
+        return index.countBy(selection, BattleIndex.Dimension.SCRIPT);
+    }
+    
+    /**
+     * Gets the total number of turns fought in the selected battles.
+     */
+    public long totalTurns() {
+        return index.sumTurns(selection);
+    }
+    
+    /**
+     * Gets the average length of the selected battles in turns, or NaN if none are selected.
+     */
+    public double averageTurns() {
+        int count = count();
+        return count == 0 ? Double.NaN : (double) totalTurns() / count;
+    }
+}
@@ -0,0 +1,204 @@
+package com.duelscripts.replay;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.BattleStatsAccumulator;
+import com.duelscripts.combat.TurnResult;
+import com.duelscripts.core.Action;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.CombatScript;
+import com.duelscripts.scripting.ScriptFactory;
+import com.duelscripts.tournament.BattleOutcome;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One battle read from a replay file.
+ * <p>
+ * The header (fighters, scripts, seed and outcome) is decoded when the replay
+ * is read; the turns stay in the mapped file until {@link #getTurns()} or
+ * {@link #toBattleResult()} is called.
+ */
+public final class BattleReplay {
+    private final long offset;
+    private final ByteBuffer record;
+    private final long seed;
+    private final int totalTurns;
+    private final BattleOutcome outcome;
+    private final FighterSpec fighter1Spec;
+    private final String fighter1Script;
+    private final FighterSpec fighter2Spec;
+    private final String fighter2Script;
+    private final int turnCount;
+    private final int turnsStart;
+    
+    /**
+     * Decodes the header of a battle record.
+     * @param offset The record's offset in the file
+     * @param record The record, positioned after its length prefix
+     */
+    BattleReplay(long offset, ByteBuffer record) {
+        this.offset = offset;
+        this.record = record;
+        this.seed = record.getLong();
+        this.totalTurns = record.getInt();
+        int outcomeOrdinal = record.get();
+        if (outcomeOrdinal < 0 || outcomeOrdinal >= BattleOutcome.values().length) {
+            throw new IllegalArgumentException("Corrupt replay at offset " + offset + ": unknown outcome " + outcomeOrdinal);
+        }
+        this.outcome = BattleOutcome.values()[outcomeOrdinal];
+        record.get(); // reserved
+        this.fighter1Spec = readSpec(record);
+        this.fighter1Script = readString(record);
+        this.fighter2Spec = readSpec(record);
+        this.fighter2Script = readString(record);
+        this.turnCount = record.getInt();
+        this.turnsStart = record.position();
+        if (turnCount < 0 || (long) turnCount * ReplayFormat.TURN_SIZE != record.remaining()) {
+            throw new IllegalArgumentException("Corrupt replay at offset " + offset + ": bad turn count " + turnCount);
+        }
+    }
+    
+    /**
+     * Gets the offset of this battle in its replay file.
+     */
+    public long getOffset() {
+        return offset;
+    }
+    
+    /**
+     * Gets the seed of the random generator the battle was played with.
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    public int getTotalTurns() {
+        return totalTurns;
+    }
+    
+    public BattleOutcome getOutcome() {
+        return outcome;
+    }
+    
+    public FighterSpec getFighter1Spec() {
+        return fighter1Spec;
+    }
+    
+    public FighterSpec getFighter2Spec() {
+        return fighter2Spec;
+    }
+    
+    /**
+     * Gets the name of the first fighter's script, as returned by {@link CombatScript#getName()}.
+     */
+    public String getFighter1Script() {
+        return fighter1Script;
+    }
+    
+    /**
+     * Gets the name of the second fighter's script, as returned by {@link CombatScript#getName()}.
+     */
+    public String getFighter2Script() {
+        return fighter2Script;
+    }
+    
+    /**
+     * Gets the number of turns recorded.
+     */
+    public int getTurnCount() {
+        return turnCount;
+    }
+    
+    /**
+     * Decodes the recorded turns.
+     * @return Structured turn results, with hit points replayed from full health
+     */
+    public List<TurnResult> getTurns() {
+        return decodeTurns(createFighter(fighter1Spec, fighter1Script), createFighter(fighter2Spec, fighter2Script));
+    }
+    
+    /**
+     * Reconstructs the battle result for display.
+     * Fighters are recreated from their specs with a fresh instance of their
+     * script, or the default script if the name is not known to {@link ScriptFactory}.
+     * @return A battle result equivalent to the one that was recorded
+     */
+    public BattleResult toBattleResult() {
+        Fighter fighter1 = createFighter(fighter1Spec, fighter1Script);
+        Fighter fighter2 = createFighter(fighter2Spec, fighter2Script);
+        List<TurnResult> turns = decodeTurns(fighter1, fighter2);
+        
+        BattleStatsAccumulator statistics = new BattleStatsAccumulator();
+        for (TurnResult turn : turns) {
+            statistics.add(turn);
+        }
+        if (!turns.isEmpty()) {
+            TurnResult lastTurn = turns.get(turns.size() - 1);
+            fighter1.takeDamage(fighter1.getMaxHitPoints() - lastTurn.getFighter1HitPoints());
+            fighter2.takeDamage(fighter2.getMaxHitPoints() - lastTurn.getFighter2HitPoints());
+        }
+        
+        Fighter winner = outcome == BattleOutcome.FIGHTER1_WIN ? fighter1
+                       : outcome == BattleOutcome.FIGHTER2_WIN ? fighter2 : null;
+        boolean reachedTurnLimit = outcome == BattleOutcome.TIMEOUT;
+        String summary = BattleResult.summarize(winner, winner == fighter1 ? fighter2 : fighter1,
+                                                totalTurns, reachedTurnLimit);
+        return new BattleResult(winner, totalTurns, turns, statistics.toStats(), summary, reachedTurnLimit);
+    }
+    
+    @Override
+    public String toString() {
+        return fighter1Spec.getName() + " [" + fighter1Script + "] vs " + fighter2Spec.getName()
+               + " [" + fighter2Script + "]: " + outcome + " after " + totalTurns + " turns";
+    }
+    
+    private List<TurnResult> decodeTurns(Fighter fighter1, Fighter fighter2) {
+        List<TurnResult> turns = new ArrayList<>(turnCount);
+        int hitPoints1 = fighter1Spec.getMaxHitPoints();
+        int hitPoints2 = fighter2Spec.getMaxHitPoints();
+        int position = turnsStart;
+        for (int i = 0; i < turnCount; i++) {
+            byte actions = record.get(position);
+            byte flags = record.get(position + 1);
+            int damage1 = record.getInt(position + 2);
+            int damage2 = record.getInt(position + 6);
+            hitPoints1 = Math.max(0, hitPoints1 - damage1);
+            hitPoints2 = Math.max(0, hitPoints2 - damage2);
+            turns.add(new TurnResult(fighter1, Action.unpackFirst(actions),
+                                     fighter2, Action.unpackSecond(actions),
+                                     damage1, damage2,
+                                     (flags & ReplayFormat.CRIT1) != 0, (flags & ReplayFormat.CRIT2) != 0,
+                                     hitPoints1, hitPoints2));
+            position += ReplayFormat.TURN_SIZE;
+        }
+        return turns;
+    }
+    
+    private static Fighter createFighter(FighterSpec spec, String scriptName) {
+        CombatScript script = !scriptName.isEmpty() && ScriptFactory.isScriptAvailable(scriptName)
+                              ? ScriptFactory.createScript(scriptName)
+                              : ScriptFactory.getDefaultScript();
+        return new Fighter(spec, script);
+    }
+    
+    private static FighterSpec readSpec(ByteBuffer record) {
+        String name = readString(record);
+        int maxHitPoints = record.getInt();
+        int strength = record.getInt();
+        String weaponName = readString(record);
+        int baseDamage = record.getInt();
+        double criticalHitChance = record.getDouble();
+        return new FighterSpec(name, maxHitPoints, strength, new Weapon(weaponName, baseDamage, criticalHitChance));
+    }
+    
+    private static String readString(ByteBuffer record) {
+        byte[] bytes = new byte[Short.toUnsignedInt(record.getShort())];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
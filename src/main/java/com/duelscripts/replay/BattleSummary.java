@@ -0,0 +1,167 @@
+package com.duelscripts.replay;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.TurnResult;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.tournament.BattleOutcome;
+
+import java.util.List;
+
+/**
+ * The facts about a finished battle that {@link BattleIndex} can query.
+ */
+public final class BattleSummary {
+    private final String fighter1Script;
+    private final String fighter1Weapon;
+    private final String fighter2Script;
+    private final String fighter2Weapon;
+    private final BattleOutcome outcome;
+    private final int totalTurns;
+    private final int winnerHitPointPercent;
+    private final boolean decidedByCriticalHit;
+    
+    /**
+     * Creates a battle summary.
+     * @param fighter1Script The name of the first fighter's script
+     * @param fighter1Weapon The name of the first fighter's weapon
+     * @param fighter2Script The name of the second fighter's script
+     * @param fighter2Weapon The name of the second fighter's weapon
+     * @param outcome The outcome of the battle
+     * @param totalTurns The number of turns fought
+     * @param winnerHitPointPercent The winner's remaining hit points as a percentage
+     *        of their maximum, rounded down; 0 if nobody won
+     * @param decidedByCriticalHit Whether the winning blow was a critical hit
+     */
+    public BattleSummary(String fighter1Script, String fighter1Weapon, String fighter2Script, String fighter2Weapon,
+                         BattleOutcome outcome, int totalTurns, int winnerHitPointPercent, boolean decidedByCriticalHit) {
+        if (outcome == null) {
+            throw new IllegalArgumentException("Outcome must not be null");
+        }
+        if (totalTurns < 0) {
+            throw new IllegalArgumentException("Total turns must not be negative: " + totalTurns);
+        }
+        if (winnerHitPointPercent < 0 || winnerHitPointPercent > 100) {
+            throw new IllegalArgumentException("Winner hit point percentage must be between 0 and 100: " + winnerHitPointPercent);
+        }
+        this.fighter1Script = fighter1Script;
+        this.fighter1Weapon = fighter1Weapon;
+        this.fighter2Script = fighter2Script;
+        this.fighter2Weapon = fighter2Weapon;
+        this.outcome = outcome;
+        this.totalTurns = totalTurns;
+        this.winnerHitPointPercent = isWin(outcome) ? winnerHitPointPercent : 0;
+        this.decidedByCriticalHit = isWin(outcome) && decidedByCriticalHit;
+    }
+    
+    /**
+     * Summarizes a battle that has just been played.
+     * Whether the winning blow was critical is only known if the result kept its
+     * turn history; without it the battle counts as not decided by a critical hit.
+     * @param fighter1 The fighter that took the first slot, still holding its final hit points
+     * @param fighter2 The fighter that took the second slot, still holding its final hit points
+     * @param result The battle result
+     */
+    public static BattleSummary of(Fighter fighter1, Fighter fighter2, BattleResult result) {
+        BattleOutcome outcome = BattleOutcome.of(result, fighter1);
+        List<TurnResult> turns = result.getTurnHistory();
+        TurnResult lastTurn = turns.isEmpty() ? null : turns.get(turns.size() - 1);
+        int winnerHitPoints = 0;
+        int winnerMaxHitPoints = 1;
+        boolean critical = false;
+        if (outcome == BattleOutcome.FIGHTER1_WIN) {
+            winnerHitPoints = fighter1.getHitPoints();
+            winnerMaxHitPoints = fighter1.getMaxHitPoints();
+            critical = lastTurn != null && lastTurn.isFighter1CriticalHit() && lastTurn.getFighter2Damage() > 0;
+        } else if (outcome == BattleOutcome.FIGHTER2_WIN) {
+            winnerHitPoints = fighter2.getHitPoints();
+            winnerMaxHitPoints = fighter2.getMaxHitPoints();
+            critical = lastTurn != null && lastTurn.isFighter2CriticalHit() && lastTurn.getFighter1Damage() > 0;
+        }
+        return new BattleSummary(scriptName(fighter1), fighter1.getWeapon().getName(),
+                                 scriptName(fighter2), fighter2.getWeapon().getName(),
+                                 outcome, result.getTotalTurns(),
+                                 percent(winnerHitPoints, winnerMaxHitPoints), critical);
+    }
+    
+    /**
+     * Summarizes a recorded battle.
+     * @param replay The battle replay
+     */
+    public static BattleSummary of(BattleReplay replay) {
+        BattleOutcome outcome = replay.getOutcome();
+        List<TurnResult> turns = replay.getTurns();
+        TurnResult lastTurn = turns.isEmpty() ? null : turns.get(turns.size() - 1);
+        int winnerHitPointPercent = 0;
+        boolean critical = false;
+        if (outcome == BattleOutcome.FIGHTER1_WIN && lastTurn != null) {
+            winnerHitPointPercent = percent(lastTurn.getFighter1HitPoints(), replay.getFighter1Spec().getMaxHitPoints());
+            critical = lastTurn.isFighter1CriticalHit() && lastTurn.getFighter2Damage() > 0;
+        } else if (outcome == BattleOutcome.FIGHTER2_WIN && lastTurn != null) {
+            winnerHitPointPercent = percent(lastTurn.getFighter2HitPoints(), replay.getFighter2Spec().getMaxHitPoints());
+            critical = lastTurn.isFighter2CriticalHit() && lastTurn.getFighter1Damage() > 0;
+        }
+        return new BattleSummary(replay.getFighter1Script(), replay.getFighter1Spec().getWeapon().getName(),
+                                 replay.getFighter2Script(), replay.getFighter2Spec().getWeapon().getName(),
+                                 outcome, replay.getTotalTurns(), winnerHitPointPercent, critical);
+    }
+    
+    public String getFighter1Script() {
+        return fighter1Script;
+    }
+    
+    public String getFighter1Weapon() {
+        return fighter1Weapon;
+    }
+    
+    public String getFighter2Script() {
+        return fighter2Script;
+    }
+    
+    public String getFighter2Weapon() {
+        return fighter2Weapon;
+    }
+    
+    public BattleOutcome getOutcome() {
+        return outcome;
+    }
+    
+    public int getTotalTurns() {
+        return totalTurns;
+    }
+    
+    public int getWinnerHitPointPercent() {
+        return winnerHitPointPercent;
+    }
+    
+    public boolean isDecidedByCriticalHit() {
+        return decidedByCriticalHit;
+    }
+    
+    /**
+     * Gets the winner's script name, or null if nobody won.
+     */
+    public String getWinnerScript() {
+        return outcome == BattleOutcome.FIGHTER1_WIN ? fighter1Script
+             : outcome == BattleOutcome.FIGHTER2_WIN ? fighter2Script : null;
+    }
+    
+    /**
+     * Gets the winner's weapon name, or null if nobody won.
+     */
+    public String getWinnerWeapon() {
+        return outcome == BattleOutcome.FIGHTER1_WIN ? fighter1Weapon
+             : outcome == BattleOutcome.FIGHTER2_WIN ? fighter2Weapon : null;
+    }
+    
+    static boolean isWin(BattleOutcome outcome) {
+        return outcome == BattleOutcome.FIGHTER1_WIN || outcome == BattleOutcome.FIGHTER2_WIN;
+    }
+    
+    private static int percent(int hitPoints, int maxHitPoints) {
+        return (int) Math.min(100, Math.max(0, (long) hitPoints * 100 / maxHitPoints));
+    }
+    
+    private static String scriptName(Fighter fighter) {
+        return fighter.getCombatScript() != null ? fighter.getCombatScript().getName() : "";
+    }
+}
@@ -0,0 +1,74 @@
+package com.duelscripts.replay;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Bit-sliced index of a non-negative integer column: slice {@code i} holds the
+ * rows whose value has bit {@code i} set. Range comparisons and sums over a
+ * selection take one bitmap operation per slice, independent of the values'
+ * distribution.
+ */
+final class BitSlicedIndex {
+    private final List<BitSet> slices = new ArrayList<>();
+    
+    /**
+     * Records the value of a row. Each row may be set once.
+     */
+    void set(int row, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Indexed values must not be negative: " + value);
+        }
+        for (int bit = 0; value >>> bit != 0; bit++) {
+            if (bit == slices.size()) {
+                slices.add(new BitSet());
+            }
+            if ((value >>> bit & 1) != 0) {
+                slices.get(bit).set(row);
+            }
+        }
+    }
+    
+    /**
+     * Selects the rows whose value is below a bound.
+     * @param bound The exclusive upper bound
+     * @param rows The rows to consider
+     * @return A new set of the rows in {@code rows} with a value below {@code bound}
+     */
+    BitSet lessThan(int bound, BitSet rows) {
+        if (bound <= 0) {
+            return new BitSet();
+        }
+        if (32 - Integer.numberOfLeadingZeros(bound) > slices.size()) {
+            // The bound has a bit above every stored value
+            return (BitSet) rows.clone();
+        }
+        // Scan from the highest slice, tracking rows equal to the bound so far
+        BitSet less = new BitSet();
+        BitSet equal = (BitSet) rows.clone();
+        for (int bit = slices.size() - 1; bit >= 0; bit--) {
+            BitSet slice = slices.get(bit);
+            if ((bound >>> bit & 1) != 0) {
+                BitSet cleared = (BitSet) equal.clone();
+                cleared.andNot(slice);
+                less.or(cleared);
+                equal.and(slice);
+            } else {
+                equal.andNot(slice);
+            }
+        }
+        return less;
+    }
+    
+    /**
+     * Sums the values of the selected rows.
+     */
+    long sum(BitSet rows) {
+        long sum = 0;
+        for (int bit = 0; bit < slices.size(); bit++) {
+            sum += (long) BattleIndex.countAnd(slices.get(bit), rows) << bit;
+        }
+        return sum;
+    }
+}
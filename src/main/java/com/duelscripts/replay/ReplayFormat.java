@@ -0,0 +1,39 @@
+package com.duelscripts.replay;
+
+import com.duelscripts.core.Action;
+
+/**
+ * Layout constants of the replay file format.
+ * <p>
+ * A replay file starts with an {@value #FILE_HEADER_SIZE}-byte header (magic
+ * number, format version, reserved) followed by battle records. Each record is
+ * length-prefixed so readers can skip it without decoding it:
+ * <pre>
+ *   int    length of the rest of the record
+ *   long   seed of the battle's random generator
+ *   int    total turns
+ *   byte   outcome ordinal ({@link com.duelscripts.tournament.BattleOutcome})
+ *   byte   reserved
+ *   2x     fighter: name, max hit points, strength,
+ *                   weapon name, base damage, critical hit chance (double),
+ *                   script name
+ *   int    turn count
+ *   n x    {@value #TURN_SIZE}-byte turn: actions packed by {@link Action#pack}, flags,
+ *                   damage taken by fighter 1, damage taken by fighter 2
+ * </pre>
+ * Strings are UTF-8 prefixed with an unsigned {@code short} length. Hit points
+ * are not stored per turn; both fighters start at full health and lose exactly
+ * the damage recorded.
+ */
+final class ReplayFormat {
+    static final int MAGIC = 0x44535250; // "DSRP"
+    static final short VERSION = 1;
+    static final int FILE_HEADER_SIZE = 8;
+    static final int TURN_SIZE = 10;
+    
+    static final byte CRIT1 = 1;
+    static final byte CRIT2 = 2;
+    
+    private ReplayFormat() {
+    }
+}
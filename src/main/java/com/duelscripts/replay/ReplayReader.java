@@ -0,0 +1,175 @@
+package com.duelscripts.replay;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads battles from a replay file written by {@link ReplayWriter}.
+ * <p>
+ * The file is memory-mapped once. {@link #read(long)} decodes only the record
+ * at the given offset; {@link #offsets()} finds every record by following the
+ * length prefixes, without decoding any of them. Replays returned by this
+ * reader share the mapping and remain readable after {@link #close()}.
+ * <p>
+ * A single mapping is limited to 2 GB, so the file is mapped in regions that
+ * start every {@value #REGION_STRIDE} bytes and overlap the next region by
+ * {@value #REGION_OVERLAP} bytes. A record is read from the region its offset
+ * falls in, which holds all of it unless the record is longer than the
+ * overlap; such a record is copied from the file instead. Archives of any
+ * size can therefore be read.
+ */
+public class ReplayReader implements Closeable {
+    static final long REGION_STRIDE = 1L << 30;
+    static final int REGION_OVERLAP = 1 << 26;
+    
+    private final FileChannel channel;
+    private final MappedByteBuffer[] regions;
+    private final long regionStride;
+    private final long size;
+    private long[] offsets;
+    
+    /**
+     * Opens and maps a replay file.
+     * @param path The file to read
+     * @throws IOException if the file cannot be read or is not a replay file
+     */
+    public ReplayReader(Path path) throws IOException {
+        this(path, REGION_STRIDE, REGION_OVERLAP);
+    }
+    
+    /**
+     * Opens and maps a replay file in regions of a given size, so that tests
+     * can exercise records that cross region boundaries.
+     */
+    ReplayReader(Path path, long regionStride, int regionOverlap) throws IOException {
+        if (regionStride < 1 || regionOverlap < Integer.BYTES || regionStride + regionOverlap > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid region layout: " + regionStride + " + " + regionOverlap);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.regionStride = regionStride;
+        try {
+            this.size = channel.size();
+            int count = (int) Math.max(1, (size + regionStride - 1) / regionStride);
+            this.regions = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = i * regionStride;
+                long length = Math.min(regionStride + regionOverlap, size - start);
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.max(0, length));
+            }
+            if (size < ReplayFormat.FILE_HEADER_SIZE || regions[0].getInt(0) != ReplayFormat.MAGIC) {
+                throw new IOException("Not a replay file: " + path);
+            }
+            short version = regions[0].getShort(Integer.BYTES);
+            if (version != ReplayFormat.VERSION) {
+                throw new IOException("Unsupported replay version " + version + ": " + path);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Reads the battle recorded at an offset.
+     * @param offset An offset returned by {@link ReplayWriter#write} or {@link #offsets()}
+     * @return The battle replay
+     * @throws IllegalArgumentException if no record starts at the offset
+     */
+    public BattleReplay read(long offset) {
+        int length = recordLength(offset);
+        MappedByteBuffer region = regions[(int) (offset / regionStride)];
+        int start = (int) (offset % regionStride) + Integer.BYTES;
+        if (start + length <= region.capacity()) {
+            return new BattleReplay(offset, region.slice(start, length));
+        }
+        return new BattleReplay(offset, copy(offset + Integer.BYTES, length));
+    }
+    
+    /**
+     * Reads the battle with the given index.
+     * @param index The battle's position in the file, starting at 0
+     * @return The battle replay
+     */
+    public BattleReplay get(int index) {
+        long[] known = offsetIndex();
+        if (index < 0 || index >= known.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + known.length);
+        }
+        return read(known[index]);
+    }
+    
+    /**
+     * Gets the number of battles in the file.
+     */
+    public int size() {
+        return offsetIndex().length;
+    }
+    
+    /**
+     * Gets the offsets of all battles in the file, in the order they were written.
+     * @return A new array of record offsets
+     */
+    public long[] offsets() {
+        return offsetIndex().clone();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    private synchronized long[] offsetIndex() {
+        if (offsets == null) {
+            long[] found = new long[16];
+            int count = 0;
+            long offset = ReplayFormat.FILE_HEADER_SIZE;
+            while (offset < size) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = offset;
+                offset += Integer.BYTES + recordLength(offset);
+            }
+            offsets = Arrays.copyOf(found, count);
+        }
+        return offsets;
+    }
+    
+    private int recordLength(long offset) {
+        if (offset < ReplayFormat.FILE_HEADER_SIZE || offset > size - Integer.BYTES) {
+            throw new IllegalArgumentException("No replay record at offset " + offset);
+        }
+        // The overlap covers the length prefix of any record starting in the region
+        int length = regions[(int) (offset / regionStride)].getInt((int) (offset % regionStride));
+        if (length < 0 || length > size - offset - Integer.BYTES) {
+            throw new IllegalArgumentException("Corrupt replay record at offset " + offset + ": length " + length);
+        }
+        return length;
+    }
+    
+    /**
+     * Reads a record that extends past the end of its region into its own buffer.
+     */
+    private ByteBuffer copy(long position, int length) {
+        ByteBuffer record = ByteBuffer.allocate(length);
+        try {
+            while (record.hasRemaining()) {
+                int read = channel.read(record, position + record.position());
+                if (read < 0) {
+                    throw new UncheckedIOException(new EOFException("Replay file truncated at " + position));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return record.flip();
+    }
+}
@@ -0,0 +1,165 @@
+package com.duelscripts.replay;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.TurnResult;
+import com.duelscripts.core.Action;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.tournament.BattleOutcome;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes battles to a replay file.
+ * <p>
+ * Each battle is encoded into a reusable buffer and appended to the file with a
+ * single channel write. The offset returned by {@link #write} can later be
+ * passed to {@link ReplayReader#read(long)} to jump straight to that battle.
+ * Writing is synchronized, so one writer may be shared by several threads.
+ */
+public class ReplayWriter implements Closeable {
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private long position;
+    
+    /**
+     * Creates a new replay file, replacing any existing file at the path.
+     * @param path The file to write
+     * @throws IOException if the file cannot be created
+     */
+    public ReplayWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(ReplayFormat.FILE_HEADER_SIZE);
+        header.putInt(ReplayFormat.MAGIC).putShort(ReplayFormat.VERSION).putShort((short) 0).flip();
+        writeFully(header);
+    }
+    
+    /**
+     * Appends a finished battle.
+     * @param fighter1 The fighter that took the first slot in the battle
+     * @param fighter2 The fighter that took the second slot in the battle
+     * @param seed The seed of the random generator the battle was played with
+     * @param result The battle result, with its full turn history
+     * @return The offset of the battle's record in the file
+     * @throws IllegalArgumentException if the result was played without history
+     *         retention, or its turns do not follow from full health
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized long write(Fighter fighter1, Fighter fighter2, long seed, BattleResult result) throws IOException {
+        List<TurnResult> turns = result.getTurnHistory();
+        if (turns.size() != result.getTotalTurns()) {
+            throw new IllegalArgumentException("Battle history holds " + turns.size() + " of "
+                                               + result.getTotalTurns() + " turns; enable history retention to record replays");
+        }
+        
+        buffer.clear();
+        putInt(0); // length, patched below
+        ensureCapacity(Long.BYTES + Integer.BYTES + 2);
+        buffer.putLong(seed);
+        buffer.putInt(result.getTotalTurns());
+        buffer.put((byte) BattleOutcome.of(result, fighter1).ordinal());
+        buffer.put((byte) 0);
+        putFighter(fighter1);
+        putFighter(fighter2);
+        
+        putInt(turns.size());
+        ensureCapacity(turns.size() * ReplayFormat.TURN_SIZE);
+        int hitPoints1 = fighter1.getMaxHitPoints();
+        int hitPoints2 = fighter2.getMaxHitPoints();
+        for (int i = 0; i < turns.size(); i++) {
+            TurnResult turn = turns.get(i);
+            if (!turn.isStructured()) {
+                throw new IllegalArgumentException("Turn " + (i + 1) + " only carries a description");
+            }
+            hitPoints1 = Math.max(0, hitPoints1 - turn.getFighter1Damage());
+            hitPoints2 = Math.max(0, hitPoints2 - turn.getFighter2Damage());
+            if (turn.getFighter1Damage() < 0 || turn.getFighter2Damage() < 0
+                    || hitPoints1 != turn.getFighter1HitPoints() || hitPoints2 != turn.getFighter2HitPoints()) {
+                throw new IllegalArgumentException("Turn " + (i + 1) + " does not follow from the recorded damage");
+            }
+            
+            byte flags = 0;
+            if (turn.isFighter1CriticalHit()) {
+                flags |= ReplayFormat.CRIT1;
+            }
+            if (turn.isFighter2CriticalHit()) {
+                flags |= ReplayFormat.CRIT2;
+            }
+            buffer.put(Action.pack(turn.getFighter1Action(), turn.getFighter2Action()));
+            buffer.put(flags);
+            buffer.putInt(turn.getFighter1Damage());
+            buffer.putInt(turn.getFighter2Damage());
+        }
+        
+        buffer.putInt(0, buffer.position() - Integer.BYTES);
+        buffer.flip();
+        long offset = position;
+        writeFully(buffer);
+        return offset;
+    }
+    
+    /**
+     * Gets the current size of the file, which is also the offset of the next battle.
+     */
+    public synchronized long size() {
+        return position;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+    
+    private void putFighter(Fighter fighter) {
+        FighterSpec spec = fighter.getSpec();
+        Weapon weapon = spec.getWeapon();
+        putString(spec.getName());
+        putInt(spec.getMaxHitPoints());
+        putInt(spec.getStrength());
+        putString(weapon.getName());
+        putInt(weapon.getBaseDamage());
+        ensureCapacity(Double.BYTES);
+        buffer.putDouble(weapon.getCriticalHitChance());
+        putString(fighter.getCombatScript() != null ? fighter.getCombatScript().getName() : "");
+    }
+    
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("String too long for a replay: " + bytes.length + " bytes");
+        }
+        ensureCapacity(Short.BYTES + bytes.length);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+    
+    private void putInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        buffer.putInt(value);
+    }
+    
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+    }
+    
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            position += channel.write(source);
+        }
+    }
+}
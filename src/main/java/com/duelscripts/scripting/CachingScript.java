@@ -0,0 +1,41 @@
+package com.duelscripts.scripting;
+
+import com.duelscripts.core.Action;
+
+/**
+ * A history-independent script whose decisions are served from a {@link DecisionCache}.
+ */
+final class CachingScript implements CombatScript {
+    private final CombatScript delegate;
+    private final DecisionCache cache;
+    
+    CachingScript(CombatScript delegate, DecisionCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+    
+    @Override
+    public Action getNextAction(FighterContext context) {
+        return cache.decide(delegate, context);
+    }
+    
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+    
+    @Override
+    public String getDescription() {
+        return delegate.getDescription();
+    }
+    
+    @Override
+    public boolean isHistoryIndependent() {
+        return true;
+    }
+    
+    @Override
+    public int getTurnPeriod() {
+        return delegate.getTurnPeriod();
+    }
+}
@@ -25,4 +25,29 @@ public interface CombatScript {
      * @return A detailed description of the script's tactics and strategy
      */
     String getDescription();
+    
+    /**
+     * Checks whether this script's action depends only on the hit points of both
+     * fighters and the turn number. Such a script reads nothing from the battle
+     * history, keeps no state between calls and makes no random choices, so it
+     * returns the same action for the same (hit points, turn) every time.
+     * Matchups between history-independent scripts can be solved exactly
+     * instead of being simulated.
+     * @return true if the script is a pure function of hit points and turn
+     */
+    default boolean isHistoryIndependent() {
+        return false;
+    }
+    
+    /**
+     * For a history-independent script, gets the number of turns after which its
+     * decisions repeat: from the second turn on, the action for turn
+     * {@code t + period} is the action for turn {@code t} at the same hit points.
+     * Declaring a period lets simulators tabulate the script's decisions once
+     * per turn of the cycle instead of once per turn of the battle.
+     * @return The period, or 0 if the decisions never repeat or the period is unknown
+     */
+    default int getTurnPeriod() {
+        return 0;
+    }
 }
@@ -0,0 +1,212 @@
+package com.duelscripts.scripting;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.FighterSpec;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded memo of the decisions of one {@linkplain CombatScript#isHistoryIndependent()
+ * history-independent} script type.
+ * <p>
+ * A history-independent script decides from the two fighters, their hit points
+ * and the turn alone, so a decision can be replayed whenever the same state
+ * comes round again. The key is both fighters' specs, both hit points and the
+ * turn reduced by the script's declared {@linkplain CombatScript#getTurnPeriod()
+ * turn period}; a script without a period is keyed on the turn itself, and
+ * turns beyond {@value #MAX_TURN_KEY} bypass the cache.
+ * <p>
+ * The cache is direct-mapped: each key hashes to exactly one slot, and a new
+ * decision overwrites whatever the slot held. Memory therefore stays at the
+ * capacity given on construction no matter how many states a tournament
+ * visits. Entries are immutable and slots are written without locking, so
+ * several threads may share a cache; a racing writer can at worst evict an
+ * entry early.
+ * <p>
+ * Scripts that read the battle history are never cached: {@link #wrap} hands
+ * them back unchanged.
+ */
+public class DecisionCache {
+    static final int MAX_TURN_KEY = (1 << 16) - 1;
+    private static final int MAX_HIT_POINTS = (1 << 24) - 1;
+    private static final int MAX_CAPACITY = 1 << 30;
+    
+    private final Entry[] slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile Class<?> scriptClass;
+    private volatile String scriptName;
+    
+    /**
+     * @param capacity The maximum number of decisions kept; rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is not positive or above 2^30
+     */
+    public DecisionCache(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Entry[size];
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Wraps a script so that its decisions are served from this cache.
+     * Every script wrapped by one cache must have the same class and name,
+     * since decisions are not keyed by script. The class alone is not enough:
+     * compiled rule scripts with different rules may share one.
+     * @param script The script to wrap
+     * @return A caching script, or {@code script} itself if it depends on the battle history
+     * @throws IllegalArgumentException if the cache already serves another script
+     */
+    public CombatScript wrap(CombatScript script) {
+        if (!script.isHistoryIndependent()) {
+            return script;
+        }
+        Class<?> type = script.getClass();
+        String name = script.getName();
+        if (scriptClass == null) {
+            synchronized (this) {
+                if (scriptClass == null) {
+                    scriptName = name;
+                    scriptClass = type;
+                }
+            }
+        }
+        if (scriptClass != type || !scriptName.equals(name)) {
+            throw new IllegalArgumentException("Cache serves " + scriptName + " (" + scriptClass.getName()
+                                               + "), not " + name + " (" + type.getName() + ")");
+        }
+        return new CachingScript(script, this);
+    }
+    
+    /**
+     * Looks a decision up, asking the script on a miss.
+     */
+    Action decide(CombatScript script, FighterContext context) {
+        FighterSpec self = context.getSelf().getSpec();
+        FighterSpec opponent = context.getOpponent().getSpec();
+        int selfHitPoints = context.getSelf().getHitPoints();
+        int opponentHitPoints = context.getOpponent().getHitPoints();
+        int turnKey = turnKey(script.getTurnPeriod(), context.getCurrentTurn());
+        if (turnKey < 0 || selfHitPoints < 0 || selfHitPoints > MAX_HIT_POINTS
+                || opponentHitPoints < 0 || opponentHitPoints > MAX_HIT_POINTS) {
+            misses.increment();
+            return script.getNextAction(context);
+        }
+        
+        long state = ((long) selfHitPoints << 40) | ((long) opponentHitPoints << 16) | turnKey;
+        int slot = slot(self, opponent, state);
+        Entry entry = slots[slot];
+        if (entry != null && entry.state == state && entry.self.equals(self) && entry.opponent.equals(opponent)) {
+            hits.increment();
+            return entry.action;
+        }
+        
+        misses.increment();
+        Action action = Objects.requireNonNull(script.getNextAction(context), "action");
+        if (entry != null) {
+            evictions.increment();
+        }
+        slots[slot] = new Entry(self, opponent, state, action);
+        return action;
+    }
+    
+    /**
+     * Discards every cached decision. The counters are kept.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+        }
+    }
+    
+    /**
+     * Gets the maximum number of decisions the cache holds.
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+    
+    /**
+     * Counts the decisions currently cached. Scans every slot.
+     */
+    public int size() {
+        int size = 0;
+        for (Entry entry : slots) {
+            if (entry != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    /**
+     * Gets the number of cached decisions overwritten by a decision for another state.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+    
+    /**
+     * Gets the fraction of lookups answered from the cache.
+     * @return A value between 0.0 and 1.0, or 0.0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("DecisionCache[capacity=%d, hits=%d, misses=%d, evictions=%d]",
+                             getCapacity(), getHits(), getMisses(), getEvictions());
+    }
+    
+    /**
+     * Reduces a turn to a key shared by the turns that decide alike: with a
+     * period, turn 1 keeps key 0 and later turns wrap around keys 1 to period.
+     * @return The key, or -1 if the turn cannot be cached
+     */
+    static int turnKey(int period, int turn) {
+        int key = period <= 0 ? turn : turn == 1 ? 0 : 1 + (turn - 2) % period;
+        return key >= 0 && key <= MAX_TURN_KEY ? key : -1;
+    }
+    
+    private int slot(FighterSpec self, FighterSpec opponent, long state) {
+        long hash = state * 0x9E3779B97F4A7C15L + self.hashCode() * 31L + opponent.hashCode();
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 32;
+        return (int) hash & mask;
+    }
+    
+    private static final class Entry {
+        final FighterSpec self;
+        final FighterSpec opponent;
+        final long state;
+        final Action action;
+        
+        Entry(FighterSpec self, FighterSpec opponent, long state, Action action) {
+            this.self = self;
+            this.opponent = opponent;
+            this.state = state;
+            this.action = action;
+        }
+    }
+}
@@ -1,26 +1,172 @@
 package com.duelscripts.scripting;
 
 import com.duelscripts.core.Fighter;
+import com.duelscripts.combat.BattleHistory;
 import com.duelscripts.combat.TurnResult;
 
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * Provides context information for combat scripts to make strategic decisions.
  * Contains all the information a script needs to determine the next action.
  */
 public class FighterContext {
+    /** The slot of the fighter whose data comes first in a {@link TurnResult}. */
+    public static final int FIGHTER1 = 0;
+    /** The slot of the fighter whose data comes second in a {@link TurnResult}. */
+    public static final int FIGHTER2 = 1;
+    
     private final Fighter self;
     private final Fighter opponent;
+    private final int slot;
     private final int currentTurn;
     private final List<TurnResult> battleHistory;
+    private final RandomGenerator random;
+    private OpponentProfile opponentProfile;
     
+    /**
+     * Creates a context whose fighter's slot is taken from the history, see {@link #getSlot()}.
+     */
     public FighterContext(Fighter self, Fighter opponent, int currentTurn, 
                          List<TurnResult> battleHistory) {
+        this(self, opponent, currentTurn, battleHistory, null);
+    }
+    
+    /**
+     * Creates a context with a profile of the opponent maintained by the caller.
+     * The fighter's slot is taken from the history, see {@link #getSlot()}.
+     * @param opponentProfile The opponent's actions so far, or null to derive them from the history
+     */
+    public FighterContext(Fighter self, Fighter opponent, int currentTurn,
+                         List<TurnResult> battleHistory, OpponentProfile opponentProfile) {
+        this(self, opponent, slotIn(battleHistory, self), currentTurn, battleHistory, opponentProfile);
+    }
+    
+    /**
+     * Creates a context for a fighter in a known slot of the battle.
+     * @param slot {@link #FIGHTER1} or {@link #FIGHTER2}, the side the fighter takes in every turn result
+     * @throws IllegalArgumentException if the slot is neither 0 nor 1
+     */
+    public FighterContext(Fighter self, Fighter opponent, int slot, int currentTurn,
+                         List<TurnResult> battleHistory) {
+        this(self, opponent, slot, currentTurn, battleHistory, null);
+    }
+    
+    /**
+     * Creates a context for a fighter in a known slot of the battle, with a
+     * profile of the opponent maintained by the caller.
+     * @param slot {@link #FIGHTER1} or {@link #FIGHTER2}, the side the fighter takes in every turn result
+     * @param opponentProfile The opponent's actions so far, or null to derive them from the history
+     * @throws IllegalArgumentException if the slot is neither 0 nor 1
+     */
+    public FighterContext(Fighter self, Fighter opponent, int slot, int currentTurn,
+                         List<TurnResult> battleHistory, OpponentProfile opponentProfile) {
+        this(self, opponent, slot, currentTurn, battleHistory, opponentProfile, null);
+    }
+    
+    /**
+     * Creates a context for a fighter in a known slot of a battle with its own generator.
+     * @param slot {@link #FIGHTER1} or {@link #FIGHTER2}, the side the fighter takes in every turn result
+     * @param opponentProfile The opponent's actions so far, or null to derive them from the history
+     * @param random The battle's generator, or null if the battle has none
+     * @throws IllegalArgumentException if the slot is neither 0 nor 1
+     */
+    public FighterContext(Fighter self, Fighter opponent, int slot, int currentTurn,
+                         List<TurnResult> battleHistory, OpponentProfile opponentProfile, RandomGenerator random) {
         this.self = self;
         this.opponent = opponent;
+        this.slot = checkSlot(slot);
         this.currentTurn = currentTurn;
         this.battleHistory = List.copyOf(battleHistory); // Defensive copy
+        this.opponentProfile = opponentProfile;
+        this.random = random;
+    }
+    
+    /**
+     * Creates a context that reads the battle history without copying it.
+     * The context sees the turns recorded up to the moment of its creation.
+     * The fighter's slot is taken from the history, see {@link #getSlot()}.
+     */
+    public FighterContext(Fighter self, Fighter opponent, int currentTurn,
+                         BattleHistory battleHistory) {
+        this(self, opponent, currentTurn, battleHistory, null);
+    }
+    
+    /**
+     * Creates a context that reads the battle history without copying it, with
+     * a profile of the opponent maintained by the caller. The fighter's slot
+     * is taken from the history, see {@link #getSlot()}.
+     * @param opponentProfile The opponent's actions so far, or null to derive them from the history
+     */
+    public FighterContext(Fighter self, Fighter opponent, int currentTurn,
+                         BattleHistory battleHistory, OpponentProfile opponentProfile) {
+        this(self, opponent, slotIn(battleHistory.view(), self), currentTurn, battleHistory, opponentProfile);
+    }
+    
+    /**
+     * Creates a context for a fighter in a known slot of the battle that reads
+     * the battle history without copying it.
+     * @param slot {@link #FIGHTER1} or {@link #FIGHTER2}, the side the fighter takes in every turn result
+     * @throws IllegalArgumentException if the slot is neither 0 nor 1
+     */
+    public FighterContext(Fighter self, Fighter opponent, int slot, int currentTurn,
+                         BattleHistory battleHistory) {
+        this(self, opponent, slot, currentTurn, battleHistory, null);
+    }
+    
+    /**
+     * Creates a context for a fighter in a known slot of the battle that reads
+     * the battle history without copying it, with a profile of the opponent
+     * maintained by the caller.
+     * @param slot {@link #FIGHTER1} or {@link #FIGHTER2}, the side the fighter takes in every turn result
+     * @param opponentProfile The opponent's actions so far, or null to derive them from the history
+     * @throws IllegalArgumentException if the slot is neither 0 nor 1
+     */
+    public FighterContext(Fighter self, Fighter opponent, int slot, int currentTurn,
+                         BattleHistory battleHistory, OpponentProfile opponentProfile) {
+        this(self, opponent, slot, currentTurn, battleHistory, opponentProfile, null);
+    }
+    
+    /**
+     * Creates a context for a fighter in a known slot of a battle with its own
+     * generator that reads the battle history without copying it.
+     * @param slot {@link #FIGHTER1} or {@link #FIGHTER2}, the side the fighter takes in every turn result
+     * @param opponentProfile The opponent's actions so far, or null to derive them from the history
+     * @param random The battle's generator, or null if the battle has none
+     * @throws IllegalArgumentException if the slot is neither 0 nor 1
+     */
+    public FighterContext(Fighter self, Fighter opponent, int slot, int currentTurn,
+                         BattleHistory battleHistory, OpponentProfile opponentProfile, RandomGenerator random) {
+        this.self = self;
+        this.opponent = opponent;
+        this.slot = checkSlot(slot);
+        this.currentTurn = currentTurn;
+        this.battleHistory = battleHistory.view();
+        this.opponentProfile = opponentProfile;
+        this.random = random;
+    }
+    
+    private static int checkSlot(int slot) {
+        if (slot != FIGHTER1 && slot != FIGHTER2) {
+            throw new IllegalArgumentException("slot must be 0 or 1: " + slot);
+        }
+        return slot;
+    }
+    
+    /**
+     * Finds the slot of a fighter in a history by spec instance. Turn results
+     * hold the fighters' specs, so this is exact unless both fighters share
+     * a spec, in which case the fighter is taken to be fighter 1.
+     */
+    private static int slotIn(List<TurnResult> battleHistory, Fighter self) {
+        for (TurnResult turn : battleHistory) {
+            if (turn.isStructured()) {
+                boolean second = turn.getFighter2Spec() == self.getSpec() && turn.getFighter1Spec() != self.getSpec();
+                return second ? FIGHTER2 : FIGHTER1;
+            }
+        }
+        return FIGHTER1;
     }
     
     /**
@@ -66,6 +212,58 @@ public class FighterContext {
         return battleHistory.get(battleHistory.size() - 1);
     }
     
+    /**
+     * Gets what the opponent has done so far in this battle. A game keeps the
+     * profile up to date turn by turn; a context created without one derives
+     * it from the battle history on first use.
+     * @return The opponent's profile, empty on the first turn
+     */
+    public OpponentProfile getOpponentProfile() {
+        if (opponentProfile == null) {
+            OpponentProfile profile = new OpponentProfile();
+            for (TurnResult turn : battleHistory) {
+                if (turn.isStructured()) {
+                    if (slot == FIGHTER1) {
+                        profile.record(turn.getFighter2Action(), turn.getFighter1Action());
+                    } else {
+                        profile.record(turn.getFighter1Action(), turn.getFighter2Action());
+                    }
+                }
+            }
+            opponentProfile = profile;
+        }
+        return opponentProfile;
+    }
+    
+    /**
+     * Gets the side this context's fighter takes in the battle. A game passes
+     * the slot explicitly. A context created without one takes it from the
+     * specs in the history and, for two fighters sharing a spec, assumes
+     * fighter 1; create such contexts with an explicit slot.
+     * @return {@link #FIGHTER1} or {@link #FIGHTER2}
+     */
+    public int getSlot() {
+        return slot;
+    }
+    
+    /**
+     * Checks whether this context's fighter is fighter 1 of every turn result
+     * in the history.
+     */
+    public boolean isSelfFighter1() {
+        return slot == FIGHTER1;
+    }
+    
+    /**
+     * Gets the battle's generator, which also rolls the critical hits. Scripts
+     * that make random choices should draw from it when it is present, so a
+     * battle with a seeded generator replays exactly.
+     * @return The generator, or null if the battle has none
+     */
+    public RandomGenerator getRandom() {
+        return random;
+    }
+    
     /**
      * Checks if this is the first turn of the battle.
      * @return true if this is turn 1, false otherwise
@@ -0,0 +1,89 @@
+package com.duelscripts.scripting;
+
+import com.duelscripts.core.Action;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A script whose decisions run under a {@link ScriptGuard}. Faulty decisions
+ * and every decision after the script's circuit breaker trips are made by a
+ * fallback script owned by this wrapper, so the fallback keeps its own
+ * per-battle state.
+ */
+public final class GuardedScript implements CombatScript {
+    private final CombatScript delegate;
+    private final ScriptGuard guard;
+    private final ScriptFaults faults;
+    private final AtomicBoolean watched = new AtomicBoolean();
+    private CombatScript fallback;
+    
+    GuardedScript(CombatScript delegate, ScriptGuard guard, ScriptFaults faults) {
+        this.delegate = delegate;
+        this.guard = guard;
+        this.faults = faults;
+    }
+    
+    @Override
+    public Action getNextAction(FighterContext context) {
+        if (!faults.isTripped()) {
+            Action action = guard.decide(this, context);
+            if (action != null) {
+                return action;
+            }
+        }
+        faults.recordSubstitution();
+        if (fallback == null) {
+            fallback = guard.createFallback();
+        }
+        return fallback.getNextAction(context);
+    }
+    
+    /**
+     * Gets the script being guarded.
+     */
+    public CombatScript getDelegate() {
+        return delegate;
+    }
+    
+    ScriptGuard getGuard() {
+        return guard;
+    }
+    
+    /**
+     * Marks the script as deciding on a watchdog thread.
+     * @return false if an earlier decision is still running there
+     */
+    boolean startWatchedDecision() {
+        return watched.compareAndSet(false, true);
+    }
+    
+    void finishWatchedDecision() {
+        watched.set(false);
+    }
+    
+    /**
+     * Gets the fault counters shared by every instance of this script under the guard.
+     */
+    public ScriptFaults getFaults() {
+        return faults;
+    }
+    
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+    
+    @Override
+    public String getDescription() {
+        return delegate.getDescription();
+    }
+    
+    /**
+     * A guarded script may fall back to another script, so it is never
+     * history-independent even when the script it guards is.
+     */
+    @Override
+    public boolean isHistoryIndependent() {
+        return false;
+    }
+}
@@ -0,0 +1,224 @@
+package com.duelscripts.scripting;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
+
+import java.util.Arrays;
+
+/**
+ * Running record of the actions one fighter has seen its opponent take in the
+ * current battle.
+ * <p>
+ * The profile counts the opponent's strikes and parries over the whole battle
+ * and over the last {@value #RECENT_TURNS} turns, and keeps bigram counts of
+ * which action the opponent played after each of its own previous actions and
+ * after each of the observer's previous actions. Everything lives in primitive
+ * arrays indexed by {@linkplain Action#ordinal() action ordinal} or body part,
+ * so {@link #record} and every query take constant time however long the
+ * battle runs.
+ * <p>
+ * A {@link com.duelscripts.combat.Game} keeps one profile per fighter and
+ * records each turn as it is resolved; scripts read it through
+ * {@link FighterContext#getOpponentProfile()} and should not modify it.
+ */
+public final class OpponentProfile {
+    /** The number of most recent turns covered by the recent counts. */
+    public static final int RECENT_TURNS = 8;
+    
+    private static final BodyPart[] BODY_PARTS = BodyPart.values();
+    
+    private final int[] strikeCounts = new int[BODY_PARTS.length];
+    private final int[] parryCounts = new int[BODY_PARTS.length];
+    private final int[] recentStrikeCounts = new int[BODY_PARTS.length];
+    private final int[] recentParryCounts = new int[BODY_PARTS.length];
+    private final byte[] recentActions = new byte[RECENT_TURNS];
+    // Indexed by previous action ordinal * Action.COUNT + next action ordinal
+    private final int[] transitions = new int[Action.COUNT * Action.COUNT];
+    private final int[] responses = new int[Action.COUNT * Action.COUNT];
+    private int turnsObserved;
+    private int lastAction = -1;
+    private int lastOwnAction = -1;
+    
+    /**
+     * Records one turn.
+     * @param opponentAction The action the opponent took
+     * @param ownAction The action the observing fighter took in the same turn
+     */
+    public void record(Action opponentAction, Action ownAction) {
+        int action = opponentAction.ordinal();
+        int strike = opponentAction.getStrikeTarget().ordinal();
+        int parry = opponentAction.getParryTarget().ordinal();
+        strikeCounts[strike]++;
+        parryCounts[parry]++;
+        
+        // Slide the recent window: the slot being overwritten leaves it
+        int slot = turnsObserved % RECENT_TURNS;
+        if (turnsObserved >= RECENT_TURNS) {
+            Action expired = Action.ofOrdinal(recentActions[slot]);
+            recentStrikeCounts[expired.getStrikeTarget().ordinal()]--;
+            recentParryCounts[expired.getParryTarget().ordinal()]--;
+        }
+        recentActions[slot] = (byte) action;
+        recentStrikeCounts[strike]++;
+        recentParryCounts[parry]++;
+        
+        if (lastAction >= 0) {
+            transitions[lastAction * Action.COUNT + action]++;
+            responses[lastOwnAction * Action.COUNT + action]++;
+        }
+        lastAction = action;
+        lastOwnAction = ownAction.ordinal();
+        turnsObserved++;
+    }
+    
+    /**
+     * Forgets every recorded turn, ready for a new battle.
+     */
+    public void clear() {
+        Arrays.fill(strikeCounts, 0);
+        Arrays.fill(parryCounts, 0);
+        Arrays.fill(recentStrikeCounts, 0);
+        Arrays.fill(recentParryCounts, 0);
+        Arrays.fill(transitions, 0);
+        Arrays.fill(responses, 0);
+        turnsObserved = 0;
+        lastAction = -1;
+        lastOwnAction = -1;
+    }
+    
+    /**
+     * Gets the number of turns recorded.
+     */
+    public int getTurnsObserved() {
+        return turnsObserved;
+    }
+    
+    /**
+     * Gets the number of turns covered by the recent counts, at most {@value #RECENT_TURNS}.
+     */
+    public int getRecentTurns() {
+        return Math.min(turnsObserved, RECENT_TURNS);
+    }
+    
+    public int getStrikeCount(BodyPart bodyPart) {
+        return strikeCounts[bodyPart.ordinal()];
+    }
+    
+    public int getParryCount(BodyPart bodyPart) {
+        return parryCounts[bodyPart.ordinal()];
+    }
+    
+    public int getRecentStrikeCount(BodyPart bodyPart) {
+        return recentStrikeCounts[bodyPart.ordinal()];
+    }
+    
+    public int getRecentParryCount(BodyPart bodyPart) {
+        return recentParryCounts[bodyPart.ordinal()];
+    }
+    
+    /**
+     * Gets the share of turns in which the opponent struck a body part.
+     * @return A value between 0.0 and 1.0, or 0.0 before the first turn is recorded
+     */
+    public double getStrikeFrequency(BodyPart bodyPart) {
+        return turnsObserved == 0 ? 0.0 : (double) strikeCounts[bodyPart.ordinal()] / turnsObserved;
+    }
+    
+    /**
+     * Gets the share of turns in which the opponent parried a body part.
+     * @return A value between 0.0 and 1.0, or 0.0 before the first turn is recorded
+     */
+    public double getParryFrequency(BodyPart bodyPart) {
+        return turnsObserved == 0 ? 0.0 : (double) parryCounts[bodyPart.ordinal()] / turnsObserved;
+    }
+    
+    /**
+     * Gets the opponent's most recent action.
+     * @return The action, or null before the first turn is recorded
+     */
+    public Action getLastAction() {
+        return lastAction < 0 ? null : Action.ofOrdinal(lastAction);
+    }
+    
+    /**
+     * Gets the observing fighter's own most recent action.
+     * @return The action, or null before the first turn is recorded
+     */
+    public Action getLastOwnAction() {
+        return lastOwnAction < 0 ? null : Action.ofOrdinal(lastOwnAction);
+    }
+    
+    /**
+     * Counts how often the opponent played {@code next} right after playing {@code previous}.
+     */
+    public int getTransitionCount(Action previous, Action next) {
+        return transitions[previous.ordinal() * Action.COUNT + next.ordinal()];
+    }
+    
+    /**
+     * Counts how often the opponent played {@code next} right after the observer played {@code ownPrevious}.
+     */
+    public int getResponseCount(Action ownPrevious, Action next) {
+        return responses[ownPrevious.ordinal() * Action.COUNT + next.ordinal()];
+    }
+    
+    /**
+     * Predicts the opponent's next action from what it has played after its
+     * last action before. Ties go to the action with the lowest ordinal.
+     * @return The most frequent successor of the opponent's last action, or null
+     *         if that action has never been followed by another
+     */
+    public Action predictNextAction() {
+        if (lastAction < 0) {
+            return null;
+        }
+        int row = lastAction * Action.COUNT;
+        int best = -1;
+        int bestCount = 0;
+        for (int next = 0; next < Action.COUNT; next++) {
+            if (transitions[row + next] > bestCount) {
+                bestCount = transitions[row + next];
+                best = next;
+            }
+        }
+        return best < 0 ? null : Action.ofOrdinal(best);
+    }
+    
+    /**
+     * Gets the body part the opponent has struck most over the recent turns.
+     * Ties go to the part with the lowest ordinal.
+     * @return The body part, or null before the first turn is recorded
+     */
+    public BodyPart getMostStruckPart() {
+        return turnsObserved == 0 ? null : BODY_PARTS[indexOfMax(recentStrikeCounts)];
+    }
+    
+    /**
+     * Gets the body part the opponent has parried least over the recent turns.
+     * Ties go to the part with the lowest ordinal.
+     * @return The body part, or null before the first turn is recorded
+     */
+    public BodyPart getLeastParriedPart() {
+        return turnsObserved == 0 ? null : BODY_PARTS[indexOfMin(recentParryCounts)];
+    }
+    
+    private static int indexOfMax(int[] counts) {
+        int best = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+    
+    private static int indexOfMin(int[] counts) {
+        int best = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] < counts[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
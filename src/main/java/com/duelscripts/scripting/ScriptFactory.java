@@ -2,8 +2,11 @@ package com.duelscripts.scripting;
 
 import com.duelscripts.scripting.scripts.*;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
 
 /**
  * Factory for creating and managing combat scripts.
@@ -22,6 +25,15 @@ public class ScriptFactory {
     public static final String COUNTER = "counter";
     public static final String BERSERKER = "berserker";
     public static final String TACTICAL = "tactical";
+    public static final String EQUILIBRIUM = "equilibrium";
+    
+    private static final List<String> BUILT_IN_SCRIPTS = List.of(
+        RANDOM, AGGRESSIVE, DEFENSIVE, BALANCED,
+        ADAPTIVE, COUNTER, BERSERKER, TACTICAL,
+        EQUILIBRIUM
+    );
+    
+    private static final Map<String, Supplier<? extends CombatScript>> REGISTERED_SCRIPTS = new ConcurrentSkipListMap<>();
     
     /**
      * Creates a combat script of the specified type.
@@ -47,8 +59,14 @@ public class ScriptFactory {
                 return new BerserkerScript();
             case TACTICAL:
                 return new TacticalScript();
+            case EQUILIBRIUM:
+                return new EquilibriumScript();
             default:
-                throw new IllegalArgumentException("Unknown script type: " + scriptType);
+                Supplier<? extends CombatScript> supplier = REGISTERED_SCRIPTS.get(scriptType.toLowerCase());
+                if (supplier == null) {
+                    throw new IllegalArgumentException("Unknown script type: " + scriptType);
+                }
+                return supplier.get();
         }
     }
     
@@ -57,10 +75,33 @@ public class ScriptFactory {
      * @return A list of script type names that can be passed to createScript()
      */
     public static List<String> getAvailableScripts() {
-        return Arrays.asList(
-            RANDOM, AGGRESSIVE, DEFENSIVE, BALANCED,
-            ADAPTIVE, COUNTER, BERSERKER, TACTICAL
-        );
+        List<String> scripts = new ArrayList<>(BUILT_IN_SCRIPTS);
+        scripts.addAll(REGISTERED_SCRIPTS.keySet());
+        return scripts;
+    }
+    
+    /**
+     * Registers an additional script type, such as a compiled rule script.
+     * Registered types are created, listed and checked like the built-in ones.
+     * @param scriptType The type name; matched case-insensitively
+     * @param supplier Creates the script for each fighter; may return a shared
+     *        instance if the script keeps no per-battle state
+     * @throws IllegalArgumentException if the name is taken by a built-in or registered script
+     */
+    public static void registerScript(String scriptType, Supplier<? extends CombatScript> supplier) {
+        String key = scriptType.toLowerCase();
+        if (BUILT_IN_SCRIPTS.contains(key) || REGISTERED_SCRIPTS.putIfAbsent(key, supplier) != null) {
+            throw new IllegalArgumentException("Script type already exists: " + scriptType);
+        }
+    }
+    
+    /**
+     * Removes a script type added with {@link #registerScript}.
+     * @param scriptType The type name
+     * @return true if the type was registered
+     */
+    public static boolean unregisterScript(String scriptType) {
+        return REGISTERED_SCRIPTS.remove(scriptType.toLowerCase()) != null;
     }
     
     /**
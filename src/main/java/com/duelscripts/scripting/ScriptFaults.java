@@ -0,0 +1,136 @@
+package com.duelscripts.scripting;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fault counters of one script type under a {@link ScriptGuard}, shared by
+ * every battle the script plays in.
+ * <p>
+ * A fault is a decision that overran the time budget, threw, or returned no
+ * action. After {@link ScriptGuard#getMaxFaults()} faults in a row the circuit
+ * breaker trips, and every later decision of the script is made by the
+ * guard's fallback script until {@link #reset()} is called. Under an
+ * {@linkplain ScriptGuard#setIsolated(boolean) isolated} guard a single
+ * timeout trips the breaker if the script is still running on its watchdog
+ * thread, since each such decision holds a thread until the script returns.
+ */
+public final class ScriptFaults {
+    private final String scriptName;
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder exceptions = new LongAdder();
+    private final LongAdder substitutions = new LongAdder();
+    private final AtomicInteger consecutiveFaults = new AtomicInteger();
+    private final AtomicInteger abandoned = new AtomicInteger();
+    private volatile boolean tripped;
+    
+    ScriptFaults(String scriptName) {
+        this.scriptName = scriptName;
+    }
+    
+    void recordSuccess() {
+        decisions.increment();
+        if (consecutiveFaults.get() != 0) {
+            consecutiveFaults.set(0);
+        }
+    }
+    
+    void recordTimeout(int maxFaults) {
+        decisions.increment();
+        timeouts.increment();
+        recordFault(maxFaults);
+    }
+    
+    void recordException(int maxFaults) {
+        decisions.increment();
+        exceptions.increment();
+        recordFault(maxFaults);
+    }
+    
+    void recordSubstitution() {
+        substitutions.increment();
+    }
+    
+    void recordAbandoned() {
+        abandoned.incrementAndGet();
+    }
+    
+    void recordAbandonedReturned() {
+        abandoned.decrementAndGet();
+    }
+    
+    private void recordFault(int maxFaults) {
+        if (consecutiveFaults.incrementAndGet() >= maxFaults) {
+            tripped = true;
+        }
+    }
+    
+    /**
+     * Closes the circuit breaker again, giving the script another chance.
+     * The counters are kept.
+     */
+    public void reset() {
+        consecutiveFaults.set(0);
+        tripped = false;
+    }
+    
+    public String getScriptName() {
+        return scriptName;
+    }
+    
+    /**
+     * Gets the number of decisions the script was asked for, faulty or not.
+     */
+    public long getDecisions() {
+        return decisions.sum();
+    }
+    
+    /**
+     * Gets the number of decisions that overran the time budget.
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+    
+    /**
+     * Gets the number of decisions that threw or returned no action.
+     */
+    public long getExceptions() {
+        return exceptions.sum();
+    }
+    
+    public long getFaults() {
+        return timeouts.sum() + exceptions.sum();
+    }
+    
+    /**
+     * Gets the number of actions chosen by the fallback script instead, both
+     * for faulty decisions and while the breaker is tripped.
+     */
+    public long getSubstitutions() {
+        return substitutions.sum();
+    }
+    
+    /**
+     * Gets the number of timed-out decisions that are still running on watchdog
+     * threads of an isolated guard.
+     */
+    public int getAbandoned() {
+        return abandoned.get();
+    }
+    
+    /**
+     * Checks whether the circuit breaker has tripped.
+     */
+    public boolean isTripped() {
+        return tripped;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d decisions, %d timeouts, %d exceptions, %d substituted%s",
+                             scriptName, getDecisions(), getTimeouts(), getExceptions(), getSubstitutions(),
+                             tripped ? ", tripped" : "");
+    }
+}
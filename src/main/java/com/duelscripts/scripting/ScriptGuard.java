@@ -0,0 +1,283 @@
+package com.duelscripts.scripting;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.scripting.scripts.BalancedScript;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs script decisions under a time budget and isolates the battle from
+ * scripts that fail.
+ * <p>
+ * A script wrapped by {@link #guard(CombatScript)} has every decision timed.
+ * A decision that overruns the budget, throws, or returns null is a fault: the
+ * turn is played with the action of a fallback script instead, and the fault
+ * is counted in the script's {@link ScriptFaults}. After
+ * {@link #setMaxFaults(int) max faults} in a row the script's circuit breaker
+ * trips and the fallback plays all of its later decisions, so a broken script
+ * costs a tournament a handful of budgets rather than a stalled worker.
+ * <p>
+ * By default decisions run on the calling thread and the budget is checked
+ * once the script returns, which costs two clock reads per decision but
+ * cannot interrupt a script that never returns. With
+ * {@linkplain #setIsolated(boolean) isolation} each decision runs on a
+ * watchdog thread of the guard and the caller stops waiting when the budget
+ * runs out. A runaway script keeps its thread busy until it returns, so a
+ * timeout that leaves the script running trips its breaker at once, however
+ * many decisions succeeded before, and a guarded script is not asked again
+ * while an abandoned decision of it is still running. A script that hangs
+ * now and then therefore holds at most one thread per concurrent battle.
+ * <p>
+ * A guard may be shared by any number of concurrent battles. Close an
+ * isolated guard to release its threads.
+ */
+public class ScriptGuard implements AutoCloseable {
+    private static final AtomicInteger GUARD_THREADS = new AtomicInteger();
+    
+    // States of a decision submitted to the watchdog
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int SETTLED = 2;
+    private static final int ABANDONED = 3;
+    
+    private final long budgetNanos;
+    private final ConcurrentMap<String, ScriptFaults> faults = new ConcurrentHashMap<>();
+    private volatile int maxFaults = 3;
+    private volatile Supplier<? extends CombatScript> fallback = BalancedScript::new;
+    private volatile boolean isolated;
+    private volatile ExecutorService watchdog;
+    
+    /**
+     * @param timeBudget The longest a single decision may take
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public ScriptGuard(Duration timeBudget) {
+        if (timeBudget.isNegative() || timeBudget.isZero()) {
+            throw new IllegalArgumentException("timeBudget must be positive: " + timeBudget);
+        }
+        this.budgetNanos = timeBudget.toNanos();
+    }
+    
+    /**
+     * Wraps a script so that its decisions run under this guard.
+     * @param script The script to guard
+     * @return A guarded script; {@code script} itself if it is already guarded by this guard
+     */
+    public GuardedScript guard(CombatScript script) {
+        if (script instanceof GuardedScript && ((GuardedScript) script).getGuard() == this) {
+            return (GuardedScript) script;
+        }
+        return new GuardedScript(script, this, getFaults(script.getName()));
+    }
+    
+    /**
+     * Gets the fault counters of a script, creating them if the script has not run yet.
+     * @param scriptName The script's {@linkplain CombatScript#getName() name}
+     */
+    public ScriptFaults getFaults(String scriptName) {
+        return faults.computeIfAbsent(scriptName, ScriptFaults::new);
+    }
+    
+    /**
+     * Gets the fault counters of every script guarded so far, by script name.
+     */
+    public Map<String, ScriptFaults> getAllFaults() {
+        return new TreeMap<>(faults);
+    }
+    
+    public Duration getTimeBudget() {
+        return Duration.ofNanos(budgetNanos);
+    }
+    
+    /**
+     * Sets how many faults in a row trip a script's circuit breaker. Defaults to 3.
+     * @throws IllegalArgumentException if the count is not positive
+     */
+    public void setMaxFaults(int maxFaults) {
+        if (maxFaults < 1) {
+            throw new IllegalArgumentException("maxFaults must be positive: " + maxFaults);
+        }
+        this.maxFaults = maxFaults;
+    }
+    
+    public int getMaxFaults() {
+        return maxFaults;
+    }
+    
+    /**
+     * Sets the script that decides in place of a faulty one. Each guarded
+     * script gets its own instance when it first needs one. Defaults to
+     * {@link BalancedScript}.
+     */
+    public void setFallback(Supplier<? extends CombatScript> fallback) {
+        this.fallback = Objects.requireNonNull(fallback, "fallback");
+    }
+    
+    /**
+     * Sets whether decisions run on watchdog threads that the caller can stop
+     * waiting for. Off by default.
+     */
+    public void setIsolated(boolean isolated) {
+        this.isolated = isolated;
+    }
+    
+    public boolean isIsolated() {
+        return isolated;
+    }
+    
+    /**
+     * Shuts the watchdog threads down. Decisions made afterwards run on the calling thread.
+     */
+    @Override
+    public synchronized void close() {
+        isolated = false;
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+            watchdog = null;
+        }
+    }
+    
+    CombatScript createFallback() {
+        return fallback.get();
+    }
+    
+    /**
+     * Asks a script for a decision within the budget.
+     * @return The action, or null if the decision was a fault
+     */
+    Action decide(GuardedScript guarded, FighterContext context) {
+        ExecutorService executor = isolated ? watchdog() : null;
+        if (executor != null) {
+            return decideIsolated(executor, guarded, context);
+        }
+        return decideInline(guarded.getDelegate(), context, guarded.getFaults());
+    }
+    
+    private Action decideInline(CombatScript script, FighterContext context, ScriptFaults scriptFaults) {
+        long start = System.nanoTime();
+        Action action;
+        try {
+            action = script.getNextAction(context);
+        } catch (RuntimeException | StackOverflowError e) {
+            scriptFaults.recordException(maxFaults);
+            return null;
+        }
+        if (System.nanoTime() - start > budgetNanos) {
+            scriptFaults.recordTimeout(maxFaults);
+            return null;
+        }
+        return checked(action, scriptFaults);
+    }
+    
+    private Action decideIsolated(ExecutorService executor, GuardedScript guarded, FighterContext context) {
+        CombatScript script = guarded.getDelegate();
+        ScriptFaults scriptFaults = guarded.getFaults();
+        if (!guarded.startWatchedDecision()) {
+            // Asking again would run the script concurrently with its abandoned decision
+            scriptFaults.recordTimeout(1);
+            return null;
+        }
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        Future<Action> decision;
+        try {
+            decision = executor.submit(() -> {
+                if (!state.compareAndSet(QUEUED, RUNNING)) {
+                    return null; // Given up before it started
+                }
+                try {
+                    return script.getNextAction(context);
+                } finally {
+                    guarded.finishWatchedDecision();
+                    if (state.getAndSet(SETTLED) == ABANDONED) {
+                        scriptFaults.recordAbandonedReturned();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently; run on the calling thread instead
+            guarded.finishWatchedDecision();
+            return decideInline(script, context, scriptFaults);
+        }
+        try {
+            return checked(decision.get(budgetNanos, TimeUnit.NANOSECONDS), scriptFaults);
+        } catch (TimeoutException e) {
+            // A decision left running holds its thread, so it trips the breaker on its own
+            scriptFaults.recordTimeout(abandon(decision, state, guarded) ? 1 : maxFaults);
+            return null;
+        } catch (ExecutionException e) {
+            scriptFaults.recordException(maxFaults);
+            return null;
+        } catch (InterruptedException e) {
+            abandon(decision, state, guarded);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for script " + script.getName(), e);
+        }
+    }
+    
+    /**
+     * Stops waiting for a decision submitted to the watchdog.
+     * @return true if the script is still running the decision
+     */
+    private static boolean abandon(Future<Action> decision, AtomicInteger state, GuardedScript guarded) {
+        if (state.compareAndSet(QUEUED, SETTLED)) {
+            decision.cancel(false);
+            guarded.finishWatchedDecision();
+            return false;
+        }
+        // Counted first so the count never drops below zero when the decision returns right away
+        guarded.getFaults().recordAbandoned();
+        if (state.compareAndSet(RUNNING, ABANDONED)) {
+            decision.cancel(true);
+            return true;
+        }
+        guarded.getFaults().recordAbandonedReturned();
+        return false;
+    }
+    
+    private Action checked(Action action, ScriptFaults scriptFaults) {
+        if (action == null) {
+            scriptFaults.recordException(maxFaults);
+            return null;
+        }
+        scriptFaults.recordSuccess();
+        return action;
+    }
+    
+    /**
+     * Gets the watchdog threads, starting them on first use.
+     * @return The executor, or null if the guard has been closed
+     */
+    private ExecutorService watchdog() {
+        ExecutorService executor = watchdog;
+        if (executor == null) {
+            synchronized (this) {
+                if (!isolated) {
+                    return null;
+                }
+                if (watchdog == null) {
+                    watchdog = Executors.newCachedThreadPool(task -> {
+                        Thread thread = new Thread(task, "script-guard-" + GUARD_THREADS.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                executor = watchdog;
+            }
+        }
+        return executor;
+    }
+}
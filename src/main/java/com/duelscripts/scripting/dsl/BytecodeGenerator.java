@@ -0,0 +1,619 @@
+package com.duelscripts.scripting.dsl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the conditions of a rule script into a hidden class whose
+ * {@code getNextAction} tests them inline, exactly like a hand-written script.
+ * <p>
+ * The class file is written by hand: one constructor that passes the
+ * {@link RuleScript.Definition} to the superclass, and {@code getNextAction},
+ * which evaluates each condition with jumps straight to the next rule when it
+ * fails. Whole-number arithmetic is done on {@code long}s and everything else
+ * on {@code double}s, with the same semantics as the lambda compiler in
+ * {@link ScriptCompiler}. The class file uses version 49, which the JVM
+ * verifies without stack map frames, so none are written.
+ */
+final class BytecodeGenerator {
+    private static final String CLASS_NAME = "com/duelscripts/scripting/dsl/GeneratedRuleScript";
+    private static final String SUPER_NAME = "com/duelscripts/scripting/dsl/RuleScript";
+    private static final String DEFINITION = "Lcom/duelscripts/scripting/dsl/RuleScript$Definition;";
+    private static final String CONTEXT_NAME = "com/duelscripts/scripting/FighterContext";
+    private static final String CONTEXT = "L" + CONTEXT_NAME + ";";
+    private static final String FIGHTER_NAME = "com/duelscripts/core/Fighter";
+    private static final String FIGHTER = "L" + FIGHTER_NAME + ";";
+    private static final String LAST_TURN_NAME = "com/duelscripts/scripting/dsl/LastTurn";
+    
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    
+    private static final int ICONST_0 = 0x03;
+    private static final int ICONST_1 = 0x04;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC2_W = 0x14;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int AALOAD = 0x32;
+    private static final int LADD = 0x61;
+    private static final int DADD = 0x63;
+    private static final int LSUB = 0x65;
+    private static final int DSUB = 0x67;
+    private static final int LMUL = 0x69;
+    private static final int DMUL = 0x6b;
+    private static final int DDIV = 0x6f;
+    private static final int LREM = 0x71;
+    private static final int DREM = 0x73;
+    private static final int LNEG = 0x75;
+    private static final int DNEG = 0x77;
+    private static final int I2L = 0x85;
+    private static final int I2D = 0x87;
+    private static final int L2D = 0x8a;
+    private static final int LCMP = 0x94;
+    private static final int DCMPL = 0x97;
+    private static final int DCMPG = 0x98;
+    private static final int IFEQ = 0x99;
+    private static final int IFNE = 0x9a;
+    private static final int IFLT = 0x9b;
+    private static final int IFGE = 0x9c;
+    private static final int IFGT = 0x9d;
+    private static final int IFLE = 0x9e;
+    private static final int IF_ICMPEQ = 0x9f;
+    private static final int IF_ICMPNE = 0xa0;
+    private static final int GOTO = 0xa7;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    
+    /**
+     * A jump target; jumps emitted before the label is placed are patched when it is.
+     */
+    private static final class Label {
+        private int position = -1;
+        private final List<Integer> jumps = new ArrayList<>();
+    }
+    
+    private final ConstantPool pool = new ConstantPool();
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private int stack;
+    private int maxStack;
+    
+    private BytecodeGenerator() {
+    }
+    
+    /**
+     * Generates and instantiates a script class.
+     * @return The script, or null if the conditions do not fit in one method
+     *         or the class cannot be defined
+     */
+    static RuleScript generate(List<Node> conditions, RuleScript.Definition definition) {
+        if (conditions.size() >= Short.MAX_VALUE) {
+            return null;
+        }
+        try {
+            byte[] classFile = new BytecodeGenerator().writeClass(conditions);
+            if (classFile == null) {
+                return null;
+            }
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile, true);
+            MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(),
+                MethodType.methodType(void.class, RuleScript.Definition.class));
+            return (RuleScript) constructor.invoke(definition);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // The lambda compiler handles every script, so fall back to it
+            return null;
+        }
+    }
+    
+    private byte[] writeClass(List<Node> conditions) throws IOException {
+        byte[] constructorCode = constructorCode();
+        int constructorMaxStack = maxStack;
+        
+        code.reset();
+        stack = 0;
+        maxStack = 0;
+        int actions = pool.field(SUPER_NAME, "actions", "[Lcom/duelscripts/core/Action;");
+        for (int i = 0; i <= conditions.size(); i++) {
+            Label next = new Label();
+            if (i < conditions.size()) {
+                branchIfFalse(conditions.get(i), next);
+            }
+            emit(ALOAD_0, 1);
+            emitIndexed(GETFIELD, actions, 0);
+            emit(SIPUSH, 1);
+            code.write(i >> 8);
+            code.write(i);
+            emit(AALOAD, -1);
+            emit(ARETURN, -1);
+            place(next);
+        }
+        if (code.size() > Short.MAX_VALUE) {
+            return null;
+        }
+        byte[] methodCode = code.toByteArray();
+        
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef(SUPER_NAME);
+        int codeAttribute = pool.utf8("Code");
+        int constructorName = pool.utf8("<init>");
+        int constructorType = pool.utf8("(" + DEFINITION + ")V");
+        int methodName = pool.utf8("getNextAction");
+        int methodType = pool.utf8("(" + CONTEXT + ")Lcom/duelscripts/core/Action;");
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(49);
+        pool.write(out);
+        out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(0); // interfaces
+        out.writeShort(0); // fields
+        out.writeShort(2); // methods
+        writeMethod(out, constructorName, constructorType, codeAttribute, constructorMaxStack, constructorCode);
+        writeMethod(out, methodName, methodType, codeAttribute, maxStack, methodCode);
+        out.writeShort(0); // attributes
+        return bytes.toByteArray();
+    }
+    
+    private byte[] constructorCode() {
+        emit(ALOAD_0, 1);
+        emit(ALOAD_1, 1);
+        emitIndexed(INVOKESPECIAL, pool.method(SUPER_NAME, "<init>", "(" + DEFINITION + ")V"), -2);
+        emit(RETURN, 0);
+        return code.toByteArray();
+    }
+    
+    private static void writeMethod(DataOutputStream out, int name, int type, int codeAttribute,
+                                    int maxStack, byte[] methodCode) throws IOException {
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(name);
+        out.writeShort(type);
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + methodCode.length);
+        out.writeShort(maxStack);
+        out.writeShort(2); // this, context
+        out.writeInt(methodCode.length);
+        out.write(methodCode);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+    }
+    
+    /**
+     * Emits code that jumps to {@code target} when a condition is false and falls through when it holds.
+     */
+    private void branchIfFalse(Node node, Label target) {
+        branch(node, target, false);
+    }
+    
+    private void branch(Node node, Label target, boolean jumpWhen) {
+        if (node.isConstant()) {
+            if (ScriptCompiler.condition(node).test(null) == jumpWhen) {
+                jump(GOTO, target);
+            }
+            return;
+        }
+        if (node instanceof Node.VariableRef) {
+            pushFlag(((Node.VariableRef) node).variable);
+            jump(jumpWhen ? IFNE : IFEQ, target);
+            return;
+        }
+        if (node instanceof Node.Unary) {
+            branch(((Node.Unary) node).operand, target, !jumpWhen);
+            return;
+        }
+        Node.Binary binary = (Node.Binary) node;
+        switch (binary.operator) {
+            case "and":
+            case "or":
+                // "and" fails as soon as one side is false; "or" succeeds as soon as one side is true
+                boolean shortCircuitValue = binary.operator.equals("or");
+                if (jumpWhen == shortCircuitValue) {
+                    branch(binary.left, target, jumpWhen);
+                    branch(binary.right, target, jumpWhen);
+                } else {
+                    Label skip = new Label();
+                    branch(binary.left, skip, !jumpWhen);
+                    branch(binary.right, target, jumpWhen);
+                    place(skip);
+                }
+                return;
+            default:
+                break;
+        }
+        
+        int jumpIfTrue;
+        if (binary.left.type() == Node.Type.BOOLEAN) {
+            pushBoolean(binary.left);
+            pushBoolean(binary.right);
+            jumpIfTrue = binary.operator.equals("==") ? IF_ICMPEQ : IF_ICMPNE;
+        } else {
+            if (ScriptCompiler.isIntegral(binary.left) && ScriptCompiler.isIntegral(binary.right)) {
+                pushLong(binary.left);
+                pushLong(binary.right);
+                emit(LCMP, -3);
+            } else {
+                pushDouble(binary.left);
+                pushDouble(binary.right);
+                // Pick the comparison that makes NaN fail the test
+                boolean lessThan = binary.operator.equals("<") || binary.operator.equals("<=");
+                emit(lessThan ? DCMPG : DCMPL, -3);
+            }
+            jumpIfTrue = compareJump(binary.operator);
+        }
+        jump(jumpWhen ? jumpIfTrue : complement(jumpIfTrue), target);
+    }
+    
+    private static int compareJump(String operator) {
+        switch (operator) {
+            case "<":
+                return IFLT;
+            case "<=":
+                return IFLE;
+            case ">":
+                return IFGT;
+            case ">=":
+                return IFGE;
+            case "==":
+                return IFEQ;
+            case "!=":
+                return IFNE;
+            default:
+                throw new IllegalStateException("Unexpected operator: " + operator);
+        }
+    }
+    
+    private static int complement(int opcode) {
+        switch (opcode) {
+            case IFEQ:
+                return IFNE;
+            case IFNE:
+                return IFEQ;
+            case IFLT:
+                return IFGE;
+            case IFGE:
+                return IFLT;
+            case IFGT:
+                return IFLE;
+            case IFLE:
+                return IFGT;
+            case IF_ICMPEQ:
+                return IF_ICMPNE;
+            case IF_ICMPNE:
+                return IF_ICMPEQ;
+            default:
+                throw new IllegalStateException("No complement for opcode " + opcode);
+        }
+    }
+    
+    /**
+     * Pushes a condition as the int 0 or 1.
+     */
+    private void pushBoolean(Node node) {
+        Label isFalse = new Label();
+        Label end = new Label();
+        branchIfFalse(node, isFalse);
+        emit(ICONST_1, 1);
+        jump(GOTO, end);
+        stack--; // the false path starts without the 1
+        place(isFalse);
+        emit(ICONST_0, 1);
+        place(end);
+    }
+    
+    private void pushFlag(Node.Variable variable) {
+        emit(ALOAD_1, 1);
+        switch (variable) {
+            case FIRST:
+                emitIndexed(INVOKEVIRTUAL, pool.method(CONTEXT_NAME, "isFirstTurn", "()Z"), 0);
+                break;
+            case LAST_HIT:
+                invokeLastTurn("hit", "Z");
+                break;
+            case LAST_PARRIED:
+                invokeLastTurn("parried", "Z");
+                break;
+            case LAST_BLOCKED:
+                invokeLastTurn("blocked", "Z");
+                break;
+            case LAST_CRIT:
+                invokeLastTurn("crit", "Z");
+                break;
+            case LAST_CRIT_TAKEN:
+                invokeLastTurn("critTaken", "Z");
+                break;
+            default:
+                throw new IllegalStateException("Not a flag: " + variable.getName());
+        }
+    }
+    
+    private void pushLong(Node node) {
+        if (node.isConstant()) {
+            emitIndexed(LDC2_W, pool.longConstant(ScriptCompiler.integer(node).applyAsLong(null)), 2);
+            return;
+        }
+        if (node instanceof Node.VariableRef) {
+            pushInt(((Node.VariableRef) node).variable);
+            emit(I2L, 1);
+            return;
+        }
+        if (node instanceof Node.Unary) {
+            pushLong(((Node.Unary) node).operand);
+            emit(LNEG, 0);
+            return;
+        }
+        Node.Binary binary = (Node.Binary) node;
+        pushLong(binary.left);
+        pushLong(binary.right);
+        switch (binary.operator) {
+            case "+":
+                emit(LADD, -2);
+                break;
+            case "-":
+                emit(LSUB, -2);
+                break;
+            case "*":
+                emit(LMUL, -2);
+                break;
+            case "%":
+                emit(LREM, -2);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected operator: " + binary.operator);
+        }
+    }
+    
+    private void pushDouble(Node node) {
+        if (node.isConstant()) {
+            emitIndexed(LDC2_W, pool.doubleConstant(ScriptCompiler.number(node).applyAsDouble(null)), 2);
+            return;
+        }
+        if (ScriptCompiler.isIntegral(node)) {
+            pushLong(node);
+            emit(L2D, 0);
+            return;
+        }
+        if (node instanceof Node.VariableRef) {
+            Node.Variable variable = ((Node.VariableRef) node).variable;
+            if (variable != Node.Variable.SELF_HEALTH && variable != Node.Variable.OPPONENT_HEALTH) {
+                pushInt(variable);
+                emit(I2D, 1);
+                return;
+            }
+            // 100.0 * hitPoints / maxHitPoints, in the same order as the lambda compiler
+            String fighter = variable == Node.Variable.SELF_HEALTH ? "getSelf" : "getOpponent";
+            emitIndexed(LDC2_W, pool.doubleConstant(100.0), 2);
+            pushFighterInt(fighter, "getHitPoints");
+            emit(I2D, 1);
+            emit(DMUL, -2);
+            pushFighterInt(fighter, "getMaxHitPoints");
+            emit(I2D, 1);
+            emit(DDIV, -2);
+            return;
+        }
+        if (node instanceof Node.Unary) {
+            pushDouble(((Node.Unary) node).operand);
+            emit(DNEG, 0);
+            return;
+        }
+        Node.Binary binary = (Node.Binary) node;
+        pushDouble(binary.left);
+        pushDouble(binary.right);
+        switch (binary.operator) {
+            case "+":
+                emit(DADD, -2);
+                break;
+            case "-":
+                emit(DSUB, -2);
+                break;
+            case "*":
+                emit(DMUL, -2);
+                break;
+            case "/":
+                emit(DDIV, -2);
+                break;
+            case "%":
+                emit(DREM, -2);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected operator: " + binary.operator);
+        }
+    }
+    
+    /**
+     * Pushes a whole-number variable as an int.
+     */
+    private void pushInt(Node.Variable variable) {
+        switch (variable) {
+            case TURN:
+                emit(ALOAD_1, 1);
+                emitIndexed(INVOKEVIRTUAL, pool.method(CONTEXT_NAME, "getCurrentTurn", "()I"), 0);
+                break;
+            case SELF_HP:
+                pushFighterInt("getSelf", "getHitPoints");
+                break;
+            case SELF_MAX_HP:
+                pushFighterInt("getSelf", "getMaxHitPoints");
+                break;
+            case OPPONENT_HP:
+                pushFighterInt("getOpponent", "getHitPoints");
+                break;
+            case OPPONENT_MAX_HP:
+                pushFighterInt("getOpponent", "getMaxHitPoints");
+                break;
+            case LAST_DEALT:
+                emit(ALOAD_1, 1);
+                invokeLastTurn("dealt", "I");
+                break;
+            case LAST_TAKEN:
+                emit(ALOAD_1, 1);
+                invokeLastTurn("taken", "I");
+                break;
+            default:
+                throw new IllegalStateException("Not a whole number: " + variable.getName());
+        }
+    }
+    
+    private void pushFighterInt(String fighter, String getter) {
+        emit(ALOAD_1, 1);
+        emitIndexed(INVOKEVIRTUAL, pool.method(CONTEXT_NAME, fighter, "()" + FIGHTER), 0);
+        emitIndexed(INVOKEVIRTUAL, pool.method(FIGHTER_NAME, getter, "()I"), 0);
+    }
+    
+    private void invokeLastTurn(String method, String returnType) {
+        emitIndexed(INVOKESTATIC, pool.method(LAST_TURN_NAME, method, "(" + CONTEXT + ")" + returnType), 0);
+    }
+    
+    private void emit(int opcode, int stackChange) {
+        code.write(opcode);
+        stack += stackChange;
+        maxStack = Math.max(maxStack, stack);
+    }
+    
+    private void emitIndexed(int opcode, int index, int stackChange) {
+        emit(opcode, stackChange);
+        code.write(index >> 8);
+        code.write(index);
+    }
+    
+    private void jump(int opcode, Label target) {
+        int position = code.size();
+        switch (opcode) {
+            case GOTO:
+                emit(opcode, 0);
+                break;
+            case IF_ICMPEQ:
+            case IF_ICMPNE:
+                emit(opcode, -2);
+                break;
+            default:
+                emit(opcode, -1);
+                break;
+        }
+        target.jumps.add(position);
+        code.write(0);
+        code.write(0);
+    }
+    
+    private void place(Label label) {
+        label.position = code.size();
+        if (!label.jumps.isEmpty()) {
+            byte[] bytes = code.toByteArray();
+            for (int jump : label.jumps) {
+                int offset = label.position - jump;
+                bytes[jump + 1] = (byte) (offset >> 8);
+                bytes[jump + 2] = (byte) offset;
+            }
+            code.reset();
+            code.write(bytes, 0, bytes.length);
+        }
+    }
+    
+    /**
+     * The constant pool of the generated class, with entries shared by value.
+     */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+        
+        int utf8(String value) {
+            return entry("U" + value, 1, () -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+        
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, 1, () -> {
+                out.writeByte(7);
+                out.writeShort(name);
+            });
+        }
+        
+        int field(String owner, String name, String descriptor) {
+            return member(9, owner, name, descriptor);
+        }
+        
+        int method(String owner, String name, String descriptor) {
+            return member(10, owner, name, descriptor);
+        }
+        
+        int longConstant(long value) {
+            return entry("J" + value, 2, () -> {
+                out.writeByte(5);
+                out.writeLong(value);
+            });
+        }
+        
+        int doubleConstant(double value) {
+            return entry("D" + Double.doubleToRawLongBits(value), 2, () -> {
+                out.writeByte(6);
+                out.writeDouble(value);
+            });
+        }
+        
+        void write(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            target.write(bytes.toByteArray());
+        }
+        
+        private int member(int tag, String owner, String name, String descriptor) {
+            int ownerClass = classRef(owner);
+            int nameUtf8 = utf8(name);
+            int descriptorUtf8 = utf8(descriptor);
+            int nameAndType = entry("N" + name + ":" + descriptor, 1, () -> {
+                out.writeByte(12);
+                out.writeShort(nameUtf8);
+                out.writeShort(descriptorUtf8);
+            });
+            return entry(tag + owner + "." + name + ":" + descriptor, 1, () -> {
+                out.writeByte(tag);
+                out.writeShort(ownerClass);
+                out.writeShort(nameAndType);
+            });
+        }
+        
+        private interface Writer {
+            void write() throws IOException;
+        }
+        
+        private int entry(String key, int slots, Writer writer) {
+            Integer existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                writer.write();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            int index = count;
+            count += slots;
+            if (count > 0xFFFF) {
+                throw new IllegalStateException("Constant pool overflow");
+            }
+            entries.put(key, index);
+            return index;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.duelscripts.scripting.dsl;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.scripting.FighterContext;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A rule script whose conditions are trees of lambdas. Used when a script
+ * cannot be turned into bytecode, for instance because it is too long for a
+ * single method.
+ */
+final class LambdaRuleScript extends RuleScript {
+    private final List<Predicate<FighterContext>> conditions;
+    
+    LambdaRuleScript(Definition definition, List<Predicate<FighterContext>> conditions) {
+        super(definition);
+        this.conditions = List.copyOf(conditions);
+    }
+    
+    @Override
+    public Action getNextAction(FighterContext context) {
+        int count = conditions.size();
+        for (int i = 0; i < count; i++) {
+            if (conditions.get(i).test(context)) {
+                return actions[i];
+            }
+        }
+        return actions[count];
+    }
+}
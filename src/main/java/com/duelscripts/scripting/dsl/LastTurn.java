@@ -0,0 +1,65 @@
+package com.duelscripts.scripting.dsl;
+
+import com.duelscripts.combat.TurnResult;
+import com.duelscripts.scripting.FighterContext;
+
+/**
+ * The {@code last} values of a rule script, seen from the script's own fighter.
+ * Compiled scripts call these directly; each returns 0 or false on the first turn.
+ */
+final class LastTurn {
+    private LastTurn() {
+    }
+    
+    static int dealt(FighterContext context) {
+        TurnResult turn = context.getLastTurnResult();
+        if (turn == null || !turn.isStructured()) {
+            return 0;
+        }
+        return context.isSelfFighter1() ? turn.getFighter2Damage() : turn.getFighter1Damage();
+    }
+    
+    static int taken(FighterContext context) {
+        TurnResult turn = context.getLastTurnResult();
+        if (turn == null || !turn.isStructured()) {
+            return 0;
+        }
+        return context.isSelfFighter1() ? turn.getFighter1Damage() : turn.getFighter2Damage();
+    }
+    
+    static boolean hit(FighterContext context) {
+        return dealt(context) > 0;
+    }
+    
+    static boolean parried(FighterContext context) {
+        TurnResult turn = context.getLastTurnResult();
+        if (turn == null || !turn.isStructured()) {
+            return false;
+        }
+        return context.isSelfFighter1() ? turn.isFighter1StrikeParried() : turn.isFighter2StrikeParried();
+    }
+    
+    static boolean blocked(FighterContext context) {
+        TurnResult turn = context.getLastTurnResult();
+        if (turn == null || !turn.isStructured()) {
+            return false;
+        }
+        return context.isSelfFighter1() ? turn.isFighter2StrikeParried() : turn.isFighter1StrikeParried();
+    }
+    
+    static boolean crit(FighterContext context) {
+        TurnResult turn = context.getLastTurnResult();
+        if (turn == null || !turn.isStructured()) {
+            return false;
+        }
+        return context.isSelfFighter1() ? turn.isFighter1CriticalHit() : turn.isFighter2CriticalHit();
+    }
+    
+    static boolean critTaken(FighterContext context) {
+        TurnResult turn = context.getLastTurnResult();
+        if (turn == null || !turn.isStructured()) {
+            return false;
+        }
+        return context.isSelfFighter1() ? turn.isFighter2CriticalHit() : turn.isFighter1CriticalHit();
+    }
+}
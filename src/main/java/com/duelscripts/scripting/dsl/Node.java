@@ -0,0 +1,192 @@
+package com.duelscripts.scripting.dsl;
+
+/**
+ * Syntax tree of a rule script expression. Nodes are type-checked as the
+ * parser builds them, so the compiler can rely on every node's {@link Type}.
+ */
+abstract class Node {
+    enum Type {
+        NUMBER, BOOLEAN
+    }
+    
+    /**
+     * The values a script can read from its {@link com.duelscripts.scripting.FighterContext}.
+     */
+    enum Variable {
+        TURN("turn", Type.NUMBER, false),
+        FIRST("first", Type.BOOLEAN, false),
+        SELF_HEALTH("self.health", Type.NUMBER, false),
+        SELF_HP("self.hp", Type.NUMBER, false),
+        SELF_MAX_HP("self.maxhp", Type.NUMBER, false),
+        OPPONENT_HEALTH("opponent.health", Type.NUMBER, false),
+        OPPONENT_HP("opponent.hp", Type.NUMBER, false),
+        OPPONENT_MAX_HP("opponent.maxhp", Type.NUMBER, false),
+        LAST_DEALT("last.dealt", Type.NUMBER, true),
+        LAST_TAKEN("last.taken", Type.NUMBER, true),
+        LAST_HIT("last.hit", Type.BOOLEAN, true),
+        LAST_PARRIED("last.parried", Type.BOOLEAN, true),
+        LAST_BLOCKED("last.blocked", Type.BOOLEAN, true),
+        LAST_CRIT("last.crit", Type.BOOLEAN, true),
+        LAST_CRIT_TAKEN("last.crittaken", Type.BOOLEAN, true);
+        
+        private final String name;
+        private final Type type;
+        private final boolean readsHistory;
+        
+        Variable(String name, Type type, boolean readsHistory) {
+            this.name = name;
+            this.type = type;
+            this.readsHistory = readsHistory;
+        }
+        
+        String getName() {
+            return name;
+        }
+        
+        Type getType() {
+            return type;
+        }
+        
+        boolean readsHistory() {
+            return readsHistory;
+        }
+        
+        static Variable named(String name) {
+            for (Variable variable : values()) {
+                if (variable.name.equals(name)) {
+                    return variable;
+                }
+            }
+            return null;
+        }
+    }
+    
+    final int line;
+    
+    Node(int line) {
+        this.line = line;
+    }
+    
+    abstract Type type();
+    
+    /**
+     * Checks whether the node reads nothing from the context.
+     */
+    abstract boolean isConstant();
+    
+    static final class NumberLiteral extends Node {
+        final double value;
+        
+        NumberLiteral(int line, double value) {
+            super(line);
+            this.value = value;
+        }
+        
+        @Override
+        Type type() {
+            return Type.NUMBER;
+        }
+        
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+    }
+    
+    static final class BooleanLiteral extends Node {
+        final boolean value;
+        
+        BooleanLiteral(int line, boolean value) {
+            super(line);
+            this.value = value;
+        }
+        
+        @Override
+        Type type() {
+            return Type.BOOLEAN;
+        }
+        
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+    }
+    
+    static final class VariableRef extends Node {
+        final Variable variable;
+        
+        VariableRef(int line, Variable variable) {
+            super(line);
+            this.variable = variable;
+        }
+        
+        @Override
+        Type type() {
+            return variable.getType();
+        }
+        
+        @Override
+        boolean isConstant() {
+            return false;
+        }
+    }
+    
+    /**
+     * Negation ({@code -}) or logical {@code not}.
+     */
+    static final class Unary extends Node {
+        final String operator;
+        final Node operand;
+        
+        Unary(int line, String operator, Node operand) {
+            super(line);
+            this.operator = operator;
+            this.operand = operand;
+        }
+        
+        @Override
+        Type type() {
+            return operand.type();
+        }
+        
+        @Override
+        boolean isConstant() {
+            return operand.isConstant();
+        }
+    }
+    
+    /**
+     * Arithmetic, comparison or logical operator.
+     */
+    static final class Binary extends Node {
+        final String operator;
+        final Node left;
+        final Node right;
+        
+        Binary(int line, String operator, Node left, Node right) {
+            super(line);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+        
+        @Override
+        Type type() {
+            switch (operator) {
+                case "+":
+                case "-":
+                case "*":
+                case "/":
+                case "%":
+                    return Type.NUMBER;
+                default:
+                    return Type.BOOLEAN;
+            }
+        }
+        
+        @Override
+        boolean isConstant() {
+            return left.isConstant() && right.isConstant();
+        }
+    }
+}
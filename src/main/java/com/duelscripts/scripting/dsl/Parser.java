@@ -0,0 +1,400 @@
+package com.duelscripts.scripting.dsl;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recursive-descent parser for rule scripts. See {@link ScriptCompiler} for the grammar.
+ */
+final class Parser {
+    /**
+     * One {@code when} or {@code otherwise} line; the condition is null for {@code otherwise}.
+     */
+    static final class Rule {
+        final Node condition;
+        final Action action;
+        final int line;
+        
+        Rule(Node condition, Action action, int line) {
+            this.condition = condition;
+            this.action = action;
+            this.line = line;
+        }
+    }
+    
+    private enum Kind {
+        NUMBER, PERCENT, WORD, STRING, SYMBOL, NEWLINE, END
+    }
+    
+    private static final class Token {
+        final Kind kind;
+        final String text;
+        final int line;
+        
+        Token(Kind kind, String text, int line) {
+            this.kind = kind;
+            this.text = text;
+            this.line = line;
+        }
+        
+        @Override
+        public String toString() {
+            switch (kind) {
+                case NEWLINE:
+                    return "end of line";
+                case END:
+                    return "end of script";
+                case STRING:
+                    return '"' + text + '"';
+                case PERCENT:
+                    return text + "%";
+                default:
+                    return "'" + text + "'";
+            }
+        }
+    }
+    
+    private final List<Token> tokens;
+    private int position;
+    
+    String name;
+    String description;
+    final List<Rule> rules = new ArrayList<>();
+    
+    Parser(String source) {
+        this.tokens = tokenize(source);
+    }
+    
+    void parse() {
+        while (peek().kind != Kind.END) {
+            if (accept(Kind.NEWLINE)) {
+                continue;
+            }
+            Token keyword = expect(Kind.WORD, "'script', 'description', 'when' or 'otherwise'");
+            switch (keyword.text) {
+                case "script":
+                    if (name != null) {
+                        throw error(keyword, "script name is already set");
+                    }
+                    name = expect(Kind.STRING, "a quoted script name").text;
+                    break;
+                case "description":
+                    if (description != null) {
+                        throw error(keyword, "description is already set");
+                    }
+                    description = expect(Kind.STRING, "a quoted description").text;
+                    break;
+                case "when":
+                    Node condition = parseOr();
+                    if (condition.type() != Node.Type.BOOLEAN) {
+                        throw error(keyword, "the condition of a rule must be true or false, not a number");
+                    }
+                    expectSymbol(":");
+                    addRule(new Rule(condition, parseAction(), keyword.line));
+                    break;
+                case "otherwise":
+                    expectSymbol(":");
+                    addRule(new Rule(null, parseAction(), keyword.line));
+                    break;
+                default:
+                    throw error(keyword, "expected 'script', 'description', 'when' or 'otherwise' but found " + keyword);
+            }
+            if (peek().kind != Kind.END) {
+                expect(Kind.NEWLINE, "end of line");
+            }
+        }
+        if (rules.isEmpty()) {
+            throw new IllegalArgumentException("Script has no rules");
+        }
+    }
+    
+    private void addRule(Rule rule) {
+        if (!rules.isEmpty() && rules.get(rules.size() - 1).condition == null) {
+            throw new IllegalArgumentException("Line " + rule.line + ": rule can never apply after 'otherwise'");
+        }
+        rules.add(rule);
+    }
+    
+    private Action parseAction() {
+        expectWord("strike");
+        BodyPart strike = parseBodyPart();
+        expectWord("parry");
+        BodyPart parry = parseBodyPart();
+        return Action.of(strike, parry);
+    }
+    
+    private BodyPart parseBodyPart() {
+        Token token = expect(Kind.WORD, "'head', 'torso' or 'legs'");
+        for (BodyPart part : BodyPart.values()) {
+            if (part.name().toLowerCase(Locale.ROOT).equals(token.text)) {
+                return part;
+            }
+        }
+        throw error(token, "expected 'head', 'torso' or 'legs' but found " + token);
+    }
+    
+    private Node parseOr() {
+        Node left = parseAnd();
+        while (peekWord("or")) {
+            Token operator = next();
+            left = logical(operator, left, parseAnd());
+        }
+        return left;
+    }
+    
+    private Node parseAnd() {
+        Node left = parseNot();
+        while (peekWord("and")) {
+            Token operator = next();
+            left = logical(operator, left, parseNot());
+        }
+        return left;
+    }
+    
+    private Node parseNot() {
+        if (peekWord("not")) {
+            Token operator = next();
+            Node operand = parseNot();
+            requireType(operator, operand, Node.Type.BOOLEAN);
+            return new Node.Unary(operator.line, "not", operand);
+        }
+        return parseComparison();
+    }
+    
+    private Node parseComparison() {
+        Node left = parseAdditive();
+        if (peekSymbol("<", "<=", ">", ">=", "==", "!=")) {
+            Token operator = next();
+            Node right = parseAdditive();
+            boolean equality = operator.text.equals("==") || operator.text.equals("!=");
+            if (equality && left.type() != right.type()) {
+                throw error(operator, "cannot compare a number with true or false");
+            }
+            if (!equality) {
+                requireType(operator, left, Node.Type.NUMBER);
+                requireType(operator, right, Node.Type.NUMBER);
+            }
+            return new Node.Binary(operator.line, operator.text, left, right);
+        }
+        return left;
+    }
+    
+    private Node parseAdditive() {
+        Node left = parseMultiplicative();
+        while (peekSymbol("+", "-")) {
+            Token operator = next();
+            left = arithmetic(operator, left, parseMultiplicative());
+        }
+        return left;
+    }
+    
+    private Node parseMultiplicative() {
+        Node left = parseUnary();
+        while (peekSymbol("*", "/", "%")) {
+            Token operator = next();
+            left = arithmetic(operator, left, parseUnary());
+        }
+        return left;
+    }
+    
+    private Node parseUnary() {
+        if (peekSymbol("-")) {
+            Token operator = next();
+            Node operand = parseUnary();
+            requireType(operator, operand, Node.Type.NUMBER);
+            return new Node.Unary(operator.line, "-", operand);
+        }
+        return parsePrimary();
+    }
+    
+    private Node parsePrimary() {
+        Token token = next();
+        switch (token.kind) {
+            case NUMBER:
+            case PERCENT:
+                return new Node.NumberLiteral(token.line, Double.parseDouble(token.text));
+            case WORD:
+                if (token.text.equals("true") || token.text.equals("false")) {
+                    return new Node.BooleanLiteral(token.line, token.text.equals("true"));
+                }
+                Node.Variable variable = Node.Variable.named(token.text);
+                if (variable == null) {
+                    throw error(token, "unknown value " + token);
+                }
+                return new Node.VariableRef(token.line, variable);
+            case SYMBOL:
+                if (token.text.equals("(")) {
+                    Node inner = parseOr();
+                    expectSymbol(")");
+                    return inner;
+                }
+                break;
+            default:
+                break;
+        }
+        throw error(token, "expected a value but found " + token);
+    }
+    
+    private Node logical(Token operator, Node left, Node right) {
+        requireType(operator, left, Node.Type.BOOLEAN);
+        requireType(operator, right, Node.Type.BOOLEAN);
+        return new Node.Binary(operator.line, operator.text, left, right);
+    }
+    
+    private Node arithmetic(Token operator, Node left, Node right) {
+        requireType(operator, left, Node.Type.NUMBER);
+        requireType(operator, right, Node.Type.NUMBER);
+        return new Node.Binary(operator.line, operator.text, left, right);
+    }
+    
+    private void requireType(Token operator, Node operand, Node.Type type) {
+        if (operand.type() != type) {
+            throw error(operator, "'" + operator.text + "' needs "
+                        + (type == Node.Type.NUMBER ? "numbers" : "true or false values"));
+        }
+    }
+    
+    private Token peek() {
+        return tokens.get(position);
+    }
+    
+    private Token next() {
+        Token token = tokens.get(position);
+        if (token.kind != Kind.END) {
+            position++;
+        }
+        return token;
+    }
+    
+    private boolean accept(Kind kind) {
+        if (peek().kind == kind) {
+            next();
+            return true;
+        }
+        return false;
+    }
+    
+    private boolean peekWord(String word) {
+        return peek().kind == Kind.WORD && peek().text.equals(word);
+    }
+    
+    private boolean peekSymbol(String... symbols) {
+        if (peek().kind != Kind.SYMBOL) {
+            return false;
+        }
+        for (String symbol : symbols) {
+            if (peek().text.equals(symbol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private Token expect(Kind kind, String expected) {
+        Token token = next();
+        if (token.kind != kind) {
+            throw error(token, "expected " + expected + " but found " + token);
+        }
+        return token;
+    }
+    
+    private void expectWord(String word) {
+        Token token = next();
+        if (token.kind != Kind.WORD || !token.text.equals(word)) {
+            throw error(token, "expected '" + word + "' but found " + token);
+        }
+    }
+    
+    private void expectSymbol(String symbol) {
+        Token token = next();
+        if (token.kind != Kind.SYMBOL || !token.text.equals(symbol)) {
+            throw error(token, "expected '" + symbol + "' but found " + token);
+        }
+    }
+    
+    private static IllegalArgumentException error(Token token, String message) {
+        return new IllegalArgumentException("Line " + token.line + ": " + message);
+    }
+    
+    /**
+     * Splits the source into tokens. Line breaks inside parentheses are ignored,
+     * so long conditions can span lines; {@code #} starts a comment.
+     */
+    private static List<Token> tokenize(String source) {
+        List<Token> tokens = new ArrayList<>();
+        int line = 1;
+        int depth = 0;
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\n') {
+                if (depth == 0) {
+                    tokens.add(new Token(Kind.NEWLINE, "\n", line));
+                }
+                line++;
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '#') {
+                while (i < source.length() && source.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < source.length() && Character.isDigit(source.charAt(i + 1)))) {
+                int start = i;
+                while (i < source.length() && (Character.isDigit(source.charAt(i)) || source.charAt(i) == '.')) {
+                    i++;
+                }
+                String text = source.substring(start, i);
+                try {
+                    Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Line " + line + ": malformed number '" + text + "'");
+                }
+                // A percent sign directly after a number marks a percentage, not the remainder operator
+                if (i < source.length() && source.charAt(i) == '%') {
+                    tokens.add(new Token(Kind.PERCENT, text, line));
+                    i++;
+                } else {
+                    tokens.add(new Token(Kind.NUMBER, text, line));
+                }
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < source.length() && (Character.isLetterOrDigit(source.charAt(i))
+                                               || source.charAt(i) == '_' || source.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.WORD, source.substring(start, i).toLowerCase(Locale.ROOT), line));
+            } else if (c == '"') {
+                int end = source.indexOf('"', i + 1);
+                if (end < 0 || source.substring(i + 1, end).indexOf('\n') >= 0) {
+                    throw new IllegalArgumentException("Line " + line + ": unterminated string");
+                }
+                tokens.add(new Token(Kind.STRING, source.substring(i + 1, end), line));
+                i = end + 1;
+            } else {
+                String twoCharacters = i + 1 < source.length() ? source.substring(i, i + 2) : "";
+                if (twoCharacters.equals("<=") || twoCharacters.equals(">=")
+                        || twoCharacters.equals("==") || twoCharacters.equals("!=")) {
+                    tokens.add(new Token(Kind.SYMBOL, twoCharacters, line));
+                    i += 2;
+                } else if ("()<>:+-*/%".indexOf(c) >= 0) {
+                    if (c == '(') {
+                        depth++;
+                    } else if (c == ')' && depth > 0) {
+                        depth--;
+                    }
+                    tokens.add(new Token(Kind.SYMBOL, String.valueOf(c), line));
+                    i++;
+                } else {
+                    throw new IllegalArgumentException("Line " + line + ": unexpected character '" + c + "'");
+                }
+            }
+        }
+        tokens.add(new Token(Kind.END, "", line));
+        return tokens;
+    }
+}
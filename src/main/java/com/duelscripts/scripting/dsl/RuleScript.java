@@ -0,0 +1,66 @@
+package com.duelscripts.scripting.dsl;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.scripting.CombatScript;
+
+/**
+ * Base class of compiled rule scripts. Subclasses implement
+ * {@link #getNextAction} by testing the rule conditions in order and returning
+ * the matching entry of {@link #actions}, whose last entry is the fallback.
+ * Compiled scripts keep no state, so one instance can serve any number of
+ * fighters and battles.
+ */
+abstract class RuleScript implements CombatScript {
+    /**
+     * Everything about a compiled script except its conditions.
+     */
+    static final class Definition {
+        final String name;
+        final String description;
+        final Action[] actions;
+        final boolean historyIndependent;
+        final int turnPeriod;
+        
+        Definition(String name, String description, Action[] actions, boolean historyIndependent, int turnPeriod) {
+            this.name = name;
+            this.description = description;
+            this.actions = actions;
+            this.historyIndependent = historyIndependent;
+            this.turnPeriod = turnPeriod;
+        }
+    }
+    
+    final Action[] actions;
+    private final String name;
+    private final String description;
+    private final boolean historyIndependent;
+    private final int turnPeriod;
+    
+    RuleScript(Definition definition) {
+        this.actions = definition.actions;
+        this.name = definition.name;
+        this.description = definition.description;
+        this.historyIndependent = definition.historyIndependent;
+        this.turnPeriod = definition.turnPeriod;
+    }
+    
+    @Override
+    public final boolean isHistoryIndependent() {
+        return historyIndependent;
+    }
+    
+    @Override
+    public final int getTurnPeriod() {
+        return turnPeriod;
+    }
+    
+    @Override
+    public final String getName() {
+        return name;
+    }
+    
+    @Override
+    public final String getDescription() {
+        return description;
+    }
+}
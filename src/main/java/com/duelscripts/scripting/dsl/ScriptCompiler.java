@@ -0,0 +1,482 @@
+package com.duelscripts.scripting.dsl;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
+import com.duelscripts.scripting.CombatScript;
+import com.duelscripts.scripting.FighterContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compiles rule scripts into {@link CombatScript}s.
+ * <p>
+ * A rule script is a list of rules, one per line, tried from top to bottom:
+ * <pre>
+ *   script "Opportunist"
+ *   description "Goes for the head while ahead, turtles when hurt"
+ *   
+ *   when self.health &lt; 25% and not first: strike head parry head
+ *   when self.health &gt; opponent.health + 20: strike head parry torso
+ *   when turn % 3 == 0: strike legs parry torso
+ *   otherwise: strike torso parry torso
+ * </pre>
+ * Conditions combine numbers with {@code + - * / %}, compare them with
+ * {@code < <= > >= == !=}, and join the results with {@code and}, {@code or}
+ * and {@code not}. A number directly followed by {@code %} is a percentage;
+ * otherwise {@code %} is the remainder. Line breaks inside parentheses are
+ * ignored and {@code #} starts a comment. The values a condition can read are:
+ * <ul>
+ *   <li>{@code turn} - the current turn, starting at 1; {@code first} - whether it is turn 1</li>
+ *   <li>{@code self.health}, {@code opponent.health} - hit points as a percentage of the maximum</li>
+ *   <li>{@code self.hp}, {@code opponent.hp}, {@code self.maxhp}, {@code opponent.maxhp}</li>
+ *   <li>{@code last.dealt}, {@code last.taken} - damage dealt and taken in the previous turn</li>
+ *   <li>{@code last.hit}, {@code last.parried} - whether our previous strike landed or was parried</li>
+ *   <li>{@code last.blocked} - whether we parried the opponent's previous strike</li>
+ *   <li>{@code last.crit}, {@code last.crittaken} - critical hits dealt and taken in the previous turn</li>
+ * </ul>
+ * The {@code last} values are 0 or false on the first turn. A script without an
+ * {@code otherwise} rule strikes and parries the torso when no rule applies.
+ * <p>
+ * The script is parsed and checked once, with constant subexpressions folded
+ * away. The conditions are then compiled by {@link BytecodeGenerator} into a
+ * hidden class that tests them inline, with whole number arithmetic done on
+ * {@code long}s, so a turn costs about as much as in a hand-written script.
+ * A script the generator cannot handle, for instance one too long for a
+ * single method, falls back to a tree of small lambdas per condition. Scripts
+ * that never read {@code last} values are history-independent, and if they use
+ * {@code turn} only as {@code turn % n}, their turn period is derived as well,
+ * which lets the exact solvers and the lockstep simulator handle them.
+ */
+public final class ScriptCompiler {
+    private static final int MAX_TURN_PERIOD = 1024;
+    private static final Action DEFAULT_ACTION = Action.of(BodyPart.TORSO, BodyPart.TORSO);
+    
+    private ScriptCompiler() {
+    }
+    
+    /**
+     * Compiles a rule script.
+     * @param source The script source
+     * @return The compiled script
+     * @throws IllegalArgumentException if the script is malformed; the message names the line
+     */
+    public static CombatScript compile(String source) {
+        return compile(source, true);
+    }
+    
+    /**
+     * Compiles a rule script, optionally without generating bytecode.
+     */
+    static CombatScript compile(String source, boolean generateBytecode) {
+        Parser parser = new Parser(source);
+        parser.parse();
+        
+        List<Parser.Rule> rules = parser.rules;
+        Parser.Rule last = rules.get(rules.size() - 1);
+        int conditionalRules = last.condition == null ? rules.size() - 1 : rules.size();
+        List<Node> conditions = new ArrayList<>();
+        Action[] actions = new Action[conditionalRules + 1];
+        boolean readsHistory = false;
+        long period = 1;
+        for (int i = 0; i < conditionalRules; i++) {
+            Node condition = rules.get(i).condition;
+            conditions.add(condition);
+            actions[i] = rules.get(i).action;
+            readsHistory |= readsHistory(condition);
+            period = turnPeriod(condition, period);
+        }
+        actions[conditionalRules] = last.condition == null ? last.action : DEFAULT_ACTION;
+        
+        String name = parser.name != null ? parser.name : "Custom";
+        String description = parser.description != null ? parser.description : "User-defined rule script.";
+        RuleScript.Definition definition = new RuleScript.Definition(name, description, actions, !readsHistory,
+                                                                     readsHistory ? 0 : (int) period);
+        if (generateBytecode) {
+            RuleScript generated = BytecodeGenerator.generate(conditions, definition);
+            if (generated != null) {
+                return generated;
+            }
+        }
+        List<Predicate<FighterContext>> predicates = new ArrayList<>(conditions.size());
+        for (Node condition : conditions) {
+            predicates.add(condition(condition));
+        }
+        return new LambdaRuleScript(definition, predicates);
+    }
+    
+    /**
+     * Compiles a rule script from a file.
+     * @param path The script file, in UTF-8
+     * @return The compiled script
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the script is malformed
+     */
+    public static CombatScript compile(Path path) throws IOException {
+        return compile(Files.readString(path));
+    }
+    
+    static Predicate<FighterContext> condition(Node node) {
+        if (node.isConstant()) {
+            boolean value = compileCondition(node).test(null);
+            return context -> value;
+        }
+        return compileCondition(node);
+    }
+    
+    static ToDoubleFunction<FighterContext> number(Node node) {
+        if (node.isConstant()) {
+            double value = compileNumber(node).applyAsDouble(null);
+            return context -> value;
+        }
+        return compileNumber(node);
+    }
+    
+    private static Predicate<FighterContext> compileCondition(Node node) {
+        if (node instanceof Node.BooleanLiteral) {
+            boolean value = ((Node.BooleanLiteral) node).value;
+            return context -> value;
+        }
+        if (node instanceof Node.VariableRef) {
+            return flag(((Node.VariableRef) node).variable);
+        }
+        if (node instanceof Node.Unary) {
+            Predicate<FighterContext> operand = condition(((Node.Unary) node).operand);
+            return context -> !operand.test(context);
+        }
+        Node.Binary binary = (Node.Binary) node;
+        if (binary.left.type() == Node.Type.BOOLEAN) {
+            Predicate<FighterContext> left = condition(binary.left);
+            Predicate<FighterContext> right = condition(binary.right);
+            switch (binary.operator) {
+                case "and":
+                    return context -> left.test(context) && right.test(context);
+                case "or":
+                    return context -> left.test(context) || right.test(context);
+                case "==":
+                    return context -> left.test(context) == right.test(context);
+                case "!=":
+                    return context -> left.test(context) != right.test(context);
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + binary.operator);
+            }
+        }
+        if (isIntegral(binary.left) && isIntegral(binary.right)) {
+            return compareIntegers(binary);
+        }
+        ToDoubleFunction<FighterContext> left = number(binary.left);
+        if (binary.right.isConstant()) {
+            // Comparing against a constant is by far the most common shape
+            double bound = number(binary.right).applyAsDouble(null);
+            switch (binary.operator) {
+                case "<":
+                    return context -> left.applyAsDouble(context) < bound;
+                case "<=":
+                    return context -> left.applyAsDouble(context) <= bound;
+                case ">":
+                    return context -> left.applyAsDouble(context) > bound;
+                case ">=":
+                    return context -> left.applyAsDouble(context) >= bound;
+                case "==":
+                    return context -> left.applyAsDouble(context) == bound;
+                case "!=":
+                    return context -> left.applyAsDouble(context) != bound;
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + binary.operator);
+            }
+        }
+        ToDoubleFunction<FighterContext> right = number(binary.right);
+        switch (binary.operator) {
+            case "<":
+                return context -> left.applyAsDouble(context) < right.applyAsDouble(context);
+            case "<=":
+                return context -> left.applyAsDouble(context) <= right.applyAsDouble(context);
+            case ">":
+                return context -> left.applyAsDouble(context) > right.applyAsDouble(context);
+            case ">=":
+                return context -> left.applyAsDouble(context) >= right.applyAsDouble(context);
+            case "==":
+                return context -> left.applyAsDouble(context) == right.applyAsDouble(context);
+            case "!=":
+                return context -> left.applyAsDouble(context) != right.applyAsDouble(context);
+            default:
+                throw new IllegalStateException("Unexpected operator: " + binary.operator);
+        }
+    }
+    
+    private static Predicate<FighterContext> compareIntegers(Node.Binary binary) {
+        ToLongFunction<FighterContext> left = integer(binary.left);
+        if (binary.right.isConstant()) {
+            long bound = integer(binary.right).applyAsLong(null);
+            switch (binary.operator) {
+                case "<":
+                    return context -> left.applyAsLong(context) < bound;
+                case "<=":
+                    return context -> left.applyAsLong(context) <= bound;
+                case ">":
+                    return context -> left.applyAsLong(context) > bound;
+                case ">=":
+                    return context -> left.applyAsLong(context) >= bound;
+                case "==":
+                    return context -> left.applyAsLong(context) == bound;
+                case "!=":
+                    return context -> left.applyAsLong(context) != bound;
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + binary.operator);
+            }
+        }
+        ToLongFunction<FighterContext> right = integer(binary.right);
+        switch (binary.operator) {
+            case "<":
+                return context -> left.applyAsLong(context) < right.applyAsLong(context);
+            case "<=":
+                return context -> left.applyAsLong(context) <= right.applyAsLong(context);
+            case ">":
+                return context -> left.applyAsLong(context) > right.applyAsLong(context);
+            case ">=":
+                return context -> left.applyAsLong(context) >= right.applyAsLong(context);
+            case "==":
+                return context -> left.applyAsLong(context) == right.applyAsLong(context);
+            case "!=":
+                return context -> left.applyAsLong(context) != right.applyAsLong(context);
+            default:
+                throw new IllegalStateException("Unexpected operator: " + binary.operator);
+        }
+    }
+    
+    /**
+     * Checks whether an expression only ever produces whole numbers that can be
+     * computed with {@code long} arithmetic. The remainder qualifies only with a
+     * constant, non-zero divisor; division never does.
+     */
+    static boolean isIntegral(Node node) {
+        if (node instanceof Node.NumberLiteral) {
+            double value = ((Node.NumberLiteral) node).value;
+            return value == Math.rint(value) && Math.abs(value) < 1L << 52;
+        }
+        if (node instanceof Node.VariableRef) {
+            switch (((Node.VariableRef) node).variable) {
+                case TURN:
+                case SELF_HP:
+                case SELF_MAX_HP:
+                case OPPONENT_HP:
+                case OPPONENT_MAX_HP:
+                case LAST_DEALT:
+                case LAST_TAKEN:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        if (node instanceof Node.Unary) {
+            return node.type() == Node.Type.NUMBER && isIntegral(((Node.Unary) node).operand);
+        }
+        if (node instanceof Node.Binary) {
+            Node.Binary binary = (Node.Binary) node;
+            switch (binary.operator) {
+                case "+":
+                case "-":
+                case "*":
+                    return isIntegral(binary.left) && isIntegral(binary.right);
+                case "%":
+                    return isIntegral(binary.left) && isIntegral(binary.right) && binary.right.isConstant()
+                           && integer(binary.right).applyAsLong(null) != 0;
+                default:
+                    return false;
+            }
+        }
+        return false;
+    }
+    
+    static ToLongFunction<FighterContext> integer(Node node) {
+        if (node.isConstant()) {
+            long value = compileInteger(node).applyAsLong(null);
+            return context -> value;
+        }
+        return compileInteger(node);
+    }
+    
+    private static ToLongFunction<FighterContext> compileInteger(Node node) {
+        if (node instanceof Node.NumberLiteral) {
+            long value = (long) ((Node.NumberLiteral) node).value;
+            return context -> value;
+        }
+        if (node instanceof Node.VariableRef) {
+            Node.Variable variable = ((Node.VariableRef) node).variable;
+            switch (variable) {
+                case TURN:
+                    return FighterContext::getCurrentTurn;
+                case SELF_HP:
+                    return context -> context.getSelf().getHitPoints();
+                case OPPONENT_HP:
+                    return context -> context.getOpponent().getHitPoints();
+                default:
+                    ToDoubleFunction<FighterContext> value = value(variable);
+                    return context -> (long) value.applyAsDouble(context);
+            }
+        }
+        if (node instanceof Node.Unary) {
+            ToLongFunction<FighterContext> operand = integer(((Node.Unary) node).operand);
+            return context -> -operand.applyAsLong(context);
+        }
+        Node.Binary binary = (Node.Binary) node;
+        ToLongFunction<FighterContext> left = integer(binary.left);
+        if (binary.operator.equals("%")) {
+            long divisor = integer(binary.right).applyAsLong(null);
+            return context -> left.applyAsLong(context) % divisor;
+        }
+        ToLongFunction<FighterContext> right = integer(binary.right);
+        switch (binary.operator) {
+            case "+":
+                return context -> left.applyAsLong(context) + right.applyAsLong(context);
+            case "-":
+                return context -> left.applyAsLong(context) - right.applyAsLong(context);
+            case "*":
+                return context -> left.applyAsLong(context) * right.applyAsLong(context);
+            default:
+                throw new IllegalStateException("Unexpected operator: " + binary.operator);
+        }
+    }
+    
+    private static ToDoubleFunction<FighterContext> compileNumber(Node node) {
+        if (isIntegral(node) && !node.isConstant()) {
+            ToLongFunction<FighterContext> value = integer(node);
+            return context -> value.applyAsLong(context);
+        }
+        if (node instanceof Node.NumberLiteral) {
+            double value = ((Node.NumberLiteral) node).value;
+            return context -> value;
+        }
+        if (node instanceof Node.VariableRef) {
+            return value(((Node.VariableRef) node).variable);
+        }
+        if (node instanceof Node.Unary) {
+            ToDoubleFunction<FighterContext> operand = number(((Node.Unary) node).operand);
+            return context -> -operand.applyAsDouble(context);
+        }
+        Node.Binary binary = (Node.Binary) node;
+        ToDoubleFunction<FighterContext> left = number(binary.left);
+        ToDoubleFunction<FighterContext> right = number(binary.right);
+        switch (binary.operator) {
+            case "+":
+                return context -> left.applyAsDouble(context) + right.applyAsDouble(context);
+            case "-":
+                return context -> left.applyAsDouble(context) - right.applyAsDouble(context);
+            case "*":
+                return context -> left.applyAsDouble(context) * right.applyAsDouble(context);
+            case "/":
+                return context -> left.applyAsDouble(context) / right.applyAsDouble(context);
+            case "%":
+                return context -> left.applyAsDouble(context) % right.applyAsDouble(context);
+            default:
+                throw new IllegalStateException("Unexpected operator: " + binary.operator);
+        }
+    }
+    
+    private static ToDoubleFunction<FighterContext> value(Node.Variable variable) {
+        switch (variable) {
+            case TURN:
+                return FighterContext::getCurrentTurn;
+            case SELF_HEALTH:
+                return context -> 100.0 * context.getSelf().getHitPoints() / context.getSelf().getMaxHitPoints();
+            case SELF_HP:
+                return context -> context.getSelf().getHitPoints();
+            case SELF_MAX_HP:
+                return context -> context.getSelf().getMaxHitPoints();
+            case OPPONENT_HEALTH:
+                return context -> 100.0 * context.getOpponent().getHitPoints() / context.getOpponent().getMaxHitPoints();
+            case OPPONENT_HP:
+                return context -> context.getOpponent().getHitPoints();
+            case OPPONENT_MAX_HP:
+                return context -> context.getOpponent().getMaxHitPoints();
+            case LAST_DEALT:
+                return LastTurn::dealt;
+            case LAST_TAKEN:
+                return LastTurn::taken;
+            default:
+                throw new IllegalStateException("Not a number: " + variable.getName());
+        }
+    }
+    
+    private static Predicate<FighterContext> flag(Node.Variable variable) {
+        switch (variable) {
+            case FIRST:
+                return FighterContext::isFirstTurn;
+            case LAST_HIT:
+                return LastTurn::hit;
+            case LAST_PARRIED:
+                return LastTurn::parried;
+            case LAST_BLOCKED:
+                return LastTurn::blocked;
+            case LAST_CRIT:
+                return LastTurn::crit;
+            case LAST_CRIT_TAKEN:
+                return LastTurn::critTaken;
+            default:
+                throw new IllegalStateException("Not a flag: " + variable.getName());
+        }
+    }
+    
+    private static boolean readsHistory(Node node) {
+        if (node instanceof Node.VariableRef) {
+            return ((Node.VariableRef) node).variable.readsHistory();
+        }
+        if (node instanceof Node.Unary) {
+            return readsHistory(((Node.Unary) node).operand);
+        }
+        if (node instanceof Node.Binary) {
+            return readsHistory(((Node.Binary) node).left) || readsHistory(((Node.Binary) node).right);
+        }
+        return false;
+    }
+    
+    /**
+     * Folds the turn period of a condition into {@code period}: {@code turn % n}
+     * with a constant whole {@code n} repeats every {@code n} turns; any other
+     * use of {@code turn} makes the period unknown.
+     * @return The least common multiple of {@code period} and the condition's
+     *         period, or 0 if it is unknown or too long to be useful
+     */
+    private static long turnPeriod(Node node, long period) {
+        if (period == 0) {
+            return 0;
+        }
+        if (node instanceof Node.VariableRef) {
+            return ((Node.VariableRef) node).variable == Node.Variable.TURN ? 0 : period;
+        }
+        if (node instanceof Node.Unary) {
+            return turnPeriod(((Node.Unary) node).operand, period);
+        }
+        if (node instanceof Node.Binary) {
+            Node.Binary binary = (Node.Binary) node;
+            if (binary.operator.equals("%") && binary.left instanceof Node.VariableRef
+                    && ((Node.VariableRef) binary.left).variable == Node.Variable.TURN && binary.right.isConstant()) {
+                double modulus = number(binary.right).applyAsDouble(null);
+                if (modulus < 1 || modulus != Math.rint(modulus) || modulus > MAX_TURN_PERIOD) {
+                    return 0;
+                }
+                long combined = lcm(period, (long) modulus);
+                return combined > MAX_TURN_PERIOD ? 0 : combined;
+            }
+            return turnPeriod(binary.right, turnPeriod(binary.left, period));
+        }
+        return period;
+    }
+    
+    private static long lcm(long a, long b) {
+        long x = a;
+        long y = b;
+        while (y != 0) {
+            long t = x % y;
+            x = y;
+            y = t;
+        }
+        return a / x * b;
+    }
+}
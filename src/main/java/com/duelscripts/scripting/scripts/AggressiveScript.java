@@ -31,7 +31,17 @@ public class AggressiveScript implements CombatScript {
             }
         }
         
-        return new Action(strikeTarget, parryTarget);
+        return Action.of(strikeTarget, parryTarget);
+    }
+    
+    @Override
+    public boolean isHistoryIndependent() {
+        return true;
+    }
+    
+    @Override
+    public int getTurnPeriod() {
+        return 6;
     }
     
     @Override
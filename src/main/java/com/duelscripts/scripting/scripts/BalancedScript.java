@@ -4,7 +4,6 @@ import com.duelscripts.core.Action;
 import com.duelscripts.core.BodyPart;
 import com.duelscripts.scripting.CombatScript;
 import com.duelscripts.scripting.FighterContext;
-import com.duelscripts.combat.TurnResult;
 
 /**
  * A balanced combat script that mixes offensive and defensive strategies.
@@ -31,36 +30,36 @@ public class BalancedScript implements CombatScript {
             parryTarget = BodyPart.HEAD;
         }
         
-        // Use battle history for tactical decisions
+        // Vary the pattern after the opening turn
         if (!context.isFirstTurn()) {
-            TurnResult lastTurn = context.getLastTurnResult();
-            if (lastTurn != null) {
-                // Balanced approach: use damage patterns to adjust strategy
-                // If we took more damage last turn, be more defensive
-                // If we dealt more damage, be more aggressive
-                
-                // Note: fighter1Damage is damage TO fighter1, fighter2Damage is damage TO fighter2
-                // We need to determine which fighter we are to interpret the damage correctly
-                
-                // Simple pattern variation based on turn number
-                if (context.getCurrentTurn() % 3 == 0) {
-                    strikeTarget = BodyPart.HEAD;
-                } else if (context.getCurrentTurn() % 3 == 1) {
-                    strikeTarget = BodyPart.TORSO;
-                } else {
-                    strikeTarget = BodyPart.LEGS;
-                }
-                
-                // Vary parry targets too
-                if (context.getCurrentTurn() % 2 == 0) {
-                    parryTarget = BodyPart.HEAD;
-                } else {
-                    parryTarget = BodyPart.TORSO;
-                }
+            // Simple pattern variation based on turn number
+            if (context.getCurrentTurn() % 3 == 0) {
+                strikeTarget = BodyPart.HEAD;
+            } else if (context.getCurrentTurn() % 3 == 1) {
+                strikeTarget = BodyPart.TORSO;
+            } else {
+                strikeTarget = BodyPart.LEGS;
+            }
+            
+            // Vary parry targets too
+            if (context.getCurrentTurn() % 2 == 0) {
+                parryTarget = BodyPart.HEAD;
+            } else {
+                parryTarget = BodyPart.TORSO;
             }
         }
         
-        return new Action(strikeTarget, parryTarget);
+        return Action.of(strikeTarget, parryTarget);
+    }
+    
+    @Override
+    public boolean isHistoryIndependent() {
+        return true;
+    }
+    
+    @Override
+    public int getTurnPeriod() {
+        return 6;
     }
     
     @Override
@@ -42,7 +42,17 @@ public class BerserkerScript implements CombatScript {
             }
         }
         
-        return new Action(strikeTarget, parryTarget);
+        return Action.of(strikeTarget, parryTarget);
+    }
+    
+    @Override
+    public boolean isHistoryIndependent() {
+        return true;
+    }
+    
+    @Override
+    public int getTurnPeriod() {
+        return 2;
     }
     
     @Override
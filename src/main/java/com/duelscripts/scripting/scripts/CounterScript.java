@@ -16,34 +16,21 @@ public class CounterScript implements CombatScript {
         BodyPart strikeTarget = BodyPart.TORSO;
         BodyPart parryTarget = BodyPart.HEAD;
         
-        if (!context.isFirstTurn()) {
-            // Since we don't have access to opponent's actual actions,
-            // we'll use a simplified counter strategy based on turn patterns
-            
-            // Simple pattern-based counter strategy
-            int turn = context.getCurrentTurn();
-            
-            // Assume opponent follows some pattern and counter it
-            if (turn % 3 == 0) {
-                strikeTarget = BodyPart.HEAD;
-                parryTarget = BodyPart.TORSO;
-            } else if (turn % 3 == 1) {
-                strikeTarget = BodyPart.TORSO;
-                parryTarget = BodyPart.LEGS;
-            } else {
-                strikeTarget = BodyPart.LEGS;
-                parryTarget = BodyPart.HEAD;
-            }
+        Action opponentLast = context.getOpponentProfile().getLastAction();
+        if (opponentLast != null) {
+            // Parry where the opponent just struck, strike where it did not defend
+            strikeTarget = findCounterTarget(opponentLast.getParryTarget());
+            parryTarget = opponentLast.getStrikeTarget();
         }
         
         // Adjust based on health situation
         double selfHealth = context.getSelfHealthPercentage();
-        if (selfHealth < 0.25) {
-            // Desperate - go for maximum damage
+        if (selfHealth < 0.25 && (opponentLast == null || opponentLast.getParryTarget() != BodyPart.HEAD)) {
+            // Desperate - go for maximum damage unless the head was just guarded
             strikeTarget = BodyPart.HEAD;
         }
         
-        return new Action(strikeTarget, parryTarget);
+        return Action.of(strikeTarget, parryTarget);
     }
     
     /**
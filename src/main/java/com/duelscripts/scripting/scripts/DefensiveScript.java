@@ -43,7 +43,17 @@ public class DefensiveScript implements CombatScript {
             }
         }
         
-        return new Action(strikeTarget, parryTarget);
+        return Action.of(strikeTarget, parryTarget);
+    }
+    
+    @Override
+    public boolean isHistoryIndependent() {
+        return true;
+    }
+    
+    @Override
+    public int getTurnPeriod() {
+        return 3;
     }
     
     @Override
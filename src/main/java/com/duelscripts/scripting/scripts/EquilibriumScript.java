@@ -0,0 +1,61 @@
+package com.duelscripts.scripting.scripts;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.scripting.CombatScript;
+import com.duelscripts.scripting.FighterContext;
+import com.duelscripts.strategy.EquilibriumSolver;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A reference combat script that plays the battle-long equilibrium strategy.
+ * No other script can do better than the equilibrium value against it on average,
+ * which makes it a benchmark opponent. Strategies are solved once per pair of
+ * fighter specs and shared by all instances.
+ * <p>
+ * Actions are sampled from the battle's generator, so a battle or tournament
+ * with a seed replays exactly. The script's own generator is only used in
+ * battles without one.
+ */
+public class EquilibriumScript implements CombatScript {
+    private static final EquilibriumSolver SHARED_SOLVER = new EquilibriumSolver();
+    
+    private final EquilibriumSolver solver;
+    private final RandomGenerator random;
+    
+    public EquilibriumScript() {
+        this(SHARED_SOLVER, new SplittableRandom());
+    }
+    
+    /**
+     * Creates a script with its own solver and generator.
+     * @param random The generator used in battles that have none of their own
+     */
+    public EquilibriumScript(EquilibriumSolver solver, RandomGenerator random) {
+        this.solver = solver;
+        this.random = random;
+    }
+    
+    @Override
+    public Action getNextAction(FighterContext context) {
+        Fighter self = context.getSelf();
+        Fighter opponent = context.getOpponent();
+        RandomGenerator battleRandom = context.getRandom();
+        return solver.solve(self.getSpec(), self.getHitPoints(), opponent.getSpec(), opponent.getHitPoints())
+                     .getSelfStrategy()
+                     .sample(battleRandom != null ? battleRandom : random);
+    }
+    
+    @Override
+    public String getName() {
+        return "Equilibrium";
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Plays an unexploitable mixed strategy computed from both fighters' stats. " +
+               "Randomizes strikes and parries so no fixed counter-strategy can beat it.";
+    }
+}
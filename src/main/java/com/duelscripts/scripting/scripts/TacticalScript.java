@@ -4,6 +4,7 @@ import com.duelscripts.core.Action;
 import com.duelscripts.core.BodyPart;
 import com.duelscripts.scripting.CombatScript;
 import com.duelscripts.scripting.FighterContext;
+import com.duelscripts.scripting.OpponentProfile;
 import com.duelscripts.combat.TurnResult;
 
 /**
@@ -63,7 +64,7 @@ public class TacticalScript implements CombatScript {
     
     private Action earlyGameStrategy(FighterContext context) {
         // Conservative start, gather information
-        return new Action(BodyPart.TORSO, BodyPart.HEAD);
+        return Action.of(BodyPart.TORSO, BodyPart.HEAD);
     }
     
     private Action winningStrategy(FighterContext context) {
@@ -76,7 +77,7 @@ public class TacticalScript implements CombatScript {
             strikeTarget = BodyPart.HEAD;
         }
         
-        return new Action(strikeTarget, parryTarget);
+        return Action.of(strikeTarget, parryTarget);
     }
     
     private Action losingStrategy(FighterContext context) {
@@ -91,7 +92,7 @@ public class TacticalScript implements CombatScript {
             parryTarget = BodyPart.TORSO; // Less defensive
         }
         
-        return new Action(strikeTarget, parryTarget);
+        return Action.of(strikeTarget, parryTarget);
     }
     
     private Action criticalStrategy(FighterContext context) {
@@ -104,54 +105,49 @@ public class TacticalScript implements CombatScript {
             strikeTarget = BodyPart.TORSO; // Safer choice occasionally
         }
         
-        return new Action(strikeTarget, parryTarget);
+        return Action.of(strikeTarget, parryTarget);
     }
     
     private Action balancedStrategy(FighterContext context) {
         // Use pattern analysis if available
         if (!context.isFirstTurn()) {
             TurnResult lastTurn = context.getLastTurnResult();
-            if (lastTurn != null) {
+            if (lastTurn != null && lastTurn.isStructured()) {
                 // Tactical decision based on previous turn
                 return tacticalCounterMove(lastTurn, context);
             }
         }
         
         // Default balanced approach
-        return new Action(BodyPart.TORSO, BodyPart.TORSO);
+        return Action.of(BodyPart.TORSO, BodyPart.TORSO);
     }
     
     private Action tacticalCounterMove(TurnResult lastTurn, FighterContext context) {
-        // Since we don't have access to opponent actions in TurnResult,
-        // we'll use damage information to make tactical decisions
-        
-        // Use damage patterns to infer opponent behavior
-        int damageTaken = 0;
-        int damageDealt = 0;
-        
-        // The damage values in TurnResult are: 
-        // fighter1Damage = damage TO fighter1 (dealt by fighter2)
-        // fighter2Damage = damage TO fighter2 (dealt by fighter1)
+        // The damage values in TurnResult are damage TO each fighter, so read
+        // them from our own side
+        boolean selfFirst = context.isSelfFighter1();
+        int damageTaken = selfFirst ? lastTurn.getFighter1Damage() : lastTurn.getFighter2Damage();
+        int damageDealt = selfFirst ? lastTurn.getFighter2Damage() : lastTurn.getFighter1Damage();
+        boolean criticalTaken = selfFirst ? lastTurn.isFighter2CriticalHit() : lastTurn.isFighter1CriticalHit();
+        Action opponentLast = selfFirst ? lastTurn.getFighter2Action() : lastTurn.getFighter1Action();
+        
+        if (damageTaken == 0 && damageDealt == 0) {
+            return Action.of(BodyPart.TORSO, BodyPart.TORSO);
+        }
         
-        // We need to determine which fighter we are
-        // Since we don't have direct access, we'll use a simplified approach
+        // Strike where the opponent did not defend, and guard where it is
+        // expected to strike next
+        OpponentProfile profile = context.getOpponentProfile();
+        BodyPart counterStrike = findTacticalCounterStrike(opponentLast.getParryTarget());
+        Action predicted = profile.predictNextAction();
+        BodyPart counterParry = predicted != null ? predicted.getStrikeTarget() : opponentLast.getStrikeTarget();
         
-        // Tactical decision based on previous damage
-        if (lastTurn.getFighter1Damage() > 0 || lastTurn.getFighter2Damage() > 0) {
-            // There was damage dealt, adjust strategy
-            BodyPart counterStrike = BodyPart.TORSO;
-            BodyPart counterParry = BodyPart.HEAD;
-            
-            // If there was a critical hit, be more defensive
-            if (lastTurn.isFighter1CriticalHit() || lastTurn.isFighter2CriticalHit()) {
-                counterParry = BodyPart.HEAD;
-                counterStrike = BodyPart.TORSO; // Safer choice
-            }
-            
-            return new Action(counterStrike, counterParry);
+        // After a critical hit against us, guard the part that was just hit
+        if (criticalTaken) {
+            counterParry = opponentLast.getStrikeTarget();
         }
         
-        return new Action(BodyPart.TORSO, BodyPart.TORSO);
+        return Action.of(counterStrike, counterParry);
     }
     
     private BodyPart findTacticalCounterStrike(BodyPart opponentParry) {
@@ -0,0 +1,45 @@
+package com.duelscripts.strategy;
+
+/**
+ * Optimal mixed strategies of both fighters in a turn, and the value of the
+ * game to the first one.
+ */
+public final class Equilibrium {
+    private final MixedStrategy selfStrategy;
+    private final MixedStrategy opponentStrategy;
+    private final double value;
+    
+    Equilibrium(MixedStrategy selfStrategy, MixedStrategy opponentStrategy, double value) {
+        this.selfStrategy = selfStrategy;
+        this.opponentStrategy = opponentStrategy;
+        this.value = value;
+    }
+    
+    /**
+     * Gets the strategy that maximizes the worst-case payoff of the fighter the
+     * equilibrium was solved for.
+     */
+    public MixedStrategy getSelfStrategy() {
+        return selfStrategy;
+    }
+    
+    /**
+     * Gets the opponent's strategy that minimizes that payoff.
+     */
+    public MixedStrategy getOpponentStrategy() {
+        return opponentStrategy;
+    }
+    
+    /**
+     * Gets the expected payoff to the fighter the equilibrium was solved for when
+     * both sides play their equilibrium strategies.
+     */
+    public double getValue() {
+        return value;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Equilibrium (value %.4f): self %s, opponent %s", value, selfStrategy, opponentStrategy);
+    }
+}
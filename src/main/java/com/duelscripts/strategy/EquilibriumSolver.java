@@ -0,0 +1,322 @@
+package com.duelscripts.strategy;
+
+import com.duelscripts.core.BodyPart;
+import com.duelscripts.core.FighterSpec;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes equilibrium strategies for the simultaneous strike/parry game two
+ * fighters play every turn.
+ * <p>
+ * {@link #solveStage} treats a turn in isolation: the payoff is the expected
+ * damage dealt minus the expected damage taken. {@link #solve} plays the whole
+ * battle: the payoff is +1 for a win, -1 for a loss and 0 for a draw, every
+ * further turn is discounted by {@value #DISCOUNT}, and the value of each
+ * (hit points, hit points) state is computed from the states it can lead to.
+ * Because damage never heals, states only lead to states with fewer hit points
+ * or back to themselves (when both strikes are parried), so each state is
+ * solved once, in order, by finding the fixed point of its own value.
+ * <p>
+ * Battle-long solutions are cached per pair of specs. The cache keeps one
+ * equilibrium per pair of hit point buckets, so its size is independent of the
+ * fighters' hit points; the equilibrium of a bucket is the one at its middle.
+ * Solving a pair takes time proportional to {@code maxHitPoints1 * maxHitPoints2}.
+ * This class is thread-safe.
+ */
+public class EquilibriumSolver {
+    /**
+     * Weight of the next turn relative to the current one in battle-long solutions.
+     */
+    public static final double DISCOUNT = 0.99;
+    
+    private static final BodyPart[] BODY_PARTS = BodyPart.values();
+    private static final int ACTIONS = MixedStrategy.ACTION_COUNT;
+    private static final double TOLERANCE = 1e-10;
+    private static final int MAX_ITERATIONS = 100;
+    
+    private final int hitPointBuckets;
+    private final Map<PairKey, StrategyTable> cache = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a solver with 50 hit point buckets, which is exact for fighters
+     * with up to 50 hit points and close to exact well beyond that.
+     */
+    public EquilibriumSolver() {
+        this(50);
+    }
+    
+    /**
+     * @param hitPointBuckets The number of hit point ranges per fighter the cached strategies distinguish
+     * @throws IllegalArgumentException if hitPointBuckets is not positive
+     */
+    public EquilibriumSolver(int hitPointBuckets) {
+        if (hitPointBuckets < 1) {
+            throw new IllegalArgumentException("hitPointBuckets must be positive: " + hitPointBuckets);
+        }
+        this.hitPointBuckets = hitPointBuckets;
+    }
+    
+    /**
+     * Solves a single turn, scoring expected damage dealt minus expected damage taken.
+     * @param self The fighter to solve for
+     * @param opponent The opponent
+     * @return The equilibrium of the one-turn game
+     */
+    public Equilibrium solveStage(FighterSpec self, FighterSpec opponent) {
+        double[] expectedDamageDealt = expectedDamage(self);
+        double[] expectedDamageTaken = expectedDamage(opponent);
+        double[][] payoff = new double[ACTIONS][ACTIONS];
+        for (int a = 0; a < ACTIONS; a++) {
+            for (int b = 0; b < ACTIONS; b++) {
+                int selfStrike = a / BODY_PARTS.length;
+                int selfParry = a % BODY_PARTS.length;
+                int opponentStrike = b / BODY_PARTS.length;
+                int opponentParry = b % BODY_PARTS.length;
+                if (selfStrike != opponentParry) {
+                    payoff[a][b] += expectedDamageDealt[selfStrike];
+                }
+                if (opponentStrike != selfParry) {
+                    payoff[a][b] -= expectedDamageTaken[opponentStrike];
+                }
+            }
+        }
+        return toEquilibrium(MatrixGame.solve(payoff));
+    }
+    
+    /**
+     * Gets the battle-long equilibrium for a state, solving the pair of specs
+     * on first use.
+     * @param self The fighter to solve for
+     * @param selfHitPoints Its current hit points
+     * @param opponent The opponent
+     * @param opponentHitPoints The opponent's current hit points
+     * @return The cached equilibrium of the state's hit point buckets
+     */
+    public Equilibrium solve(FighterSpec self, int selfHitPoints, FighterSpec opponent, int opponentHitPoints) {
+        StrategyTable table = cache.computeIfAbsent(new PairKey(self, opponent),
+                                                    key -> solveBattle(key.self, key.opponent));
+        return table.get(selfHitPoints, opponentHitPoints);
+    }
+    
+    /**
+     * Gets the number of spec pairs solved so far.
+     */
+    public int getCachedPairs() {
+        return cache.size();
+    }
+    
+    private StrategyTable solveBattle(FighterSpec self, FighterSpec opponent) {
+        int maxHitPoints1 = self.getMaxHitPoints();
+        int maxHitPoints2 = opponent.getMaxHitPoints();
+        StrategyTable table = new StrategyTable(maxHitPoints1, maxHitPoints2, hitPointBuckets);
+        int[][] damage1 = damageTable(self);
+        int[][] damage2 = damageTable(opponent);
+        double critChance1 = self.getWeapon().getCriticalHitChance();
+        double critChance2 = opponent.getWeapon().getCriticalHitChance();
+        
+        // values[hp1][hp2] for states where both fighters are alive
+        double[][] values = new double[maxHitPoints1 + 1][maxHitPoints2 + 1];
+        double[][] base = new double[ACTIONS][ACTIONS];
+        double[][] selfLoop = new double[ACTIONS][ACTIONS];
+        double[][] payoff = new double[ACTIONS][ACTIONS];
+        
+        for (int hitPoints1 = 1; hitPoints1 <= maxHitPoints1; hitPoints1++) {
+            for (int hitPoints2 = 1; hitPoints2 <= maxHitPoints2; hitPoints2++) {
+                // Split each cell into the part that depends on this state's own value and the rest
+                for (int a = 0; a < ACTIONS; a++) {
+                    for (int b = 0; b < ACTIONS; b++) {
+                        base[a][b] = 0.0;
+                        selfLoop[a][b] = 0.0;
+                        boolean hit1 = a / BODY_PARTS.length != b % BODY_PARTS.length;
+                        boolean hit2 = b / BODY_PARTS.length != a % BODY_PARTS.length;
+                        for (int crit1 = 0; crit1 < (hit1 ? 2 : 1); crit1++) {
+                            double probability1 = !hit1 ? 1.0 : crit1 == 1 ? critChance1 : 1.0 - critChance1;
+                            int damageTo2 = hit1 ? damage1[a / BODY_PARTS.length][crit1] : 0;
+                            for (int crit2 = 0; crit2 < (hit2 ? 2 : 1); crit2++) {
+                                double probability2 = !hit2 ? 1.0 : crit2 == 1 ? critChance2 : 1.0 - critChance2;
+                                int damageTo1 = hit2 ? damage2[b / BODY_PARTS.length][crit2] : 0;
+                                double probability = probability1 * probability2;
+                                if (probability == 0.0) {
+                                    continue;
+                                }
+                                int next1 = Math.max(0, hitPoints1 - damageTo1);
+                                int next2 = Math.max(0, hitPoints2 - damageTo2);
+                                if (next1 == 0 || next2 == 0) {
+                                    base[a][b] += probability * Integer.signum(next1 - next2);
+                                } else if (next1 == hitPoints1 && next2 == hitPoints2) {
+                                    selfLoop[a][b] += probability * DISCOUNT;
+                                } else {
+                                    base[a][b] += probability * DISCOUNT * values[next1][next2];
+                                }
+                            }
+                        }
+                    }
+                }
+                
+                MatrixGame game = solveFixedPoint(base, selfLoop, payoff);
+                values[hitPoints1][hitPoints2] = game.getValue();
+                if (table.isRepresentative(hitPoints1, hitPoints2)) {
+                    table.put(hitPoints1, hitPoints2, toEquilibrium(game));
+                }
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * Finds v with v = value(base + v * selfLoop). The right-hand side is
+     * piecewise linear in v with slope below one, so Newton steps converge
+     * quickly; bisection keeps them inside the bracket [-1, 1].
+     */
+    private static MatrixGame solveFixedPoint(double[][] base, double[][] selfLoop, double[][] payoff) {
+        double low = -1.0;
+        double high = 1.0;
+        double guess = 0.0;
+        MatrixGame game = null;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            for (int a = 0; a < ACTIONS; a++) {
+                for (int b = 0; b < ACTIONS; b++) {
+                    payoff[a][b] = base[a][b] + guess * selfLoop[a][b];
+                }
+            }
+            game = MatrixGame.solve(payoff);
+            double residual = game.getValue() - guess;
+            if (Math.abs(residual) < TOLERANCE) {
+                break;
+            }
+            if (residual > 0) {
+                low = guess;
+            } else {
+                high = guess;
+            }
+            
+            // Slope of the value at the current strategies
+            double slope = 0.0;
+            double[] rowStrategy = game.getRowStrategy();
+            double[] columnStrategy = game.getColumnStrategy();
+            for (int a = 0; a < ACTIONS; a++) {
+                for (int b = 0; b < ACTIONS; b++) {
+                    slope += rowStrategy[a] * selfLoop[a][b] * columnStrategy[b];
+                }
+            }
+            double newton = (game.getValue() - slope * guess) / (1.0 - slope);
+            guess = newton > low && newton < high ? newton : (low + high) / 2;
+            if (high - low < TOLERANCE) {
+                break;
+            }
+        }
+        return game;
+    }
+    
+    private static Equilibrium toEquilibrium(MatrixGame game) {
+        return new Equilibrium(new MixedStrategy(game.getRowStrategy()),
+                               new MixedStrategy(game.getColumnStrategy()),
+                               game.getValue());
+    }
+    
+    private static double[] expectedDamage(FighterSpec spec) {
+        int[][] damage = damageTable(spec);
+        double critChance = spec.getWeapon().getCriticalHitChance();
+        double[] expected = new double[BODY_PARTS.length];
+        for (BodyPart part : BODY_PARTS) {
+            expected[part.ordinal()] = (1.0 - critChance) * damage[part.ordinal()][0]
+                                       + critChance * damage[part.ordinal()][1];
+        }
+        return expected;
+    }
+    
+    /**
+     * Damage a fighter deals, indexed by [strike target][critical ? 1 : 0].
+     */
+    private static int[][] damageTable(FighterSpec spec) {
+        int[][] damage = new int[BODY_PARTS.length][2];
+        for (BodyPart part : BODY_PARTS) {
+            damage[part.ordinal()][0] = spec.getDamageTable().getDamage(part, false);
+            damage[part.ordinal()][1] = spec.getDamageTable().getDamage(part, true);
+        }
+        return damage;
+    }
+    
+    /**
+     * Cache key: an ordered pair of specs.
+     */
+    private static final class PairKey {
+        private final FighterSpec self;
+        private final FighterSpec opponent;
+        
+        PairKey(FighterSpec self, FighterSpec opponent) {
+            this.self = self;
+            this.opponent = opponent;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PairKey)) {
+                return false;
+            }
+            PairKey other = (PairKey) o;
+            return self.equals(other.self) && opponent.equals(other.opponent);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(self, opponent);
+        }
+    }
+    
+    /**
+     * Equilibria of one pair of specs, one per pair of hit point buckets.
+     */
+    private static final class StrategyTable {
+        private final int maxHitPoints1;
+        private final int maxHitPoints2;
+        private final int buckets1;
+        private final int buckets2;
+        private final Equilibrium[] equilibria;
+        
+        StrategyTable(int maxHitPoints1, int maxHitPoints2, int buckets) {
+            this.maxHitPoints1 = maxHitPoints1;
+            this.maxHitPoints2 = maxHitPoints2;
+            this.buckets1 = Math.min(buckets, maxHitPoints1);
+            this.buckets2 = Math.min(buckets, maxHitPoints2);
+            this.equilibria = new Equilibrium[buckets1 * buckets2];
+        }
+        
+        boolean isRepresentative(int hitPoints1, int hitPoints2) {
+            return isMiddle(hitPoints1, maxHitPoints1, buckets1) && isMiddle(hitPoints2, maxHitPoints2, buckets2);
+        }
+        
+        void put(int hitPoints1, int hitPoints2, Equilibrium equilibrium) {
+            equilibria[index(hitPoints1, hitPoints2)] = equilibrium;
+        }
+        
+        Equilibrium get(int hitPoints1, int hitPoints2) {
+            return equilibria[index(hitPoints1, hitPoints2)];
+        }
+        
+        private int index(int hitPoints1, int hitPoints2) {
+            return bucket(hitPoints1, maxHitPoints1, buckets1) * buckets2 + bucket(hitPoints2, maxHitPoints2, buckets2);
+        }
+        
+        private static int bucket(int hitPoints, int maxHitPoints, int buckets) {
+            int clamped = Math.max(1, Math.min(maxHitPoints, hitPoints));
+            return (int) ((long) (clamped - 1) * buckets / maxHitPoints);
+        }
+        
+        /**
+         * Checks whether hit points are the middle value of their bucket.
+         */
+        private static boolean isMiddle(int hitPoints, int maxHitPoints, int buckets) {
+            int bucket = bucket(hitPoints, maxHitPoints, buckets);
+            int first = (int) (((long) bucket * maxHitPoints + buckets - 1) / buckets) + 1;
+            int last = (int) (((long) (bucket + 1) * maxHitPoints + buckets - 1) / buckets);
+            return hitPoints == (first + last) / 2;
+        }
+    }
+}
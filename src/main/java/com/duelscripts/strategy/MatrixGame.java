@@ -0,0 +1,134 @@
+package com.duelscripts.strategy;
+
+/**
+ * Solves finite two-player zero-sum games with the simplex method.
+ * <p>
+ * The row player maximizes and the column player minimizes the payoff. The
+ * payoff matrix is shifted to be strictly positive, after which the column
+ * player's problem becomes the linear program
+ * {@code maximize sum(y) subject to A y <= 1, y >= 0}; the row player's
+ * strategy is read from the dual values of the final tableau. Bland's rule
+ * keeps degenerate games from cycling.
+ */
+final class MatrixGame {
+    private static final double EPSILON = 1e-12;
+    
+    private final double[] rowStrategy;
+    private final double[] columnStrategy;
+    private final double value;
+    
+    private MatrixGame(double[] rowStrategy, double[] columnStrategy, double value) {
+        this.rowStrategy = rowStrategy;
+        this.columnStrategy = columnStrategy;
+        this.value = value;
+    }
+    
+    /**
+     * Solves a game.
+     * @param payoff The row player's payoff, indexed by [row][column]
+     * @return Optimal strategies for both players and the value of the game
+     */
+    static MatrixGame solve(double[][] payoff) {
+        int rows = payoff.length;
+        int columns = payoff[0].length;
+        
+        double min = Double.POSITIVE_INFINITY;
+        for (double[] row : payoff) {
+            for (double entry : row) {
+                min = Math.min(min, entry);
+            }
+        }
+        double shift = 1.0 - min;
+        
+        // Constraint rows, then the objective row; columns are y, slacks, right-hand side
+        int width = columns + rows + 1;
+        double[][] tableau = new double[rows + 1][width];
+        int[] basis = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                tableau[i][j] = payoff[i][j] + shift;
+            }
+            tableau[i][columns + i] = 1.0;
+            tableau[i][width - 1] = 1.0;
+            basis[i] = columns + i;
+        }
+        double[] objective = tableau[rows];
+        for (int j = 0; j < columns; j++) {
+            objective[j] = -1.0;
+        }
+        
+        while (true) {
+            int entering = -1;
+            for (int j = 0; j < width - 1; j++) {
+                if (objective[j] < -EPSILON) {
+                    entering = j;
+                    break;
+                }
+            }
+            if (entering < 0) {
+                break;
+            }
+            
+            int leaving = -1;
+            double bestRatio = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < rows; i++) {
+                if (tableau[i][entering] > EPSILON) {
+                    double ratio = tableau[i][width - 1] / tableau[i][entering];
+                    if (ratio < bestRatio - EPSILON
+                            || (ratio <= bestRatio + EPSILON && leaving >= 0 && basis[i] < basis[leaving])) {
+                        bestRatio = ratio;
+                        leaving = i;
+                    }
+                }
+            }
+            // The feasible region is bounded because every payoff is positive
+            pivot(tableau, leaving, entering);
+            basis[leaving] = entering;
+        }
+        
+        double total = objective[width - 1];
+        double[] columnStrategy = new double[columns];
+        for (int i = 0; i < rows; i++) {
+            if (basis[i] < columns) {
+                columnStrategy[basis[i]] = Math.max(0.0, tableau[i][width - 1] / total);
+            }
+        }
+        double[] rowStrategy = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            rowStrategy[i] = Math.max(0.0, objective[columns + i] / total);
+        }
+        return new MatrixGame(rowStrategy, columnStrategy, 1.0 / total - shift);
+    }
+    
+    private static void pivot(double[][] tableau, int pivotRow, int pivotColumn) {
+        double[] row = tableau[pivotRow];
+        double pivot = row[pivotColumn];
+        for (int j = 0; j < row.length; j++) {
+            row[j] /= pivot;
+        }
+        for (int i = 0; i < tableau.length; i++) {
+            if (i == pivotRow) {
+                continue;
+            }
+            double factor = tableau[i][pivotColumn];
+            if (factor != 0.0) {
+                double[] target = tableau[i];
+                for (int j = 0; j < target.length; j++) {
+                    target[j] -= factor * row[j];
+                }
+            }
+        }
+    }
+    
+    double[] getRowStrategy() {
+        return rowStrategy;
+    }
+    
+    double[] getColumnStrategy() {
+        return columnStrategy;
+    }
+    
+    double getValue() {
+        return value;
+    }
+}
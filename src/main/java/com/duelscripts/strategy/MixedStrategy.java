@@ -0,0 +1,148 @@
+package com.duelscripts.strategy;
+
+import com.duelscripts.core.Action;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A probability distribution over the nine actions a fighter can take in a turn.
+ * <p>
+ * Sampling uses Vose's alias method, so drawing an action costs two random
+ * numbers and no search regardless of the distribution.
+ */
+public final class MixedStrategy {
+    /**
+     * Number of distinct actions, one per (strike, parry) pair.
+     */
+    public static final int ACTION_COUNT = Action.COUNT;
+    
+    private final double[] probabilities;
+    private final double[] thresholds;
+    private final int[] aliases;
+    
+    /**
+     * Creates a strategy from action weights indexed by {@link #indexOf(Action)}.
+     * @param weights Non-negative weights, normalized to sum to one
+     * @throws IllegalArgumentException if there are not nine weights or they are not a distribution
+     */
+    public MixedStrategy(double[] weights) {
+        if (weights.length != ACTION_COUNT) {
+            throw new IllegalArgumentException("Expected " + ACTION_COUNT + " weights, got " + weights.length);
+        }
+        double total = 0.0;
+        for (double weight : weights) {
+            if (!(weight >= 0.0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be finite and non-negative");
+            }
+            total += weight;
+        }
+        if (total <= 0.0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        
+        this.probabilities = new double[ACTION_COUNT];
+        for (int i = 0; i < ACTION_COUNT; i++) {
+            probabilities[i] = weights[i] / total;
+        }
+        this.thresholds = new double[ACTION_COUNT];
+        this.aliases = new int[ACTION_COUNT];
+        buildAliasTable();
+    }
+    
+    /**
+     * Creates a strategy that always plays the same action.
+     */
+    public static MixedStrategy pure(Action action) {
+        double[] weights = new double[ACTION_COUNT];
+        weights[indexOf(action)] = 1.0;
+        return new MixedStrategy(weights);
+    }
+    
+    /**
+     * Gets the index of an action in the weight array, which is its {@linkplain Action#ordinal() ordinal}.
+     */
+    public static int indexOf(Action action) {
+        return action.ordinal();
+    }
+    
+    /**
+     * Gets the action at an index of the weight array.
+     */
+    public static Action actionAt(int index) {
+        return Action.ofOrdinal(index);
+    }
+    
+    public double getProbability(Action action) {
+        return probabilities[indexOf(action)];
+    }
+    
+    public double getProbability(int index) {
+        return probabilities[index];
+    }
+    
+    /**
+     * Draws an action from this strategy.
+     * @param random The generator to draw from
+     * @return The sampled action
+     */
+    public Action sample(RandomGenerator random) {
+        int column = random.nextInt(ACTION_COUNT);
+        return Action.ofOrdinal(random.nextDouble() < thresholds[column] ? column : aliases[column]);
+    }
+    
+    private void buildAliasTable() {
+        int[] small = new int[ACTION_COUNT];
+        int[] large = new int[ACTION_COUNT];
+        int smallCount = 0;
+        int largeCount = 0;
+        double[] scaled = new double[ACTION_COUNT];
+        for (int i = 0; i < ACTION_COUNT; i++) {
+            scaled[i] = probabilities[i] * ACTION_COUNT;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            thresholds[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is full up to rounding error
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            thresholds[index] = 1.0;
+            aliases[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            thresholds[index] = 1.0;
+            aliases[index] = index;
+        }
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < ACTION_COUNT; i++) {
+            if (probabilities[i] > 0.0) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                Action action = Action.ofOrdinal(i);
+                sb.append(String.format("%s/%s: %.3f", action.getStrikeTarget(),
+                                        action.getParryTarget(), probabilities[i]));
+            }
+        }
+        return sb.append("]").toString();
+    }
+}
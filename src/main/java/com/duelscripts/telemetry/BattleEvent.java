@@ -0,0 +1,43 @@
+package com.duelscripts.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event spanning one {@code Game.runFullCombat()}.
+ * <p>
+ * A tournament plays hundreds of thousands of battles per second and thread,
+ * so by default only battles lasting at least 1 ms are recorded. Lower the
+ * threshold in the recording settings ({@code com.duelscripts.Battle#threshold})
+ * to see every battle.
+ */
+@Name("com.duelscripts.Battle")
+@Label("Battle")
+@Category("Duel Scripts")
+@Description("A complete battle between two fighters")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class BattleEvent extends jdk.jfr.Event {
+    @Label("Fighter 1")
+    public String fighter1;
+    
+    @Label("Script 1")
+    public String script1;
+    
+    @Label("Fighter 2")
+    public String fighter2;
+    
+    @Label("Script 2")
+    public String script2;
+    
+    @Label("Turns")
+    public int turns;
+    
+    @Label("Winner")
+    @Description("Name of the winning fighter; empty for a draw or a timeout")
+    public String winner;
+}
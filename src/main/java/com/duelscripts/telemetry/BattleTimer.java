@@ -0,0 +1,139 @@
+package com.duelscripts.telemetry;
+
+import com.duelscripts.telemetry.CombatMetrics.Outcome;
+import com.duelscripts.telemetry.CombatMetrics.Phase;
+
+import java.util.Arrays;
+
+/**
+ * Per-battle accumulator for {@link CombatMetrics}, owned by one game and
+ * used by one thread at a time.
+ * <p>
+ * Counts, phase times and latency histogram buckets are kept in plain fields
+ * during the battle and published by {@link #finish(int, Outcome)}. In a
+ * sampled battle, consecutive {@link #lap(Phase)} calls attribute the time
+ * since the previous lap to a phase; in any other battle every timing call
+ * costs a field read.
+ */
+public final class BattleTimer {
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final long[] turnBuckets = new long[CombatMetrics.getTurnLatency().getBucketCount()];
+    private final long[][] decisionBuckets = new long[2][];
+    private final long[] decisionNanos = new long[2];
+    private final LatencyHistogram[] decisionLatencies = new LatencyHistogram[2];
+    private final String[] scripts = new String[2];
+    private boolean sampled;
+    private long mark;
+    private long turnStart;
+    private long decisionStart;
+    private long turnNanos;
+    private int decisions;
+    
+    /**
+     * Starts a battle, deciding whether it is timed.
+     * @param script1 The name of the first fighter's script
+     * @param script2 The name of the second fighter's script
+     */
+    public void begin(String script1, String script2) {
+        scripts[0] = script1;
+        scripts[1] = script2;
+        sampled = CombatMetrics.sampleBattle();
+        decisions = 0;
+        if (sampled) {
+            Arrays.fill(phaseNanos, 0);
+            Arrays.fill(turnBuckets, 0);
+            turnNanos = 0;
+            for (int slot = 0; slot < 2; slot++) {
+                decisionLatencies[slot] = CombatMetrics.decisionLatency(scripts[slot]);
+                if (decisionBuckets[slot] == null) {
+                    decisionBuckets[slot] = new long[decisionLatencies[slot].getBucketCount()];
+                } else {
+                    Arrays.fill(decisionBuckets[slot], 0);
+                }
+                decisionNanos[slot] = 0;
+            }
+            mark = System.nanoTime();
+        }
+    }
+    
+    /**
+     * Starts the next turn now, leaving the time since the last lap unattributed.
+     */
+    public void restart() {
+        if (sampled) {
+            mark = System.nanoTime();
+            turnStart = mark;
+        }
+    }
+    
+    /**
+     * Attributes the time since the previous lap to a phase.
+     */
+    public void lap(Phase phase) {
+        if (sampled) {
+            long now = System.nanoTime();
+            phaseNanos[phase.ordinal()] += now - mark;
+            mark = now;
+        }
+    }
+    
+    /**
+     * Ends a turn at the last lap, recording its duration since {@link #restart()}.
+     */
+    public void endTurn() {
+        if (sampled) {
+            long nanos = mark - turnStart;
+            turnBuckets[CombatMetrics.getTurnLatency().bucketOf(nanos)]++;
+            turnNanos += nanos;
+        }
+    }
+    
+    /**
+     * Counts a decision and, in a sampled battle, starts timing it.
+     */
+    public void startDecision() {
+        decisions++;
+        if (sampled) {
+            decisionStart = System.nanoTime();
+        }
+    }
+    
+    /**
+     * Records the duration of the decision started last.
+     * @param slot 0 for the first fighter, 1 for the second
+     */
+    public void endDecision(int slot) {
+        if (sampled) {
+            long nanos = System.nanoTime() - decisionStart;
+            decisionBuckets[slot][decisionLatencies[slot].bucketOf(nanos)]++;
+            decisionNanos[slot] += nanos;
+        }
+    }
+    
+    /**
+     * Publishes the battle to {@link CombatMetrics}.
+     * @param turns The number of turns played
+     * @param outcome How the battle ended for the first fighter
+     */
+    public void finish(int turns, Outcome outcome) {
+        CombatMetrics.recordBattle(turns, decisions);
+        CombatMetrics.recordOutcome(scripts[0], outcome);
+        CombatMetrics.recordOutcome(scripts[1], outcome.opposite());
+        if (sampled) {
+            CombatMetrics.recordPhases(turns, phaseNanos);
+            CombatMetrics.getTurnLatency().add(turnBuckets, turnNanos);
+            for (int slot = 0; slot < 2; slot++) {
+                decisionLatencies[slot].add(decisionBuckets[slot], decisionNanos[slot]);
+                decisionLatencies[slot] = null;
+            }
+            sampled = false;
+        }
+    }
+    
+    /**
+     * Checks whether the current battle has its phases timed.
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+}
@@ -0,0 +1,278 @@
+package com.duelscripts.telemetry;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters of battles, turns and script decisions, and of the
+ * time spent in each phase of a battle.
+ * <p>
+ * The counters are striped {@link LongAdder}s that a {@link BattleTimer} adds
+ * to once per battle, so simulation threads never contend on a shared cache
+ * line and the per-turn cost is a few local increments. Reading a counter
+ * sums its stripes and never blocks a writer.
+ * <p>
+ * Timing every phase of every turn would cost about as much as the turn itself,
+ * so phase times are measured on a random sample of battles, one in
+ * {@link #getSampleRate()} by default 16, and scaled up to all turns by
+ * {@link #getEstimatedPhaseNanos(Phase)}. The same battles feed the
+ * {@linkplain #getTurnLatency() turn latency} and per-script
+ * {@linkplain #getDecisionLatencies() decision latency} histograms.
+ * Battle outcomes are counted for every battle, per script.
+ * <p>
+ * While a Flight Recorder recording is running, a {@link CombatMetricsEvent}
+ * with the current totals is emitted every second.
+ */
+public final class CombatMetrics {
+    /**
+     * The phases of a battle that are timed separately.
+     */
+    public enum Phase {
+        /** Both fighters' scripts choosing their actions. */
+        DECISION,
+        /** {@code CombatResolver} resolving the turn. */
+        RESOLUTION,
+        /** Accumulating statistics, recording history and summarizing the battle. */
+        STATISTICS,
+        /** Notifying the battle listener, which renders the battle. */
+        LISTENER
+    }
+    
+    /**
+     * How a battle ended for one fighter's script.
+     */
+    public enum Outcome {
+        WIN,
+        LOSS,
+        DRAW,
+        /** The battle reached its turn limit. */
+        TIMEOUT;
+        
+        /**
+         * Gets the outcome of the same battle for the opponent.
+         */
+        public Outcome opposite() {
+            return this == WIN ? LOSS : this == LOSS ? WIN : this;
+        }
+    }
+    
+    private static final Phase[] PHASES = Phase.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+    
+    private static final LongAdder BATTLES = new LongAdder();
+    private static final LongAdder TURNS = new LongAdder();
+    private static final LongAdder DECISIONS = new LongAdder();
+    private static final LongAdder SAMPLED_BATTLES = new LongAdder();
+    private static final LongAdder SAMPLED_TURNS = new LongAdder();
+    private static final LongAdder[] PHASE_NANOS = new LongAdder[PHASES.length];
+    private static final LatencyHistogram TURN_LATENCY = new LatencyHistogram();
+    private static final Map<String, LatencyHistogram> DECISION_LATENCIES = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder[]> OUTCOMES_BY_SCRIPT = new ConcurrentHashMap<>();
+    
+    private static volatile int sampleRate = 16;
+    
+    static {
+        for (int i = 0; i < PHASE_NANOS.length; i++) {
+            PHASE_NANOS[i] = new LongAdder();
+        }
+        FlightRecorder.addPeriodicEvent(CombatMetricsEvent.class, CombatMetrics::emitEvent);
+    }
+    
+    private CombatMetrics() {
+    }
+    
+    /**
+     * Decides whether the next battle on this thread has its phases timed.
+     */
+    static boolean sampleBattle() {
+        int rate = sampleRate;
+        return rate == 1 || rate > 1 && ThreadLocalRandom.current().nextInt(rate) == 0;
+    }
+    
+    static void recordBattle(int turns, int decisions) {
+        BATTLES.increment();
+        TURNS.add(turns);
+        DECISIONS.add(decisions);
+    }
+    
+    static void recordPhases(int turns, long[] phaseNanos) {
+        SAMPLED_BATTLES.increment();
+        SAMPLED_TURNS.add(turns);
+        for (int i = 0; i < phaseNanos.length; i++) {
+            PHASE_NANOS[i].add(phaseNanos[i]);
+        }
+    }
+    
+    static void recordOutcome(String script, Outcome outcome) {
+        LongAdder[] counts = OUTCOMES_BY_SCRIPT.get(script);
+        if (counts == null) {
+            counts = OUTCOMES_BY_SCRIPT.computeIfAbsent(script, name -> {
+                LongAdder[] adders = new LongAdder[OUTCOMES.length];
+                for (int i = 0; i < adders.length; i++) {
+                    adders[i] = new LongAdder();
+                }
+                return adders;
+            });
+        }
+        counts[outcome.ordinal()].increment();
+    }
+    
+    /**
+     * Gets the decision latency histogram of a script, creating it on first use.
+     */
+    static LatencyHistogram decisionLatency(String script) {
+        LatencyHistogram histogram = DECISION_LATENCIES.get(script);
+        if (histogram == null) {
+            histogram = DECISION_LATENCIES.computeIfAbsent(script, name -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+    
+    /**
+     * Sets how many battles share one timed battle.
+     * @param sampleRate 1 to time every battle, 0 to time none
+     * @throws IllegalArgumentException if the rate is negative
+     */
+    public static void setSampleRate(int sampleRate) {
+        if (sampleRate < 0) {
+            throw new IllegalArgumentException("sampleRate must not be negative: " + sampleRate);
+        }
+        CombatMetrics.sampleRate = sampleRate;
+    }
+    
+    public static int getSampleRate() {
+        return sampleRate;
+    }
+    
+    /**
+     * Gets the number of battles played to the end.
+     */
+    public static long getBattles() {
+        return BATTLES.sum();
+    }
+    
+    /**
+     * Gets the number of turns of the battles played to the end.
+     */
+    public static long getTurns() {
+        return TURNS.sum();
+    }
+    
+    /**
+     * Gets the number of actions chosen by scripts, two per turn.
+     */
+    public static long getDecisions() {
+        return DECISIONS.sum();
+    }
+    
+    /**
+     * Gets the number of battles whose phases were timed.
+     */
+    public static long getSampledBattles() {
+        return SAMPLED_BATTLES.sum();
+    }
+    
+    /**
+     * Gets the number of turns of the battles whose phases were timed.
+     */
+    public static long getSampledTurns() {
+        return SAMPLED_TURNS.sum();
+    }
+    
+    /**
+     * Gets the time measured in a phase over the sampled battles.
+     */
+    public static long getSampledPhaseNanos(Phase phase) {
+        return PHASE_NANOS[phase.ordinal()].sum();
+    }
+    
+    /**
+     * Estimates the time spent in a phase over all battles by scaling the
+     * sampled time by the share of turns that were sampled.
+     * @return The estimate in nanoseconds, or 0 if no battle was sampled
+     */
+    public static long getEstimatedPhaseNanos(Phase phase) {
+        long sampledTurns = SAMPLED_TURNS.sum();
+        if (sampledTurns == 0) {
+            return 0;
+        }
+        return (long) ((double) PHASE_NANOS[phase.ordinal()].sum() * TURNS.sum() / sampledTurns);
+    }
+    
+    /**
+     * Gets the histogram of turn durations, from the start of the decisions to
+     * the end of the resolution, over the sampled battles.
+     */
+    public static LatencyHistogram getTurnLatency() {
+        return TURN_LATENCY;
+    }
+    
+    /**
+     * Gets the histograms of decision durations over the sampled battles.
+     * @return A live, read-only map from script name to its histogram
+     */
+    public static Map<String, LatencyHistogram> getDecisionLatencies() {
+        return Collections.unmodifiableMap(DECISION_LATENCIES);
+    }
+    
+    /**
+     * Counts how the battles of one script ended.
+     * @return The count of each outcome, 0 for a script that has not fought
+     */
+    public static long getOutcomeCount(String script, Outcome outcome) {
+        LongAdder[] counts = OUTCOMES_BY_SCRIPT.get(script);
+        return counts == null ? 0 : counts[outcome.ordinal()].sum();
+    }
+    
+    /**
+     * Gets how the battles of every script that has fought ended.
+     * @return A snapshot, sorted by script name
+     */
+    public static Map<String, Map<Outcome, Long>> getOutcomeCounts() {
+        Map<String, Map<Outcome, Long>> outcomes = new TreeMap<>();
+        OUTCOMES_BY_SCRIPT.forEach((script, counts) -> {
+            Map<Outcome, Long> scriptOutcomes = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : OUTCOMES) {
+                scriptOutcomes.put(outcome, counts[outcome.ordinal()].sum());
+            }
+            outcomes.put(script, scriptOutcomes);
+        });
+        return outcomes;
+    }
+    
+    /**
+     * Zeroes every counter. Battles in progress are counted when they end.
+     */
+    public static void reset() {
+        BATTLES.reset();
+        TURNS.reset();
+        DECISIONS.reset();
+        SAMPLED_BATTLES.reset();
+        SAMPLED_TURNS.reset();
+        for (LongAdder nanos : PHASE_NANOS) {
+            nanos.reset();
+        }
+        TURN_LATENCY.reset();
+        DECISION_LATENCIES.clear();
+        OUTCOMES_BY_SCRIPT.clear();
+    }
+    
+    private static void emitEvent() {
+        CombatMetricsEvent event = new CombatMetricsEvent();
+        event.battles = getBattles();
+        event.turns = getTurns();
+        event.decisions = getDecisions();
+        event.decisionTime = getEstimatedPhaseNanos(Phase.DECISION);
+        event.resolutionTime = getEstimatedPhaseNanos(Phase.RESOLUTION);
+        event.statisticsTime = getEstimatedPhaseNanos(Phase.STATISTICS);
+        event.listenerTime = getEstimatedPhaseNanos(Phase.LISTENER);
+        event.commit();
+    }
+}
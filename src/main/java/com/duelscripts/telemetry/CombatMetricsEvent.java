@@ -0,0 +1,47 @@
+package com.duelscripts.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Periodic Flight Recorder snapshot of {@link CombatMetrics}. The phase times
+ * are estimated from the sampled battles; all values are totals since the
+ * counters were last reset.
+ */
+@Name("com.duelscripts.CombatMetrics")
+@Label("Combat Metrics")
+@Category("Duel Scripts")
+@Description("Battle, turn and decision counters and estimated time per battle phase")
+@StackTrace(false)
+@Period("1 s")
+public final class CombatMetricsEvent extends jdk.jfr.Event {
+    @Label("Battles")
+    public long battles;
+    
+    @Label("Turns")
+    public long turns;
+    
+    @Label("Decisions")
+    public long decisions;
+    
+    @Label("Decision Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long decisionTime;
+    
+    @Label("Resolution Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long resolutionTime;
+    
+    @Label("Statistics Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long statisticsTime;
+    
+    @Label("Listener Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long listenerTime;
+}
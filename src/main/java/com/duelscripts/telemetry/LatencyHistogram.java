@@ -0,0 +1,139 @@
+package com.duelscripts.telemetry;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations over fixed buckets.
+ * <p>
+ * Each bucket is a {@link LongAdder}, so threads recording at the same time
+ * update separate cells instead of contending on one counter, and readers
+ * never block writers. Callers that record many values in a row can count
+ * them locally with {@link #bucketOf(long)} and publish them in one
+ * {@link #add(long[], long)}.
+ * <p>
+ * A reader that runs while values are being recorded may see some buckets
+ * before and some after a concurrent update; every value is counted exactly
+ * once eventually.
+ */
+public final class LatencyHistogram {
+    private static final long[] DEFAULT_BOUNDS_NANOS = {
+        250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+        100_000, 250_000, 1_000_000, 10_000_000, 100_000_000
+    };
+    
+    private final long[] upperBounds;
+    // One more bucket than bounds, for values above the last bound
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos = new LongAdder();
+    
+    /**
+     * Creates a histogram with bounds from 250 ns to 100 ms, suited to turns and
+     * script decisions: a few hundred nanoseconds normally, many milliseconds
+     * for a misbehaving script.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_BOUNDS_NANOS);
+    }
+    
+    /**
+     * @param upperBoundsNanos The inclusive upper bound of each bucket, in ascending order
+     * @throws IllegalArgumentException if there are no bounds or they are not positive and ascending
+     */
+    public LatencyHistogram(long... upperBoundsNanos) {
+        if (upperBoundsNanos.length == 0) {
+            throw new IllegalArgumentException("At least one bucket bound is required");
+        }
+        for (int i = 0; i < upperBoundsNanos.length; i++) {
+            if (upperBoundsNanos[i] <= 0 || i > 0 && upperBoundsNanos[i] <= upperBoundsNanos[i - 1]) {
+                throw new IllegalArgumentException("Bucket bounds must be positive and ascending: "
+                                                   + Arrays.toString(upperBoundsNanos));
+            }
+        }
+        this.upperBounds = upperBoundsNanos.clone();
+        this.buckets = new LongAdder[upperBounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Records one duration.
+     */
+    public void record(long nanos) {
+        buckets[bucketOf(nanos)].increment();
+        sumNanos.add(nanos);
+    }
+    
+    /**
+     * Records counts collected with {@link #bucketOf(long)}.
+     * @param counts The number of values in each bucket; {@link #getBucketCount()} long
+     * @param totalNanos The sum of the values
+     * @throws IllegalArgumentException if the number of counts does not match the buckets
+     */
+    public void add(long[] counts, long totalNanos) {
+        if (counts.length != buckets.length) {
+            throw new IllegalArgumentException("Expected " + buckets.length + " counts, got " + counts.length);
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                buckets[i].add(counts[i]);
+            }
+        }
+        sumNanos.add(totalNanos);
+    }
+    
+    /**
+     * Finds the bucket a duration falls into.
+     * @return The index of the first bucket whose upper bound is at least {@code nanos},
+     *         or {@code getBucketCount() - 1} for values above every bound
+     */
+    public int bucketOf(long nanos) {
+        int index = Arrays.binarySearch(upperBounds, nanos);
+        return index >= 0 ? index : -index - 1;
+    }
+    
+    /**
+     * Gets the number of buckets, including the one for values above every bound.
+     */
+    public int getBucketCount() {
+        return buckets.length;
+    }
+    
+    /**
+     * Gets the inclusive upper bound of a bucket.
+     * @return The bound, or {@code Long.MAX_VALUE} for the last bucket
+     */
+    public long getUpperBoundNanos(int bucket) {
+        return bucket < upperBounds.length ? upperBounds[bucket] : Long.MAX_VALUE;
+    }
+    
+    /**
+     * Gets the number of values recorded in one bucket.
+     */
+    public long getCount(int bucket) {
+        return buckets[bucket].sum();
+    }
+    
+    /**
+     * Gets the number of values recorded in every bucket.
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+    
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+    
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        sumNanos.reset();
+    }
+}
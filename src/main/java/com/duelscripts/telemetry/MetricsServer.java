@@ -0,0 +1,91 @@
+package com.duelscripts.telemetry;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP endpoint serving {@link CombatMetrics} at {@value #PATH} in
+ * the Prometheus text format.
+ * <p>
+ * The server runs on the JDK's built-in HTTP server with a single daemon
+ * thread, so it adds no dependency and does not keep the JVM alive. A scrape
+ * only reads lock-free counters and never blocks the threads running battles.
+ */
+public final class MetricsServer implements AutoCloseable {
+    /** The path metrics are served at. */
+    public static final String PATH = "/metrics";
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    
+    /**
+     * Starts serving on the loopback interface.
+     * @param port The port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public MetricsServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+    
+    /**
+     * Starts serving on an address.
+     * @param address The address to listen on
+     * @throws IOException if the address cannot be bound
+     */
+    public MetricsServer(InetSocketAddress address) throws IOException {
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+    
+    /**
+     * Gets the address the server listens on, with the actual port if it was chosen by the system.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+    
+    /**
+     * Stops serving. Scrapes in progress are given up to a second to complete.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = PrometheusFormat.render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", PrometheusFormat.CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.duelscripts.telemetry;
+
+import com.duelscripts.telemetry.CombatMetrics.Outcome;
+import com.duelscripts.telemetry.CombatMetrics.Phase;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Renders {@link CombatMetrics} in the Prometheus text exposition format,
+ * version 0.0.4.
+ * <p>
+ * Rendering only reads counters, so it never blocks the threads running
+ * battles. Durations are exposed in seconds, as Prometheus expects.
+ */
+public final class PrometheusFormat {
+    /** The content type of the rendered text. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    private static final double NANOS_PER_SECOND = 1e9;
+    
+    private PrometheusFormat() {
+    }
+    
+    /**
+     * Renders the current value of every metric.
+     */
+    public static String render() {
+        StringBuilder out = new StringBuilder(4096);
+        
+        counter(out, "duelscripts_battles_total", "Battles played to the end.", CombatMetrics.getBattles());
+        counter(out, "duelscripts_turns_total", "Turns of the battles played to the end.", CombatMetrics.getTurns());
+        counter(out, "duelscripts_decisions_total", "Actions chosen by combat scripts.", CombatMetrics.getDecisions());
+        counter(out, "duelscripts_sampled_battles_total", "Battles whose phases and latencies were timed.",
+                CombatMetrics.getSampledBattles());
+        
+        header(out, "duelscripts_telemetry_sample_rate", "gauge",
+               "One in this many battles is timed; 0 when timing is off.");
+        out.append("duelscripts_telemetry_sample_rate ").append(CombatMetrics.getSampleRate()).append('\n');
+        
+        header(out, "duelscripts_phase_seconds_total", "counter",
+               "Time spent in each battle phase, estimated from the sampled battles.");
+        for (Phase phase : Phase.values()) {
+            out.append("duelscripts_phase_seconds_total{phase=\"").append(phase.name().toLowerCase(Locale.ROOT))
+               .append("\"} ").append(seconds(CombatMetrics.getEstimatedPhaseNanos(phase))).append('\n');
+        }
+        
+        header(out, "duelscripts_turn_duration_seconds", "histogram",
+               "Duration of a turn's decisions and resolution in the sampled battles.");
+        histogram(out, "duelscripts_turn_duration_seconds", "", CombatMetrics.getTurnLatency());
+        
+        header(out, "duelscripts_decision_duration_seconds", "histogram",
+               "Duration of a script's decision in the sampled battles.");
+        Map<String, LatencyHistogram> decisionLatencies = new TreeMap<>(CombatMetrics.getDecisionLatencies());
+        for (Map.Entry<String, LatencyHistogram> entry : decisionLatencies.entrySet()) {
+            histogram(out, "duelscripts_decision_duration_seconds", "script=\"" + escape(entry.getKey()) + "\",",
+                      entry.getValue());
+        }
+        
+        header(out, "duelscripts_script_battles_total", "counter", "Battles fought by each script, by outcome.");
+        for (Map.Entry<String, Map<Outcome, Long>> entry : CombatMetrics.getOutcomeCounts().entrySet()) {
+            for (Map.Entry<Outcome, Long> count : entry.getValue().entrySet()) {
+                out.append("duelscripts_script_battles_total{script=\"").append(escape(entry.getKey()))
+                   .append("\",outcome=\"").append(count.getKey().name().toLowerCase(Locale.ROOT)).append("\"} ")
+                   .append(count.getValue()).append('\n');
+            }
+        }
+        return out.toString();
+    }
+    
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+    
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+    
+    /**
+     * Writes a histogram's cumulative buckets, sum and count.
+     * @param labels Labels to put before {@code le}, each followed by a comma
+     */
+    private static void histogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long cumulative = 0;
+        int last = histogram.getBucketCount() - 1;
+        for (int bucket = 0; bucket <= last; bucket++) {
+            cumulative += histogram.getCount(bucket);
+            String bound = bucket == last ? "+Inf" : seconds(histogram.getUpperBoundNanos(bucket));
+            out.append(name).append("_bucket{").append(labels).append("le=\"").append(bound).append("\"} ")
+               .append(cumulative).append('\n');
+        }
+        // The count is the +Inf bucket, so the two always agree
+        String sumLabels = labels.isEmpty() ? "" : "{" + labels.substring(0, labels.length() - 1) + "}";
+        out.append(name).append("_sum").append(sumLabels).append(' ')
+           .append(seconds(histogram.getSumNanos())).append('\n');
+        out.append(name).append("_count").append(sumLabels).append(' ').append(cumulative).append('\n');
+    }
+    
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / NANOS_PER_SECOND);
+    }
+    
+    /**
+     * Escapes a label value: backslash, double quote and line feed.
+     */
+    static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
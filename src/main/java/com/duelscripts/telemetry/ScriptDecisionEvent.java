@@ -0,0 +1,30 @@
+package com.duelscripts.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event spanning one script decision. Recorded by default
+ * only for decisions lasting at least 20 us, which points straight at slow
+ * scripts; lower {@code com.duelscripts.ScriptDecision#threshold} to see them all.
+ */
+@Name("com.duelscripts.ScriptDecision")
+@Label("Script Decision")
+@Category("Duel Scripts")
+@Description("A combat script choosing a fighter's action")
+@StackTrace(false)
+@Threshold("20 us")
+public final class ScriptDecisionEvent extends jdk.jfr.Event {
+    @Label("Script")
+    public String script;
+    
+    @Label("Fighter")
+    public String fighter;
+    
+    @Label("Turn")
+    public int turn;
+}
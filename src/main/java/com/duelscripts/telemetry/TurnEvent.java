@@ -0,0 +1,32 @@
+package com.duelscripts.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one {@code Game.executeTurn()}: both script
+ * decisions and the resolution of the turn. Disabled by default because of
+ * its volume; enable {@code com.duelscripts.Turn} in the recording settings.
+ */
+@Name("com.duelscripts.Turn")
+@Label("Turn")
+@Category("Duel Scripts")
+@Description("One turn of a battle")
+@StackTrace(false)
+@Enabled(false)
+public final class TurnEvent extends jdk.jfr.Event {
+    @Label("Turn")
+    public int turn;
+    
+    @Label("Fighter 1 Damage")
+    @Description("Damage taken by fighter 1")
+    public int fighter1Damage;
+    
+    @Label("Fighter 2 Damage")
+    @Description("Damage taken by fighter 2")
+    public int fighter2Damage;
+}
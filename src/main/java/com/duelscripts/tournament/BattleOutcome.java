@@ -0,0 +1,30 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.core.Fighter;
+
+/**
+ * The outcome of a single battle, seen from the first fighter's side.
+ */
+public enum BattleOutcome {
+    FIGHTER1_WIN,
+    FIGHTER2_WIN,
+    DRAW,
+    TIMEOUT;
+    
+    /**
+     * Classifies a finished battle.
+     * @param result The battle result
+     * @param fighter1 The fighter that took the first slot in the battle
+     * @return The outcome of the battle
+     */
+    public static BattleOutcome of(BattleResult result, Fighter fighter1) {
+        if (result.reachedTurnLimit()) {
+            return TIMEOUT;
+        }
+        if (result.getWinner() == null) {
+            return DRAW;
+        }
+        return result.getWinner() == fighter1 ? FIGHTER1_WIN : FIGHTER2_WIN;
+    }
+}
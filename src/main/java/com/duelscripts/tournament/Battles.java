@@ -0,0 +1,75 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.Game;
+import com.duelscripts.combat.HeadlessBattleListener;
+import com.duelscripts.core.Fighter;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Runs single headless battles between entrants.
+ * <p>
+ * Each worker thread keeps one pair of {@link Fighter} objects that is rebound
+ * to the entrants' specs and fresh scripts for every battle, so a battle does
+ * not allocate fighters or weapons. Battles keep only the most recent turn:
+ * a tournament needs just the outcome, and scripts see the opponent's whole
+ * battle through their {@link com.duelscripts.scripting.OpponentProfile}.
+ */
+final class Battles {
+    private static final ThreadLocal<Fighter[]> FIGHTER_POOL = new ThreadLocal<>();
+    
+    private Battles() {
+    }
+    
+    /**
+     * Plays one battle.
+     * @param entrant1 The entrant in the first slot
+     * @param entrant2 The entrant in the second slot
+     * @param maxTurns The turn limit
+     * @param random The battle's generator
+     * @return The outcome from the first entrant's side
+     */
+    static BattleOutcome play(Entrant entrant1, Entrant entrant2, int maxTurns, RandomGenerator random) {
+        return play(entrant1, entrant2, maxTurns, random, null);
+    }
+    
+    /**
+     * Plays one battle and reports it to a tournament's progress.
+     * @param progress The progress to update, or null
+     * @return The outcome from the first entrant's side
+     */
+    static BattleOutcome play(Entrant entrant1, Entrant entrant2, int maxTurns, RandomGenerator random,
+                              TournamentProgress progress) {
+        long start = 0;
+        if (progress != null) {
+            progress.battleStarted();
+            start = System.nanoTime();
+        }
+        
+        Fighter[] fighters = FIGHTER_POOL.get();
+        if (fighters == null) {
+            fighters = new Fighter[] {entrant1.createFighter(), entrant2.createFighter()};
+            FIGHTER_POOL.set(fighters);
+        } else {
+            fighters[0].reset(entrant1.getSpec(), entrant1.createScript());
+            fighters[1].reset(entrant2.getSpec(), entrant2.createScript());
+        }
+        
+        Game game = new Game(fighters[0], fighters[1], maxTurns, false);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        game.setRandom(random);
+        game.setHistoryRetained(false);
+        BattleResult result = game.runFullCombat();
+        BattleOutcome outcome = BattleOutcome.of(result, fighters[0]);
+        
+        if (progress != null) {
+            progress.workerBusy(System.nanoTime() - start);
+            String winnerScript = outcome == BattleOutcome.FIGHTER1_WIN ? entrant1.getScriptType()
+                                : outcome == BattleOutcome.FIGHTER2_WIN ? entrant2.getScriptType()
+                                : null;
+            progress.battleCompleted(result.getTotalTurns(), winnerScript);
+        }
+        return outcome;
+    }
+}
@@ -0,0 +1,57 @@
+package com.duelscripts.tournament;
+
+/**
+ * A confidence interval for a probability.
+ */
+public class ConfidenceInterval {
+    private final double lower;
+    private final double upper;
+    
+    public ConfidenceInterval(double lower, double upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+    
+    /**
+     * Computes the Wilson score interval for a binomial proportion.
+     * Unlike the normal approximation it stays inside [0, 1] and behaves well
+     * for proportions close to 0 or 1, which are common in lopsided matchups.
+     * @param successes The number of successes
+     * @param trials The number of trials
+     * @param z The standard normal quantile of the confidence level (1.96 for 95%)
+     * @return The interval, or [0, 1] if there are no trials
+     */
+    public static ConfidenceInterval wilson(long successes, long trials, double z) {
+        if (trials == 0) {
+            return new ConfidenceInterval(0.0, 1.0);
+        }
+        double n = trials;
+        double p = successes / n;
+        double z2 = z * z;
+        double denominator = 1.0 + z2 / n;
+        double center = (p + z2 / (2 * n)) / denominator;
+        double halfWidth = z * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n)) / denominator;
+        return new ConfidenceInterval(Math.max(0.0, center - halfWidth), Math.min(1.0, center + halfWidth));
+    }
+    
+    public double getLower() {
+        return lower;
+    }
+    
+    public double getUpper() {
+        return upper;
+    }
+    
+    public double getWidth() {
+        return upper - lower;
+    }
+    
+    public boolean contains(double value) {
+        return value >= lower && value <= upper;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("[%.4f, %.4f]", lower, upper);
+    }
+}
@@ -0,0 +1,110 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.scripting.CombatScript;
+import com.duelscripts.scripting.FighterContext;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Every decision of a history-independent script against one opponent,
+ * tabulated by turn and both fighters' hit points.
+ * <p>
+ * Actions are stored as their {@linkplain Action#ordinal() ordinal} in one
+ * byte per (hit points, opponent hit points) state. Turns share a layer when the
+ * script's {@linkplain CombatScript#getTurnPeriod() turn period} says they decide
+ * alike, so a script with period p needs p + 1 layers however long the battle.
+ * Layers are filled on first use by asking the script itself, and may be read
+ * by several threads.
+ */
+final class DecisionTable {
+    private final CombatScript script;
+    private final FighterSpec self;
+    private final FighterSpec opponent;
+    private final int period;
+    private final int stride;
+    private final AtomicReferenceArray<byte[]> layers;
+    
+    /**
+     * @param script A history-independent script
+     * @param self The spec of the fighter using the script
+     * @param opponent The opponent's spec
+     * @param maxTurns The longest battle the table is used for
+     * @throws IllegalArgumentException if the script depends on history
+     */
+    DecisionTable(CombatScript script, FighterSpec self, FighterSpec opponent, int maxTurns) {
+        if (!script.isHistoryIndependent()) {
+            throw new IllegalArgumentException("Script depends on battle history: " + script.getName());
+        }
+        this.script = script;
+        this.self = self;
+        this.opponent = opponent;
+        this.period = script.getTurnPeriod();
+        this.stride = opponent.getMaxHitPoints() + 1;
+        this.layers = new AtomicReferenceArray<>(period > 0 ? Math.min(period + 1, maxTurns) : maxTurns);
+    }
+    
+    /**
+     * Number of entries per row of a layer; a state's entry is at
+     * {@code selfHitPoints * stride + opponentHitPoints}.
+     */
+    int getStride() {
+        return stride;
+    }
+    
+    /**
+     * Gets the decisions for a turn.
+     * @param turn The turn number (1-based)
+     * @return The encoded action for every state where both fighters are alive
+     */
+    byte[] layer(int turn) {
+        int key = layerIndex(turn);
+        byte[] layer = layers.get(key);
+        if (layer == null) {
+            layer = fill(turn);
+            if (!layers.compareAndSet(key, null, layer)) {
+                layer = layers.get(key);
+            }
+        }
+        return layer;
+    }
+    
+    static BodyPart strikeOf(int action) {
+        return Action.ofOrdinal(action).getStrikeTarget();
+    }
+    
+    static BodyPart parryOf(int action) {
+        return Action.ofOrdinal(action).getParryTarget();
+    }
+    
+    private int layerIndex(int turn) {
+        if (period == 0 || turn == 1) {
+            return turn - 1;
+        }
+        return 1 + (turn - 2) % period;
+    }
+    
+    private byte[] fill(int turn) {
+        Fighter selfFighter = new Fighter(self, script);
+        Fighter opponentFighter = new Fighter(opponent, script);
+        byte[] layer = new byte[(self.getMaxHitPoints() + 1) * stride];
+        for (int selfHitPoints = 1; selfHitPoints <= self.getMaxHitPoints(); selfHitPoints++) {
+            setHitPoints(selfFighter, selfHitPoints);
+            for (int opponentHitPoints = 1; opponentHitPoints <= opponent.getMaxHitPoints(); opponentHitPoints++) {
+                setHitPoints(opponentFighter, opponentHitPoints);
+                Action action = script.getNextAction(new FighterContext(selfFighter, opponentFighter, turn, List.of()));
+                layer[selfHitPoints * stride + opponentHitPoints] = (byte) action.ordinal();
+            }
+        }
+        return layer;
+    }
+    
+    private static void setHitPoints(Fighter fighter, int hitPoints) {
+        fighter.reset();
+        fighter.takeDamage(fighter.getMaxHitPoints() - hitPoints);
+    }
+}
@@ -0,0 +1,90 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.scripting.CombatScript;
+import com.duelscripts.scripting.DecisionCache;
+import com.duelscripts.scripting.ScriptGuard;
+import com.duelscripts.scripting.ScriptFactory;
+
+/**
+ * A tournament participant: a fighter spec combined with a script type.
+ */
+public class Entrant {
+    private final FighterSpec spec;
+    private final String scriptType;
+    private volatile DecisionCache decisionCache;
+    private volatile ScriptGuard scriptGuard;
+    
+    public Entrant(FighterSpec spec, String scriptType) {
+        if (!ScriptFactory.isScriptAvailable(scriptType)) {
+            throw new IllegalArgumentException("Unknown script type: " + scriptType);
+        }
+        this.spec = spec;
+        this.scriptType = scriptType;
+    }
+    
+    /**
+     * Creates a fresh fighter with a fresh script instance for one battle.
+     */
+    public Fighter createFighter() {
+        return new Fighter(spec, createScript());
+    }
+    
+    /**
+     * Creates a fresh script instance; scripts may keep per-battle state.
+     * With a decision cache set, history-independent scripts answer from the
+     * cache; with a script guard set, the script runs under the guard.
+     */
+    public CombatScript createScript() {
+        CombatScript script = ScriptFactory.createScript(scriptType);
+        DecisionCache cache = decisionCache;
+        if (cache != null) {
+            script = cache.wrap(script);
+        }
+        ScriptGuard guard = scriptGuard;
+        return guard != null ? guard.guard(script) : script;
+    }
+    
+    /**
+     * Serves this entrant's decisions from a cache, which may be shared with
+     * other entrants of the same script type.
+     * @param decisionCache The cache, or null to ask the script every turn
+     */
+    public void setDecisionCache(DecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+    
+    public DecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+    
+    /**
+     * Runs this entrant's decisions under a guard.
+     * @param scriptGuard The guard, or null to call the script directly
+     */
+    public void setScriptGuard(ScriptGuard scriptGuard) {
+        this.scriptGuard = scriptGuard;
+    }
+    
+    public ScriptGuard getScriptGuard() {
+        return scriptGuard;
+    }
+    
+    public FighterSpec getSpec() {
+        return spec;
+    }
+    
+    public String getScriptType() {
+        return scriptType;
+    }
+    
+    public String getName() {
+        return spec.getName() + " [" + scriptType + "]";
+    }
+    
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,55 @@
+package com.duelscripts.tournament;
+
+/**
+ * Outcome counts of a batch of battles run by {@link LockstepSimulator}.
+ */
+public class LockstepResult {
+    private final long[] counts;
+    private final long turns;
+    
+    LockstepResult(long[] counts, long turns) {
+        this.counts = counts.clone();
+        this.turns = turns;
+    }
+    
+    public long getBattles() {
+        long battles = 0;
+        for (long count : counts) {
+            battles += count;
+        }
+        return battles;
+    }
+    
+    public long getCount(BattleOutcome outcome) {
+        return counts[outcome.ordinal()];
+    }
+    
+    public long getFighter1Wins() {
+        return getCount(BattleOutcome.FIGHTER1_WIN);
+    }
+    
+    public long getFighter2Wins() {
+        return getCount(BattleOutcome.FIGHTER2_WIN);
+    }
+    
+    public long getDraws() {
+        return getCount(BattleOutcome.DRAW);
+    }
+    
+    public long getTimeouts() {
+        return getCount(BattleOutcome.TIMEOUT);
+    }
+    
+    /**
+     * Gets the number of turns played across all battles.
+     */
+    public long getTurns() {
+        return turns;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Lockstep Result (%d battles, %d turns): %d / %d wins, %d draws, %d timeouts",
+                             getBattles(), turns, getFighter1Wins(), getFighter2Wins(), getDraws(), getTimeouts());
+    }
+}
@@ -0,0 +1,249 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.combat.BattleSeeds;
+import com.duelscripts.core.BodyPart;
+import com.duelscripts.core.DamageTable;
+import com.duelscripts.core.FighterSpec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many battles of one matchup in lockstep over primitive arrays.
+ * <p>
+ * Both entrants must use {@linkplain com.duelscripts.scripting.CombatScript#isHistoryIndependent()
+ * history-independent} scripts. Their decisions are tabulated once
+ * ({@link DecisionTable}), after which a turn of a battle is two table loads, up
+ * to two random draws and two damage table loads. Battles occupy lanes of
+ * parallel arrays (hit points and generator state) and all advance one turn at a
+ * time; a finished battle is retired by moving the last active lane into its
+ * slot, so each turn only touches battles still in progress.
+ * <p>
+ * Battle {@code i} draws from a generator seeded with
+ * {@link BattleSeeds#seedFor(long, long) seedFor(masterSeed, i)} in the same
+ * order as {@link com.duelscripts.combat.CombatResolver}, so the outcomes are
+ * identical to running each battle through {@link com.duelscripts.combat.Game}
+ * with that generator.
+ */
+public class LockstepSimulator {
+    private static final int BODY_PARTS = BodyPart.values().length;
+    
+    private final int maxTurns;
+    private final DecisionTable decisions1;
+    private final DecisionTable decisions2;
+    private final int[] damage1;
+    private final int[] damage2;
+    private final double critChance1;
+    private final double critChance2;
+    private int laneCount = 4096;
+    private long masterSeed = new SplittableRandom().nextLong();
+    
+    /**
+     * @throws IllegalArgumentException if either entrant's script depends on history,
+     *         or maxTurns is not positive
+     */
+    public LockstepSimulator(Entrant entrant1, Entrant entrant2, int maxTurns) {
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("maxTurns must be positive: " + maxTurns);
+        }
+        FighterSpec spec1 = entrant1.getSpec();
+        FighterSpec spec2 = entrant2.getSpec();
+        this.maxTurns = maxTurns;
+        this.decisions1 = new DecisionTable(entrant1.createScript(), spec1, spec2, maxTurns);
+        this.decisions2 = new DecisionTable(entrant2.createScript(), spec2, spec1, maxTurns);
+        this.damage1 = damageByAction(spec1.getDamageTable());
+        this.damage2 = damageByAction(spec2.getDamageTable());
+        this.critChance1 = spec1.getWeapon().getCriticalHitChance();
+        this.critChance2 = spec2.getWeapon().getCriticalHitChance();
+    }
+    
+    /**
+     * Checks whether two entrants can be simulated in lockstep.
+     */
+    public static boolean supports(Entrant entrant1, Entrant entrant2) {
+        return entrant1.createScript().isHistoryIndependent() && entrant2.createScript().isHistoryIndependent();
+    }
+    
+    /**
+     * Runs battles {@code 0} to {@code battles - 1} on the calling thread.
+     */
+    public LockstepResult run(long battles) {
+        return runRange(0, battles);
+    }
+    
+    /**
+     * Runs a range of battles on the calling thread.
+     * @param firstBattle The index of the first battle, which selects its generator
+     * @param battles The number of battles
+     * @return The outcome counts
+     */
+    public LockstepResult runRange(long firstBattle, long battles) {
+        Tally tally = new Tally();
+        int lanes = (int) Math.min(laneCount, Math.max(1, battles));
+        long[] seeds = new long[lanes];
+        int[] hitPoints1 = new int[lanes];
+        int[] hitPoints2 = new int[lanes];
+        for (long start = 0; start < battles; start += lanes) {
+            int batch = (int) Math.min(lanes, battles - start);
+            runBatch(firstBattle + start, batch, seeds, hitPoints1, hitPoints2, tally);
+        }
+        return new LockstepResult(tally.counts, tally.turns);
+    }
+    
+    /**
+     * Runs battles {@code 0} to {@code battles - 1}, one batch of lanes per task.
+     * @param battles The number of battles
+     * @param parallelism The number of worker threads
+     * @return The outcome counts
+     */
+    public LockstepResult run(long battles, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<LockstepResult>> futures = new ArrayList<>();
+            for (long start = 0; start < battles; start += laneCount) {
+                long first = start;
+                long batch = Math.min(laneCount, battles - start);
+                futures.add(pool.submit((Callable<LockstepResult>) () -> runRange(first, batch)));
+            }
+            
+            long[] counts = new long[BattleOutcome.values().length];
+            long turns = 0;
+            for (Future<LockstepResult> future : futures) {
+                LockstepResult part = await(future);
+                for (BattleOutcome outcome : BattleOutcome.values()) {
+                    counts[outcome.ordinal()] += part.getCount(outcome);
+                }
+                turns += part.getTurns();
+            }
+            return new LockstepResult(counts, turns);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private void runBatch(long firstBattle, int batch, long[] seeds, int[] hitPoints1, int[] hitPoints2,
+                          Tally tally) {
+        int maxHitPoints1 = decisions2.getStride() - 1;
+        int maxHitPoints2 = decisions1.getStride() - 1;
+        for (int lane = 0; lane < batch; lane++) {
+            seeds[lane] = BattleSeeds.seedFor(masterSeed, firstBattle + lane);
+            hitPoints1[lane] = maxHitPoints1;
+            hitPoints2[lane] = maxHitPoints2;
+        }
+        int stride1 = decisions1.getStride();
+        int stride2 = decisions2.getStride();
+        
+        int active = batch;
+        for (int turn = 1; turn <= maxTurns && active > 0; turn++) {
+            byte[] layer1 = decisions1.layer(turn);
+            byte[] layer2 = decisions2.layer(turn);
+            boolean lastTurn = turn == maxTurns;
+            
+            int lane = 0;
+            while (lane < active) {
+                int hp1 = hitPoints1[lane];
+                int hp2 = hitPoints2[lane];
+                int action1 = layer1[hp1 * stride1 + hp2];
+                int action2 = layer2[hp2 * stride2 + hp1];
+                
+                // Fighter 1 strikes first, then fighter 2, each drawing only if not parried
+                if (action1 / BODY_PARTS != action2 % BODY_PARTS) {
+                    int crit = BattleSeeds.nextDouble(seeds, lane) < critChance1 ? 1 : 0;
+                    hp2 -= damage1[action1 * 2 + crit];
+                }
+                if (action2 / BODY_PARTS != action1 % BODY_PARTS) {
+                    int crit = BattleSeeds.nextDouble(seeds, lane) < critChance2 ? 1 : 0;
+                    hp1 -= damage2[action2 * 2 + crit];
+                }
+                
+                if (hp1 > 0 && hp2 > 0) {
+                    hitPoints1[lane] = hp1;
+                    hitPoints2[lane] = hp2;
+                    lane++;
+                    continue;
+                }
+                
+                // Retire the battle; a kill on the final turn is a timeout, as in Game
+                BattleOutcome outcome;
+                if (lastTurn) {
+                    outcome = BattleOutcome.TIMEOUT;
+                } else if (hp1 > 0) {
+                    outcome = BattleOutcome.FIGHTER1_WIN;
+                } else if (hp2 > 0) {
+                    outcome = BattleOutcome.FIGHTER2_WIN;
+                } else {
+                    outcome = BattleOutcome.DRAW;
+                }
+                tally.counts[outcome.ordinal()]++;
+                tally.turns += turn;
+                
+                active--;
+                seeds[lane] = seeds[active];
+                hitPoints1[lane] = hitPoints1[active];
+                hitPoints2[lane] = hitPoints2[active];
+            }
+        }
+        
+        // Battles still running after the last turn timed out
+        tally.counts[BattleOutcome.TIMEOUT.ordinal()] += active;
+        tally.turns += (long) active * maxTurns;
+    }
+    
+    /**
+     * Damage indexed by encoded action * 2 + (critical ? 1 : 0).
+     */
+    private static int[] damageByAction(DamageTable damageTable) {
+        int[] damage = new int[BODY_PARTS * BODY_PARTS * 2];
+        for (int action = 0; action < BODY_PARTS * BODY_PARTS; action++) {
+            damage[action * 2] = damageTable.getDamage(DecisionTable.strikeOf(action), false);
+            damage[action * 2 + 1] = damageTable.getDamage(DecisionTable.strikeOf(action), true);
+        }
+        return damage;
+    }
+    
+    private static LockstepResult await(Future<LockstepResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        }
+    }
+    
+    /**
+     * Sets the number of battles advanced together. Defaults to 4096.
+     */
+    public void setLaneCount(int laneCount) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("laneCount must be positive: " + laneCount);
+        }
+        this.laneCount = laneCount;
+    }
+    
+    public int getLaneCount() {
+        return laneCount;
+    }
+    
+    /**
+     * Sets the seed from which every battle's generator is derived. Defaults to a random seed.
+     */
+    public void setMasterSeed(long masterSeed) {
+        this.masterSeed = masterSeed;
+    }
+    
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+    
+    private static class Tally {
+        final long[] counts = new long[BattleOutcome.values().length];
+        long turns;
+    }
+}
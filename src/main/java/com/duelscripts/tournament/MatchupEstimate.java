@@ -0,0 +1,129 @@
+package com.duelscripts.tournament;
+
+/**
+ * Estimated outcome probabilities of a matchup between two entrants.
+ */
+public class MatchupEstimate {
+    
+    /**
+     * Why the estimator stopped running battles.
+     */
+    public enum StopReason {
+        /** All confidence intervals became narrower than the target width. */
+        TARGET_WIDTH,
+        /** The sequential probability ratio test reached a decision. */
+        SEQUENTIAL_TEST,
+        /** The battle budget was exhausted. */
+        MAX_BATTLES
+    }
+    
+    /**
+     * Decision of the sequential test on which entrant wins more decisive battles.
+     */
+    public enum Verdict {
+        FIGHTER1_FAVORED,
+        FIGHTER2_FAVORED,
+        UNDECIDED
+    }
+    
+    private final long battles;
+    private final long fighter1Wins;
+    private final long fighter2Wins;
+    private final long draws;
+    private final long timeouts;
+    private final double z;
+    private final StopReason stopReason;
+    private final Verdict verdict;
+    
+    MatchupEstimate(long fighter1Wins, long fighter2Wins, long draws, long timeouts,
+                    double z, StopReason stopReason, Verdict verdict) {
+        this.battles = fighter1Wins + fighter2Wins + draws + timeouts;
+        this.fighter1Wins = fighter1Wins;
+        this.fighter2Wins = fighter2Wins;
+        this.draws = draws;
+        this.timeouts = timeouts;
+        this.z = z;
+        this.stopReason = stopReason;
+        this.verdict = verdict;
+    }
+    
+    public long getBattles() {
+        return battles;
+    }
+    
+    public long getFighter1Wins() {
+        return fighter1Wins;
+    }
+    
+    public long getFighter2Wins() {
+        return fighter2Wins;
+    }
+    
+    public long getDraws() {
+        return draws;
+    }
+    
+    public long getTimeouts() {
+        return timeouts;
+    }
+    
+    public double getFighter1WinProbability() {
+        return proportion(fighter1Wins);
+    }
+    
+    public double getFighter2WinProbability() {
+        return proportion(fighter2Wins);
+    }
+    
+    public double getDrawProbability() {
+        return proportion(draws);
+    }
+    
+    public double getTimeoutProbability() {
+        return proportion(timeouts);
+    }
+    
+    public ConfidenceInterval getFighter1WinInterval() {
+        return ConfidenceInterval.wilson(fighter1Wins, battles, z);
+    }
+    
+    public ConfidenceInterval getFighter2WinInterval() {
+        return ConfidenceInterval.wilson(fighter2Wins, battles, z);
+    }
+    
+    public ConfidenceInterval getDrawInterval() {
+        return ConfidenceInterval.wilson(draws, battles, z);
+    }
+    
+    public ConfidenceInterval getTimeoutInterval() {
+        return ConfidenceInterval.wilson(timeouts, battles, z);
+    }
+    
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+    
+    public Verdict getVerdict() {
+        return verdict;
+    }
+    
+    private double proportion(long count) {
+        return battles == 0 ? 0.0 : (double) count / battles;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(
+            "Matchup Estimate (%d battles, stopped by %s, verdict %s):\n" +
+            "- Fighter 1 wins: %.4f %s\n" +
+            "- Fighter 2 wins: %.4f %s\n" +
+            "- Draws: %.4f %s\n" +
+            "- Timeouts: %.4f %s",
+            battles, stopReason, verdict,
+            getFighter1WinProbability(), getFighter1WinInterval(),
+            getFighter2WinProbability(), getFighter2WinInterval(),
+            getDrawProbability(), getDrawInterval(),
+            getTimeoutProbability(), getTimeoutInterval()
+        );
+    }
+}
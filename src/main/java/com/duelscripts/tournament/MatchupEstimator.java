@@ -0,0 +1,170 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.combat.BattleSeeds;
+
+import java.util.SplittableRandom;
+
+/**
+ * Estimates the outcome probabilities of a matchup by running headless battles
+ * until the estimate is good enough.
+ * <p>
+ * No stopping rule is checked before {@link #setMinBattles minBattles} battles
+ * (100 by default) have run. After that the estimator stops as soon as either
+ * <ul>
+ *   <li>every outcome's Wilson confidence interval is narrower than the target width, or</li>
+ *   <li>Wald's sequential probability ratio test decides which entrant wins more
+ *       of the decisive battles (enabled by default).</li>
+ * </ul>
+ * The test compares the hypotheses "fighter 1 wins a decisive battle with
+ * probability 0.5 + delta" and "... 0.5 - delta", so lopsided matchups are
+ * decided as soon as that minimum is reached while close ones run until the
+ * interval target or the battle budget is reached.
+ */
+public class MatchupEstimator {
+    private final Entrant entrant1;
+    private final Entrant entrant2;
+    private final int maxTurns;
+    private double targetWidth = 0.02;
+    private double z = 1.96;
+    private long minBattles = 100;
+    private long maxBattles = 100_000;
+    private boolean sequentialTestEnabled = true;
+    private double indifferenceMargin = 0.05;
+    private double alpha = 0.05;
+    private double beta = 0.05;
+    private long masterSeed = new SplittableRandom().nextLong();
+    
+    public MatchupEstimator(Entrant entrant1, Entrant entrant2, int maxTurns) {
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("maxTurns must be positive: " + maxTurns);
+        }
+        this.entrant1 = entrant1;
+        this.entrant2 = entrant2;
+        this.maxTurns = maxTurns;
+    }
+    
+    /**
+     * Runs battles until a stopping rule fires.
+     * @return The estimate
+     */
+    public MatchupEstimate estimate() {
+        long[] counts = new long[BattleOutcome.values().length];
+        double winStep = Math.log((0.5 + indifferenceMargin) / (0.5 - indifferenceMargin));
+        double upperBound = Math.log((1 - beta) / alpha);
+        double lowerBound = Math.log(beta / (1 - alpha));
+        double logLikelihoodRatio = 0.0;
+        
+        for (long battles = 1; battles <= maxBattles; battles++) {
+            BattleOutcome outcome = Battles.play(entrant1, entrant2, maxTurns,
+                                                 BattleSeeds.randomFor(masterSeed, battles - 1));
+            counts[outcome.ordinal()]++;
+            
+            // The hypotheses are symmetric around 0.5, so each decisive battle
+            // moves the log-likelihood ratio by the same step
+            if (outcome == BattleOutcome.FIGHTER1_WIN) {
+                logLikelihoodRatio += winStep;
+            } else if (outcome == BattleOutcome.FIGHTER2_WIN) {
+                logLikelihoodRatio -= winStep;
+            }
+            
+            if (battles < minBattles) {
+                continue;
+            }
+            if (sequentialTestEnabled && logLikelihoodRatio >= upperBound) {
+                return createEstimate(counts, MatchupEstimate.StopReason.SEQUENTIAL_TEST,
+                                      MatchupEstimate.Verdict.FIGHTER1_FAVORED);
+            }
+            if (sequentialTestEnabled && logLikelihoodRatio <= lowerBound) {
+                return createEstimate(counts, MatchupEstimate.StopReason.SEQUENTIAL_TEST,
+                                      MatchupEstimate.Verdict.FIGHTER2_FAVORED);
+            }
+            if (maxIntervalWidth(counts, battles) <= targetWidth) {
+                return createEstimate(counts, MatchupEstimate.StopReason.TARGET_WIDTH,
+                                      MatchupEstimate.Verdict.UNDECIDED);
+            }
+        }
+        return createEstimate(counts, MatchupEstimate.StopReason.MAX_BATTLES,
+                              MatchupEstimate.Verdict.UNDECIDED);
+    }
+    
+    private double maxIntervalWidth(long[] counts, long battles) {
+        double width = 0.0;
+        for (long count : counts) {
+            width = Math.max(width, ConfidenceInterval.wilson(count, battles, z).getWidth());
+        }
+        return width;
+    }
+    
+    private MatchupEstimate createEstimate(long[] counts, MatchupEstimate.StopReason stopReason,
+                                           MatchupEstimate.Verdict verdict) {
+        return new MatchupEstimate(
+            counts[BattleOutcome.FIGHTER1_WIN.ordinal()],
+            counts[BattleOutcome.FIGHTER2_WIN.ordinal()],
+            counts[BattleOutcome.DRAW.ordinal()],
+            counts[BattleOutcome.TIMEOUT.ordinal()],
+            z, stopReason, verdict);
+    }
+    
+    /**
+     * Sets the seed from which every battle's generator is derived, making the
+     * estimate reproducible. Defaults to a random seed.
+     */
+    public void setMasterSeed(long masterSeed) {
+        this.masterSeed = masterSeed;
+    }
+    
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+    
+    /**
+     * Sets the interval width at which the estimate is considered precise enough.
+     */
+    public void setTargetWidth(double targetWidth) {
+        this.targetWidth = targetWidth;
+    }
+    
+    /**
+     * Sets the standard normal quantile of the confidence level (1.96 for 95%).
+     */
+    public void setZ(double z) {
+        this.z = z;
+    }
+    
+    /**
+     * Sets the number of battles to run before any stopping rule is checked.
+     * Defaults to 100.
+     */
+    public void setMinBattles(long minBattles) {
+        this.minBattles = minBattles;
+    }
+    
+    /**
+     * Sets the maximum number of battles to run.
+     */
+    public void setMaxBattles(long maxBattles) {
+        this.maxBattles = maxBattles;
+    }
+    
+    /**
+     * Enables or disables stopping on a sequential test decision.
+     */
+    public void setSequentialTestEnabled(boolean sequentialTestEnabled) {
+        this.sequentialTestEnabled = sequentialTestEnabled;
+    }
+    
+    /**
+     * Configures the sequential probability ratio test.
+     * @param indifferenceMargin Distance from 0.5 of the two tested decisive-win rates
+     * @param alpha Probability of favoring fighter 1 when fighter 2 is better
+     * @param beta Probability of favoring fighter 2 when fighter 1 is better
+     */
+    public void setSequentialTest(double indifferenceMargin, double alpha, double beta) {
+        if (indifferenceMargin <= 0 || indifferenceMargin >= 0.5) {
+            throw new IllegalArgumentException("indifferenceMargin must be in (0, 0.5): " + indifferenceMargin);
+        }
+        this.indifferenceMargin = indifferenceMargin;
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+}
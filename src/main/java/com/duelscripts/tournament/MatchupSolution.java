@@ -0,0 +1,116 @@
+package com.duelscripts.tournament;
+
+/**
+ * Outcome probabilities of a matchup as computed by {@link OutcomeSolver}.
+ * <p>
+ * An exact solution also carries the distribution of battle lengths. When the
+ * matchup could not be solved exactly the solution wraps a Monte Carlo
+ * {@link MatchupEstimate} instead.
+ */
+public class MatchupSolution {
+    private final double fighter1WinProbability;
+    private final double fighter2WinProbability;
+    private final double drawProbability;
+    private final double timeoutProbability;
+    private final double[] turnProbabilities;
+    private final MatchupEstimate estimate;
+    
+    MatchupSolution(double fighter1WinProbability, double fighter2WinProbability,
+                    double drawProbability, double timeoutProbability, double[] turnProbabilities) {
+        this.fighter1WinProbability = fighter1WinProbability;
+        this.fighter2WinProbability = fighter2WinProbability;
+        this.drawProbability = drawProbability;
+        this.timeoutProbability = timeoutProbability;
+        this.turnProbabilities = turnProbabilities;
+        this.estimate = null;
+    }
+    
+    MatchupSolution(MatchupEstimate estimate) {
+        this.fighter1WinProbability = estimate.getFighter1WinProbability();
+        this.fighter2WinProbability = estimate.getFighter2WinProbability();
+        this.drawProbability = estimate.getDrawProbability();
+        this.timeoutProbability = estimate.getTimeoutProbability();
+        this.turnProbabilities = null;
+        this.estimate = estimate;
+    }
+    
+    /**
+     * Checks whether the probabilities were computed exactly rather than sampled.
+     */
+    public boolean isExact() {
+        return estimate == null;
+    }
+    
+    public double getFighter1WinProbability() {
+        return fighter1WinProbability;
+    }
+    
+    public double getFighter2WinProbability() {
+        return fighter2WinProbability;
+    }
+    
+    public double getDrawProbability() {
+        return drawProbability;
+    }
+    
+    public double getTimeoutProbability() {
+        return timeoutProbability;
+    }
+    
+    /**
+     * Gets the probability that the battle lasts exactly the given number of turns.
+     * @param turns The number of turns played, as reported by the battle result
+     * @return The probability, or 0 if the battle can never last that long
+     * @throws IllegalStateException if the solution is an estimate
+     */
+    public double getTurnProbability(int turns) {
+        requireExact();
+        if (turns < 0 || turns >= turnProbabilities.length) {
+            return 0.0;
+        }
+        return turnProbabilities[turns];
+    }
+    
+    /**
+     * Gets the expected number of turns played.
+     * @throws IllegalStateException if the solution is an estimate
+     */
+    public double getExpectedTurns() {
+        requireExact();
+        double expectedTurns = 0.0;
+        for (int turns = 1; turns < turnProbabilities.length; turns++) {
+            expectedTurns += turns * turnProbabilities[turns];
+        }
+        return expectedTurns;
+    }
+    
+    /**
+     * Gets the Monte Carlo estimate behind this solution.
+     * @return The estimate, or null if the solution is exact
+     */
+    public MatchupEstimate getEstimate() {
+        return estimate;
+    }
+    
+    private void requireExact() {
+        if (!isExact()) {
+            throw new IllegalStateException("The turn distribution is only available for exact solutions");
+        }
+    }
+    
+    @Override
+    public String toString() {
+        if (!isExact()) {
+            return estimate.toString();
+        }
+        return String.format(
+            "Matchup Solution (exact, %.2f expected turns):\n" +
+            "- Fighter 1 wins: %.4f\n" +
+            "- Fighter 2 wins: %.4f\n" +
+            "- Draws: %.4f\n" +
+            "- Timeouts: %.4f",
+            getExpectedTurns(), fighter1WinProbability, fighter2WinProbability,
+            drawProbability, timeoutProbability
+        );
+    }
+}
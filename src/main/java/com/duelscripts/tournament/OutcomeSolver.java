@@ -0,0 +1,169 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.scripting.CombatScript;
+
+/**
+ * Computes the outcome probabilities of a matchup without simulating battles.
+ * <p>
+ * When both scripts are {@linkplain CombatScript#isHistoryIndependent() history
+ * independent}, a battle is a Markov chain over the fighters' hit points: the
+ * only randomness left is each strike's critical hit roll. The solver pushes the
+ * probability of every (hit points, hit points) state forward one turn at a
+ * time, so it yields exact win, draw and timeout probabilities as well as the
+ * distribution of battle lengths in time proportional to
+ * {@code maxTurns * maxHitPoints1 * maxHitPoints2}. Outcomes are classified the
+ * way {@link com.duelscripts.combat.Game} classifies them, including a battle that ends on the final
+ * turn counting as a timeout.
+ * <p>
+ * Matchups involving a script that reads the battle history fall back to the
+ * Monte Carlo {@link MatchupEstimator} returned by {@link #getEstimator()}.
+ */
+public class OutcomeSolver {
+    private final Entrant entrant1;
+    private final Entrant entrant2;
+    private final int maxTurns;
+    private final MatchupEstimator estimator;
+    
+    public OutcomeSolver(Entrant entrant1, Entrant entrant2, int maxTurns) {
+        this.estimator = new MatchupEstimator(entrant1, entrant2, maxTurns);
+        this.entrant1 = entrant1;
+        this.entrant2 = entrant2;
+        this.maxTurns = maxTurns;
+    }
+    
+    /**
+     * Checks whether the matchup can be solved exactly.
+     * @return true if both entrants' scripts are history independent
+     */
+    public boolean isExact() {
+        return entrant1.createScript().isHistoryIndependent()
+            && entrant2.createScript().isHistoryIndependent();
+    }
+    
+    /**
+     * Solves the matchup, exactly if possible and by sampling otherwise.
+     * @return The outcome probabilities
+     */
+    public MatchupSolution solve() {
+        if (!isExact()) {
+            return new MatchupSolution(estimator.estimate());
+        }
+        return solveExactly();
+    }
+    
+    /**
+     * Gets the estimator used for matchups that cannot be solved exactly, so
+     * that its stopping rules and seed can be configured.
+     */
+    public MatchupEstimator getEstimator() {
+        return estimator;
+    }
+    
+    private MatchupSolution solveExactly() {
+        FighterSpec spec1 = entrant1.getSpec();
+        FighterSpec spec2 = entrant2.getSpec();
+        DecisionTable decisions1 = new DecisionTable(entrant1.createScript(), spec1, spec2, maxTurns);
+        DecisionTable decisions2 = new DecisionTable(entrant2.createScript(), spec2, spec1, maxTurns);
+        int maxHitPoints1 = spec1.getMaxHitPoints();
+        int maxHitPoints2 = spec2.getMaxHitPoints();
+        double critChance1 = spec1.getWeapon().getCriticalHitChance();
+        double critChance2 = spec2.getWeapon().getCriticalHitChance();
+        
+        // Probability of each state where both fighters are alive, indexed by hp1 * stride + hp2
+        int stride = maxHitPoints2 + 1;
+        double[] states = new double[(maxHitPoints1 + 1) * stride];
+        double[] nextStates = new double[states.length];
+        states[maxHitPoints1 * stride + maxHitPoints2] = 1.0;
+        
+        double[] outcomes = new double[BattleOutcome.values().length];
+        double[] turnProbabilities = new double[maxTurns + 1];
+        boolean anyAlive = true;
+        
+        for (int turn = 1; turn <= maxTurns && anyAlive; turn++) {
+            // A battle ending on the final turn is reported as a timeout, like Game does
+            boolean lastTurn = turn == maxTurns;
+            anyAlive = false;
+            byte[] layer1 = decisions1.layer(turn);
+            byte[] layer2 = decisions2.layer(turn);
+            
+            for (int hitPoints1 = 1; hitPoints1 <= maxHitPoints1; hitPoints1++) {
+                for (int hitPoints2 = 1; hitPoints2 <= maxHitPoints2; hitPoints2++) {
+                    double probability = states[hitPoints1 * stride + hitPoints2];
+                    if (probability == 0.0) {
+                        continue;
+                    }
+                    states[hitPoints1 * stride + hitPoints2] = 0.0;
+                    
+                    int action1 = layer1[hitPoints1 * decisions1.getStride() + hitPoints2];
+                    int action2 = layer2[hitPoints2 * decisions2.getStride() + hitPoints1];
+                    
+                    // Damage dealt by each fighter: {normal, critical}, or zero if parried
+                    boolean hit1 = DecisionTable.strikeOf(action1) != DecisionTable.parryOf(action2);
+                    boolean hit2 = DecisionTable.strikeOf(action2) != DecisionTable.parryOf(action1);
+                    
+                    for (int crit1 = 0; crit1 < (hit1 ? 2 : 1); crit1++) {
+                        double probability1 = !hit1 ? 1.0 : crit1 == 1 ? critChance1 : 1.0 - critChance1;
+                        if (probability1 == 0.0) {
+                            continue;
+                        }
+                        int damageTo2 = hit1 ? damage(spec1, action1, crit1 == 1) : 0;
+                        
+                        for (int crit2 = 0; crit2 < (hit2 ? 2 : 1); crit2++) {
+                            double probability2 = !hit2 ? 1.0 : crit2 == 1 ? critChance2 : 1.0 - critChance2;
+                            if (probability2 == 0.0) {
+                                continue;
+                            }
+                            int damageTo1 = hit2 ? damage(spec2, action2, crit2 == 1) : 0;
+                            
+                            double branch = probability * probability1 * probability2;
+                            int newHitPoints1 = Math.max(0, hitPoints1 - damageTo1);
+                            int newHitPoints2 = Math.max(0, hitPoints2 - damageTo2);
+                            if (newHitPoints1 > 0 && newHitPoints2 > 0) {
+                                nextStates[newHitPoints1 * stride + newHitPoints2] += branch;
+                                anyAlive = true;
+                                continue;
+                            }
+                            
+                            BattleOutcome outcome;
+                            if (lastTurn) {
+                                outcome = BattleOutcome.TIMEOUT;
+                            } else if (newHitPoints1 > 0) {
+                                outcome = BattleOutcome.FIGHTER1_WIN;
+                            } else if (newHitPoints2 > 0) {
+                                outcome = BattleOutcome.FIGHTER2_WIN;
+                            } else {
+                                outcome = BattleOutcome.DRAW;
+                            }
+                            outcomes[outcome.ordinal()] += branch;
+                            turnProbabilities[turn] += branch;
+                        }
+                    }
+                }
+            }
+            
+            double[] swap = states;
+            states = nextStates;
+            nextStates = swap;
+        }
+        
+        // Whatever is still alive after the last turn timed out
+        double survivors = 0.0;
+        for (double probability : states) {
+            survivors += probability;
+        }
+        outcomes[BattleOutcome.TIMEOUT.ordinal()] += survivors;
+        turnProbabilities[maxTurns] += survivors;
+        
+        return new MatchupSolution(
+            outcomes[BattleOutcome.FIGHTER1_WIN.ordinal()],
+            outcomes[BattleOutcome.FIGHTER2_WIN.ordinal()],
+            outcomes[BattleOutcome.DRAW.ordinal()],
+            outcomes[BattleOutcome.TIMEOUT.ordinal()],
+            turnProbabilities);
+    }
+    
+    private static int damage(FighterSpec attacker, int action, boolean critical) {
+        return attacker.getDamageTable().getDamage(DecisionTable.strikeOf(action), critical);
+    }
+}
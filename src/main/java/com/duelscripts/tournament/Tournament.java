@@ -0,0 +1,316 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.combat.BattleSeeds;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.scripting.DecisionCache;
+import com.duelscripts.scripting.ScriptFactory;
+import com.duelscripts.scripting.ScriptGuard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.random.RandomGenerator;
+
+/**
+ * Round-robin tournament that plays every pairing of entrants a fixed number
+ * of times on a worker pool.
+ * <p>
+ * Each battle runs headless with fresh scripts on pooled fighter state. Work is split into
+ * independent chunks that tally their outcomes locally, so workers share no
+ * mutable state until the results are merged.
+ * <p>
+ * Every battle draws its critical hits from its own generator derived from the
+ * tournament's master seed and the battle's index, so a tournament is
+ * reproducible from its seed regardless of how the battles are scheduled.
+ * <p>
+ * A long tournament can be watched while it runs through a
+ * {@link TournamentProgress}, which is published over JMX.
+ */
+public class Tournament {
+    private static final int BATTLES_PER_TASK = 64;
+    
+    private final List<Entrant> entrants;
+    private final int battlesPerPairing;
+    private final int maxTurns;
+    private long masterSeed;
+    private Map<String, DecisionCache> decisionCaches = Map.of();
+    private ScriptGuard scriptGuard;
+    private TournamentProgress progress;
+    
+    /**
+     * Creates a tournament over every script available in {@link ScriptFactory}.
+     */
+    public Tournament(List<FighterSpec> roster, int battlesPerPairing, int maxTurns) {
+        this(roster, ScriptFactory.getAvailableScripts(), battlesPerPairing, maxTurns);
+    }
+    
+    /**
+     * Creates a tournament in which every spec fights with every script type.
+     * @param roster The fighter specs
+     * @param scriptTypes The script types to combine with each spec
+     * @param battlesPerPairing How many battles to run for each pair of entrants
+     * @param maxTurns The turn limit of each battle
+     */
+    public Tournament(List<FighterSpec> roster, List<String> scriptTypes,
+                      int battlesPerPairing, int maxTurns) {
+        if (battlesPerPairing < 1) {
+            throw new IllegalArgumentException("battlesPerPairing must be positive: " + battlesPerPairing);
+        }
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("maxTurns must be positive: " + maxTurns);
+        }
+        List<Entrant> allEntrants = new ArrayList<>();
+        for (FighterSpec spec : roster) {
+            for (String scriptType : scriptTypes) {
+                allEntrants.add(new Entrant(spec, scriptType));
+            }
+        }
+        this.entrants = List.copyOf(allEntrants);
+        this.battlesPerPairing = battlesPerPairing;
+        this.maxTurns = maxTurns;
+        this.masterSeed = new SplittableRandom().nextLong();
+    }
+    
+    /**
+     * Runs the tournament on a dedicated fork-join pool.
+     * @param parallelism The number of worker threads
+     * @return The tournament result
+     */
+    public TournamentResult run(int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return run(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Runs the tournament on the given executor. The executor is not shut down.
+     * @param executor The executor running the battles
+     * @return The tournament result
+     */
+    public TournamentResult run(ExecutorService executor) {
+        if (progress != null) {
+            int pairings = entrants.size() * (entrants.size() - 1) / 2;
+            progress.start((long) pairings * battlesPerPairing, workersOf(executor));
+        }
+        try {
+            return runChunks(executor);
+        } finally {
+            if (progress != null) {
+                progress.finish();
+            }
+        }
+    }
+    
+    private TournamentResult runChunks(ExecutorService executor) {
+        List<Future<ChunkTally>> futures = new ArrayList<>();
+        long firstBattleOfPairing = 0;
+        for (int i = 0; i < entrants.size(); i++) {
+            for (int j = i + 1; j < entrants.size(); j++) {
+                for (int start = 0; start < battlesPerPairing; start += BATTLES_PER_TASK) {
+                    int count = Math.min(BATTLES_PER_TASK, battlesPerPairing - start);
+                    futures.add(executor.submit(new BattleChunk(i, j, firstBattleOfPairing + start, count)));
+                }
+                firstBattleOfPairing += battlesPerPairing;
+            }
+        }
+        
+        int n = entrants.size();
+        long[][] wins = new long[n][n];
+        long[][] draws = new long[n][n];
+        long[][] timeouts = new long[n][n];
+        for (Future<ChunkTally> future : futures) {
+            ChunkTally tally = await(future);
+            wins[tally.entrant1][tally.entrant2] += tally.wins1;
+            wins[tally.entrant2][tally.entrant1] += tally.wins2;
+            draws[tally.entrant1][tally.entrant2] += tally.draws;
+            draws[tally.entrant2][tally.entrant1] += tally.draws;
+            timeouts[tally.entrant1][tally.entrant2] += tally.timeouts;
+            timeouts[tally.entrant2][tally.entrant1] += tally.timeouts;
+        }
+        return new TournamentResult(entrants, masterSeed, wins, draws, timeouts);
+    }
+    
+    public List<Entrant> getEntrants() {
+        return entrants;
+    }
+    
+    public int getBattlesPerPairing() {
+        return battlesPerPairing;
+    }
+    
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+    
+    /**
+     * Sets the seed from which every battle's generator is derived.
+     * Defaults to a random seed chosen when the tournament is created.
+     */
+    public void setMasterSeed(long masterSeed) {
+        this.masterSeed = masterSeed;
+    }
+    
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+    
+    /**
+     * Memoizes the decisions of history-independent scripts, with one
+     * {@link DecisionCache} per script type shared by all of its entrants.
+     * Caching never changes the outcome of a battle.
+     * @param capacity The number of decisions each cache holds, or 0 to disable caching
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public void setDecisionCacheCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        Map<String, DecisionCache> caches = new LinkedHashMap<>();
+        for (Entrant entrant : entrants) {
+            DecisionCache cache = null;
+            if (capacity > 0 && ScriptFactory.createScript(entrant.getScriptType()).isHistoryIndependent()) {
+                cache = caches.computeIfAbsent(entrant.getScriptType(), type -> new DecisionCache(capacity));
+            }
+            entrant.setDecisionCache(cache);
+        }
+        this.decisionCaches = Collections.unmodifiableMap(caches);
+    }
+    
+    /**
+     * Runs every entrant's decisions under a guard, so a slow or failing
+     * script is timed out or replaced instead of stalling its worker. The
+     * guard's fault counters then cover the whole tournament.
+     * @param scriptGuard The guard, or null to call the scripts directly
+     */
+    public void setScriptGuard(ScriptGuard scriptGuard) {
+        for (Entrant entrant : entrants) {
+            entrant.setScriptGuard(scriptGuard);
+        }
+        this.scriptGuard = scriptGuard;
+    }
+    
+    public ScriptGuard getScriptGuard() {
+        return scriptGuard;
+    }
+    
+    /**
+     * Reports the tournament's progress while it runs. Register the progress
+     * with {@link TournamentProgress#register()} to watch it over JMX.
+     * @param progress The progress to update, or null to report nothing
+     */
+    public void setProgress(TournamentProgress progress) {
+        this.progress = progress;
+    }
+    
+    public TournamentProgress getProgress() {
+        return progress;
+    }
+    
+    /**
+     * Gets the decision caches set up by {@link #setDecisionCacheCapacity(int)}.
+     * @return The cache of each cached script type
+     */
+    public Map<String, DecisionCache> getDecisionCaches() {
+        return decisionCaches;
+    }
+    
+    /**
+     * Guesses how many threads an executor runs tasks on.
+     */
+    private static int workersOf(ExecutorService executor) {
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            int maximum = ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+            if (maximum < Integer.MAX_VALUE) {
+                return maximum;
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+    
+    private static ChunkTally await(Future<ChunkTally> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament battle failed", e.getCause());
+        }
+    }
+    
+    /**
+     * Runs a number of battles between two entrants and tallies the outcomes.
+     */
+    private class BattleChunk implements Callable<ChunkTally> {
+        private final int entrant1;
+        private final int entrant2;
+        private final long firstBattleIndex;
+        private final int battles;
+        
+        BattleChunk(int entrant1, int entrant2, long firstBattleIndex, int battles) {
+            this.entrant1 = entrant1;
+            this.entrant2 = entrant2;
+            this.firstBattleIndex = firstBattleIndex;
+            this.battles = battles;
+        }
+        
+        @Override
+        public ChunkTally call() {
+            ChunkTally tally = new ChunkTally(entrant1, entrant2);
+            Entrant first = entrants.get(entrant1);
+            Entrant second = entrants.get(entrant2);
+            for (int b = 0; b < battles; b++) {
+                long battleIndex = firstBattleIndex + b;
+                RandomGenerator random = BattleSeeds.randomFor(masterSeed, battleIndex);
+                switch (Battles.play(first, second, maxTurns, random, progress)) {
+                    case FIGHTER1_WIN:
+                        tally.wins1++;
+                        break;
+                    case FIGHTER2_WIN:
+                        tally.wins2++;
+                        break;
+                    case DRAW:
+                        tally.draws++;
+                        break;
+                    case TIMEOUT:
+                    default:
+                        tally.timeouts++;
+                        break;
+                }
+            }
+            return tally;
+        }
+    }
+    
+    /**
+     * Outcome counts of one chunk of battles.
+     */
+    private static class ChunkTally {
+        final int entrant1;
+        final int entrant2;
+        long wins1;
+        long wins2;
+        long draws;
+        long timeouts;
+        
+        ChunkTally(int entrant1, int entrant2) {
+            this.entrant1 = entrant1;
+            this.entrant2 = entrant2;
+        }
+    }
+}
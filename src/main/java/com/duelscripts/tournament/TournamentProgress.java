@@ -0,0 +1,255 @@
+package com.duelscripts.tournament;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Live progress of a {@link Tournament}, published as a platform MXBean.
+ * <p>
+ * Workers update striped {@link LongAdder} counters as they start and finish
+ * battles, so reporting progress takes no lock and adds no contention between
+ * workers. Readers sum the counters on demand. Rates are derived from an
+ * immutable snapshot of the counters that is replaced by compare-and-set at
+ * most once per second, whichever reader gets there first.
+ * <p>
+ * One progress object may follow several tournaments in turn; each run of a
+ * tournament restarts it.
+ */
+public final class TournamentProgress implements TournamentProgressMXBean, AutoCloseable {
+    private static final long RATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final ObjectName objectName;
+    private final LongAdder battlesStarted = new LongAdder();
+    private final LongAdder battlesCompleted = new LongAdder();
+    private final LongAdder turnsCompleted = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final Map<String, LongAdder> scriptWins = new ConcurrentHashMap<>();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private volatile long battlesTotal;
+    private volatile int workers;
+    private volatile long startNanos;
+    private volatile boolean running;
+    private volatile boolean registered;
+    
+    /**
+     * @param name The value of the {@code name} key of the MXBean's object name
+     * @throws IllegalArgumentException if the name is not valid in an object name
+     */
+    public TournamentProgress(String name) {
+        try {
+            this.objectName = new ObjectName("com.duelscripts:type=TournamentProgress,name=" + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid progress name: " + name, e);
+        }
+        this.snapshot.set(new Snapshot(System.nanoTime(), 0, 0, 0, 0.0, 0.0, 0.0));
+    }
+    
+    /**
+     * Registers this progress with the platform MBean server.
+     * @throws IllegalStateException if another MBean is registered under the same name
+     */
+    public synchronized void register() {
+        if (registered) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + objectName, e);
+        }
+        registered = true;
+    }
+    
+    /**
+     * Unregisters this progress from the platform MBean server, if registered.
+     */
+    @Override
+    public synchronized void close() {
+        if (!registered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            // Already removed by someone else
+        }
+        registered = false;
+    }
+    
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+    
+    /**
+     * Starts following a tournament, zeroing every counter.
+     * @param battles The number of battles the tournament will play
+     * @param workers The number of worker threads playing them
+     */
+    void start(long battles, int workers) {
+        battlesStarted.reset();
+        battlesCompleted.reset();
+        turnsCompleted.reset();
+        busyNanos.reset();
+        scriptWins.clear();
+        this.battlesTotal = battles;
+        this.workers = workers;
+        this.startNanos = System.nanoTime();
+        snapshot.set(new Snapshot(startNanos, 0, 0, 0, 0.0, 0.0, 0.0));
+        running = true;
+    }
+    
+    void finish() {
+        running = false;
+    }
+    
+    void battleStarted() {
+        battlesStarted.increment();
+    }
+    
+    /**
+     * Records a finished battle.
+     * @param turns The number of turns played
+     * @param winnerScript The winning entrant's script type, or null for a draw or a timeout
+     */
+    void battleCompleted(int turns, String winnerScript) {
+        battlesCompleted.increment();
+        turnsCompleted.add(turns);
+        if (winnerScript != null) {
+            LongAdder wins = scriptWins.get(winnerScript);
+            if (wins == null) {
+                wins = scriptWins.computeIfAbsent(winnerScript, type -> new LongAdder());
+            }
+            wins.increment();
+        }
+    }
+    
+    /**
+     * Records time a worker spent running battles.
+     */
+    void workerBusy(long nanos) {
+        busyNanos.add(nanos);
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    @Override
+    public long getBattlesTotal() {
+        return battlesTotal;
+    }
+    
+    @Override
+    public long getQueueDepth() {
+        return Math.max(0, battlesTotal - battlesStarted.sum());
+    }
+    
+    @Override
+    public long getBattlesInFlight() {
+        // Read completed before started, so a battle finishing in between cannot make the difference negative
+        long completed = battlesCompleted.sum();
+        return Math.max(0, battlesStarted.sum() - completed);
+    }
+    
+    @Override
+    public long getBattlesCompleted() {
+        return battlesCompleted.sum();
+    }
+    
+    @Override
+    public long getTurnsCompleted() {
+        return turnsCompleted.sum();
+    }
+    
+    @Override
+    public double getBattlesPerSecond() {
+        return currentSnapshot().battlesPerSecond;
+    }
+    
+    @Override
+    public double getTurnsPerSecond() {
+        return currentSnapshot().turnsPerSecond;
+    }
+    
+    @Override
+    public int getWorkers() {
+        return workers;
+    }
+    
+    @Override
+    public double getWorkerUtilization() {
+        return currentSnapshot().utilization;
+    }
+    
+    @Override
+    public double getElapsedSeconds() {
+        long start = startNanos;
+        return start == 0 ? 0.0 : (System.nanoTime() - start) / 1e9;
+    }
+    
+    @Override
+    public Map<String, Long> getScriptWins() {
+        Map<String, Long> wins = new TreeMap<>();
+        scriptWins.forEach((type, count) -> wins.put(type, count.sum()));
+        return wins;
+    }
+    
+    /**
+     * Gets the latest snapshot, replacing it first if it is older than the rate interval.
+     */
+    private Snapshot currentSnapshot() {
+        Snapshot previous = snapshot.get();
+        long now = System.nanoTime();
+        long elapsed = now - previous.nanos;
+        if (elapsed < RATE_INTERVAL_NANOS) {
+            return previous;
+        }
+        long battles = battlesCompleted.sum();
+        long turns = turnsCompleted.sum();
+        long busy = busyNanos.sum();
+        double seconds = elapsed / 1e9;
+        int workerCount = Math.max(1, workers);
+        double busyShare = (double) (busy - previous.busyNanos) / (elapsed * (double) workerCount);
+        double utilization = Math.min(1.0, Math.max(0.0, busyShare));
+        Snapshot next = new Snapshot(now, battles, turns, busy,
+                                     (battles - previous.battles) / seconds,
+                                     (turns - previous.turns) / seconds,
+                                     utilization);
+        // A reader that loses the race uses the winner's snapshot
+        return snapshot.compareAndSet(previous, next) ? next : snapshot.get();
+    }
+    
+    /**
+     * Counter values at one instant and the rates since the previous snapshot.
+     */
+    private static final class Snapshot {
+        final long nanos;
+        final long battles;
+        final long turns;
+        final long busyNanos;
+        final double battlesPerSecond;
+        final double turnsPerSecond;
+        final double utilization;
+        
+        Snapshot(long nanos, long battles, long turns, long busyNanos,
+                 double battlesPerSecond, double turnsPerSecond, double utilization) {
+            this.nanos = nanos;
+            this.battles = battles;
+            this.turns = turns;
+            this.busyNanos = busyNanos;
+            this.battlesPerSecond = battlesPerSecond;
+            this.turnsPerSecond = turnsPerSecond;
+            this.utilization = utilization;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.duelscripts.tournament;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link TournamentProgress}, for watching a running
+ * tournament from JConsole or any other JMX client.
+ * <p>
+ * Rates and utilization are measured over the interval since they were last
+ * recomputed, which happens at most once per second, so they follow the
+ * current throughput rather than the average of the whole run.
+ */
+public interface TournamentProgressMXBean {
+    /**
+     * Checks whether a tournament is running.
+     */
+    boolean isRunning();
+    
+    /**
+     * Gets the number of battles in the current or last tournament.
+     */
+    long getBattlesTotal();
+    
+    /**
+     * Gets the number of battles submitted to the workers but not started yet.
+     */
+    long getQueueDepth();
+    
+    long getBattlesInFlight();
+    
+    long getBattlesCompleted();
+    
+    long getTurnsCompleted();
+    
+    double getBattlesPerSecond();
+    
+    double getTurnsPerSecond();
+    
+    /**
+     * Gets the number of worker threads running battles.
+     */
+    int getWorkers();
+    
+    /**
+     * Gets the share of the workers' time spent running battles.
+     * @return A value between 0.0 and 1.0
+     */
+    double getWorkerUtilization();
+    
+    /**
+     * Gets the wall-clock time since the tournament started.
+     */
+    double getElapsedSeconds();
+    
+    /**
+     * Gets the number of battles won so far by each script type.
+     */
+    Map<String, Long> getScriptWins();
+}
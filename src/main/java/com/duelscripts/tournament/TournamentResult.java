@@ -0,0 +1,96 @@
+package com.duelscripts.tournament;
+
+import java.util.List;
+
+/**
+ * Win/draw/timeout matrix of a round-robin tournament.
+ * Cell {@code [i][j]} of the win matrix counts battles entrant {@code i} won
+ * against entrant {@code j}; the draw and timeout matrices are symmetric.
+ */
+public class TournamentResult {
+    private final List<Entrant> entrants;
+    private final long masterSeed;
+    private final long[][] wins;
+    private final long[][] draws;
+    private final long[][] timeouts;
+    
+    TournamentResult(List<Entrant> entrants, long masterSeed,
+                     long[][] wins, long[][] draws, long[][] timeouts) {
+        this.entrants = List.copyOf(entrants);
+        this.masterSeed = masterSeed;
+        this.wins = wins;
+        this.draws = draws;
+        this.timeouts = timeouts;
+    }
+    
+    public List<Entrant> getEntrants() {
+        return entrants;
+    }
+    
+    /**
+     * Gets the master seed that reproduces this tournament.
+     */
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+    
+    /**
+     * Gets the number of battles entrant {@code i} won against entrant {@code j}.
+     */
+    public long getWins(int i, int j) {
+        return wins[i][j];
+    }
+    
+    /**
+     * Gets the number of battles between entrants {@code i} and {@code j} in which both fell.
+     */
+    public long getDraws(int i, int j) {
+        return draws[i][j];
+    }
+    
+    /**
+     * Gets the number of battles between entrants {@code i} and {@code j} that hit the turn limit.
+     */
+    public long getTimeouts(int i, int j) {
+        return timeouts[i][j];
+    }
+    
+    /**
+     * Gets the total number of battles won by an entrant.
+     */
+    public long getTotalWins(int i) {
+        long total = 0;
+        for (long w : wins[i]) {
+            total += w;
+        }
+        return total;
+    }
+    
+    /**
+     * Gets the total number of battles played in the tournament.
+     */
+    public long getTotalBattles() {
+        long total = 0;
+        for (int i = 0; i < entrants.size(); i++) {
+            for (int j = i + 1; j < entrants.size(); j++) {
+                total += wins[i][j] + wins[j][i] + draws[i][j] + timeouts[i][j];
+            }
+        }
+        return total;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder("Tournament Results (wins/draws/timeouts):\n");
+        for (int i = 0; i < entrants.size(); i++) {
+            table.append(String.format("- %s: %d wins%n", entrants.get(i).getName(), getTotalWins(i)));
+            for (int j = 0; j < entrants.size(); j++) {
+                if (i != j) {
+                    table.append(String.format("    vs %s: %d/%d/%d%n", entrants.get(j).getName(),
+                                               wins[i][j], draws[i][j], timeouts[i][j]));
+                }
+            }
+        }
+        return table.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.duelscripts.combat;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class BattleHistoryTest {
+    
+    private final Fighter alice = new Fighter("Alice", 5000, 5, new Weapon("Sword", 10, 0.3));
+    private final Fighter bob = new Fighter("Bob", 5000, 3, new Weapon("Axe", 12, 0.3));
+    
+    private List<TurnResult> resolveTurns(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BodyPart[] parts = BodyPart.values();
+        List<TurnResult> turns = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Action action1 = new Action(parts[random.nextInt(3)], parts[random.nextInt(3)]);
+            Action action2 = new Action(parts[random.nextInt(3)], parts[random.nextInt(3)]);
+            turns.add(CombatResolver.resolveTurn(alice, action1, bob, action2, random));
+        }
+        return turns;
+    }
+    
+    private void assertSameTurn(TurnResult expected, TurnResult actual) {
+        assertEquals(expected.getFighter1Action().toString(), actual.getFighter1Action().toString());
+        assertEquals(expected.getFighter2Action().toString(), actual.getFighter2Action().toString());
+        assertEquals(expected.getFighter1Damage(), actual.getFighter1Damage());
+        assertEquals(expected.getFighter2Damage(), actual.getFighter2Damage());
+        assertEquals(expected.isFighter1CriticalHit(), actual.isFighter1CriticalHit());
+        assertEquals(expected.isFighter2CriticalHit(), actual.isFighter2CriticalHit());
+        assertEquals(expected.getFighter1HitPoints(), actual.getFighter1HitPoints());
+        assertEquals(expected.getFighter2HitPoints(), actual.getFighter2HitPoints());
+        assertEquals(expected.getDescription(), actual.getDescription());
+    }
+    
+    @Test
+    public void testViewReproducesRecordedTurns() {
+        List<TurnResult> turns = resolveTurns(300, 1L);
+        BattleHistory history = new BattleHistory();
+        turns.forEach(history::add);
+        
+        List<TurnResult> view = history.view();
+        
+        assertEquals(300, view.size());
+        for (int i = 0; i < turns.size(); i++) {
+            assertSameTurn(turns.get(i), view.get(i));
+        }
+    }
+    
+    @Test
+    public void testLastTurnIsNotRematerialized() {
+        List<TurnResult> turns = resolveTurns(3, 2L);
+        BattleHistory history = new BattleHistory();
+        turns.forEach(history::add);
+        
+        assertSame(turns.get(2), history.view().get(2));
+    }
+    
+    @Test
+    public void testHitPointsChangedOutsideCombatAreKept() {
+        List<TurnResult> turns = new ArrayList<>(resolveTurns(2, 3L));
+        alice.takeDamage(100); // e.g. a penalty applied between turns
+        turns.addAll(resolveTurns(2, 4L));
+        BattleHistory history = new BattleHistory();
+        turns.forEach(history::add);
+        
+        List<TurnResult> view = history.view();
+        
+        for (int i = 0; i < turns.size(); i++) {
+            assertSameTurn(turns.get(i), view.get(i));
+        }
+    }
+    
+    @Test
+    public void testViewIsFixedPrefix() {
+        List<TurnResult> turns = resolveTurns(101, 5L);
+        BattleHistory history = new BattleHistory();
+        history.add(turns.get(0));
+        List<TurnResult> view = history.view();
+        
+        // Enough appends to allocate several chunks
+        turns.subList(1, turns.size()).forEach(history::add);
+        
+        assertEquals(1, view.size());
+        assertSameTurn(turns.get(0), view.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(1));
+        assertEquals(101, history.view().size());
+    }
+    
+    @Test
+    public void testClearDoesNotAffectExistingViews() {
+        List<TurnResult> turns = resolveTurns(2, 6L);
+        BattleHistory history = new BattleHistory();
+        history.add(turns.get(0));
+        List<TurnResult> view = history.view();
+        
+        history.clear();
+        history.add(turns.get(1));
+        
+        assertEquals(1, history.size());
+        assertSameTurn(turns.get(0), view.get(0));
+    }
+    
+    @Test
+    public void testViewIsImmutable() {
+        BattleHistory history = new BattleHistory();
+        history.add(resolveTurns(1, 7L).get(0));
+        List<TurnResult> view = history.view();
+        
+        assertThrows(UnsupportedOperationException.class, () -> view.add(view.get(0)));
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+    }
+    
+    @Test
+    public void testDescriptionOnlyResultsAreRejected() {
+        BattleHistory history = new BattleHistory();
+        
+        assertThrows(IllegalArgumentException.class,
+                     () -> history.add(new TurnResult("Turn", 1, 0, false, false)));
+    }
+}
@@ -0,0 +1,38 @@
+package com.duelscripts.combat;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashSet;
+import java.util.SplittableRandom;
+import java.util.Set;
+
+public class BattleSeedsTest {
+    
+    @Test
+    public void testSeedDependsOnlyOnMasterSeedAndIndex() {
+        assertEquals(BattleSeeds.seedFor(42L, 3L), BattleSeeds.seedFor(42L, 3L));
+        assertEquals(BattleSeeds.randomFor(42L, 3L).nextLong(), BattleSeeds.randomFor(42L, 3L).nextLong());
+    }
+    
+    @Test
+    public void testDistinctSeedsPerBattle() {
+        Set<Long> seeds = new HashSet<>();
+        for (long index = 0; index < 10_000; index++) {
+            seeds.add(BattleSeeds.seedFor(42L, index));
+        }
+        assertEquals(10_000, seeds.size());
+        assertNotEquals(BattleSeeds.seedFor(1L, 0L), BattleSeeds.seedFor(2L, 0L));
+    }
+    
+    @Test
+    public void testNextDoubleMatchesSplittableRandom() {
+        long[] states = {BattleSeeds.seedFor(9L, 0), BattleSeeds.seedFor(9L, 1)};
+        SplittableRandom random0 = BattleSeeds.randomFor(9L, 0);
+        SplittableRandom random1 = BattleSeeds.randomFor(9L, 1);
+        
+        for (int i = 0; i < 100; i++) {
+            assertEquals(random0.nextDouble(), BattleSeeds.nextDouble(states, 0));
+            assertEquals(random1.nextDouble(), BattleSeeds.nextDouble(states, 1));
+        }
+    }
+}
@@ -61,4 +61,37 @@ public class BattleStatsTest {
         assertTrue(result.contains("8"));
         assertTrue(result.contains("12.8")); // Should be formatted to 1 decimal
     }
+    
+    @Test
+    public void testAccumulatorTotalsTurns() {
+        BattleStatsAccumulator accumulator = new BattleStatsAccumulator();
+        
+        // Damage arguments are damage taken by fighter 1, then by fighter 2
+        accumulator.add(new TurnResult("Turn 1", 0, 12, false, false));
+        accumulator.add(new TurnResult("Turn 2", 20, 24, true, true));
+        accumulator.add(new TurnResult("Turn 3", 7, 0, true, false));
+        BattleStats stats = accumulator.toStats();
+        
+        assertEquals(3, accumulator.getTurns());
+        assertEquals(36, stats.getTotalDamageByFighter1());
+        assertEquals(27, stats.getTotalDamageByFighter2());
+        assertEquals(2, stats.getSuccessfulStrikesByFighter1());
+        assertEquals(2, stats.getSuccessfulStrikesByFighter2());
+        assertEquals(1, stats.getCriticalHitsByFighter1());
+        assertEquals(1, stats.getCriticalHitsByFighter2());
+        assertEquals(21.0, stats.getAverageDamagePerTurn(), 0.001);
+    }
+    
+    @Test
+    public void testAccumulatorReset() {
+        BattleStatsAccumulator accumulator = new BattleStatsAccumulator();
+        accumulator.add(new TurnResult("Turn 1", 5, 5, false, false));
+        
+        accumulator.reset();
+        BattleStats stats = accumulator.toStats();
+        
+        assertEquals(0, accumulator.getTurns());
+        assertEquals(0, stats.getTotalDamageByFighter1());
+        assertEquals(0.0, stats.getAverageDamagePerTurn(), 0.001);
+    }
 }
@@ -137,4 +137,67 @@ public class CombatResolverTest {
         assertTrue(description.contains("Bob:"));
         assertTrue(description.contains("HP"));
     }
+    
+    @Test
+    public void testStructuredTurnResult() {
+        Fighter fighter1 = createTestFighter("Alice", 50, 5, "Sword", 10);
+        Fighter fighter2 = createTestFighter("Bob", 50, 3, "Axe", 12);
+        
+        // Alice's HEAD strike lands, Bob's LEGS strike is parried
+        Action action1 = new Action(BodyPart.HEAD, BodyPart.LEGS);
+        Action action2 = new Action(BodyPart.LEGS, BodyPart.TORSO);
+        
+        TurnResult result = CombatResolver.resolveTurn(fighter1, action1, fighter2, action2);
+        
+        assertSame(action1, result.getFighter1Action());
+        assertSame(action2, result.getFighter2Action());
+        assertFalse(result.isFighter1StrikeParried());
+        assertTrue(result.isFighter2StrikeParried());
+        assertEquals(23, result.getFighter2Damage()); // (10 + 5) * 1.5 = 22.5, rounded to 23
+        assertEquals(0, result.getFighter1Damage());
+        assertFalse(result.isFighter1CriticalHit());
+        assertFalse(result.isFighter2CriticalHit());
+        assertEquals(50, result.getFighter1HitPoints());
+        assertEquals(27, result.getFighter2HitPoints());
+    }
+    
+    @Test
+    public void testDescriptionRenderedFromTurnData() {
+        Fighter fighter1 = createTestFighter("Alice", 50, 5, "Sword", 10);
+        Fighter fighter2 = createTestFighter("Bob", 50, 3, "Axe", 12);
+        
+        Action action1 = new Action(BodyPart.HEAD, BodyPart.LEGS);
+        Action action2 = new Action(BodyPart.LEGS, BodyPart.TORSO);
+        
+        TurnResult result = CombatResolver.resolveTurn(fighter1, action1, fighter2, action2);
+        
+        // Later HP changes must not leak into the description of a past turn
+        fighter1.takeDamage(10);
+        
+        String expected = "Alice: Strike: HEAD, Parry: LEGS\n" +
+                          "Bob: Strike: LEGS, Parry: TORSO\n" +
+                          "\n" +
+                          "Alice strikes Bob's head for 23 damage!\n" +
+                          "Bob's strike to legs is parried by Alice!\n" +
+                          "\n" +
+                          "Alice: 50/50 HP\n" +
+                          "Bob: 27/50 HP\n";
+        assertEquals(expected, result.getDescription());
+    }
+    
+    @Test
+    public void testCriticalHitReportedExactly() {
+        // A guaranteed crit whose doubled damage rounds to the normal damage
+        Fighter fighter1 = new Fighter("Alice", 50, 0, new Weapon("Needle", 1, 1.0));
+        Fighter fighter2 = createTestFighter("Bob", 50, 3, "Axe", 12);
+        
+        Action action1 = new Action(BodyPart.LEGS, BodyPart.LEGS);
+        Action action2 = new Action(BodyPart.LEGS, BodyPart.HEAD);
+        
+        TurnResult result = CombatResolver.resolveTurn(fighter1, action1, fighter2, action2);
+        
+        assertEquals(1, result.getFighter2Damage());
+        assertTrue(result.isFighter1CriticalHit());
+        assertFalse(result.isFighter2CriticalHit());
+    }
 }
@@ -1,11 +1,21 @@
 package com.duelscripts.combat;
 
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
 import com.duelscripts.core.Fighter;
 import com.duelscripts.core.Weapon;
 import com.duelscripts.scripting.CombatScript;
 import com.duelscripts.scripting.FighterContext;
+import com.duelscripts.scripting.ScriptGuard;
+import com.duelscripts.scripting.scripts.BalancedScript;
+import com.duelscripts.scripting.scripts.TacticalScript;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 public class GameTest {
     
@@ -185,4 +195,295 @@ public class GameTest {
         Game customGame = new Game(fighter1, fighter2, 10, true);
         assertEquals(10, customGame.getMaxTurns());
     }
+    
+    @Test
+    public void testBattleListenerReceivesEvents() {
+        Fighter fighter1 = createTestFighter("Alice", 30);
+        Fighter fighter2 = createTestFighter("Bob", 30);
+        Game game = new Game(fighter1, fighter2);
+        
+        List<String> events = new ArrayList<>();
+        game.setBattleListener(new BattleListener() {
+            @Override
+            public void onBattleStart(Fighter f1, Fighter f2) {
+                events.add("start");
+            }
+            
+            @Override
+            public void onTurnResolved(int turnNumber, TurnResult turnResult) {
+                events.add("turn " + turnNumber);
+            }
+            
+            @Override
+            public void onBattleEnd(BattleResult result) {
+                events.add("end");
+            }
+        });
+        
+        BattleResult result = game.runFullCombat();
+        
+        assertEquals(result.getTotalTurns() + 2, events.size());
+        assertEquals("start", events.get(0));
+        assertEquals("turn 1", events.get(1));
+        assertEquals("end", events.get(events.size() - 1));
+    }
+    
+    @Test
+    public void testHeadlessBattleProducesNoOutput() {
+        Fighter fighter1 = createTestFighter("Alice", 30);
+        Fighter fighter2 = createTestFighter("Bob", 30);
+        Game game = new Game(fighter1, fighter2);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured));
+        try {
+            game.runFullCombat();
+        } finally {
+            System.setOut(originalOut);
+        }
+        
+        assertEquals(0, captured.size());
+    }
+    
+    @Test
+    public void testConsoleListenerWritesBattleText() {
+        Fighter fighter1 = createTestFighter("Alice", 30);
+        Fighter fighter2 = createTestFighter("Bob", 30);
+        Game game = new Game(fighter1, fighter2);
+        
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        game.setBattleListener(new ConsoleBattleListener(new PrintStream(captured)));
+        game.runFullCombat();
+        
+        String output = captured.toString();
+        assertTrue(output.contains("BATTLE SETUP:"));
+        assertTrue(output.contains("TURN 1:"));
+        assertTrue(output.contains("BATTLE COMPLETE!"));
+    }
+    
+    @Test
+    public void testSeededBattleIsReproducible() {
+        BattleResult first = runSeededBattle(42L, 7L);
+        BattleResult second = runSeededBattle(42L, 7L);
+        
+        assertEquals(first.getTotalTurns(), second.getTotalTurns());
+        assertEquals(first.getBattleSummary(), second.getBattleSummary());
+        for (int i = 0; i < first.getTotalTurns(); i++) {
+            assertEquals(first.getTurnHistory().get(i).getDescription(),
+                         second.getTurnHistory().get(i).getDescription());
+        }
+    }
+    
+    private BattleResult runSeededBattle(long masterSeed, long battleIndex) {
+        Weapon weapon = new Weapon("Test Weapon", 10, 0.5);
+        Fighter fighter1 = new Fighter("Alice", 60, 5, weapon);
+        Fighter fighter2 = new Fighter("Bob", 60, 5, weapon);
+        Game game = new Game(fighter1, fighter2);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        game.setRandom(BattleSeeds.randomFor(masterSeed, battleIndex));
+        return game.runFullCombat();
+    }
+    
+    @Test
+    public void testRunFullCombatStartsAtFullHealth() {
+        Fighter fighter1 = createTestFighter("Alice", 30);
+        Fighter fighter2 = createTestFighter("Bob", 30);
+        Game game = new Game(fighter1, fighter2);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        
+        game.runFullCombat();
+        BattleResult rematch = game.runFullCombat();
+        
+        // The rematch starts from full health, so it plays at least one turn
+        assertTrue(rematch.getTotalTurns() > 0);
+    }
+    
+    @Test
+    public void testScriptsReadHistoryWithoutCopying() {
+        List<List<TurnResult>> seenHistories = new ArrayList<>();
+        CombatScript recordingScript = new CombatScript() {
+            @Override
+            public Action getNextAction(FighterContext context) {
+                seenHistories.add(context.getBattleHistory());
+                return new Action(BodyPart.TORSO, BodyPart.HEAD);
+            }
+            
+            @Override
+            public String getName() {
+                return "Recording";
+            }
+            
+            @Override
+            public String getDescription() {
+                return "Records what it sees";
+            }
+        };
+        Weapon weapon = new Weapon("Test Weapon", 10, 0.1);
+        Fighter fighter1 = new Fighter("Alice", 60, 5, weapon, recordingScript);
+        Fighter fighter2 = new Fighter("Bob", 60, 5, weapon, recordingScript);
+        Game game = new Game(fighter1, fighter2);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        
+        BattleResult result = game.runFullCombat();
+        
+        assertEquals(2 * result.getTotalTurns(), seenHistories.size());
+        for (int i = 0; i < seenHistories.size(); i++) {
+            assertTrue(BattleHistory.isView(seenHistories.get(i)));
+            assertEquals(i / 2, seenHistories.get(i).size());
+        }
+    }
+    
+    @Test
+    public void testBattleWithoutHistoryRetention() {
+        BattleResult retained = runScriptedBattle(true);
+        BattleResult unretained = runScriptedBattle(false);
+        
+        assertTrue(unretained.getTurnHistory().isEmpty());
+        assertEquals(retained.getTotalTurns(), retained.getTurnHistory().size());
+        assertEquals(retained.getTotalTurns(), unretained.getTotalTurns());
+        assertEquals(retained.getBattleSummary(), unretained.getBattleSummary());
+        assertEquals(retained.getStatistics().toString(), unretained.getStatistics().toString());
+    }
+    
+    @Test
+    public void testScriptsSeeOnlyPreviousTurnWithoutRetention() {
+        List<Integer> historySizes = new ArrayList<>();
+        List<TurnResult> seenTurns = new ArrayList<>();
+        CombatScript recordingScript = new CombatScript() {
+            @Override
+            public Action getNextAction(FighterContext context) {
+                historySizes.add(context.getBattleHistory().size());
+                seenTurns.add(context.getLastTurnResult());
+                return new Action(BodyPart.TORSO, BodyPart.HEAD);
+            }
+            
+            @Override
+            public String getName() {
+                return "Recording";
+            }
+            
+            @Override
+            public String getDescription() {
+                return "Records what it sees";
+            }
+        };
+        Fighter fighter1 = new Fighter("Alice", 60, 5, new Weapon("Test Weapon", 10, 0.1), recordingScript);
+        Fighter fighter2 = createTestFighter("Bob", 60);
+        List<TurnResult> resolvedTurns = new ArrayList<>();
+        Game game = new Game(fighter1, fighter2);
+        game.setHistoryRetained(false);
+        game.setBattleListener(new BattleListener() {
+            @Override
+            public void onTurnResolved(int turnNumber, TurnResult turnResult) {
+                resolvedTurns.add(turnResult);
+            }
+        });
+        
+        BattleResult result = game.runFullCombat();
+        
+        assertFalse(game.isHistoryRetained());
+        assertEquals(result.getTotalTurns(), historySizes.size());
+        assertEquals(0, historySizes.get(0));
+        assertNull(seenTurns.get(0));
+        for (int i = 1; i < historySizes.size(); i++) {
+            assertEquals(1, historySizes.get(i));
+            assertSame(resolvedTurns.get(i - 1), seenTurns.get(i));
+        }
+    }
+    
+    @Test
+    public void testOpponentProfileCoversWholeBattleWithoutRetention() {
+        List<Integer> observed = new ArrayList<>();
+        List<Action> opponentLast = new ArrayList<>();
+        CombatScript profilingScript = new CombatScript() {
+            @Override
+            public Action getNextAction(FighterContext context) {
+                observed.add(context.getOpponentProfile().getTurnsObserved());
+                opponentLast.add(context.getOpponentProfile().getLastAction());
+                return Action.of(BodyPart.TORSO, BodyPart.HEAD);
+            }
+            
+            @Override
+            public String getName() {
+                return "Profiling";
+            }
+            
+            @Override
+            public String getDescription() {
+                return "Records the opponent profile";
+            }
+        };
+        Fighter fighter1 = createTestFighter("Alice", 60);
+        Fighter fighter2 = new Fighter("Bob", 60, 5, new Weapon("Test Weapon", 10, 0.1), profilingScript);
+        List<TurnResult> resolvedTurns = new ArrayList<>();
+        Game game = new Game(fighter1, fighter2);
+        game.setHistoryRetained(false);
+        game.setBattleListener(new BattleListener() {
+            @Override
+            public void onTurnResolved(int turnNumber, TurnResult turnResult) {
+                resolvedTurns.add(turnResult);
+            }
+        });
+        
+        for (int battle = 0; battle < 2; battle++) {
+            observed.clear();
+            opponentLast.clear();
+            resolvedTurns.clear();
+            game.runFullCombat();
+            
+            assertNull(opponentLast.get(0));
+            for (int i = 0; i < observed.size(); i++) {
+                assertEquals(i, observed.get(i));
+                if (i > 0) {
+                    assertSame(resolvedTurns.get(i - 1).getFighter1Action(), opponentLast.get(i));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testScriptGuardReplacesFailingScript() {
+        CombatScript failingScript = new CombatScript() {
+            @Override
+            public Action getNextAction(FighterContext context) {
+                throw new IllegalStateException("broken");
+            }
+            
+            @Override
+            public String getName() {
+                return "Failing";
+            }
+            
+            @Override
+            public String getDescription() {
+                return "Always throws";
+            }
+        };
+        Fighter fighter1 = new Fighter("Alice", 60, 5, new Weapon("Test Weapon", 10, 0.1), failingScript);
+        Fighter fighter2 = new Fighter("Bob", 60, 5, new Weapon("Test Weapon", 10, 0.1), new BalancedScript());
+        Game game = new Game(fighter1, fighter2, 30, false);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        ScriptGuard guard = new ScriptGuard(Duration.ofSeconds(1));
+        game.setScriptGuard(guard);
+        
+        BattleResult result = game.runFullCombat();
+        
+        assertSame(guard, game.getScriptGuard());
+        assertEquals(guard.getMaxFaults(), guard.getFaults("Failing").getExceptions());
+        assertEquals(result.getTotalTurns(), guard.getFaults("Failing").getSubstitutions());
+        assertEquals(result.getTotalTurns(), guard.getFaults("Balanced").getDecisions());
+    }
+    
+    private BattleResult runScriptedBattle(boolean historyRetained) {
+        Weapon weapon = new Weapon("Test Weapon", 10, 0.3);
+        Fighter fighter1 = new Fighter("Alice", 60, 5, weapon, new TacticalScript());
+        Fighter fighter2 = new Fighter("Bob", 60, 5, weapon, new BalancedScript());
+        Game game = new Game(fighter1, fighter2);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        game.setRandom(BattleSeeds.randomFor(5L, 0));
+        game.setHistoryRetained(historyRetained);
+        return game.runFullCombat();
+    }
 }
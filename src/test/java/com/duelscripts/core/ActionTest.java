@@ -27,4 +27,53 @@ public class ActionTest {
         assertEquals(BodyPart.TORSO, action.getStrikeTarget());
         assertEquals(BodyPart.TORSO, action.getParryTarget());
     }
+    
+    @Test
+    public void testOfReturnsCanonicalInstances() {
+        Action action = Action.of(BodyPart.HEAD, BodyPart.LEGS);
+        
+        assertSame(action, Action.of(BodyPart.HEAD, BodyPart.LEGS));
+        assertSame(action, new Action(BodyPart.HEAD, BodyPart.LEGS).canonical());
+        assertEquals(action, new Action(BodyPart.HEAD, BodyPart.LEGS));
+        assertEquals(action.hashCode(), new Action(BodyPart.HEAD, BodyPart.LEGS).hashCode());
+        assertNotEquals(action, Action.of(BodyPart.LEGS, BodyPart.HEAD));
+    }
+    
+    @Test
+    public void testOrdinalEncoding() {
+        assertEquals(9, Action.COUNT);
+        assertEquals(Action.COUNT, Action.values().size());
+        for (int ordinal = 0; ordinal < Action.COUNT; ordinal++) {
+            Action action = Action.ofOrdinal(ordinal);
+            assertEquals(ordinal, action.ordinal());
+            assertSame(action, Action.values().get(ordinal));
+            assertSame(action, Action.of(action.getStrikeTarget(), action.getParryTarget()));
+            assertTrue(ordinal < 1 << Action.BITS);
+        }
+        assertEquals(BodyPart.TORSO.ordinal() * 3 + BodyPart.HEAD.ordinal(),
+                     Action.of(BodyPart.TORSO, BodyPart.HEAD).ordinal());
+        assertThrows(IllegalArgumentException.class, () -> Action.ofOrdinal(Action.COUNT));
+        assertThrows(IllegalArgumentException.class, () -> Action.ofOrdinal(-1));
+    }
+    
+    @Test
+    public void testIsParriedBy() {
+        Action headStrike = Action.of(BodyPart.HEAD, BodyPart.LEGS);
+        
+        assertTrue(headStrike.isParriedBy(Action.of(BodyPart.TORSO, BodyPart.HEAD)));
+        assertFalse(headStrike.isParriedBy(Action.of(BodyPart.HEAD, BodyPart.TORSO)));
+    }
+    
+    @Test
+    public void testPackedPairs() {
+        for (Action first : Action.values()) {
+            for (Action second : Action.values()) {
+                byte packed = Action.pack(first, second);
+                assertEquals(first.ordinal() << Action.BITS | second.ordinal(), packed & 0xFF);
+                assertSame(first, Action.unpackFirst(packed));
+                assertSame(second, Action.unpackSecond(packed));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> Action.unpackFirst((byte) 0xF0));
+    }
 }
@@ -0,0 +1,86 @@
+package com.duelscripts.core;
+
+import org.junit.jupiter.api.Test;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DamageTableTest {
+    
+    @Test
+    public void testMatchesWeaponTestCases() {
+        DamageTable table = new DamageTable(new Weapon("Test Weapon", 10, 0.5), 5);
+        
+        assertEquals(23, table.getDamage(BodyPart.HEAD, false));  // 15 * 1.5 = 22.5, rounded to 23
+        assertEquals(15, table.getDamage(BodyPart.TORSO, false)); // 15 * 1.0 = 15
+        assertEquals(11, table.getDamage(BodyPart.LEGS, false));  // 15 * 0.7 = 10.5, rounded to 11
+        assertEquals(30, table.getDamage(BodyPart.TORSO, true));  // 15 * 1.0 * 2.0 = 30
+        assertEquals(21, table.getDamage(BodyPart.LEGS, true));   // 15 * 0.7 * 2.0 = 21
+        
+        // Critical and normal damage can round to the same amount
+        DamageTable needle = new DamageTable(new Weapon("Needle", 1, 1.0), 0);
+        assertEquals(needle.getDamage(BodyPart.LEGS, false), needle.getDamage(BodyPart.LEGS, true));
+        assertTrue(needle.roll(BodyPart.LEGS).isCritical());
+    }
+    
+    @Test
+    public void testIdenticalToWeaponCalculation() {
+        for (int baseDamage = 0; baseDamage <= 60; baseDamage++) {
+            Weapon weapon = new Weapon("Test Weapon", baseDamage, 0.2);
+            for (int strength = -5; strength <= 40; strength++) {
+                DamageTable table = new DamageTable(weapon, strength);
+                for (BodyPart part : BodyPart.values()) {
+                    assertEquals(weapon.calculateDamage(part, strength, false), table.getDamage(part, false));
+                    assertEquals(weapon.calculateDamage(part, strength, true), table.getDamage(part, true));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testRollsIdenticallyToWeapon() {
+        Weapon weapon = new Weapon("Test Weapon", 12, 0.3);
+        DamageTable table = new DamageTable(weapon, 7);
+        SplittableRandom weaponRandom = new SplittableRandom(99L);
+        SplittableRandom tableRandom = new SplittableRandom(99L);
+        
+        for (int i = 0; i < 1000; i++) {
+            BodyPart part = BodyPart.values()[i % 3];
+            DamageRoll expected = weapon.rollDamage(part, 7, weaponRandom);
+            DamageRoll actual = table.roll(part, tableRandom);
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.isCritical(), actual.isCritical());
+        }
+    }
+    
+    @Test
+    public void testRollsFromWeaponGenerator() {
+        Weapon reference = new Weapon("Test Weapon", 12, 0.3, new SplittableRandom(5L));
+        DamageTable table = new DamageTable(new Weapon("Test Weapon", 12, 0.3, new SplittableRandom(5L)), 7);
+        
+        for (int i = 0; i < 100; i++) {
+            DamageRoll expected = reference.rollDamage(BodyPart.HEAD, 7);
+            DamageRoll actual = table.roll(BodyPart.HEAD);
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.isCritical(), actual.isCritical());
+        }
+    }
+    
+    @Test
+    public void testRollsAreShared() {
+        DamageTable table = new DamageTable(new Weapon("Test Weapon", 10, 0.0), 5);
+        SplittableRandom random = new SplittableRandom(1L);
+        
+        assertSame(table.roll(BodyPart.TORSO, random), table.roll(BodyPart.TORSO, random));
+    }
+    
+    @Test
+    public void testSpecPrecomputesTable() {
+        Weapon sword = new Weapon("Sword", 10, 0.15);
+        FighterSpec spec = new FighterSpec("Alice", 50, 8, sword);
+        
+        for (BodyPart part : BodyPart.values()) {
+            assertEquals(sword.calculateDamage(part, 8, false), spec.getDamageTable().getDamage(part, false));
+            assertEquals(sword.calculateDamage(part, 8, true), spec.getDamageTable().getDamage(part, true));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.duelscripts.core;
 
+import com.duelscripts.scripting.scripts.AggressiveScript;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -68,4 +69,53 @@ public class FighterTest {
         String expectedAfterDamage = "Test Fighter (HP: 30/50, Str: 8, Weapon: Test Sword, Script: Random)";
         assertEquals(expectedAfterDamage, fighter.toString());
     }
+    
+    @Test
+    public void testFighterFromSpec() {
+        Weapon sword = new Weapon("Test Sword", 10, 0.1);
+        FighterSpec spec = new FighterSpec("Spec Fighter", 40, 6, sword);
+        Fighter fighter = new Fighter(spec, new AggressiveScript());
+        
+        assertSame(spec, fighter.getSpec());
+        assertEquals("Spec Fighter", fighter.getName());
+        assertEquals(40, fighter.getHitPoints());
+        assertEquals(40, fighter.getMaxHitPoints());
+        assertEquals(6, fighter.getStrength());
+        assertSame(sword, fighter.getWeapon());
+    }
+    
+    @Test
+    public void testResetRestoresFullHealth() {
+        Fighter fighter = createTestFighter();
+        fighter.takeDamage(50);
+        assertFalse(fighter.isAlive());
+        
+        fighter.reset();
+        
+        assertTrue(fighter.isAlive());
+        assertEquals(50, fighter.getHitPoints());
+    }
+    
+    @Test
+    public void testResetRebindsSpecAndScript() {
+        Fighter fighter = createTestFighter();
+        fighter.takeDamage(20);
+        FighterSpec other = new FighterSpec("Other", 80, 3, new Weapon("Club", 5, 0.0));
+        AggressiveScript script = new AggressiveScript();
+        
+        fighter.reset(other, script);
+        
+        assertEquals("Other", fighter.getName());
+        assertEquals(80, fighter.getHitPoints());
+        assertSame(script, fighter.getCombatScript());
+    }
+    
+    @Test
+    public void testSpecEquality() {
+        Weapon sword = new Weapon("Test Sword", 10, 0.1);
+        
+        assertEquals(new FighterSpec("A", 50, 8, sword), new FighterSpec("A", 50, 8, sword));
+        assertEquals(new FighterSpec("A", 50, 8, sword).hashCode(), new FighterSpec("A", 50, 8, sword).hashCode());
+        assertNotEquals(new FighterSpec("A", 50, 8, sword), new FighterSpec("A", 51, 8, sword));
+    }
 }
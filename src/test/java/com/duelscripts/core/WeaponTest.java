@@ -2,6 +2,7 @@ package com.duelscripts.core;
 
 import org.junit.jupiter.api.Test;
 import java.util.Random;
+import java.util.SplittableRandom;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class WeaponTest {
@@ -66,10 +67,77 @@ public class WeaponTest {
         assertEquals(30, damage);
     }
     
+    @Test
+    public void testCalculateDamageWithProvidedGenerator() {
+        Weapon weapon = new Weapon("Test Weapon", 10, 0.5);
+        
+        // Same seed, same sequence of critical hit rolls
+        SplittableRandom random1 = new SplittableRandom(99L);
+        SplittableRandom random2 = new SplittableRandom(99L);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(weapon.calculateDamage(BodyPart.HEAD, 5, random1),
+                         weapon.calculateDamage(BodyPart.HEAD, 5, random2));
+        }
+    }
+    
+    @Test
+    public void testRollDamageReportsCriticalHit() {
+        Random critRandom = new Random(12345) {
+            @Override
+            public double nextDouble() {
+                return 0.1; // Always crit
+            }
+        };
+        Weapon weapon = new Weapon("Crit Weapon", 10, 0.5, critRandom);
+        
+        DamageRoll roll = weapon.rollDamage(BodyPart.LEGS, 5);
+        
+        assertTrue(roll.isCritical());
+        assertEquals(21, roll.getAmount()); // 15 * 0.7 * 2.0 = 21
+    }
+    
+    @Test
+    public void testRollDamageReportsNormalHit() {
+        Random noCritRandom = new Random(12345) {
+            @Override
+            public double nextDouble() {
+                return 0.9; // Never crit
+            }
+        };
+        Weapon weapon = new Weapon("Test Weapon", 10, 0.5, noCritRandom);
+        
+        DamageRoll roll = weapon.rollDamage(BodyPart.HEAD, 5);
+        
+        assertFalse(roll.isCritical());
+        assertEquals(23, roll.getAmount());
+    }
+    
+    @Test
+    public void testCriticalFlagIsExactWhenRoundingHidesDoubling() {
+        // 1 * 0.7 = 0.7 -> 1 and 1 * 0.7 * 2 = 1.4 -> 1: same damage, still a crit
+        Weapon weapon = new Weapon("Needle", 1, 1.0);
+        
+        assertEquals(weapon.calculateDamage(BodyPart.LEGS, 0, false),
+                     weapon.calculateDamage(BodyPart.LEGS, 0, true));
+        assertTrue(weapon.rollDamage(BodyPart.LEGS, 0).isCritical());
+    }
+    
     @Test
     public void testToString() {
         Weapon weapon = new Weapon("Magic Sword", 15, 0.25);
         String expected = "Magic Sword (Base: 15, Crit: 25.0%)";
         assertEquals(expected, weapon.toString());
     }
+    
+    @Test
+    public void testWeaponEquality() {
+        Weapon sword = new Weapon("Iron Sword", 10, 0.15);
+        
+        assertEquals(sword, new Weapon("Iron Sword", 10, 0.15));
+        assertEquals(sword.hashCode(), new Weapon("Iron Sword", 10, 0.15).hashCode());
+        assertEquals(sword, new Weapon("Iron Sword", 10, 0.15, new SplittableRandom(1L)));
+        assertNotEquals(sword, new Weapon("Iron Sword", 11, 0.15));
+        assertNotEquals(sword, new Weapon("Iron Sword", 10, 0.2));
+        assertNotEquals(sword, new Weapon("Steel Sword", 10, 0.15));
+    }
 }
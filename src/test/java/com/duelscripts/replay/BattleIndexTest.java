@@ -0,0 +1,144 @@
+package com.duelscripts.replay;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.Game;
+import com.duelscripts.combat.HeadlessBattleListener;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.ScriptFactory;
+import com.duelscripts.tournament.BattleOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class BattleIndexTest {
+    
+    private static final String[] SCRIPTS = {"Berserker", "Balanced", "Counter", "Defensive"};
+    private static final String[] WEAPONS = {"Sword", "Axe", "Dagger"};
+    
+    @TempDir
+    Path directory;
+    
+    private List<BattleSummary> randomSummaries(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BattleOutcome[] outcomes = BattleOutcome.values();
+        List<BattleSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            summaries.add(new BattleSummary(SCRIPTS[random.nextInt(SCRIPTS.length)], WEAPONS[random.nextInt(WEAPONS.length)],
+                                            SCRIPTS[random.nextInt(SCRIPTS.length)], WEAPONS[random.nextInt(WEAPONS.length)],
+                                            outcomes[random.nextInt(outcomes.length)], random.nextInt(1, 300),
+                                            random.nextInt(101), random.nextBoolean()));
+        }
+        return summaries;
+    }
+    
+    private static int[] matching(List<BattleSummary> summaries, Predicate<BattleSummary> predicate) {
+        return IntStream.range(0, summaries.size()).filter(i -> predicate.test(summaries.get(i))).toArray();
+    }
+    
+    @Test
+    public void testQueriesMatchScan() {
+        List<BattleSummary> summaries = randomSummaries(5000, 11);
+        BattleIndex index = new BattleIndex();
+        for (BattleSummary summary : summaries) {
+            index.add(summary);
+        }
+        assertEquals(5000, index.size());
+        
+        assertArrayEquals(matching(summaries, s -> "Berserker".equals(s.getWinnerScript()) && s.getWinnerHitPointPercent() < 10),
+                          index.query().wonBy("Berserker").winnerHitPointsBelow(10).ids().toArray());
+        assertArrayEquals(matching(summaries, s -> s.getTotalTurns() >= 20 && s.getTotalTurns() <= 64),
+                          index.query().turnsBetween(20, 64).ids().toArray());
+        assertArrayEquals(matching(summaries, s -> (s.getFighter1Script().equals("Counter") || s.getFighter2Script().equals("Counter"))
+                                                   && (s.getOutcome() == BattleOutcome.DRAW || s.getOutcome() == BattleOutcome.TIMEOUT)),
+                          index.query().involving("Counter").withOutcome(BattleOutcome.DRAW, BattleOutcome.TIMEOUT).ids().toArray());
+        assertArrayEquals(matching(summaries, s -> (s.getFighter1Weapon().equals("Axe") || s.getFighter2Weapon().equals("Axe"))
+                                                   && !s.isDecidedByCriticalHit()),
+                          index.query().withWeapon("Axe").notDecidedByCriticalHit().ids().toArray());
+        assertEquals(0, index.query().wonBy("Nobody").count());
+        
+        // Critical-decided wins per weapon
+        Map<String, Integer> expected = summaries.stream()
+            .filter(BattleSummary::isDecidedByCriticalHit)
+            .collect(Collectors.toMap(BattleSummary::getWinnerWeapon, s -> 1, Integer::sum, TreeMap::new));
+        assertEquals(expected, index.query().decidedByCriticalHit().countByWinnerWeapon());
+        
+        int[] longWins = matching(summaries, s -> s.getTotalTurns() > 100 && s.getWinnerScript() != null);
+        long turns = IntStream.of(longWins).mapToLong(i -> summaries.get(i).getTotalTurns()).sum();
+        BattleQuery query = index.query().turnsBetween(101, Integer.MAX_VALUE)
+                                 .withOutcome(BattleOutcome.FIGHTER1_WIN, BattleOutcome.FIGHTER2_WIN);
+        assertEquals(turns, query.totalTurns());
+        assertEquals((double) turns / longWins.length, query.averageTurns(), 1e-9);
+        assertTrue(Double.isNaN(index.query().wonBy("Nobody").averageTurns()));
+    }
+    
+    @Test
+    public void testQueriesSeeBattlesIndexedBeforeThemOnly() {
+        List<BattleSummary> summaries = randomSummaries(100, 3);
+        BattleIndex index = new BattleIndex();
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, index.add(summaries.get(i)));
+        }
+        BattleQuery before = index.query();
+        for (int i = 50; i < 100; i++) {
+            index.add(summaries.get(i));
+        }
+        assertEquals(50, before.count());
+        assertEquals(100, index.query().count());
+    }
+    
+    @Test
+    public void testSummariesOfReplaysMatchResults() throws IOException {
+        Fighter alice = new Fighter("Alice", 60, 5, new Weapon("Sword", 10, 0.3), ScriptFactory.createScript("berserker"));
+        Fighter bob = new Fighter("Bob", 60, 3, new Weapon("Axe", 12, 0.3), ScriptFactory.createScript("counter"));
+        Game game = new Game(alice, bob, 100, false);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        game.setRandom(new SplittableRandom(5));
+        
+        Path file = directory.resolve("battles.replay");
+        BattleIndex index = new BattleIndex();
+        List<BattleSummary> played = new ArrayList<>();
+        try (ReplayWriter writer = new ReplayWriter(file)) {
+            for (int i = 0; i < 30; i++) {
+                BattleResult result = game.runFullCombat();
+                played.add(BattleSummary.of(alice, bob, result));
+                writer.write(alice, bob, i, result);
+            }
+        }
+        try (ReplayReader reader = new ReplayReader(file)) {
+            for (int i = 0; i < reader.size(); i++) {
+                BattleSummary replayed = BattleSummary.of(reader.get(i));
+                BattleSummary expected = played.get(i);
+                assertEquals(expected.getOutcome(), replayed.getOutcome());
+                assertEquals(expected.getTotalTurns(), replayed.getTotalTurns());
+                assertEquals(expected.getWinnerScript(), replayed.getWinnerScript());
+                assertEquals(expected.getWinnerWeapon(), replayed.getWinnerWeapon());
+                assertEquals(expected.getWinnerHitPointPercent(), replayed.getWinnerHitPointPercent());
+                assertEquals(expected.isDecidedByCriticalHit(), replayed.isDecidedByCriticalHit());
+                assertEquals(i, index.add(replayed));
+            }
+        }
+        assertEquals(played.stream().filter(s -> "Berserker".equals(s.getWinnerScript())).count(),
+                     index.query().wonBy("Berserker").count());
+    }
+    
+    @Test
+    public void testInvalidSummaries() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new BattleSummary("A", "Sword", "B", "Axe", BattleOutcome.FIGHTER1_WIN, 10, 101, false));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new BattleSummary("A", "Sword", "B", "Axe", BattleOutcome.DRAW, -1, 0, false));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new BattleIndex().query().turnsBetween(5, 4));
+    }
+}
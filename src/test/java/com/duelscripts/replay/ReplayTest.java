@@ -0,0 +1,173 @@
+package com.duelscripts.replay;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.BattleSeeds;
+import com.duelscripts.combat.Game;
+import com.duelscripts.combat.HeadlessBattleListener;
+import com.duelscripts.combat.TurnResult;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.ScriptFactory;
+import com.duelscripts.tournament.BattleOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReplayTest {
+    
+    @TempDir
+    Path directory;
+    
+    private final Fighter alice = new Fighter("Alice", 60, 5, new Weapon("Sword", 10, 0.3), ScriptFactory.createScript("balanced"));
+    private final Fighter bob = new Fighter("Bob", 60, 3, new Weapon("Axe", 12, 0.3), ScriptFactory.createScript("adaptive"));
+    
+    private Game newGame(int maxTurns) {
+        Game game = new Game(alice, bob, maxTurns, false);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        return game;
+    }
+    
+    private void assertSameTurn(TurnResult expected, TurnResult actual) {
+        assertEquals(expected.getFighter1Action().toString(), actual.getFighter1Action().toString());
+        assertEquals(expected.getFighter2Action().toString(), actual.getFighter2Action().toString());
+        assertEquals(expected.getFighter1Damage(), actual.getFighter1Damage());
+        assertEquals(expected.getFighter2Damage(), actual.getFighter2Damage());
+        assertEquals(expected.isFighter1CriticalHit(), actual.isFighter1CriticalHit());
+        assertEquals(expected.isFighter2CriticalHit(), actual.isFighter2CriticalHit());
+        assertEquals(expected.getFighter1HitPoints(), actual.getFighter1HitPoints());
+        assertEquals(expected.getFighter2HitPoints(), actual.getFighter2HitPoints());
+        assertEquals(expected.getDescription(), actual.getDescription());
+    }
+    
+    @Test
+    public void testReplaysReconstructBattles() throws IOException {
+        Path file = directory.resolve("battles.replay");
+        Game game = newGame(100);
+        List<BattleResult> results = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        try (ReplayWriter writer = new ReplayWriter(file)) {
+            for (int i = 0; i < 20; i++) {
+                long seed = BattleSeeds.seedFor(42, i);
+                game.setRandom(BattleSeeds.randomFor(42, i));
+                BattleResult result = game.runFullCombat();
+                results.add(result);
+                offsets.add(writer.write(alice, bob, seed, result));
+            }
+            assertEquals(Files.size(file), writer.size());
+        }
+        
+        try (ReplayReader reader = new ReplayReader(file)) {
+            assertEquals(20, reader.size());
+            // Jump around the file instead of reading it front to back
+            for (int i = results.size() - 1; i >= 0; i--) {
+                BattleReplay replay = reader.read(offsets.get(i));
+                BattleResult expected = results.get(i);
+                assertEquals(offsets.get(i), reader.offsets()[i]);
+                assertEquals(BattleSeeds.seedFor(42, i), replay.getSeed());
+                assertEquals(alice.getSpec(), replay.getFighter1Spec());
+                assertEquals(bob.getSpec(), replay.getFighter2Spec());
+                assertEquals("Balanced", replay.getFighter1Script());
+                assertEquals("Adaptive", replay.getFighter2Script());
+                assertEquals(BattleOutcome.of(expected, alice), replay.getOutcome());
+                
+                BattleResult actual = replay.toBattleResult();
+                assertEquals(expected.getTotalTurns(), actual.getTotalTurns());
+                assertEquals(expected.reachedTurnLimit(), actual.reachedTurnLimit());
+                assertEquals(expected.getBattleSummary(), actual.getBattleSummary());
+                assertEquals(expected.getStatistics().toString(), actual.getStatistics().toString());
+                assertEquals(expected.getTurnHistory().size(), actual.getTurnHistory().size());
+                for (int turn = 0; turn < expected.getTurnHistory().size(); turn++) {
+                    assertSameTurn(expected.getTurnHistory().get(turn), actual.getTurnHistory().get(turn));
+                }
+                if (expected.getWinner() != null) {
+                    assertEquals(expected.getWinner().getName(), actual.getWinner().getName());
+                    TurnResult lastTurn = expected.getTurnHistory().get(expected.getTotalTurns() - 1);
+                    int winnerHitPoints = expected.getWinner() == alice ? lastTurn.getFighter1HitPoints() : lastTurn.getFighter2HitPoints();
+                    assertEquals(winnerHitPoints, actual.getWinner().getHitPoints());
+                } else {
+                    assertNull(actual.getWinner());
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testRecordsSpanningMappedRegions() throws IOException {
+        Path file = directory.resolve("regions.replay");
+        Game game = newGame(100);
+        List<BattleResult> results = new ArrayList<>();
+        try (ReplayWriter writer = new ReplayWriter(file)) {
+            for (int i = 0; i < 20; i++) {
+                game.setRandom(BattleSeeds.randomFor(7, i));
+                BattleResult result = game.runFullCombat();
+                results.add(result);
+                writer.write(alice, bob, BattleSeeds.seedFor(7, i), result);
+            }
+        }
+        
+        // Regions far smaller than a record: most records start in one region and end in another
+        try (ReplayReader whole = new ReplayReader(file);
+             ReplayReader split = new ReplayReader(file, 64, Integer.BYTES)) {
+            assertArrayEquals(whole.offsets(), split.offsets());
+            for (int i = 0; i < results.size(); i++) {
+                BattleResult expected = whole.get(i).toBattleResult();
+                BattleResult actual = split.get(i).toBattleResult();
+                assertEquals(results.get(i).getTotalTurns(), actual.getTotalTurns());
+                assertEquals(expected.getBattleSummary(), actual.getBattleSummary());
+                for (int turn = 0; turn < expected.getTotalTurns(); turn++) {
+                    assertSameTurn(expected.getTurnHistory().get(turn), actual.getTurnHistory().get(turn));
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ReplayReader(file, 64, 0));
+    }
+    
+    @Test
+    public void testTimeoutsAreReplayed() throws IOException {
+        Path file = directory.resolve("timeout.replay");
+        Game game = newGame(3);
+        game.setRandom(BattleSeeds.randomFor(7, 0));
+        BattleResult result = game.runFullCombat();
+        assertTrue(result.reachedTurnLimit());
+        try (ReplayWriter writer = new ReplayWriter(file)) {
+            writer.write(alice, bob, 7, result);
+        }
+        
+        try (ReplayReader reader = new ReplayReader(file)) {
+            BattleReplay replay = reader.get(0);
+            assertEquals(BattleOutcome.TIMEOUT, replay.getOutcome());
+            assertEquals(3, replay.getTurnCount());
+            assertEquals(result.getBattleSummary(), replay.toBattleResult().getBattleSummary());
+        }
+    }
+    
+    @Test
+    public void testBattlesWithoutHistoryAreRejected() throws IOException {
+        Game game = newGame(100);
+        game.setHistoryRetained(false);
+        BattleResult result = game.runFullCombat();
+        try (ReplayWriter writer = new ReplayWriter(directory.resolve("empty.replay"))) {
+            assertThrows(IllegalArgumentException.class, () -> writer.write(alice, bob, 0, result));
+        }
+    }
+    
+    @Test
+    public void testInvalidFilesAndOffsets() throws IOException {
+        Path notReplay = directory.resolve("not.replay");
+        Files.write(notReplay, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> new ReplayReader(notReplay));
+        
+        Path empty = directory.resolve("empty.replay");
+        new ReplayWriter(empty).close();
+        try (ReplayReader reader = new ReplayReader(empty)) {
+            assertEquals(0, reader.size());
+            assertThrows(IllegalArgumentException.class, () -> reader.read(0));
+            assertThrows(IllegalArgumentException.class, () -> reader.read(8));
+        }
+    }
+}
@@ -4,10 +4,13 @@ import com.duelscripts.core.Fighter;
 import com.duelscripts.core.Weapon;
 import com.duelscripts.core.Action;
 import com.duelscripts.core.BodyPart;
+import com.duelscripts.combat.CombatResolver;
+import com.duelscripts.combat.TurnResult;
 import com.duelscripts.scripting.scripts.*;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.ArrayList;
+import java.util.List;
 
 public class CombatScriptTest {
     
@@ -139,4 +142,89 @@ public class CombatScriptTest {
             assertNotNull(script.getDescription(), "Script " + scriptType + " returned null description");
         }
     }
+    
+    @Test
+    public void testHistoryIndependentScriptsIgnoreHistory() {
+        Fighter fighter1 = createTestFighter("Alice", 50);
+        Fighter fighter2 = createTestFighter("Bob", 50);
+        TurnResult turn = CombatResolver.resolveTurn(fighter1, new Action(BodyPart.HEAD, BodyPart.HEAD),
+                                                     fighter2, new Action(BodyPart.LEGS, BodyPart.LEGS));
+        List<TurnResult> history = List.of(turn);
+        
+        for (String scriptType : ScriptFactory.getAvailableScripts()) {
+            CombatScript script = ScriptFactory.createScript(scriptType);
+            if (!script.isHistoryIndependent()) {
+                continue;
+            }
+            for (int currentTurn = 1; currentTurn <= 6; currentTurn++) {
+                Action withoutHistory = script.getNextAction(createTestContext(fighter1, fighter2, currentTurn));
+                Action withHistory = script.getNextAction(new FighterContext(fighter1, fighter2, currentTurn, history));
+                assertEquals(withoutHistory.getStrikeTarget(), withHistory.getStrikeTarget(),
+                             "Script " + scriptType + " depends on history");
+                assertEquals(withoutHistory.getParryTarget(), withHistory.getParryTarget(),
+                             "Script " + scriptType + " depends on history");
+            }
+        }
+        
+        assertFalse(new RandomScript().isHistoryIndependent());
+        assertFalse(new TacticalScript().isHistoryIndependent());
+        assertTrue(new BalancedScript().isHistoryIndependent());
+    }
+    
+    @Test
+    public void testDeclaredTurnPeriodsHold() {
+        for (String scriptType : ScriptFactory.getAvailableScripts()) {
+            CombatScript script = ScriptFactory.createScript(scriptType);
+            int period = script.getTurnPeriod();
+            if (period == 0) {
+                continue;
+            }
+            assertTrue(script.isHistoryIndependent(), scriptType);
+            for (int hp = 5; hp <= 50; hp += 15) {
+                Fighter self = createTestFighter("Alice", 50);
+                Fighter opponent = createTestFighter("Bob", 50);
+                self.takeDamage(50 - hp);
+                opponent.takeDamage(hp / 2);
+                for (int turn = 2; turn <= 20; turn++) {
+                    Action action = script.getNextAction(createTestContext(self, opponent, turn));
+                    Action repeated = script.getNextAction(createTestContext(self, opponent, turn + period));
+                    assertEquals(action.getStrikeTarget(), repeated.getStrikeTarget(), scriptType);
+                    assertEquals(action.getParryTarget(), repeated.getParryTarget(), scriptType);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testCounterScriptCountersOpponentsLastAction() {
+        CounterScript script = new CounterScript();
+        Fighter fighter1 = createTestFighter("Alice", 50);
+        Fighter fighter2 = createTestFighter("Bob", 50);
+        OpponentProfile profile = new OpponentProfile();
+        profile.record(Action.of(BodyPart.LEGS, BodyPart.TORSO), Action.of(BodyPart.TORSO, BodyPart.HEAD));
+        
+        Action action = script.getNextAction(new FighterContext(fighter1, fighter2, 2, List.of(), profile));
+        
+        assertEquals(BodyPart.LEGS, action.getParryTarget());
+        assertNotEquals(BodyPart.TORSO, action.getStrikeTarget());
+        assertFalse(script.isHistoryIndependent());
+    }
+    
+    @Test
+    public void testAdaptiveScriptGuardsPredictedStrike() {
+        AdaptiveScript script = new AdaptiveScript();
+        Fighter fighter1 = createTestFighter("Alice", 50);
+        Fighter fighter2 = createTestFighter("Bob", 50);
+        OpponentProfile profile = new OpponentProfile();
+        Action own = Action.of(BodyPart.TORSO, BodyPart.TORSO);
+        // The opponent strikes the legs after every head strike and parries only the head
+        for (int i = 0; i < 5; i++) {
+            profile.record(Action.of(i % 2 == 0 ? BodyPart.HEAD : BodyPart.LEGS, BodyPart.HEAD), own);
+        }
+        
+        Action action = script.getNextAction(new FighterContext(fighter1, fighter2, 6, List.of(), profile));
+        
+        assertEquals(BodyPart.LEGS, action.getParryTarget());
+        assertNotEquals(BodyPart.HEAD, action.getStrikeTarget());
+    }
 }
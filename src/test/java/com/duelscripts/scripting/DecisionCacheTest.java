@@ -0,0 +1,128 @@
+package com.duelscripts.scripting;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.scripts.BalancedScript;
+import com.duelscripts.scripting.scripts.TacticalScript;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+
+public class DecisionCacheTest {
+    
+    /**
+     * Balanced script that counts how often it is actually asked.
+     */
+    private static class CountingScript extends BalancedScript {
+        int calls;
+        
+        @Override
+        public Action getNextAction(FighterContext context) {
+            calls++;
+            return super.getNextAction(context);
+        }
+    }
+    
+    private Fighter createFighter(String name, int hitPoints) {
+        Fighter fighter = new Fighter(name, 40, 5, new Weapon("Test Weapon", 10, 0.1));
+        fighter.takeDamage(40 - hitPoints);
+        return fighter;
+    }
+    
+    private FighterContext context(Fighter self, Fighter opponent, int turn) {
+        return new FighterContext(self, opponent, turn, List.of());
+    }
+    
+    @Test
+    public void testRepeatedStatesAreServedFromCache() {
+        DecisionCache cache = new DecisionCache(1024);
+        CountingScript counting = new CountingScript();
+        CombatScript cached = cache.wrap(counting);
+        Fighter alice = createFighter("Alice", 30);
+        Fighter bob = createFighter("Bob", 20);
+        
+        Action first = cached.getNextAction(context(alice, bob, 3));
+        Action second = cached.getNextAction(context(alice, bob, 3));
+        
+        assertEquals(first, second);
+        assertEquals(1, counting.calls);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate());
+        assertEquals("Balanced", cached.getName());
+        assertTrue(cached.isHistoryIndependent());
+    }
+    
+    @Test
+    public void testCachedDecisionsMatchScript() {
+        DecisionCache cache = new DecisionCache(64);
+        CombatScript cached = cache.wrap(new BalancedScript());
+        BalancedScript plain = new BalancedScript();
+        
+        for (int pass = 0; pass < 2; pass++) {
+            for (int turn = 1; turn <= 20; turn++) {
+                for (int hitPoints = 1; hitPoints <= 40; hitPoints += 3) {
+                    Fighter self = createFighter("Alice", hitPoints);
+                    Fighter opponent = createFighter("Bob", 41 - hitPoints);
+                    Action expected = plain.getNextAction(context(self, opponent, turn));
+                    Action actual = cached.getNextAction(context(self, opponent, turn));
+                    assertEquals(expected.getStrikeTarget(), actual.getStrikeTarget());
+                    assertEquals(expected.getParryTarget(), actual.getParryTarget());
+                }
+            }
+        }
+        assertTrue(cache.getHits() > 0);
+    }
+    
+    @Test
+    public void testTurnsWithinPeriodShareEntries() {
+        DecisionCache cache = new DecisionCache(1024);
+        CountingScript counting = new CountingScript();
+        CombatScript cached = cache.wrap(counting);
+        int period = counting.getTurnPeriod();
+        assertTrue(period > 0);
+        Fighter alice = createFighter("Alice", 25);
+        Fighter bob = createFighter("Bob", 25);
+        
+        cached.getNextAction(context(alice, bob, 2));
+        cached.getNextAction(context(alice, bob, 2 + period));
+        cached.getNextAction(context(alice, bob, 2 + 5 * period));
+        
+        assertEquals(1, counting.calls);
+        assertEquals(0, DecisionCache.turnKey(4, 1));
+        assertEquals(1, DecisionCache.turnKey(4, 2));
+        assertEquals(DecisionCache.turnKey(4, 3), DecisionCache.turnKey(4, 7));
+        assertEquals(-1, DecisionCache.turnKey(0, DecisionCache.MAX_TURN_KEY + 1));
+    }
+    
+    @Test
+    public void testCapacityBoundsEntries() {
+        DecisionCache cache = new DecisionCache(5);
+        CombatScript cached = cache.wrap(new BalancedScript());
+        assertEquals(8, cache.getCapacity());
+        
+        for (int hitPoints = 1; hitPoints <= 40; hitPoints++) {
+            cached.getNextAction(context(createFighter("Alice", hitPoints), createFighter("Bob", 40), 1));
+        }
+        
+        assertTrue(cache.size() <= 8);
+        assertEquals(40, cache.getMisses());
+        assertEquals(40 - cache.size(), cache.getEvictions());
+        
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new DecisionCache(0));
+    }
+    
+    @Test
+    public void testHistoryDependentScriptsAreNotWrapped() {
+        DecisionCache cache = new DecisionCache(16);
+        TacticalScript tactical = new TacticalScript();
+        
+        assertSame(tactical, cache.wrap(tactical));
+        
+        cache.wrap(new BalancedScript());
+        assertThrows(IllegalArgumentException.class, () -> cache.wrap(new CountingScript()));
+    }
+}
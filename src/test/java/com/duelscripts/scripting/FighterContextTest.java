@@ -1,11 +1,16 @@
 package com.duelscripts.scripting;
 
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
 import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
 import com.duelscripts.core.Weapon;
+import com.duelscripts.combat.CombatResolver;
 import com.duelscripts.combat.TurnResult;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.ArrayList;
+import java.util.List;
 
 public class FighterContextTest {
     
@@ -90,4 +95,57 @@ public class FighterContextTest {
             returnedHistory.add(new TurnResult("New turn", 0, 0, false, false));
         });
     }
+    
+    @Test
+    public void testOpponentProfileDerivedFromHistory() {
+        Fighter fighter1 = createTestFighter("Alice", 500);
+        Fighter fighter2 = createTestFighter("Bob", 500);
+        List<TurnResult> history = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            history.add(CombatResolver.resolveTurn(fighter1, Action.of(BodyPart.HEAD, BodyPart.TORSO),
+                                                   fighter2, Action.of(BodyPart.LEGS, BodyPart.HEAD)));
+        }
+        
+        FighterContext context1 = new FighterContext(fighter1, fighter2, 4, history);
+        FighterContext context2 = new FighterContext(fighter2, fighter1, 4, history);
+        
+        assertTrue(context1.isSelfFighter1());
+        assertEquals(FighterContext.FIGHTER2, context2.getSlot());
+        assertEquals(3, context1.getOpponentProfile().getStrikeCount(BodyPart.LEGS));
+        assertEquals(3, context2.getOpponentProfile().getStrikeCount(BodyPart.HEAD));
+        assertSame(Action.of(BodyPart.HEAD, BodyPart.TORSO), context1.getOpponentProfile().getLastOwnAction());
+    }
+    
+    @Test
+    public void testSlotDecidesSideWhenFightersShareSpec() {
+        FighterSpec spec = new FighterSpec("Twin", 500, 5, new Weapon("Test Weapon", 10, 0.0));
+        Fighter fighter1 = new Fighter(spec, null);
+        Fighter fighter2 = new Fighter(spec, null);
+        List<TurnResult> history = new ArrayList<>();
+        // Both fighters trade blows, so hit points cannot tell two fighters of one spec apart
+        for (int i = 0; i < 3; i++) {
+            history.add(CombatResolver.resolveTurn(fighter1, Action.of(BodyPart.HEAD, BodyPart.LEGS),
+                                                   fighter2, Action.of(BodyPart.HEAD, BodyPart.TORSO)));
+        }
+        
+        FighterContext context = new FighterContext(fighter2, fighter1, FighterContext.FIGHTER2, 4, history, null);
+        
+        assertFalse(context.isSelfFighter1());
+        assertEquals(3, context.getOpponentProfile().getParryCount(BodyPart.LEGS));
+        assertSame(Action.of(BodyPart.HEAD, BodyPart.TORSO), context.getOpponentProfile().getLastOwnAction());
+        assertThrows(IllegalArgumentException.class,
+                     () -> new FighterContext(fighter1, fighter2, 2, 1, List.of(), null));
+    }
+    
+    @Test
+    public void testOpponentProfileSuppliedByCaller() {
+        Fighter fighter1 = createTestFighter("Alice", 50);
+        Fighter fighter2 = createTestFighter("Bob", 50);
+        OpponentProfile profile = new OpponentProfile();
+        profile.record(Action.of(BodyPart.HEAD, BodyPart.HEAD), Action.of(BodyPart.TORSO, BodyPart.TORSO));
+        
+        FighterContext context = new FighterContext(fighter1, fighter2, 2, List.of(), profile);
+        
+        assertSame(profile, context.getOpponentProfile());
+    }
 }
@@ -0,0 +1,81 @@
+package com.duelscripts.scripting;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpponentProfileTest {
+    
+    private static final Action HEAD_TORSO = Action.of(BodyPart.HEAD, BodyPart.TORSO);
+    private static final Action LEGS_HEAD = Action.of(BodyPart.LEGS, BodyPart.HEAD);
+    private static final Action TORSO_TORSO = Action.of(BodyPart.TORSO, BodyPart.TORSO);
+    
+    @Test
+    public void testEmptyProfile() {
+        OpponentProfile profile = new OpponentProfile();
+        
+        assertEquals(0, profile.getTurnsObserved());
+        assertNull(profile.getLastAction());
+        assertNull(profile.predictNextAction());
+        assertNull(profile.getMostStruckPart());
+        assertNull(profile.getLeastParriedPart());
+        assertEquals(0.0, profile.getStrikeFrequency(BodyPart.HEAD));
+    }
+    
+    @Test
+    public void testCountsStrikesAndParries() {
+        OpponentProfile profile = new OpponentProfile();
+        profile.record(HEAD_TORSO, TORSO_TORSO);
+        profile.record(HEAD_TORSO, TORSO_TORSO);
+        profile.record(LEGS_HEAD, HEAD_TORSO);
+        
+        assertEquals(3, profile.getTurnsObserved());
+        assertEquals(2, profile.getStrikeCount(BodyPart.HEAD));
+        assertEquals(1, profile.getStrikeCount(BodyPart.LEGS));
+        assertEquals(2, profile.getParryCount(BodyPart.TORSO));
+        assertEquals(2.0 / 3, profile.getStrikeFrequency(BodyPart.HEAD), 1e-12);
+        assertEquals(BodyPart.HEAD, profile.getMostStruckPart());
+        assertEquals(BodyPart.LEGS, profile.getLeastParriedPart());
+        assertSame(LEGS_HEAD, profile.getLastAction());
+        assertSame(HEAD_TORSO, profile.getLastOwnAction());
+    }
+    
+    @Test
+    public void testRecentCountsSlide() {
+        OpponentProfile profile = new OpponentProfile();
+        for (int i = 0; i < OpponentProfile.RECENT_TURNS; i++) {
+            profile.record(HEAD_TORSO, TORSO_TORSO);
+        }
+        for (int i = 0; i < OpponentProfile.RECENT_TURNS - 1; i++) {
+            profile.record(LEGS_HEAD, TORSO_TORSO);
+        }
+        
+        assertEquals(OpponentProfile.RECENT_TURNS, profile.getRecentTurns());
+        assertEquals(1, profile.getRecentStrikeCount(BodyPart.HEAD));
+        assertEquals(OpponentProfile.RECENT_TURNS - 1, profile.getRecentStrikeCount(BodyPart.LEGS));
+        assertEquals(OpponentProfile.RECENT_TURNS, profile.getStrikeCount(BodyPart.HEAD));
+        assertEquals(BodyPart.LEGS, profile.getMostStruckPart());
+        assertEquals(BodyPart.LEGS, profile.getLeastParriedPart());
+    }
+    
+    @Test
+    public void testTransitionsPredictNextAction() {
+        OpponentProfile profile = new OpponentProfile();
+        // The opponent alternates between two actions
+        for (int i = 0; i < 6; i++) {
+            profile.record(i % 2 == 0 ? HEAD_TORSO : LEGS_HEAD, TORSO_TORSO);
+        }
+        
+        assertEquals(3, profile.getTransitionCount(HEAD_TORSO, LEGS_HEAD));
+        assertEquals(2, profile.getTransitionCount(LEGS_HEAD, HEAD_TORSO));
+        assertEquals(0, profile.getTransitionCount(HEAD_TORSO, HEAD_TORSO));
+        assertEquals(3, profile.getResponseCount(TORSO_TORSO, LEGS_HEAD));
+        assertSame(HEAD_TORSO, profile.predictNextAction());
+        
+        profile.clear();
+        assertEquals(0, profile.getTurnsObserved());
+        assertEquals(0, profile.getTransitionCount(HEAD_TORSO, LEGS_HEAD));
+        assertNull(profile.getLastAction());
+    }
+}
@@ -90,4 +90,20 @@ public class ScriptFactoryTest {
         assertTrue(availableScripts.contains(ScriptFactory.DEFENSIVE));
         assertTrue(availableScripts.contains(ScriptFactory.BALANCED));
     }
+    
+    @Test
+    public void testRegisterScript() {
+        ScriptFactory.registerScript("Mirror", AggressiveScript::new);
+        try {
+            assertTrue(ScriptFactory.isScriptAvailable("mirror"));
+            assertTrue(ScriptFactory.getAvailableScripts().contains("mirror"));
+            assertTrue(ScriptFactory.createScript("MIRROR") instanceof AggressiveScript);
+            assertThrows(IllegalArgumentException.class, () -> ScriptFactory.registerScript("mirror", BalancedScript::new));
+            assertThrows(IllegalArgumentException.class, () -> ScriptFactory.registerScript(ScriptFactory.BALANCED, BalancedScript::new));
+        } finally {
+            assertTrue(ScriptFactory.unregisterScript("mirror"));
+        }
+        assertFalse(ScriptFactory.isScriptAvailable("mirror"));
+        assertFalse(ScriptFactory.unregisterScript("mirror"));
+    }
 }
@@ -0,0 +1,210 @@
+package com.duelscripts.scripting;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class ScriptGuardTest {
+    
+    private static final Action FALLBACK_ACTION = Action.of(BodyPart.LEGS, BodyPart.LEGS);
+    
+    private static CombatScript script(String name, Function<FighterContext, Action> decision) {
+        return new CombatScript() {
+            @Override
+            public Action getNextAction(FighterContext context) {
+                return decision.apply(context);
+            }
+            
+            @Override
+            public String getName() {
+                return name;
+            }
+            
+            @Override
+            public String getDescription() {
+                return "Test script";
+            }
+        };
+    }
+    
+    private static ScriptGuard createGuard(Duration budget) {
+        ScriptGuard guard = new ScriptGuard(budget);
+        guard.setFallback(() -> script("Fallback", context -> FALLBACK_ACTION));
+        return guard;
+    }
+    
+    private FighterContext context() {
+        Weapon weapon = new Weapon("Test Weapon", 10, 0.1);
+        return new FighterContext(new Fighter("Alice", 50, 5, weapon), new Fighter("Bob", 50, 5, weapon), 1, List.of());
+    }
+    
+    @Test
+    public void testHealthyScriptDecides() {
+        ScriptGuard guard = createGuard(Duration.ofSeconds(1));
+        Action action = Action.of(BodyPart.HEAD, BodyPart.TORSO);
+        CombatScript guarded = guard.guard(script("Healthy", context -> action));
+        
+        assertSame(action, guarded.getNextAction(context()));
+        assertSame(guarded, guard.guard(guarded));
+        ScriptFaults faults = guard.getFaults("Healthy");
+        assertEquals(1, faults.getDecisions());
+        assertEquals(0, faults.getFaults());
+        assertFalse(faults.isTripped());
+    }
+    
+    @Test
+    public void testExceptionsTripBreaker() {
+        ScriptGuard guard = createGuard(Duration.ofSeconds(1));
+        guard.setMaxFaults(2);
+        int[] calls = new int[1];
+        CombatScript guarded = guard.guard(script("Faulty", context -> {
+            calls[0]++;
+            throw new IllegalStateException("broken");
+        }));
+        
+        for (int i = 0; i < 5; i++) {
+            assertSame(FALLBACK_ACTION, guarded.getNextAction(context()));
+        }
+        
+        ScriptFaults faults = guard.getFaults("Faulty");
+        assertEquals(2, calls[0]);
+        assertEquals(2, faults.getExceptions());
+        assertEquals(5, faults.getSubstitutions());
+        assertTrue(faults.isTripped());
+        
+        faults.reset();
+        guarded.getNextAction(context());
+        assertEquals(3, calls[0]);
+    }
+    
+    @Test
+    public void testSuccessResetsFaultStreak() {
+        ScriptGuard guard = createGuard(Duration.ofSeconds(1));
+        guard.setMaxFaults(2);
+        int[] calls = new int[1];
+        CombatScript guarded = guard.guard(script("Flaky", context -> ++calls[0] % 2 == 0 ? null : FALLBACK_ACTION));
+        
+        for (int i = 0; i < 10; i++) {
+            guarded.getNextAction(context());
+        }
+        
+        assertEquals(5, guard.getFaults("Flaky").getExceptions());
+        assertFalse(guard.getFaults("Flaky").isTripped());
+    }
+    
+    @Test
+    public void testSlowDecisionIsTimedOut() {
+        ScriptGuard guard = createGuard(Duration.ofMillis(5));
+        CombatScript guarded = guard.guard(script("Slow", context -> {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Action.of(BodyPart.HEAD, BodyPart.HEAD);
+        }));
+        
+        assertSame(FALLBACK_ACTION, guarded.getNextAction(context()));
+        assertEquals(1, guard.getFaults("Slow").getTimeouts());
+    }
+    
+    @Test
+    public void testIsolatedGuardAbandonsRunawayScript() {
+        ScriptGuard guard = createGuard(Duration.ofMillis(20));
+        guard.setIsolated(true);
+        guard.setMaxFaults(1);
+        AtomicBoolean released = new AtomicBoolean();
+        CombatScript guarded = guard.guard(script("Runaway", context -> {
+            // Spins without checking for interrupts until the test releases it
+            while (!released.get()) {
+                Thread.onSpinWait();
+            }
+            return Action.of(BodyPart.HEAD, BodyPart.HEAD);
+        }));
+        
+        try {
+            long start = System.nanoTime();
+            assertSame(FALLBACK_ACTION, guarded.getNextAction(context()));
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+            assertEquals(1, guard.getFaults("Runaway").getTimeouts());
+            assertTrue(guard.getFaults("Runaway").isTripped());
+            
+            // Healthy scripts still run on the watchdog threads
+            Action action = Action.of(BodyPart.TORSO, BodyPart.HEAD);
+            assertSame(action, guard.guard(script("Healthy", context -> action)).getNextAction(context()));
+        } finally {
+            released.set(true);
+            guard.close();
+        }
+    }
+    
+    @Test
+    public void testIsolatedGuardTripsOnIntermittentHang() throws InterruptedException {
+        ScriptGuard guard = createGuard(Duration.ofMillis(20));
+        guard.setIsolated(true);
+        AtomicBoolean released = new AtomicBoolean();
+        AtomicInteger calls = new AtomicInteger();
+        Action action = Action.of(BodyPart.TORSO, BodyPart.HEAD);
+        // Hangs on every other decision, so with the default three faults in a
+        // row the successes in between would keep the breaker closed
+        Function<FighterContext, Action> decision = context -> {
+            if (calls.incrementAndGet() % 2 == 1) {
+                while (!released.get()) {
+                    Thread.onSpinWait();
+                }
+            }
+            return action;
+        };
+        ScriptFaults faults = guard.getFaults("Intermittent");
+        
+        try {
+            CombatScript firstBattle = guard.guard(script("Intermittent", decision));
+            assertSame(FALLBACK_ACTION, firstBattle.getNextAction(context()));
+            assertTrue(faults.isTripped());
+            assertEquals(1, faults.getAbandoned());
+            
+            // Later battles no longer hand the script to a watchdog thread
+            for (int battle = 0; battle < 5; battle++) {
+                CombatScript guarded = guard.guard(script("Intermittent", decision));
+                assertSame(FALLBACK_ACTION, guarded.getNextAction(context()));
+                assertSame(FALLBACK_ACTION, guarded.getNextAction(context()));
+            }
+            assertEquals(1, calls.get());
+            
+            // Nor does a reset while the abandoned decision is still running
+            faults.reset();
+            assertSame(FALLBACK_ACTION, firstBattle.getNextAction(context()));
+            assertEquals(1, calls.get());
+            assertTrue(faults.isTripped());
+            assertEquals(1, faults.getAbandoned());
+            
+            released.set(true);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (faults.getAbandoned() != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, faults.getAbandoned());
+            
+            faults.reset();
+            assertSame(action, firstBattle.getNextAction(context()));
+            assertEquals(2, calls.get());
+        } finally {
+            released.set(true);
+            guard.close();
+        }
+    }
+    
+    @Test
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ScriptGuard(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new ScriptGuard(Duration.ofMillis(1)).setMaxFaults(0));
+    }
+}
@@ -0,0 +1,304 @@
+package com.duelscripts.scripting.dsl;
+
+import com.duelscripts.combat.BattleListener;
+import com.duelscripts.combat.CombatResolver;
+import com.duelscripts.combat.Game;
+import com.duelscripts.combat.TurnResult;
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.CombatScript;
+import com.duelscripts.scripting.DecisionCache;
+import com.duelscripts.scripting.FighterContext;
+import com.duelscripts.scripting.ScriptFactory;
+import com.duelscripts.scripting.scripts.BalancedScript;
+import com.duelscripts.tournament.Entrant;
+import com.duelscripts.tournament.MatchupSolution;
+import com.duelscripts.tournament.OutcomeSolver;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class ScriptCompilerTest {
+    
+    // BalancedScript, written as rules
+    private static final String BALANCED_RULES = String.join("\n",
+        "script \"Balanced Rules\"",
+        "description \"BalancedScript as a rule script\"",
+        "",
+        "# Opening turn: compare health",
+        "when first and self.health > opponent.health + 20: strike head parry torso",
+        "when first and self.health < opponent.health - 20: strike torso parry head",
+        "when first: strike torso parry torso",
+        "",
+        "# Afterwards: cycle through targets",
+        "when turn % 3 == 0 and turn % 2 == 0: strike head parry head",
+        "when turn % 3 == 0: strike head parry torso",
+        "when (turn % 3 == 1",
+        "      and turn % 2 == 0): strike torso parry head",
+        "when turn % 3 == 1: strike torso parry torso",
+        "when turn % 2 == 0: strike legs parry head",
+        "otherwise: strike legs parry torso");
+    
+    private static Fighter fighter(String name, int hitPoints) {
+        return new Fighter(name, hitPoints, 5, new Weapon("Sword", 10, 0.2));
+    }
+    
+    private static void assertSameAction(Action expected, Action actual, String message) {
+        assertEquals(expected.getStrikeTarget(), actual.getStrikeTarget(), message);
+        assertEquals(expected.getParryTarget(), actual.getParryTarget(), message);
+    }
+    
+    @Test
+    public void testRulesReproduceBuiltInScript() {
+        CombatScript rules = ScriptCompiler.compile(BALANCED_RULES);
+        CombatScript balanced = new BalancedScript();
+        assertEquals("Balanced Rules", rules.getName());
+        assertEquals("BalancedScript as a rule script", rules.getDescription());
+        assertTrue(rules.isHistoryIndependent());
+        assertEquals(6, rules.getTurnPeriod());
+        
+        Fighter self = fighter("Alice", 50);
+        Fighter opponent = fighter("Bob", 50);
+        for (int selfHp = 1; selfHp <= 50; selfHp++) {
+            for (int opponentHp = 1; opponentHp <= 50; opponentHp++) {
+                if (Math.abs(selfHp - opponentHp) == 10) {
+                    // Exactly 20% apart: BalancedScript's floating point comparison is not reliable here
+                    continue;
+                }
+                self.reset();
+                opponent.reset();
+                self.takeDamage(50 - selfHp);
+                opponent.takeDamage(50 - opponentHp);
+                for (int turn = 1; turn <= 12; turn++) {
+                    FighterContext context = new FighterContext(self, opponent, turn, List.of());
+                    assertSameAction(balanced.getNextAction(context), rules.getNextAction(context),
+                                     "hp " + selfHp + "/" + opponentHp + " turn " + turn);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testRegisteredRulesAreSolvedExactly() {
+        ScriptFactory.registerScript("balanced-rules", () -> ScriptCompiler.compile(BALANCED_RULES));
+        try {
+            FighterSpec spec1 = new FighterSpec("Alice", 40, 6, new Weapon("Sword", 10, 0.2));
+            FighterSpec spec2 = new FighterSpec("Bob", 45, 5, new Weapon("Axe", 12, 0.1));
+            OutcomeSolver rulesSolver = new OutcomeSolver(new Entrant(spec1, "balanced-rules"),
+                                                          new Entrant(spec2, ScriptFactory.AGGRESSIVE), 60);
+            OutcomeSolver builtInSolver = new OutcomeSolver(new Entrant(spec1, ScriptFactory.BALANCED),
+                                                            new Entrant(spec2, ScriptFactory.AGGRESSIVE), 60);
+            assertTrue(rulesSolver.isExact());
+            MatchupSolution fromRules = rulesSolver.solve();
+            MatchupSolution builtIn = builtInSolver.solve();
+            assertEquals(builtIn.getFighter1WinProbability(), fromRules.getFighter1WinProbability(), 1e-12);
+            assertEquals(builtIn.getFighter2WinProbability(), fromRules.getFighter2WinProbability(), 1e-12);
+        } finally {
+            assertTrue(ScriptFactory.unregisterScript("balanced-rules"));
+        }
+    }
+    
+    @Test
+    public void testLastTurnValuesFollowTheScriptsSide() {
+        CombatScript reactive = ScriptCompiler.compile(String.join("\n",
+            "when last.parried: strike legs parry legs",
+            "when last.taken > 0: strike torso parry head",
+            "otherwise: strike head parry torso"));
+        assertFalse(reactive.isHistoryIndependent());
+        assertEquals(0, reactive.getTurnPeriod());
+        
+        for (int side = 1; side <= 2; side++) {
+            Fighter rules = new Fighter("Rules", 200, 5, new Weapon("Sword", 10, 0.2), reactive);
+            Fighter other = new Fighter("Other", 200, 5, new Weapon("Sword", 10, 0.2), ScriptFactory.createScript("random"));
+            Game game = side == 1 ? new Game(rules, other, 40, false) : new Game(other, rules, 40, false);
+            game.setRandom(new SplittableRandom(side));
+            List<TurnResult> turns = new ArrayList<>();
+            game.setBattleListener(new BattleListener() {
+                @Override
+                public void onTurnResolved(int turnNumber, TurnResult turnResult) {
+                    turns.add(turnResult);
+                }
+            });
+            game.runFullCombat();
+            
+            for (int i = 1; i < turns.size(); i++) {
+                TurnResult previous = turns.get(i - 1);
+                boolean parried = side == 1 ? previous.isFighter1StrikeParried() : previous.isFighter2StrikeParried();
+                int taken = side == 1 ? previous.getFighter1Damage() : previous.getFighter2Damage();
+                Action expected = parried ? new Action(BodyPart.LEGS, BodyPart.LEGS)
+                                : taken > 0 ? new Action(BodyPart.TORSO, BodyPart.HEAD)
+                                : new Action(BodyPart.HEAD, BodyPart.TORSO);
+                Action actual = side == 1 ? turns.get(i).getFighter1Action() : turns.get(i).getFighter2Action();
+                assertSameAction(expected, actual, "side " + side + " turn " + (i + 1));
+            }
+        }
+    }
+    
+    @Test
+    public void testLastTurnValuesWhenFightersShareSpec() {
+        CombatScript script = ScriptCompiler.compile("when last.dealt > 0 and last.taken == 0: strike legs parry legs\n"
+                                                     + "otherwise: strike head parry head");
+        FighterSpec spec = new FighterSpec("Twin", 100, 5, new Weapon("Sword", 10, 0.0));
+        Fighter fighter1 = new Fighter(spec, null);
+        Fighter fighter2 = new Fighter(spec, null);
+        // Fighter 2 parries fighter 1's strike and lands its own
+        TurnResult turn = CombatResolver.resolveTurn(fighter1, new Action(BodyPart.HEAD, BodyPart.TORSO),
+                                                     fighter2, new Action(BodyPart.LEGS, BodyPart.HEAD));
+        assertTrue(turn.getFighter1Damage() > 0);
+        assertEquals(0, turn.getFighter2Damage());
+        // Leave fighter 2 with the hit points fighter 1 had after the turn
+        fighter2.takeDamage(turn.getFighter1Damage());
+        
+        List<TurnResult> history = List.of(turn);
+        FighterContext context2 = new FighterContext(fighter2, fighter1, FighterContext.FIGHTER2, 2, history);
+        FighterContext context1 = new FighterContext(fighter1, fighter2, FighterContext.FIGHTER1, 2, history);
+        
+        assertSameAction(new Action(BodyPart.LEGS, BodyPart.LEGS), script.getNextAction(context2), "fighter 2");
+        assertSameAction(new Action(BodyPart.HEAD, BodyPart.HEAD), script.getNextAction(context1), "fighter 1");
+    }
+    
+    @Test
+    public void testTurnPeriods() {
+        assertEquals(12, ScriptCompiler.compile("when turn % 4 == 0: strike head parry head\n"
+                                                + "when turn % 6 == 1: strike legs parry head").getTurnPeriod());
+        assertEquals(0, ScriptCompiler.compile("when turn > 5: strike head parry head").getTurnPeriod());
+        assertEquals(1, ScriptCompiler.compile("when self.hp < 10 or first: strike head parry head").getTurnPeriod());
+        assertEquals(1, ScriptCompiler.compile("otherwise: strike legs parry legs").getTurnPeriod());
+    }
+    
+    @Test
+    public void testConstantsAndPercentages() {
+        Fighter self = fighter("Alice", 50);
+        Fighter opponent = fighter("Bob", 50);
+        self.takeDamage(40);
+        FighterContext context = new FighterContext(self, opponent, 7, List.of());
+        
+        CombatScript script = ScriptCompiler.compile("when self.health < 100% - 75 * 1: strike legs parry legs\n"
+                                                     + "otherwise: strike head parry head");
+        assertSameAction(new Action(BodyPart.LEGS, BodyPart.LEGS), script.getNextAction(context), "health below 25%");
+        
+        CombatScript fallback = ScriptCompiler.compile("when false: strike head parry head");
+        assertSameAction(new Action(BodyPart.TORSO, BodyPart.TORSO), fallback.getNextAction(context), "default action");
+        assertEquals("Custom", fallback.getName());
+        
+        CombatScript arithmetic = ScriptCompiler.compile("when -turn + 10 == 3 and turn / 7 == 1: strike legs parry head");
+        assertSameAction(new Action(BodyPart.LEGS, BodyPart.HEAD), arithmetic.getNextAction(context), "turn 7");
+    }
+    
+    @Test
+    public void testScriptsCompileToHiddenClasses() {
+        CombatScript generated = ScriptCompiler.compile(BALANCED_RULES);
+        assertTrue(generated.getClass().isHidden());
+        assertFalse(ScriptCompiler.compile(BALANCED_RULES, false).getClass().isHidden());
+    }
+    
+    @Test
+    public void testDecisionCacheKeepsRuleScriptsApart() {
+        DecisionCache cache = new DecisionCache(16);
+        CombatScript balanced = ScriptCompiler.compile(BALANCED_RULES, false);
+        CombatScript legs = ScriptCompiler.compile("script \"Legs\"\notherwise: strike legs parry legs", false);
+        assertSame(balanced.getClass(), legs.getClass());
+        
+        cache.wrap(balanced);
+        cache.wrap(ScriptCompiler.compile(BALANCED_RULES, false));
+        assertThrows(IllegalArgumentException.class, () -> cache.wrap(legs));
+    }
+    
+    @Test
+    public void testBytecodeMatchesLambdas() {
+        SplittableRandom random = new SplittableRandom(17);
+        Fighter self = new Fighter("Alice", 40, 5, new Weapon("Sword", 10, 0.3));
+        Fighter opponent = new Fighter("Bob", 35, 4, new Weapon("Axe", 12, 0.3));
+        List<FighterContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Fighter a = new Fighter("Alice", 40, 5, new Weapon("Sword", 10, 0.3));
+            Fighter b = new Fighter("Bob", 35, 4, new Weapon("Axe", 12, 0.3));
+            BodyPart[] parts = BodyPart.values();
+            List<TurnResult> history = new ArrayList<>();
+            int turns = random.nextInt(4);
+            for (int turn = 0; turn < turns && a.isAlive() && b.isAlive(); turn++) {
+                history.add(CombatResolver.resolveTurn(
+                    a, new Action(parts[random.nextInt(3)], parts[random.nextInt(3)]),
+                    b, new Action(parts[random.nextInt(3)], parts[random.nextInt(3)]), random));
+            }
+            contexts.add(new FighterContext(a, b, history.size() + 1 + random.nextInt(10), history));
+            contexts.add(new FighterContext(b, a, history.size() + 1, history));
+        }
+        contexts.add(new FighterContext(self, opponent, 1, List.of()));
+        
+        String[] parts = {"head", "torso", "legs"};
+        for (int script = 0; script < 300; script++) {
+            StringBuilder source = new StringBuilder();
+            int rules = 1 + random.nextInt(4);
+            for (int rule = 0; rule < rules; rule++) {
+                source.append("when ").append(randomCondition(random, 3))
+                      .append(": strike ").append(parts[random.nextInt(3)])
+                      .append(" parry ").append(parts[random.nextInt(3)]).append('\n');
+            }
+            CombatScript generated = ScriptCompiler.compile(source.toString());
+            CombatScript lambdas = ScriptCompiler.compile(source.toString(), false);
+            assertTrue(generated.getClass().isHidden(), source.toString());
+            for (FighterContext context : contexts) {
+                assertSameAction(lambdas.getNextAction(context), generated.getNextAction(context), source.toString());
+            }
+        }
+    }
+    
+    private static String randomCondition(SplittableRandom random, int depth) {
+        int choice = random.nextInt(depth > 0 ? 7 : 3);
+        switch (choice) {
+            case 0:
+                return random.nextBoolean() ? "first" : "last.hit";
+            case 1:
+                String[] flags = {"last.parried", "last.blocked", "last.crit", "last.crittaken", "true"};
+                return flags[random.nextInt(flags.length)];
+            case 2:
+            case 3:
+                String[] operators = {"<", "<=", ">", ">=", "==", "!="};
+                return randomNumber(random, depth) + " " + operators[random.nextInt(operators.length)] + " "
+                       + randomNumber(random, depth);
+            case 4:
+                return "(" + randomCondition(random, depth - 1) + " and " + randomCondition(random, depth - 1) + ")";
+            case 5:
+                return "(" + randomCondition(random, depth - 1) + " or " + randomCondition(random, depth - 1) + ")";
+            default:
+                return random.nextBoolean() ? "not " + randomCondition(random, depth - 1)
+                       : "((" + randomCondition(random, depth - 1) + ") == (" + randomCondition(random, depth - 1) + "))";
+        }
+    }
+    
+    private static String randomNumber(SplittableRandom random, int depth) {
+        String[] values = {"turn", "self.health", "opponent.health", "self.hp", "opponent.hp", "self.maxhp",
+                           "opponent.maxhp", "last.dealt", "last.taken", "3", "2.5", "50%", "0"};
+        if (depth <= 0 || random.nextInt(3) > 0) {
+            return values[random.nextInt(values.length)];
+        }
+        String[] operators = {"+", "-", "*", "/", "%"};
+        return "(" + randomNumber(random, depth - 1) + " " + operators[random.nextInt(operators.length)] + " "
+               + randomNumber(random, depth - 1) + ")";
+    }
+    
+    @Test
+    public void testSyntaxErrors() {
+        assertError("Line 1", "when self.health strike head parry head");
+        assertError("Line 2", "when first: strike head parry head\nwhen bogus > 1: strike head parry head");
+        assertError("Line 1", "when self.health and first: strike head parry head");
+        assertError("Line 1", "when self.health: strike head parry head");
+        assertError("Line 1", "when first: strike neck parry head");
+        assertError("Line 2", "otherwise: strike head parry head\nwhen first: strike head parry head");
+        assertError("no rules", "script \"Empty\"");
+        assertError("Line 1", "when first: strike head parry head extra");
+        assertError("Line 1", "script \"Unterminated");
+        assertError("Line 3", "when first: strike head parry head\n\nwhen turn @ 2: strike head parry head");
+    }
+    
+    private static void assertError(String expectedMessage, String source) {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> ScriptCompiler.compile(source));
+        assertTrue(error.getMessage().contains(expectedMessage), error.getMessage());
+    }
+}
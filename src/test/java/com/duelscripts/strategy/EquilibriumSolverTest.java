@@ -0,0 +1,129 @@
+package com.duelscripts.strategy;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.BodyPart;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+public class EquilibriumSolverTest {
+    
+    private FighterSpec createSpec(String name, int hp, int strength) {
+        return new FighterSpec(name, hp, strength, new Weapon("Iron Sword", 10, 0.15));
+    }
+    
+    /**
+     * Worst-case expected stage payoff of a strategy against every pure reply.
+     */
+    private double guaranteedStagePayoff(FighterSpec self, FighterSpec opponent, MixedStrategy strategy) {
+        double worst = Double.POSITIVE_INFINITY;
+        for (int reply = 0; reply < MixedStrategy.ACTION_COUNT; reply++) {
+            double payoff = 0.0;
+            for (int a = 0; a < MixedStrategy.ACTION_COUNT; a++) {
+                payoff += strategy.getProbability(a) * stagePayoff(self, opponent, a, reply);
+            }
+            worst = Math.min(worst, payoff);
+        }
+        return worst;
+    }
+    
+    private double stagePayoff(FighterSpec self, FighterSpec opponent, int a, int b) {
+        Action selfAction = MixedStrategy.actionAt(a);
+        Action opponentAction = MixedStrategy.actionAt(b);
+        double payoff = 0.0;
+        if (selfAction.getStrikeTarget() != opponentAction.getParryTarget()) {
+            payoff += expectedDamage(self, selfAction.getStrikeTarget());
+        }
+        if (opponentAction.getStrikeTarget() != selfAction.getParryTarget()) {
+            payoff -= expectedDamage(opponent, opponentAction.getStrikeTarget());
+        }
+        return payoff;
+    }
+    
+    private double expectedDamage(FighterSpec spec, BodyPart part) {
+        Weapon weapon = spec.getWeapon();
+        double critChance = weapon.getCriticalHitChance();
+        return (1 - critChance) * weapon.calculateDamage(part, spec.getStrength(), false)
+               + critChance * weapon.calculateDamage(part, spec.getStrength(), true);
+    }
+    
+    @Test
+    public void testSymmetricStageGameHasValueZero() {
+        EquilibriumSolver solver = new EquilibriumSolver();
+        FighterSpec spec = createSpec("Twin", 45, 7);
+        
+        Equilibrium equilibrium = solver.solveStage(spec, spec);
+        
+        assertEquals(0.0, equilibrium.getValue(), 1e-9);
+    }
+    
+    @Test
+    public void testStageStrategyIsUnexploitable() {
+        EquilibriumSolver solver = new EquilibriumSolver();
+        FighterSpec self = createSpec("Alice", 45, 7);
+        FighterSpec opponent = createSpec("Bob", 45, 10);
+        
+        Equilibrium equilibrium = solver.solveStage(self, opponent);
+        
+        // No pure reply pushes the payoff below the value of the game
+        assertEquals(equilibrium.getValue(),
+                     guaranteedStagePayoff(self, opponent, equilibrium.getSelfStrategy()), 1e-9);
+        assertTrue(equilibrium.getValue() < 0.0);
+        // Striking the head only is a pure strategy the opponent can punish
+        MixedStrategy headOnly = MixedStrategy.pure(new Action(BodyPart.HEAD, BodyPart.HEAD));
+        assertTrue(guaranteedStagePayoff(self, opponent, headOnly) < equilibrium.getValue());
+    }
+    
+    @Test
+    public void testBattleValueFavorsStrongerFighter() {
+        EquilibriumSolver solver = new EquilibriumSolver();
+        FighterSpec twin = createSpec("Twin", 45, 7);
+        FighterSpec strong = createSpec("Strong", 45, 12);
+        
+        assertEquals(0.0, solver.solve(twin, 45, twin, 45).getValue(), 0.05);
+        assertTrue(solver.solve(strong, 45, twin, 45).getValue() > 0.2);
+        assertTrue(solver.solve(twin, 45, strong, 45).getValue() < -0.2);
+        // Being far ahead on hit points is close to a certain win
+        assertTrue(solver.solve(twin, 45, twin, 3).getValue() > 0.5);
+    }
+    
+    @Test
+    public void testSolutionsAreCachedPerSpecPair() {
+        EquilibriumSolver solver = new EquilibriumSolver(5);
+        FighterSpec alice = createSpec("Alice", 30, 7);
+        FighterSpec bob = createSpec("Bob", 30, 7);
+        
+        Equilibrium first = solver.solve(alice, 30, bob, 30);
+        // Same bucket, and an equal spec built from an equal weapon
+        Equilibrium second = solver.solve(createSpec("Alice", 30, 7), 28, bob, 27);
+        solver.solve(bob, 30, alice, 30);
+        
+        assertSame(first, second);
+        assertEquals(2, solver.getCachedPairs());
+        assertThrows(IllegalArgumentException.class, () -> new EquilibriumSolver(0));
+    }
+    
+    @Test
+    public void testMixedStrategySamplingMatchesProbabilities() {
+        double[] weights = {4, 0, 0, 1, 0, 0, 0, 0, 5};
+        MixedStrategy strategy = new MixedStrategy(weights);
+        SplittableRandom random = new SplittableRandom(7L);
+        int[] counts = new int[MixedStrategy.ACTION_COUNT];
+        int samples = 100_000;
+        
+        for (int i = 0; i < samples; i++) {
+            counts[MixedStrategy.indexOf(strategy.sample(random))]++;
+        }
+        
+        assertEquals(0.4, strategy.getProbability(0), 1e-12);
+        for (int i = 0; i < MixedStrategy.ACTION_COUNT; i++) {
+            assertEquals(strategy.getProbability(i), (double) counts[i] / samples, 0.01);
+        }
+        assertEquals(0, counts[1]);
+        assertThrows(IllegalArgumentException.class, () -> new MixedStrategy(new double[3]));
+        assertThrows(IllegalArgumentException.class, () -> new MixedStrategy(new double[9]));
+    }
+}
@@ -0,0 +1,53 @@
+package com.duelscripts.strategy;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixGameTest {
+    
+    @Test
+    public void testRockPaperScissorsIsUniform() {
+        double[][] payoff = {
+            {0, -1, 1},
+            {1, 0, -1},
+            {-1, 1, 0}
+        };
+        
+        MatrixGame game = MatrixGame.solve(payoff);
+        
+        assertEquals(0.0, game.getValue(), 1e-9);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1.0 / 3, game.getRowStrategy()[i], 1e-9);
+            assertEquals(1.0 / 3, game.getColumnStrategy()[i], 1e-9);
+        }
+    }
+    
+    @Test
+    public void testSkewedMatchingPennies() {
+        double[][] payoff = {
+            {3, -1},
+            {-1, 1}
+        };
+        
+        MatrixGame game = MatrixGame.solve(payoff);
+        
+        // 3p - (1 - p) = -p + (1 - p)  =>  p = 1/3, and the value is 1/3
+        assertEquals(1.0 / 3, game.getRowStrategy()[0], 1e-9);
+        assertEquals(1.0 / 3, game.getColumnStrategy()[0], 1e-9);
+        assertEquals(1.0 / 3, game.getValue(), 1e-9);
+    }
+    
+    @Test
+    public void testDominatedRowIsNeverPlayed() {
+        double[][] payoff = {
+            {2, 5},
+            {1, 4}
+        };
+        
+        MatrixGame game = MatrixGame.solve(payoff);
+        
+        assertEquals(1.0, game.getRowStrategy()[0], 1e-9);
+        assertEquals(1.0, game.getColumnStrategy()[0], 1e-9);
+        assertEquals(2.0, game.getValue(), 1e-9);
+    }
+}
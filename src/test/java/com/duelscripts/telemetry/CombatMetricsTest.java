@@ -0,0 +1,138 @@
+package com.duelscripts.telemetry;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.Game;
+import com.duelscripts.combat.HeadlessBattleListener;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.telemetry.CombatMetrics.Outcome;
+import com.duelscripts.telemetry.CombatMetrics.Phase;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+public class CombatMetricsTest {
+    
+    private Game createGame() {
+        Weapon weapon = new Weapon("Test Weapon", 10, 0.1);
+        Game game = new Game(new Fighter("Alice", 50, 5, weapon), new Fighter("Bob", 50, 5, weapon), 50, false);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        return game;
+    }
+    
+    @AfterEach
+    public void restoreSampleRate() {
+        CombatMetrics.setSampleRate(16);
+    }
+    
+    @Test
+    public void testBattlesAreCounted() {
+        long battles = CombatMetrics.getBattles();
+        long turns = CombatMetrics.getTurns();
+        long decisions = CombatMetrics.getDecisions();
+        
+        Game game = createGame();
+        int totalTurns = 0;
+        for (int i = 0; i < 3; i++) {
+            totalTurns += game.runFullCombat().getTotalTurns();
+        }
+        
+        // Other tests may run battles at the same time, so the counters grow by at least this much
+        assertTrue(CombatMetrics.getBattles() - battles >= 3);
+        assertTrue(CombatMetrics.getTurns() - turns >= totalTurns);
+        assertTrue(CombatMetrics.getDecisions() - decisions >= 2L * totalTurns);
+    }
+    
+    @Test
+    public void testSampledBattlesArePhaseTimed() {
+        CombatMetrics.setSampleRate(1);
+        long sampledBattles = CombatMetrics.getSampledBattles();
+        long sampledTurns = CombatMetrics.getSampledTurns();
+        long decisionNanos = CombatMetrics.getSampledPhaseNanos(Phase.DECISION);
+        long resolutionNanos = CombatMetrics.getSampledPhaseNanos(Phase.RESOLUTION);
+        
+        BattleResult result = createGame().runFullCombat();
+        
+        assertTrue(CombatMetrics.getSampledBattles() > sampledBattles);
+        assertTrue(CombatMetrics.getSampledTurns() - sampledTurns >= result.getTotalTurns());
+        assertTrue(CombatMetrics.getSampledPhaseNanos(Phase.DECISION) > decisionNanos);
+        assertTrue(CombatMetrics.getSampledPhaseNanos(Phase.RESOLUTION) > resolutionNanos);
+        assertTrue(CombatMetrics.getEstimatedPhaseNanos(Phase.DECISION) > 0);
+    }
+    
+    @Test
+    public void testLatenciesAndOutcomesPerScript() {
+        CombatMetrics.setSampleRate(1);
+        long turnCount = CombatMetrics.getTurnLatency().getCount();
+        Game game = createGame();
+        String script = game.getFighter1().getCombatScript().getName();
+        long battles = 0;
+        for (Outcome outcome : Outcome.values()) {
+            battles += CombatMetrics.getOutcomeCount(script, outcome);
+        }
+        
+        BattleResult result = game.runFullCombat();
+        
+        // Both fighters run the default script, so the battle counts once from each side
+        long after = 0;
+        for (Outcome outcome : Outcome.values()) {
+            after += CombatMetrics.getOutcomeCount(script, outcome);
+        }
+        assertTrue(after - battles >= 2);
+        assertTrue(CombatMetrics.getTurnLatency().getCount() - turnCount >= result.getTotalTurns());
+        assertTrue(CombatMetrics.getDecisionLatencies().get(script).getCount() >= 2L * result.getTotalTurns());
+        assertEquals(0, CombatMetrics.getOutcomeCount("No Such Script", Outcome.WIN));
+    }
+    
+    @Test
+    public void testUnsampledBattleIsNotTimed() {
+        CombatMetrics.setSampleRate(0);
+        BattleTimer timer = new BattleTimer();
+        timer.begin("Script A", "Script B");
+        assertFalse(timer.isSampled());
+        
+        CombatMetrics.setSampleRate(1);
+        timer.begin("Script A", "Script B");
+        assertTrue(timer.isSampled());
+        timer.finish(0, Outcome.DRAW);
+        assertFalse(timer.isSampled());
+        
+        assertThrows(IllegalArgumentException.class, () -> CombatMetrics.setSampleRate(-1));
+    }
+    
+    @Test
+    public void testFlightRecorderEvents() throws Exception {
+        Path file = Files.createTempFile("duelscripts", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(BattleEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(TurnEvent.class);
+            recording.enable(ScriptDecisionEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            createGame().runFullCombat();
+            recording.stop();
+            recording.dump(file);
+            
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent battle = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.duelscripts.Battle"))
+                .filter(event -> "Alice".equals(event.getString("fighter1")))
+                .findFirst()
+                .orElseThrow();
+            int turns = battle.getInt("turns");
+            assertTrue(turns > 0);
+            assertEquals("Bob", battle.getString("fighter2"));
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.duelscripts.Turn")));
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.duelscripts.ScriptDecision")
+                                                         && "Alice".equals(event.getString("fighter"))));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.duelscripts.telemetry;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+    
+    @Test
+    public void testValuesFallIntoBucketsByUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram(10, 100);
+        histogram.record(5);
+        histogram.record(10);
+        histogram.record(11);
+        histogram.record(1_000);
+        
+        assertEquals(3, histogram.getBucketCount());
+        assertEquals(2, histogram.getCount(0));
+        assertEquals(1, histogram.getCount(1));
+        assertEquals(1, histogram.getCount(2));
+        assertEquals(4, histogram.getCount());
+        assertEquals(1_026, histogram.getSumNanos());
+        assertEquals(100, histogram.getUpperBoundNanos(1));
+        assertEquals(Long.MAX_VALUE, histogram.getUpperBoundNanos(2));
+    }
+    
+    @Test
+    public void testLocalCountsAreAdded() {
+        LatencyHistogram histogram = new LatencyHistogram(10, 100);
+        long[] counts = new long[histogram.getBucketCount()];
+        counts[histogram.bucketOf(50)]++;
+        counts[histogram.bucketOf(60)]++;
+        histogram.add(counts, 110);
+        
+        assertEquals(2, histogram.getCount(1));
+        assertEquals(110, histogram.getSumNanos());
+        assertThrows(IllegalArgumentException.class, () -> histogram.add(new long[2], 0));
+        
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getSumNanos());
+    }
+    
+    @Test
+    public void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(10, 10));
+    }
+}
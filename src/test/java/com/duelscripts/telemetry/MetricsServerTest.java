@@ -0,0 +1,63 @@
+package com.duelscripts.telemetry;
+
+import com.duelscripts.combat.Game;
+import com.duelscripts.combat.HeadlessBattleListener;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.Weapon;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+public class MetricsServerTest {
+    
+    @Test
+    public void testScrapeServesPrometheusText() throws Exception {
+        Weapon weapon = new Weapon("Test Weapon", 10, 0.1);
+        Game game = new Game(new Fighter("Alice", 50, 5, weapon), new Fighter("Bob", 50, 5, weapon), 50, false);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        game.runFullCombat();
+        
+        try (MetricsServer server = new MetricsServer(0)) {
+            URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + MetricsServer.PATH);
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                                        HttpResponse.BodyHandlers.ofString());
+            
+            assertEquals(200, response.statusCode());
+            assertEquals(PrometheusFormat.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(""));
+            String body = response.body();
+            assertTrue(body.contains("# TYPE duelscripts_battles_total counter\n"));
+            assertTrue(body.contains("# TYPE duelscripts_turn_duration_seconds histogram\n"));
+            assertTrue(body.contains("duelscripts_turn_duration_seconds_bucket{le=\"+Inf\"} "));
+            assertTrue(body.contains("duelscripts_script_battles_total{script=\""));
+            
+            HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri)
+                                                        .POST(HttpRequest.BodyPublishers.noBody()).build(),
+                                                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(405, post.statusCode());
+        }
+    }
+    
+    @Test
+    public void testHistogramBucketsAreCumulative() {
+        String text = PrometheusFormat.render();
+        long previous = -1;
+        for (String line : text.split("\n")) {
+            if (line.startsWith("duelscripts_turn_duration_seconds_bucket")) {
+                long count = Long.parseLong(line.substring(line.lastIndexOf(' ') + 1));
+                assertTrue(count >= previous);
+                previous = count;
+            }
+        }
+        assertTrue(previous >= 0);
+    }
+    
+    @Test
+    public void testLabelValuesAreEscaped() {
+        assertEquals("Plain", PrometheusFormat.escape("Plain"));
+        assertEquals("a\\\\b\\\"c\\nd", PrometheusFormat.escape("a\\b\"c\nd"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.duelscripts.tournament;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfidenceIntervalTest {
+    
+    @Test
+    public void testWilsonIntervalForHalf() {
+        ConfidenceInterval interval = ConfidenceInterval.wilson(5, 10, 1.96);
+        
+        assertEquals(0.2366, interval.getLower(), 0.0001);
+        assertEquals(0.7634, interval.getUpper(), 0.0001);
+        assertTrue(interval.contains(0.5));
+    }
+    
+    @Test
+    public void testWilsonIntervalForZeroSuccesses() {
+        ConfidenceInterval interval = ConfidenceInterval.wilson(0, 10, 1.96);
+        
+        assertEquals(0.0, interval.getLower(), 0.0001);
+        assertEquals(0.2775, interval.getUpper(), 0.0001);
+    }
+    
+    @Test
+    public void testWilsonIntervalNarrowsWithMoreTrials() {
+        ConfidenceInterval small = ConfidenceInterval.wilson(50, 100, 1.96);
+        ConfidenceInterval large = ConfidenceInterval.wilson(5000, 10000, 1.96);
+        
+        assertTrue(large.getWidth() < small.getWidth());
+    }
+    
+    @Test
+    public void testWilsonIntervalWithoutTrials() {
+        ConfidenceInterval interval = ConfidenceInterval.wilson(0, 0, 1.96);
+        
+        assertEquals(0.0, interval.getLower());
+        assertEquals(1.0, interval.getUpper());
+    }
+}
@@ -0,0 +1,75 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.combat.BattleSeeds;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.ScriptFactory;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LockstepSimulatorTest {
+    
+    private Entrant createEntrant(String name, int hp, int strength, double critChance, String scriptType) {
+        return new Entrant(new FighterSpec(name, hp, strength, new Weapon("Iron Sword", 10, critChance)), scriptType);
+    }
+    
+    private void assertMatchesGame(Entrant entrant1, Entrant entrant2, int maxTurns, int battles) {
+        long seed = 1234L;
+        long[] expected = new long[BattleOutcome.values().length];
+        for (int i = 0; i < battles; i++) {
+            expected[Battles.play(entrant1, entrant2, maxTurns, BattleSeeds.randomFor(seed, i)).ordinal()]++;
+        }
+        
+        LockstepSimulator simulator = new LockstepSimulator(entrant1, entrant2, maxTurns);
+        simulator.setMasterSeed(seed);
+        simulator.setLaneCount(64);
+        LockstepResult result = simulator.run(battles);
+        
+        for (BattleOutcome outcome : BattleOutcome.values()) {
+            assertEquals(expected[outcome.ordinal()], result.getCount(outcome), outcome.name());
+        }
+        assertEquals(battles, result.getBattles());
+    }
+    
+    @Test
+    public void testMatchesGameBattleForBattle() {
+        assertMatchesGame(createEntrant("Alice", 45, 7, 0.15, ScriptFactory.AGGRESSIVE),
+                          createEntrant("Bob", 45, 7, 0.3, ScriptFactory.BERSERKER), 50, 500);
+        assertMatchesGame(createEntrant("Alice", 60, 5, 0.2, ScriptFactory.BALANCED),
+                          createEntrant("Bob", 40, 9, 0.1, ScriptFactory.DEFENSIVE), 50, 500);
+        // Short battles exercise timeouts, including kills on the final turn
+        assertMatchesGame(createEntrant("Alice", 45, 7, 0.5, ScriptFactory.AGGRESSIVE),
+                          createEntrant("Bob", 45, 7, 0.5, ScriptFactory.BALANCED), 4, 500);
+    }
+    
+    @Test
+    public void testParallelRunMatchesSequentialRun() {
+        Entrant alice = createEntrant("Alice", 45, 7, 0.15, ScriptFactory.BERSERKER);
+        Entrant bob = createEntrant("Bob", 45, 7, 0.15, ScriptFactory.DEFENSIVE);
+        LockstepSimulator simulator = new LockstepSimulator(alice, bob, 100);
+        simulator.setMasterSeed(42L);
+        simulator.setLaneCount(256);
+        
+        LockstepResult sequential = simulator.run(5000);
+        LockstepResult parallel = simulator.run(5000, 4);
+        
+        for (BattleOutcome outcome : BattleOutcome.values()) {
+            assertEquals(sequential.getCount(outcome), parallel.getCount(outcome));
+        }
+        assertEquals(sequential.getTurns(), parallel.getTurns());
+        assertTrue(sequential.getTurns() >= 5000);
+    }
+    
+    @Test
+    public void testRejectsHistoryDependentScripts() {
+        Entrant tactical = createEntrant("Alice", 45, 7, 0.15, ScriptFactory.TACTICAL);
+        Entrant balanced = createEntrant("Bob", 45, 7, 0.15, ScriptFactory.BALANCED);
+        
+        assertFalse(LockstepSimulator.supports(tactical, balanced));
+        assertTrue(LockstepSimulator.supports(balanced, balanced));
+        assertThrows(IllegalArgumentException.class, () -> new LockstepSimulator(tactical, balanced, 50));
+        assertThrows(IllegalArgumentException.class, () -> new LockstepSimulator(balanced, balanced, 0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new LockstepSimulator(balanced, balanced, 50).setLaneCount(0));
+    }
+}
@@ -0,0 +1,71 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.ScriptFactory;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchupEstimatorTest {
+    
+    private Entrant createEntrant(String name, int hp, String scriptType) {
+        return new Entrant(new FighterSpec(name, hp, 7, new Weapon("Iron Sword", 10, 0.15)), scriptType);
+    }
+    
+    @Test
+    public void testLopsidedMatchupStopsOnSequentialTest() {
+        Entrant strong = createEntrant("Giant", 500, ScriptFactory.AGGRESSIVE);
+        Entrant weak = createEntrant("Squire", 20, ScriptFactory.AGGRESSIVE);
+        MatchupEstimator estimator = new MatchupEstimator(strong, weak, 50);
+        estimator.setMinBattles(10);
+        
+        MatchupEstimate estimate = estimator.estimate();
+        
+        assertEquals(MatchupEstimate.StopReason.SEQUENTIAL_TEST, estimate.getStopReason());
+        assertEquals(MatchupEstimate.Verdict.FIGHTER1_FAVORED, estimate.getVerdict());
+        assertTrue(estimate.getBattles() < 100);
+        assertEquals(1.0, estimate.getFighter1WinProbability(), 0.0001);
+    }
+    
+    @Test
+    public void testStopsOnTargetWidth() {
+        Entrant alice = createEntrant("Alice", 45, ScriptFactory.BALANCED);
+        Entrant bob = createEntrant("Bob", 45, ScriptFactory.TACTICAL);
+        MatchupEstimator estimator = new MatchupEstimator(alice, bob, 20);
+        estimator.setSequentialTestEnabled(false);
+        estimator.setTargetWidth(0.2);
+        
+        MatchupEstimate estimate = estimator.estimate();
+        
+        assertEquals(MatchupEstimate.StopReason.TARGET_WIDTH, estimate.getStopReason());
+        assertEquals(MatchupEstimate.Verdict.UNDECIDED, estimate.getVerdict());
+        assertTrue(estimate.getFighter1WinInterval().getWidth() <= 0.2);
+        assertTrue(estimate.getDrawInterval().getWidth() <= 0.2);
+    }
+    
+    @Test
+    public void testStopsAtMaxBattles() {
+        Entrant alice = createEntrant("Alice", 45, ScriptFactory.BERSERKER);
+        Entrant bob = createEntrant("Bob", 45, ScriptFactory.DEFENSIVE);
+        MatchupEstimator estimator = new MatchupEstimator(alice, bob, 20);
+        estimator.setSequentialTestEnabled(false);
+        estimator.setTargetWidth(0.0);
+        estimator.setMinBattles(1);
+        estimator.setMaxBattles(50);
+        
+        MatchupEstimate estimate = estimator.estimate();
+        
+        assertEquals(MatchupEstimate.StopReason.MAX_BATTLES, estimate.getStopReason());
+        assertEquals(50, estimate.getBattles());
+        assertEquals(1.0, estimate.getFighter1WinProbability() + estimate.getFighter2WinProbability()
+                          + estimate.getDrawProbability() + estimate.getTimeoutProbability(), 0.0001);
+    }
+    
+    @Test
+    public void testInvalidSequentialTestMargin() {
+        Entrant alice = createEntrant("Alice", 45, ScriptFactory.BALANCED);
+        MatchupEstimator estimator = new MatchupEstimator(alice, alice, 20);
+        
+        assertThrows(IllegalArgumentException.class, () -> estimator.setSequentialTest(0.5, 0.05, 0.05));
+    }
+}
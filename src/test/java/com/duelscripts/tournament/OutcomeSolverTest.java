@@ -0,0 +1,115 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.combat.BattleResult;
+import com.duelscripts.combat.Game;
+import com.duelscripts.combat.HeadlessBattleListener;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.ScriptFactory;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutcomeSolverTest {
+    
+    private Entrant createEntrant(String name, int hp, double critChance, String scriptType) {
+        return new Entrant(new FighterSpec(name, hp, 7, new Weapon("Iron Sword", 10, critChance)), scriptType);
+    }
+    
+    private BattleResult play(Entrant entrant1, Entrant entrant2, int maxTurns) {
+        Game game = new Game(entrant1.createFighter(), entrant2.createFighter(), maxTurns, false);
+        game.setBattleListener(HeadlessBattleListener.INSTANCE);
+        return game.runFullCombat();
+    }
+    
+    @Test
+    public void testProbabilitiesSumToOne() {
+        Entrant alice = createEntrant("Alice", 45, 0.15, ScriptFactory.BERSERKER);
+        Entrant bob = createEntrant("Bob", 50, 0.10, ScriptFactory.DEFENSIVE);
+        OutcomeSolver solver = new OutcomeSolver(alice, bob, 50);
+        
+        MatchupSolution solution = solver.solve();
+        
+        assertTrue(solution.isExact());
+        assertNull(solution.getEstimate());
+        assertEquals(1.0, solution.getFighter1WinProbability() + solution.getFighter2WinProbability()
+                     + solution.getDrawProbability() + solution.getTimeoutProbability(), 1e-9);
+        double totalTurnProbability = 0.0;
+        for (int turns = 0; turns <= 50; turns++) {
+            totalTurnProbability += solution.getTurnProbability(turns);
+        }
+        assertEquals(1.0, totalTurnProbability, 1e-9);
+        assertEquals(0.0, solution.getTurnProbability(51));
+    }
+    
+    @Test
+    public void testMatchesDeterministicBattle() {
+        // Without critical hits the battle has exactly one possible course
+        Entrant alice = createEntrant("Alice", 45, 0.0, ScriptFactory.AGGRESSIVE);
+        Entrant bob = createEntrant("Bob", 40, 0.0, ScriptFactory.BALANCED);
+        BattleResult result = play(alice, bob, 50);
+        
+        MatchupSolution solution = new OutcomeSolver(alice, bob, 50).solve();
+        
+        assertEquals(1.0, solution.getTurnProbability(result.getTotalTurns()), 1e-12);
+        assertEquals(result.getTotalTurns(), solution.getExpectedTurns(), 1e-9);
+        if (result.reachedTurnLimit()) {
+            assertEquals(1.0, solution.getTimeoutProbability(), 1e-12);
+        } else if (result.getWinner() == null) {
+            assertEquals(1.0, solution.getDrawProbability(), 1e-12);
+        } else if (result.getWinner().getName().equals("Alice")) {
+            assertEquals(1.0, solution.getFighter1WinProbability(), 1e-12);
+        } else {
+            assertEquals(1.0, solution.getFighter2WinProbability(), 1e-12);
+        }
+    }
+    
+    @Test
+    public void testKillOnFinalTurnCountsAsTimeout() {
+        Entrant alice = createEntrant("Alice", 45, 0.0, ScriptFactory.AGGRESSIVE);
+        Entrant bob = createEntrant("Bob", 1, 0.0, ScriptFactory.DEFENSIVE);
+        assertTrue(play(alice, bob, 1).reachedTurnLimit());
+        
+        MatchupSolution solution = new OutcomeSolver(alice, bob, 1).solve();
+        
+        assertEquals(1.0, solution.getTimeoutProbability(), 1e-12);
+        assertEquals(0.0, solution.getFighter1WinProbability(), 1e-12);
+    }
+    
+    @Test
+    public void testAgreesWithMonteCarloEstimate() {
+        Entrant alice = createEntrant("Alice", 45, 0.15, ScriptFactory.BERSERKER);
+        Entrant bob = createEntrant("Bob", 45, 0.30, ScriptFactory.DEFENSIVE);
+        MatchupEstimator estimator = new MatchupEstimator(alice, bob, 30);
+        estimator.setMasterSeed(11L);
+        estimator.setSequentialTestEnabled(false);
+        estimator.setTargetWidth(0.0);
+        estimator.setMaxBattles(20_000);
+        estimator.setZ(4.0);
+        
+        MatchupEstimate estimate = estimator.estimate();
+        MatchupSolution solution = new OutcomeSolver(alice, bob, 30).solve();
+        
+        assertTrue(estimate.getFighter1WinInterval().contains(solution.getFighter1WinProbability()));
+        assertTrue(estimate.getFighter2WinInterval().contains(solution.getFighter2WinProbability()));
+        assertTrue(estimate.getDrawInterval().contains(solution.getDrawProbability()));
+        assertTrue(estimate.getTimeoutInterval().contains(solution.getTimeoutProbability()));
+    }
+    
+    @Test
+    public void testHistoryDependentScriptFallsBackToEstimate() {
+        Entrant alice = createEntrant("Alice", 45, 0.15, ScriptFactory.TACTICAL);
+        Entrant bob = createEntrant("Bob", 45, 0.15, ScriptFactory.BALANCED);
+        OutcomeSolver solver = new OutcomeSolver(alice, bob, 20);
+        solver.getEstimator().setMasterSeed(3L);
+        solver.getEstimator().setMaxBattles(500);
+        
+        MatchupSolution solution = solver.solve();
+        
+        assertFalse(solver.isExact());
+        assertFalse(solution.isExact());
+        assertNotNull(solution.getEstimate());
+        assertEquals(solution.getEstimate().getFighter1WinProbability(), solution.getFighter1WinProbability());
+        assertThrows(IllegalStateException.class, () -> solution.getTurnProbability(1));
+    }
+}
@@ -0,0 +1,79 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.scripting.ScriptFactory;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import javax.management.MBeanServer;
+
+public class TournamentProgressTest {
+    
+    private Tournament createTournament() {
+        return new Tournament(
+            List.of(new FighterSpec("Alice", 45, 7, new Weapon("Iron Sword", 10, 0.15))),
+            List.of(ScriptFactory.AGGRESSIVE, ScriptFactory.DEFENSIVE, ScriptFactory.BERSERKER),
+            100, 20);
+    }
+    
+    @Test
+    public void testProgressCoversWholeTournament() {
+        Tournament tournament = createTournament();
+        TournamentProgress progress = new TournamentProgress("test-complete");
+        tournament.setProgress(progress);
+        
+        TournamentResult result = tournament.run(4);
+        
+        assertFalse(progress.isRunning());
+        assertEquals(300, progress.getBattlesTotal());
+        assertEquals(300, progress.getBattlesCompleted());
+        assertEquals(0, progress.getBattlesInFlight());
+        assertEquals(0, progress.getQueueDepth());
+        assertEquals(4, progress.getWorkers());
+        assertTrue(progress.getTurnsCompleted() >= 300);
+        
+        Map<String, Long> scriptWins = progress.getScriptWins();
+        List<Entrant> entrants = result.getEntrants();
+        for (int i = 0; i < entrants.size(); i++) {
+            assertEquals(result.getTotalWins(i), scriptWins.getOrDefault(entrants.get(i).getScriptType(), 0L));
+        }
+    }
+    
+    @Test
+    public void testRestartZeroesCounters() {
+        Tournament tournament = createTournament();
+        TournamentProgress progress = new TournamentProgress("test-restart");
+        tournament.setProgress(progress);
+        
+        tournament.run(2);
+        tournament.run(2);
+        
+        assertEquals(300, progress.getBattlesCompleted());
+        assertEquals(progress.getBattlesTotal(), progress.getBattlesCompleted());
+    }
+    
+    @Test
+    public void testPublishedOverJmx() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try (TournamentProgress progress = new TournamentProgress("test-jmx")) {
+            progress.register();
+            progress.register();
+            assertTrue(server.isRegistered(progress.getObjectName()));
+            
+            Tournament tournament = createTournament();
+            tournament.setProgress(progress);
+            tournament.run(2);
+            
+            assertEquals(300L, server.getAttribute(progress.getObjectName(), "BattlesCompleted"));
+            assertEquals(0L, server.getAttribute(progress.getObjectName(), "QueueDepth"));
+            assertNotNull(server.getAttribute(progress.getObjectName(), "ScriptWins"));
+            assertThrows(IllegalStateException.class, () -> new TournamentProgress("test-jmx").register());
+            
+            progress.close();
+            assertFalse(server.isRegistered(progress.getObjectName()));
+        }
+    }
+}
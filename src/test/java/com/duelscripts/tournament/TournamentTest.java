@@ -0,0 +1,205 @@
+package com.duelscripts.tournament;
+
+import com.duelscripts.core.Action;
+import com.duelscripts.core.FighterSpec;
+import com.duelscripts.core.Weapon;
+import com.duelscripts.core.Fighter;
+import com.duelscripts.scripting.FighterContext;
+import com.duelscripts.scripting.ScriptFactory;
+import com.duelscripts.scripting.ScriptGuard;
+import com.duelscripts.scripting.scripts.BalancedScript;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TournamentTest {
+    
+    private FighterSpec createSpec(String name) {
+        return new FighterSpec(name, 45, 7, new Weapon("Iron Sword", 10, 0.15));
+    }
+    
+    @Test
+    public void testEntrantsCombineTemplatesAndScripts() {
+        Tournament tournament = new Tournament(
+            List.of(createSpec("Alice"), createSpec("Bob")),
+            List.of(ScriptFactory.AGGRESSIVE, ScriptFactory.DEFENSIVE, ScriptFactory.BALANCED),
+            1, 10);
+        
+        assertEquals(6, tournament.getEntrants().size());
+        assertEquals("Alice [aggressive]", tournament.getEntrants().get(0).getName());
+    }
+    
+    @Test
+    public void testDefaultScriptsComeFromFactory() {
+        Tournament tournament = new Tournament(List.of(createSpec("Alice")), 1, 10);
+        
+        assertEquals(ScriptFactory.getAvailableScripts().size(), tournament.getEntrants().size());
+    }
+    
+    @Test
+    public void testEveryPairingPlaysAllBattles() {
+        Tournament tournament = new Tournament(
+            List.of(createSpec("Alice")),
+            List.of(ScriptFactory.AGGRESSIVE, ScriptFactory.DEFENSIVE, ScriptFactory.BERSERKER),
+            100, 20);
+        
+        TournamentResult result = tournament.run(4);
+        
+        assertEquals(3 * 100, result.getTotalBattles());
+        for (int i = 0; i < 3; i++) {
+            for (int j = i + 1; j < 3; j++) {
+                long played = result.getWins(i, j) + result.getWins(j, i)
+                            + result.getDraws(i, j) + result.getTimeouts(i, j);
+                assertEquals(100, played);
+                assertEquals(result.getDraws(i, j), result.getDraws(j, i));
+                assertEquals(result.getTimeouts(i, j), result.getTimeouts(j, i));
+            }
+        }
+    }
+    
+    @Test
+    public void testRunOnProvidedExecutor() {
+        Tournament tournament = new Tournament(
+            List.of(createSpec("Alice"), createSpec("Bob")),
+            List.of(ScriptFactory.TACTICAL),
+            10, 5);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            TournamentResult result = tournament.run(executor);
+            assertEquals(10, result.getTotalBattles());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testSameMasterSeedReproducesResult() {
+        List<FighterSpec> roster = List.of(createSpec("Alice"));
+        List<String> scripts = List.of(ScriptFactory.AGGRESSIVE, ScriptFactory.BALANCED, ScriptFactory.BERSERKER);
+        
+        Tournament first = new Tournament(roster, scripts, 200, 30);
+        first.setMasterSeed(1234L);
+        Tournament second = new Tournament(roster, scripts, 200, 30);
+        second.setMasterSeed(1234L);
+        
+        TournamentResult result1 = first.run(4);
+        TournamentResult result2 = second.run(1);
+        
+        assertEquals(1234L, result1.getMasterSeed());
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(result1.getWins(i, j), result2.getWins(i, j));
+                assertEquals(result1.getDraws(i, j), result2.getDraws(i, j));
+                assertEquals(result1.getTimeouts(i, j), result2.getTimeouts(i, j));
+            }
+        }
+    }
+    
+    @Test
+    public void testSameMasterSeedReproducesMixedStrategyResult() {
+        List<FighterSpec> roster = List.of(createSpec("Alice"));
+        List<String> scripts = List.of(ScriptFactory.EQUILIBRIUM, ScriptFactory.BALANCED, ScriptFactory.TACTICAL);
+        
+        TournamentResult[] results = new TournamentResult[2];
+        for (int run = 0; run < 2; run++) {
+            Tournament tournament = new Tournament(roster, scripts, 100, 30);
+            tournament.setMasterSeed(42L);
+            results[run] = tournament.run(run == 0 ? 4 : 1);
+        }
+        
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(results[0].getWins(i, j), results[1].getWins(i, j));
+                assertEquals(results[0].getDraws(i, j), results[1].getDraws(i, j));
+                assertEquals(results[0].getTimeouts(i, j), results[1].getTimeouts(i, j));
+            }
+        }
+    }
+    
+    @Test
+    public void testEntrantCreatesFreshBattleState() {
+        FighterSpec spec = createSpec("Alice");
+        Entrant entrant = new Entrant(spec, ScriptFactory.AGGRESSIVE);
+        
+        Fighter first = entrant.createFighter();
+        first.takeDamage(10);
+        Fighter second = entrant.createFighter();
+        
+        assertNotSame(first, second);
+        assertSame(spec, second.getSpec());
+        assertNotSame(first.getCombatScript(), second.getCombatScript());
+        assertEquals(45, second.getHitPoints());
+    }
+    
+    @Test
+    public void testInvalidArguments() {
+        List<FighterSpec> roster = List.of(createSpec("Alice"));
+        
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(roster, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(roster, 1, 0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new Tournament(roster, List.of("nonexistent"), 1, 10));
+    }
+    
+    @Test
+    public void testDecisionCacheDoesNotChangeResults() {
+        List<FighterSpec> roster = List.of(createSpec("Alice"), createSpec("Bob"));
+        List<String> scripts = List.of(ScriptFactory.BALANCED, ScriptFactory.DEFENSIVE, ScriptFactory.TACTICAL);
+        Tournament plain = new Tournament(roster, scripts, 100, 30);
+        plain.setMasterSeed(99L);
+        Tournament cached = new Tournament(roster, scripts, 100, 30);
+        cached.setMasterSeed(99L);
+        cached.setDecisionCacheCapacity(4096);
+        
+        TournamentResult result1 = plain.run(2);
+        TournamentResult result2 = cached.run(2);
+        
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                assertEquals(result1.getWins(i, j), result2.getWins(i, j));
+                assertEquals(result1.getTimeouts(i, j), result2.getTimeouts(i, j));
+            }
+        }
+        assertEquals(2, cached.getDecisionCaches().size());
+        assertFalse(cached.getDecisionCaches().containsKey(ScriptFactory.TACTICAL));
+        assertTrue(cached.getDecisionCaches().get(ScriptFactory.BALANCED).getHits() > 0);
+        
+        cached.setDecisionCacheCapacity(0);
+        assertTrue(cached.getDecisionCaches().isEmpty());
+        assertNull(cached.getEntrants().get(0).getDecisionCache());
+    }
+    
+    @Test
+    public void testScriptGuardIsolatesFaultyScript() {
+        ScriptFactory.registerScript("faulty", () -> new BalancedScript() {
+            @Override
+            public Action getNextAction(FighterContext context) {
+                throw new IllegalStateException("broken");
+            }
+            
+            @Override
+            public String getName() {
+                return "Faulty";
+            }
+        });
+        try {
+            Tournament tournament = new Tournament(
+                List.of(createSpec("Alice")), List.of(ScriptFactory.AGGRESSIVE, "faulty"), 50, 20);
+            ScriptGuard guard = new ScriptGuard(Duration.ofSeconds(1));
+            tournament.setScriptGuard(guard);
+            
+            TournamentResult result = tournament.run(2);
+            
+            assertEquals(50, result.getTotalBattles());
+            assertTrue(guard.getFaults("Faulty").isTripped());
+            assertTrue(guard.getFaults("Faulty").getExceptions() >= guard.getMaxFaults());
+            assertEquals(0, guard.getFaults("Aggressive").getFaults());
+        } finally {
+            ScriptFactory.unregisterScript("faulty");
+        }
+    }
+}